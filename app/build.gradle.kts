@@ -43,6 +43,34 @@ val orderListAction = (project.findProperty("ORDER_LIST_ACTION") as? String)
     ?.takeIf { it.isNotBlank() }
     ?: "list"
 
+val batchApiPath = (project.findProperty("BATCH_API_PATH") as? String)
+    ?.takeIf { it.isNotBlank() }
+    ?: ""
+
+val compressRequestBodies = (project.findProperty("COMPRESS_REQUEST_BODIES") as? String)
+    ?.toBooleanStrictOrNull()
+    ?: false
+
+val mapTileUrlTemplate = (project.findProperty("MAP_TILE_URL_TEMPLATE") as? String)
+    ?.takeIf { it.isNotBlank() }
+    ?: ""
+
+val deliveryAreaBounds = (project.findProperty("DELIVERY_AREA_BOUNDS") as? String)
+    ?.takeIf { it.isNotBlank() }
+    ?: "14.55,120.95,14.65,121.05"
+
+val locationUploadPath = (project.findProperty("LOCATION_UPLOAD_PATH") as? String)
+    ?.takeIf { it.isNotBlank() }
+    ?: ""
+
+val pushStreamPath = (project.findProperty("PUSH_STREAM_PATH") as? String)
+    ?.takeIf { it.isNotBlank() }
+    ?: ""
+
+val runBenchmarks = (project.findProperty("RUN_BENCHMARKS") as? String)
+    ?.toBooleanStrictOrNull()
+    ?: false
+
 fun String.toBuildConfigString(): String = this
     .replace("\\", "\\\\")
     .replace("\"", "\\\"")
@@ -69,6 +97,12 @@ android {
         buildConfigField("int", "DEFAULT_STAFF_USER_ID", defaultStaffUserId.toString())
         buildConfigField("String", "ORDER_LIST_PATH", "\"${orderListPath.toBuildConfigString()}\"")
         buildConfigField("String", "ORDER_LIST_ACTION", "\"${orderListAction.toBuildConfigString()}\"")
+        buildConfigField("String", "BATCH_API_PATH", "\"${batchApiPath.toBuildConfigString()}\"")
+        buildConfigField("boolean", "COMPRESS_REQUEST_BODIES", compressRequestBodies.toString())
+        buildConfigField("String", "MAP_TILE_URL_TEMPLATE", "\"${mapTileUrlTemplate.toBuildConfigString()}\"")
+        buildConfigField("String", "DELIVERY_AREA_BOUNDS", "\"${deliveryAreaBounds.toBuildConfigString()}\"")
+        buildConfigField("String", "LOCATION_UPLOAD_PATH", "\"${locationUploadPath.toBuildConfigString()}\"")
+        buildConfigField("String", "PUSH_STREAM_PATH", "\"${pushStreamPath.toBuildConfigString()}\"")
     }
 
     buildTypes {
@@ -87,6 +121,12 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests.all {
+            it.systemProperty("benchmarks", runBenchmarks.toString())
+            it.testLogging.showStandardStreams = runBenchmarks
+        }
+    }
 }
 
 dependencies {
@@ -95,9 +135,11 @@ dependencies {
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.lifecycle.runtime)
     implementation(platform(libs.firebase.bom))
     implementation(libs.firebase.auth)
     testImplementation(libs.junit)
+    testImplementation(libs.json)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
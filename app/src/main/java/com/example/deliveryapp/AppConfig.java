@@ -12,6 +12,10 @@ public final class AppConfig {
 
     private static final String BUILD_CONFIG_CLASS = "com.example.deliveryapp.BuildConfig";
 
+    // Looked up once; must stay above the fields below so it is initialized before they resolve.
+    @Nullable
+    private static final Class<?> BUILD_CONFIG = loadBuildConfig();
+
     public static final boolean DEBUG = resolveBoolean("DEBUG", false);
 
     public static final String API_BASE_URL = resolveString(
@@ -64,10 +68,48 @@ public final class AppConfig {
             "list"
     );
 
+    public static final String BATCH_API_PATH = resolveString(
+            "BATCH_API_PATH",
+            ""
+    );
+
+    public static final boolean COMPRESS_REQUEST_BODIES = resolveBoolean(
+            "COMPRESS_REQUEST_BODIES",
+            false
+    );
+
+    public static final String MAP_TILE_URL_TEMPLATE = resolveString(
+            "MAP_TILE_URL_TEMPLATE",
+            ""
+    );
+
+    public static final String DELIVERY_AREA_BOUNDS = resolveString(
+            "DELIVERY_AREA_BOUNDS",
+            "14.55,120.95,14.65,121.05"
+    );
+
+    public static final String LOCATION_UPLOAD_PATH = resolveString(
+            "LOCATION_UPLOAD_PATH",
+            ""
+    );
+
+    public static final String PUSH_STREAM_PATH = resolveString(
+            "PUSH_STREAM_PATH",
+            ""
+    );
+
     private AppConfig() {
         // Utility class
     }
 
+    /**
+     * Resolves every value now. The startup orchestrator calls this on a worker thread so the
+     * reflective lookups do not land on the main thread during the first screen.
+     */
+    public static void preload() {
+        // Calling any static method runs the class initializer.
+    }
+
     @NonNull
     private static String resolveString(@NonNull String fieldName, @NonNull String fallback) {
         Object value = resolveField(fieldName);
@@ -114,10 +156,21 @@ public final class AppConfig {
 
     @Nullable
     private static Object resolveField(@NonNull String fieldName) {
+        if (BUILD_CONFIG == null) {
+            return null;
+        }
+        try {
+            return BUILD_CONFIG.getField(fieldName).get(null);
+        } catch (NoSuchFieldException | IllegalAccessException ignored) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static Class<?> loadBuildConfig() {
         try {
-            Class<?> clazz = Class.forName(BUILD_CONFIG_CLASS);
-            return clazz.getField(fieldName).get(null);
-        } catch (ClassNotFoundException | NoSuchFieldException | IllegalAccessException ignored) {
+            return Class.forName(BUILD_CONFIG_CLASS);
+        } catch (ClassNotFoundException ignored) {
             return null;
         }
     }
@@ -0,0 +1,107 @@
+package com.example.deliveryapp;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks whether any of the app's activities is started so background work tied to the visible UI
+ * (such as connection pre-warming) can be cancelled once the rider leaves the app.
+ */
+public final class AppForegroundTracker implements Application.ActivityLifecycleCallbacks {
+
+    public interface Listener {
+        void onForegroundChanged(boolean inForeground);
+    }
+
+    private static final AppForegroundTracker INSTANCE = new AppForegroundTracker();
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private boolean installed;
+    private int startedActivities;
+
+    private AppForegroundTracker() {
+    }
+
+    @NonNull
+    public static AppForegroundTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts observing activity lifecycles. Called from {@link CindysApplication#onCreate()} so
+     * every activity is counted; safe to call more than once.
+     */
+    @MainThread
+    public void install(@NonNull Application application) {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        application.registerActivityLifecycleCallbacks(this);
+    }
+
+    @MainThread
+    public boolean isInForeground() {
+        return startedActivities > 0;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void onActivityStarted(@NonNull Activity activity) {
+        startedActivities++;
+        if (startedActivities == 1) {
+            notifyListeners(true);
+        }
+    }
+
+    @Override
+    public void onActivityStopped(@NonNull Activity activity) {
+        if (startedActivities == 0) {
+            return;
+        }
+        startedActivities--;
+        if (startedActivities == 0 && !activity.isChangingConfigurations()) {
+            notifyListeners(false);
+        }
+    }
+
+    @Override
+    public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(@NonNull Activity activity) {
+    }
+
+    private void notifyListeners(boolean inForeground) {
+        for (Listener listener : listeners) {
+            listener.onForegroundChanged(inForeground);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.deliveryapp;
+
+import android.app.Application;
+import android.text.TextUtils;
+
+import com.example.deliveryapp.history.HistoryStore;
+import com.example.deliveryapp.map.TilePrefetcher;
+import com.example.deliveryapp.network.OrderService;
+import com.example.deliveryapp.network.ServerConnectionManager;
+import com.example.deliveryapp.network.WarmUpPipeline;
+import com.example.deliveryapp.startup.StartupOrchestrator;
+import com.example.deliveryapp.startup.StartupOrchestrator.Mode;
+import com.example.deliveryapp.startup.StartupTracer;
+import com.example.deliveryapp.wallet.EarningsTracker;
+import com.google.firebase.auth.FirebaseUser;
+
+public class CindysApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StartupTracer.onProcessStart();
+
+        StartupOrchestrator.builder(this)
+                // Needed before the first activity's onStart so it is counted as foreground.
+                .add("foreground-tracker", Mode.MAIN,
+                        context -> AppForegroundTracker.getInstance().install(this))
+                .add("build-config", Mode.BACKGROUND, context -> AppConfig.preload())
+                .add("firebase", Mode.BACKGROUND, FirebaseSupport::ensureInitialized)
+                .add("network", Mode.BACKGROUND,
+                        context -> ServerConnectionManager.getInstance(),
+                        "build-config", "foreground-tracker")
+                // Must be in place before the first order list arrives; both open their files lazily.
+                .add("order-history", Mode.BACKGROUND, context -> {
+                    OrderService.addFinishedOrderSink(HistoryStore.getInstance(context));
+                    OrderService.addFinishedOrderSink(EarningsTracker.getInstance(context));
+                })
+                .add("session-warm-up", Mode.DEFERRED,
+                        context -> warmUpCachedSession(),
+                        "firebase", "network", "order-history")
+                // Downloads on its own low-priority thread; only the kick-off runs here.
+                .add("offline-map-tiles", Mode.DEFERRED,
+                        context -> TilePrefetcher.getInstance(context).start(),
+                        "build-config")
+                .build()
+                .start();
+    }
+
+    /**
+     * Starts prefetching the signed-in rider's data once the first screen is up, so the status
+     * screen can render from the warm-up results. Skipped when a restored session already did.
+     */
+    private void warmUpCachedSession() {
+        WarmUpPipeline pipeline = WarmUpPipeline.getInstance();
+        if (pipeline.hasRecentRun()) {
+            return;
+        }
+        FirebaseUser user = FirebaseSupport.getAuth(this).getCurrentUser();
+        if (user != null && !TextUtils.isEmpty(user.getEmail())) {
+            pipeline.start(
+                    user.getEmail(),
+                    getString(R.string.server_health_path),
+                    SessionSnapshotStore.getInstance(this).getCachedUserId(user.getEmail())
+            );
+        }
+    }
+}
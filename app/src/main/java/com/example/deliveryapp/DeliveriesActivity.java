@@ -5,18 +5,31 @@ import android.os.Bundle;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
+import android.widget.ScrollView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.deliveryapp.geocode.AddressGeocoder;
+import com.example.deliveryapp.image.ImageLoader;
+import com.example.deliveryapp.location.LocationFix;
+import com.example.deliveryapp.location.RiderLocationTracker;
 import com.example.deliveryapp.network.OrderInfo;
 import com.example.deliveryapp.network.OrderService;
+import com.example.deliveryapp.network.PushChannel;
 import com.example.deliveryapp.network.UserService;
-import com.google.firebase.auth.FirebaseAuth;
+import com.example.deliveryapp.network.WarmUpPipeline;
+import com.example.deliveryapp.route.GeoPoint;
+import com.example.deliveryapp.route.RoutePlan;
+import com.example.deliveryapp.route.RoutePlanner;
+import com.example.deliveryapp.route.RouteSequencer;
+import com.example.deliveryapp.startup.StartupTracer;
+import com.example.deliveryapp.wallet.Money;
 import com.google.firebase.auth.FirebaseUser;
 
 import java.text.NumberFormat;
@@ -24,22 +37,48 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 
 public class DeliveriesActivity extends BottomNavActivity {
 
+    /** Older positions would start the route where the rider no longer is. */
+    private static final long MAX_ROUTE_ORIGIN_AGE_MS = 10 * 60 * 1000L;
+
     private View refreshView;
     private ProgressBar deliveriesLoading;
     private TextView deliveriesMessage;
     private LinearLayout deliveriesListContainer;
+    private ScrollView deliveriesScroll;
+    private ImageLoader imageLoader;
+    private final List<ImageView> orderImageViews = new ArrayList<>();
+    private RoutePlanner routePlanner;
+    @Nullable
+    private RoutePlan routePlan;
 
     private final OrderService orderService = new OrderService();
     private final UserService userService = new UserService();
+    private final WarmUpPipeline.Listener warmUpListener = this::onWarmUpNodeCompleted;
+    private final PushChannel.Listener pushListener = new PushChannel.Listener() {
+        @Override
+        public void onOrdersChanged() {
+            WarmUpPipeline.getInstance().invalidate();
+            if (resolvedUserId != null && !isResolvingUserId && !isLoading) {
+                loadOrders(false, true);
+            }
+        }
+    };
     @Nullable
     private Integer resolvedUserId;
     private boolean isResolvingUserId;
     private boolean isLoading;
+    private boolean showingSnapshot;
+    /** The order list last rendered from the server, to recognise unchanged refreshes. */
+    @Nullable
+    private List<OrderInfo> renderedOrders;
+    private boolean started;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -47,17 +86,115 @@ public class DeliveriesActivity extends BottomNavActivity {
         setContentView(R.layout.activity_deliveries);
         setupBottomNavigation(R.id.menu_deliveries);
 
+        routePlanner = new RoutePlanner(new RouteSequencer(), AddressGeocoder.getInstance(this));
         initViews();
         showMessage(getString(R.string.deliveries_loading));
         showLoading(true);
-        resolveStaffIdentity(false);
+        renderSnapshot();
+
+        WarmUpPipeline pipeline = WarmUpPipeline.getInstance();
+        if (pipeline.claim(WarmUpPipeline.Node.ORDERS)) {
+            consumeWarmUp(pipeline);
+        } else {
+            resolveStaffIdentity(false);
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        started = true;
+        subscribeToPush();
+    }
+
+    @Override
+    protected void onStop() {
+        started = false;
+        PushChannel.getInstance().unsubscribe(pushListener);
+        super.onStop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        WarmUpPipeline.getInstance().removeListener(warmUpListener);
+        cancelImageLoads();
+        routePlanner.shutdown();
+        super.onDestroy();
+    }
+
+    /**
+     * Shows the deliveries saved by the previous session, if any, until the refresh completes.
+     */
+    private void renderSnapshot() {
+        List<OrderInfo> cached = SessionSnapshotStore.getInstance(this).getOrders(getRiderEmail());
+        if (cached.isEmpty()) {
+            return;
+        }
+        showingSnapshot = true;
+        hideMessage();
+        renderOrders(cached);
+        StartupTracer.markUsableData(this);
+    }
+
+    @Nullable
+    private String getRiderEmail() {
+        FirebaseUser firebaseUser = FirebaseSupport.getAuth(this).getCurrentUser();
+        return firebaseUser != null ? firebaseUser.getEmail() : null;
+    }
+
+    private void rememberUserId(int userId) {
+        resolvedUserId = userId;
+        SessionSnapshotStore.getInstance(this).saveUserId(getRiderEmail(), userId);
+    }
+
+    /**
+     * Uses the staff ID and orders prefetched by the login warm-up instead of looking them up
+     * again.
+     */
+    private void consumeWarmUp(@NonNull WarmUpPipeline pipeline) {
+        isResolvingUserId = pipeline.getResult(WarmUpPipeline.Node.USER_ID) == null;
+        isLoading = pipeline.getResult(WarmUpPipeline.Node.ORDERS) == null;
+        if (isResolvingUserId) {
+            showMessage(getString(R.string.deliveries_resolving_user_id));
+        }
+        pipeline.addListener(warmUpListener);
+    }
+
+    private void onWarmUpNodeCompleted(@NonNull WarmUpPipeline.Node node, @NonNull WarmUpPipeline.NodeResult result) {
+        String errorMessage = result.getErrorMessage() != null ? result.getErrorMessage() : "";
+        if (node == WarmUpPipeline.Node.USER_ID) {
+            isResolvingUserId = false;
+            if (result.isSuccessful()) {
+                rememberUserId(result.getUserId());
+                if (isLoading) {
+                    showMessage(getString(R.string.deliveries_loading));
+                }
+            } else {
+                onUserIdFailed(errorMessage, false);
+            }
+        } else if (node == WarmUpPipeline.Node.ORDERS && !result.isSkipped()) {
+            isLoading = false;
+            showLoading(false);
+            if (result.isSuccessful()) {
+                onOrdersLoaded(result.getOrders(), result.getServerMessage(), false);
+            } else {
+                onOrdersFailed(errorMessage, false);
+            }
+        }
     }
 
     private void initViews() {
         deliveriesLoading = findViewById(R.id.deliveriesLoading);
         deliveriesMessage = findViewById(R.id.deliveriesMessage);
         deliveriesListContainer = findViewById(R.id.deliveriesListContainer);
+        deliveriesScroll = findViewById(R.id.deliveriesScroll);
         refreshView = findViewById(R.id.deliveriesRefresh);
+        imageLoader = ImageLoader.getInstance(this);
+
+        if (deliveriesScroll != null) {
+            deliveriesScroll.setOnScrollChangeListener(
+                    (view, scrollX, scrollY, oldScrollX, oldScrollY) -> updateImageWindow());
+        }
 
         if (refreshView != null) {
             refreshView.setOnClickListener(v -> {
@@ -97,7 +234,7 @@ public class DeliveriesActivity extends BottomNavActivity {
             return;
         }
 
-        FirebaseUser firebaseUser = FirebaseAuth.getInstance().getCurrentUser();
+        FirebaseUser firebaseUser = FirebaseSupport.getAuth(this).getCurrentUser();
         if (firebaseUser == null || TextUtils.isEmpty(firebaseUser.getEmail())) {
             showLoading(false);
             showMessage(getString(R.string.deliveries_missing_user));
@@ -107,36 +244,64 @@ public class DeliveriesActivity extends BottomNavActivity {
             return;
         }
 
+        String email = firebaseUser.getEmail();
+        int cachedUserId = SessionSnapshotStore.getInstance(this).getCachedUserId(email);
+        if (cachedUserId > 0) {
+            resolvedUserId = cachedUserId;
+            loadOrders(userRequestedRefresh);
+            return;
+        }
+
         isResolvingUserId = true;
         showLoading(true);
         showMessage(getString(R.string.deliveries_resolving_user_id));
 
-        String email = firebaseUser.getEmail();
         userService.fetchUserIdByEmail(email, new UserService.UserIdCallback() {
             @Override
             public void onSuccess(int userId) {
                 isResolvingUserId = false;
-                resolvedUserId = userId;
+                rememberUserId(userId);
                 loadOrders(userRequestedRefresh);
             }
 
             @Override
             public void onError(@NonNull String errorMessage) {
                 isResolvingUserId = false;
-                resolvedUserId = null;
-                showLoading(false);
-                String message = !TextUtils.isEmpty(errorMessage)
-                        ? errorMessage
-                        : getString(R.string.deliveries_error);
-                showMessage(message);
-                if (userRequestedRefresh) {
-                    showToast(message);
-                }
+                onUserIdFailed(errorMessage, userRequestedRefresh);
             }
-        });
+        }).bindTo(this);
+    }
+
+    private void onUserIdFailed(@NonNull String errorMessage, boolean userRequestedRefresh) {
+        resolvedUserId = null;
+        showLoading(false);
+        String message = !TextUtils.isEmpty(errorMessage)
+                ? errorMessage
+                : getString(R.string.deliveries_error);
+        showMessage(message);
+        if (userRequestedRefresh) {
+            showToast(message);
+        }
+    }
+
+    /**
+     * Listens for order changes pushed by the server once the staff ID is known.
+     */
+    private void subscribeToPush() {
+        if (started && resolvedUserId != null) {
+            PushChannel.getInstance().subscribe(resolvedUserId, pushListener);
+        }
     }
 
     private void loadOrders(boolean userRequestedRefresh) {
+        loadOrders(userRequestedRefresh, false);
+    }
+
+    /**
+     * @param quiet refresh behind the list on screen, without the loading state or error
+     *              messages, as when the server reports a change
+     */
+    private void loadOrders(boolean userRequestedRefresh, boolean quiet) {
         if (resolvedUserId == null) {
             resolveStaffIdentity(userRequestedRefresh);
             return;
@@ -150,24 +315,31 @@ public class DeliveriesActivity extends BottomNavActivity {
         }
 
         isLoading = true;
-        showLoading(true);
-        showMessage(getString(R.string.deliveries_loading));
+        if (!quiet) {
+            showLoading(true);
+            showMessage(getString(R.string.deliveries_loading));
+        }
 
         orderService.fetchUnfinishedOrders(resolvedUserId, new OrderService.OrderFetchCallback() {
             @Override
             public void onSuccess(@NonNull List<OrderInfo> orders, @Nullable String serverMessage) {
                 isLoading = false;
                 showLoading(false);
-                if (orders.isEmpty()) {
-                    String message = !TextUtils.isEmpty(serverMessage)
-                            ? serverMessage
-                            : getString(R.string.deliveries_empty);
-                    showMessage(message);
-                } else {
-                    hideMessage();
-                    renderOrders(orders);
-                    if (!TextUtils.isEmpty(serverMessage) && userRequestedRefresh) {
-                        showToast(serverMessage);
+                onOrdersLoaded(orders, serverMessage, userRequestedRefresh);
+            }
+
+            @Override
+            public void onUnchanged(@NonNull List<OrderInfo> orders, @Nullable String serverMessage) {
+                isLoading = false;
+                showLoading(false);
+                if (orders != renderedOrders) {
+                    onOrdersLoaded(orders, serverMessage, userRequestedRefresh);
+                } else if (!quiet) {
+                    // The list on screen is current; only take down the loading message.
+                    if (orders.isEmpty()) {
+                        showMessage(!TextUtils.isEmpty(serverMessage) ? serverMessage : getString(R.string.deliveries_empty));
+                    } else {
+                        hideMessage();
                     }
                 }
             }
@@ -176,19 +348,95 @@ public class DeliveriesActivity extends BottomNavActivity {
             public void onError(@NonNull String errorMessage) {
                 isLoading = false;
                 showLoading(false);
-                String message = !TextUtils.isEmpty(errorMessage)
-                        ? errorMessage
-                        : getString(R.string.deliveries_error);
-                showMessage(message);
-                if (userRequestedRefresh) {
-                    showToast(message);
+                if (!quiet) {
+                    onOrdersFailed(errorMessage, userRequestedRefresh);
                 }
             }
+        }).bindTo(this);
+    }
+
+    private void onOrdersLoaded(@NonNull List<OrderInfo> orders, @Nullable String serverMessage, boolean userRequestedRefresh) {
+        showingSnapshot = false;
+        renderedOrders = orders;
+        subscribeToPush();
+        SessionSnapshotStore.getInstance(this).saveOrders(getRiderEmail(), orders);
+        if (orders.isEmpty()) {
+            routePlanner.clear();
+            routePlan = null;
+            cancelImageLoads();
+            deliveriesListContainer.removeAllViews();
+            String message = !TextUtils.isEmpty(serverMessage)
+                    ? serverMessage
+                    : getString(R.string.deliveries_empty);
+            showMessage(message);
+        } else {
+            hideMessage();
+            renderOrders(sequence(orders, routePlan));
+            planRoute(orders);
+            if (!TextUtils.isEmpty(serverMessage) && userRequestedRefresh) {
+                showToast(serverMessage);
+            }
+        }
+        StartupTracer.markUsableData(this);
+    }
+
+    private void onOrdersFailed(@NonNull String errorMessage, boolean userRequestedRefresh) {
+        String message = !TextUtils.isEmpty(errorMessage)
+                ? errorMessage
+                : getString(R.string.deliveries_error);
+        showMessage(message);
+        if (userRequestedRefresh) {
+            showToast(message);
+        }
+    }
+
+    /**
+     * Sequences the orders that have drop-off coordinates off the UI thread, starting from the
+     * rider's last known position. The list, already rendered in the previous plan's order, is
+     * only rendered again when the new plan moves a stop.
+     */
+    private void planRoute(@NonNull List<OrderInfo> orders) {
+        LocationFix lastFix = RiderLocationTracker.getInstance(this).getLastFix(MAX_ROUTE_ORIGIN_AGE_MS);
+        GeoPoint riderPosition = lastFix != null ? lastFix.toGeoPoint() : null;
+        routePlanner.update(riderPosition, orders, plan -> {
+            RoutePlan previous = routePlan;
+            routePlan = plan;
+            if (movesAnyStop(previous, plan, orders)) {
+                renderOrders(sequence(orders, plan));
+            }
         });
     }
 
+    /**
+     * Returns {@code orders} in visiting order. Orders without a stop keep their server order at
+     * the end.
+     */
+    @NonNull
+    private static List<OrderInfo> sequence(@NonNull List<OrderInfo> orders, @Nullable RoutePlan plan) {
+        if (plan == null || plan.size() == 0) {
+            return orders;
+        }
+        List<OrderInfo> sequenced = new ArrayList<>(orders);
+        Collections.sort(sequenced, Comparator.comparingInt(order -> {
+            int index = plan.indexOf(order.getOrderId());
+            return index >= 0 ? index : Integer.MAX_VALUE;
+        }));
+        return sequenced;
+    }
+
+    private static boolean movesAnyStop(@Nullable RoutePlan previous, @NonNull RoutePlan next, @NonNull List<OrderInfo> orders) {
+        for (OrderInfo order : orders) {
+            int previousIndex = previous != null ? previous.indexOf(order.getOrderId()) : -1;
+            if (previousIndex != next.indexOf(order.getOrderId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void renderOrders(@NonNull List<OrderInfo> orders) {
         LayoutInflater inflater = LayoutInflater.from(this);
+        cancelImageLoads();
         deliveriesListContainer.removeAllViews();
 
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.getDefault());
@@ -201,6 +449,7 @@ public class DeliveriesActivity extends BottomNavActivity {
             TextView orderAddress = itemView.findViewById(R.id.orderAddress);
             TextView orderMeta = itemView.findViewById(R.id.orderMeta);
             TextView orderTotal = itemView.findViewById(R.id.orderTotal);
+            ImageView orderImage = itemView.findViewById(R.id.orderImage);
 
             orderNumber.setText(getString(R.string.deliveries_order_number, order.getOrderId()));
 
@@ -231,18 +480,77 @@ public class DeliveriesActivity extends BottomNavActivity {
             }
             orderMeta.setText(meta);
 
-            double totalAmount = Math.max(order.getTotalAmount(), 0.0);
-            String formattedTotal = currencyFormat.format(totalAmount);
+            String formattedTotal = Money.format(Math.max(order.getTotalMinorUnits(), 0L), currencyFormat);
             orderTotal.setText(getString(R.string.deliveries_order_total, formattedTotal));
 
+            // Images are bound lazily by updateImageWindow() once the row's position is known.
+            if (orderImage != null && !TextUtils.isEmpty(order.getImageUrl())) {
+                orderImage.setTag(order.getImageUrl());
+                orderImage.setVisibility(View.VISIBLE);
+                orderImageViews.add(orderImage);
+            }
+
             deliveriesListContainer.addView(itemView);
         }
         deliveriesListContainer.setVisibility(View.VISIBLE);
+        deliveriesListContainer.post(this::updateImageWindow);
+    }
+
+    /**
+     * Loads images for rows on screen, prefetches those within one screen height of the viewport
+     * and cancels pending loads for rows further away.
+     */
+    private void updateImageWindow() {
+        if (deliveriesScroll == null || orderImageViews.isEmpty()) {
+            return;
+        }
+        int viewportHeight = deliveriesScroll.getHeight();
+        int visibleTop = deliveriesScroll.getScrollY();
+        int visibleBottom = visibleTop + viewportHeight;
+        int prefetchTop = visibleTop - viewportHeight;
+        int prefetchBottom = visibleBottom + viewportHeight;
+
+        for (ImageView imageView : orderImageViews) {
+            String url = (String) imageView.getTag();
+            int top = offsetInScrollContent(imageView);
+            int bottom = top + imageView.getHeight();
+            if (bottom >= visibleTop && top <= visibleBottom) {
+                imageLoader.load(imageView, url);
+            } else if (bottom >= prefetchTop && top <= prefetchBottom) {
+                // Prefetch first so a pending on-screen load for the row is kept and merely demoted.
+                imageLoader.prefetch(url, imageView.getWidth(), imageView.getHeight());
+                imageLoader.cancel(imageView);
+            } else {
+                imageLoader.cancel(imageView);
+                imageLoader.cancelPrefetch(url, imageView.getWidth(), imageView.getHeight());
+            }
+        }
+    }
+
+    private int offsetInScrollContent(@NonNull View view) {
+        int offset = 0;
+        View current = view;
+        while (current != null && current != deliveriesScroll) {
+            offset += current.getTop();
+            current = current.getParent() instanceof View ? (View) current.getParent() : null;
+        }
+        return offset;
+    }
+
+    private void cancelImageLoads() {
+        for (ImageView imageView : orderImageViews) {
+            imageLoader.cancel(imageView);
+        }
+        orderImageViews.clear();
     }
 
     @NonNull
     private String buildMetaLine(@NonNull OrderInfo order) {
         List<String> parts = new ArrayList<>();
+        int stopIndex = routePlan != null ? routePlan.indexOf(order.getOrderId()) : -1;
+        if (stopIndex >= 0) {
+            parts.add(getString(R.string.deliveries_route_stop, stopIndex + 1));
+        }
         if (!TextUtils.isEmpty(order.getFulfillmentType())) {
             parts.add(order.getFulfillmentType());
         }
@@ -280,7 +588,7 @@ public class DeliveriesActivity extends BottomNavActivity {
         if (deliveriesLoading != null) {
             deliveriesLoading.setVisibility(show ? View.VISIBLE : View.GONE);
         }
-        if (show) {
+        if (show && !showingSnapshot) {
             deliveriesListContainer.setVisibility(View.GONE);
         }
     }
@@ -290,7 +598,9 @@ public class DeliveriesActivity extends BottomNavActivity {
             deliveriesMessage.setText(message);
             deliveriesMessage.setVisibility(View.VISIBLE);
         }
-        deliveriesListContainer.setVisibility(View.GONE);
+        if (!showingSnapshot) {
+            deliveriesListContainer.setVisibility(View.GONE);
+        }
     }
 
     private void hideMessage() {
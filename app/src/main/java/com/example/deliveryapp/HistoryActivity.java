@@ -1,15 +1,305 @@
 package com.example.deliveryapp;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextUtils;
+import android.text.TextWatcher;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.Spinner;
+import android.widget.TextView;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.deliveryapp.history.HistoryPage;
+import com.example.deliveryapp.history.HistoryQuery;
+import com.example.deliveryapp.history.HistoryStore;
+import com.example.deliveryapp.history.OrderDates;
+import com.example.deliveryapp.network.OrderInfo;
+import com.example.deliveryapp.wallet.Money;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lists the rider's past deliveries from the local {@link HistoryStore}, newest first, filtered
+ * by date range, status and search text. Further pages load as the list is scrolled near its end.
+ */
 public class HistoryActivity extends BottomNavActivity {
 
+    private static final String TAG = "HistoryActivity";
+    private static final long FILTER_DEBOUNCE_MS = 250;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable reloadRunnable = this::reload;
+    private final TextWatcher filterWatcher = new TextWatcher() {
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        }
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {
+            mainHandler.removeCallbacks(reloadRunnable);
+            mainHandler.postDelayed(reloadRunnable, FILTER_DEBOUNCE_MS);
+        }
+    };
+    private final AdapterView.OnItemSelectedListener statusListener = new AdapterView.OnItemSelectedListener() {
+        @Override
+        public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+            // Position 0 is "All statuses".
+            String status = position > 0 ? statusAdapter.getItem(position) : null;
+            if (!Objects.equals(status, selectedStatus)) {
+                selectedStatus = status;
+                reload();
+            }
+        }
+
+        @Override
+        public void onNothingSelected(AdapterView<?> parent) {
+        }
+    };
+
+    private EditText fromDateInput;
+    private EditText toDateInput;
+    private EditText searchInput;
+    private Spinner statusSpinner;
+    private ArrayAdapter<String> statusAdapter;
+    private TextView totalOrdersView;
+    private TextView totalCollectionsView;
+    private ScrollView historyScroll;
+    private LinearLayout historyList;
+    private TextView emptyView;
+
+    private HistoryStore historyStore;
+    private int userId;
+    @Nullable
+    private String selectedStatus;
+    // Incremented on every reload so results of superseded queries are ignored.
+    private int generation;
+    @Nullable
+    private HistoryQuery nextQuery;
+    private boolean isLoadingPage;
+    @Nullable
+    private String lastHeaderDay;
+    private int shownOrders;
+
+    private final DateFormat dayFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
+    private final DateFormat timeFormat = new SimpleDateFormat("h:mm a", Locale.getDefault());
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.getDefault());
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activityhistory);
         setupBottomNavigation(R.id.menu_history);
+
+        fromDateInput = findViewById(R.id.etFromDate);
+        toDateInput = findViewById(R.id.etToDate);
+        searchInput = findViewById(R.id.etSearch);
+        statusSpinner = findViewById(R.id.spinnerStatus);
+        totalOrdersView = findViewById(R.id.tvTotalOrders);
+        totalCollectionsView = findViewById(R.id.tvTotalCollections);
+        historyScroll = findViewById(R.id.scrollHistory);
+        historyList = findViewById(R.id.orderHistoryList);
+        emptyView = findViewById(R.id.tvHistoryEmpty);
+
+        historyStore = HistoryStore.getInstance(this);
+        userId = resolveUserId();
+
+        fromDateInput.addTextChangedListener(filterWatcher);
+        toDateInput.addTextChangedListener(filterWatcher);
+        searchInput.addTextChangedListener(filterWatcher);
+        statusAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, new ArrayList<>());
+        statusAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        statusAdapter.add(getString(R.string.history_status_all));
+        statusSpinner.setAdapter(statusAdapter);
+        statusSpinner.setOnItemSelectedListener(statusListener);
+        historyScroll.setOnScrollChangeListener((view, scrollX, scrollY, oldScrollX, oldScrollY) -> maybeLoadNextPage());
+
+        reload();
+        loadStatuses();
+    }
+
+    @Override
+    protected void onDestroy() {
+        mainHandler.removeCallbacks(reloadRunnable);
+        super.onDestroy();
+    }
+
+    private int resolveUserId() {
+        FirebaseUser user = FirebaseSupport.getAuth(this).getCurrentUser();
+        int cached = SessionSnapshotStore.getInstance(this).getCachedUserId(user != null ? user.getEmail() : null);
+        if (cached > 0) {
+            return cached;
+        }
+        return Math.max(AppConfig.DEFAULT_STAFF_USER_ID, 0);
+    }
+
+    private void loadStatuses() {
+        if (userId <= 0) {
+            return;
+        }
+        historyStore.statuses(userId, statuses -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            statusAdapter.setNotifyOnChange(false);
+            statusAdapter.clear();
+            statusAdapter.add(getString(R.string.history_status_all));
+            statusAdapter.addAll(statuses);
+            statusAdapter.notifyDataSetChanged();
+            int position = selectedStatus != null ? statusAdapter.getPosition(selectedStatus) : 0;
+            statusSpinner.setSelection(Math.max(position, 0));
+        });
+    }
+
+    private void reload() {
+        generation++;
+        nextQuery = null;
+        isLoadingPage = false;
+        lastHeaderDay = null;
+        shownOrders = 0;
+        if (historyList.getChildCount() > 1) {
+            // The empty view is the list's first child and stays.
+            historyList.removeViews(1, historyList.getChildCount() - 1);
+        }
+        historyScroll.scrollTo(0, 0);
+
+        if (userId <= 0) {
+            showSummary(0, 0L);
+            emptyView.setText(R.string.history_missing_user);
+            emptyView.setVisibility(View.VISIBLE);
+            return;
+        }
+        emptyView.setText(R.string.history_empty);
+
+        HistoryQuery query = buildQuery();
+        int requestGeneration = generation;
+        historyStore.summarize(query, summary -> {
+            if (requestGeneration == generation) {
+                showSummary(summary.getOrderCount(), summary.getTotalMinorUnits());
+            }
+        });
+        loadPage(query);
+    }
+
+    @NonNull
+    private HistoryQuery buildQuery() {
+        TimeZone zone = TimeZone.getDefault();
+        long from = OrderDates.parse(fromDateInput.getText().toString(), zone);
+        long to = OrderDates.parse(toDateInput.getText().toString(), zone);
+        return HistoryQuery.builder(userId)
+                .range(
+                        from != OrderDates.UNKNOWN ? from : Long.MIN_VALUE,
+                        // The "to" date is inclusive.
+                        to != OrderDates.UNKNOWN ? to + TimeUnit.DAYS.toMillis(1) : Long.MAX_VALUE
+                )
+                .status(selectedStatus)
+                .search(searchInput.getText().toString())
+                .build();
+    }
+
+    private void loadPage(@NonNull HistoryQuery query) {
+        isLoadingPage = true;
+        int requestGeneration = generation;
+        historyStore.query(query, page -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            isLoadingPage = false;
+            nextQuery = page.getNextQuery();
+            Log.d(TAG, "Loaded " + page.getOrders().size() + " orders in "
+                    + TimeUnit.NANOSECONDS.toMicros(page.getQueryNanos()) + " µs");
+            appendPage(page);
+            // A short first page may not fill the screen, so no scroll would ever ask for more.
+            historyScroll.post(this::maybeLoadNextPage);
+        });
+    }
+
+    private void maybeLoadNextPage() {
+        if (isLoadingPage || nextQuery == null) {
+            return;
+        }
+        int remaining = historyList.getBottom() - (historyScroll.getScrollY() + historyScroll.getHeight());
+        if (remaining < historyScroll.getHeight()) {
+            loadPage(nextQuery);
+        }
+    }
+
+    private void appendPage(@NonNull HistoryPage page) {
+        LayoutInflater inflater = LayoutInflater.from(this);
+        List<OrderInfo> orders = page.getOrders();
+        for (int i = 0; i < orders.size(); i++) {
+            OrderInfo order = orders.get(i);
+            Date orderedAt = new Date(page.getOrderedAtMillis(i));
+            String day = dayFormat.format(orderedAt);
+            if (!day.equals(lastHeaderDay)) {
+                TextView header = (TextView) inflater.inflate(R.layout.item_history_date_header, historyList, false);
+                header.setText(day);
+                historyList.addView(header);
+                lastHeaderDay = day;
+            }
+
+            View itemView = inflater.inflate(R.layout.item_history_order, historyList, false);
+            TextView numberView = itemView.findViewById(R.id.historyOrderNumber);
+            TextView metaView = itemView.findViewById(R.id.historyOrderMeta);
+            TextView detailsView = itemView.findViewById(R.id.historyOrderDetails);
+
+            if (TextUtils.isEmpty(order.getStatus())) {
+                numberView.setText(getString(R.string.history_order_number, order.getOrderId()));
+            } else {
+                numberView.setText(getString(R.string.history_order_number_status, order.getOrderId(), order.getStatus()));
+            }
+            metaView.setText(getString(
+                    R.string.history_order_meta,
+                    day,
+                    timeFormat.format(orderedAt),
+                    Math.max(order.getItemCount(), 0),
+                    Money.format(Math.max(order.getTotalMinorUnits(), 0L), currencyFormat)
+            ));
+
+            List<String> details = new ArrayList<>();
+            if (!TextUtils.isEmpty(order.getItemSummary())) {
+                details.add(order.getItemSummary());
+            }
+            if (!TextUtils.isEmpty(order.getDeliveryAddress())) {
+                details.add(order.getDeliveryAddress());
+            }
+            if (!details.isEmpty()) {
+                detailsView.setText(TextUtils.join(" · ", details));
+                detailsView.setVisibility(View.VISIBLE);
+            }
+
+            historyList.addView(itemView);
+        }
+        shownOrders += orders.size();
+        emptyView.setVisibility(shownOrders == 0 ? View.VISIBLE : View.GONE);
+    }
+
+    private void showSummary(int orderCount, long totalMinorUnits) {
+        totalOrdersView.setText(String.valueOf(orderCount));
+        totalCollectionsView.setText(Money.format(totalMinorUnits, currencyFormat));
     }
 }
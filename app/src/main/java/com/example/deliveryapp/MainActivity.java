@@ -1,20 +1,32 @@
 package com.example.deliveryapp;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.widget.Button;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.deliveryapp.R;
+import com.example.deliveryapp.network.ServerConnectionManager;
+import com.example.deliveryapp.network.WarmUpPipeline;
+import com.example.deliveryapp.startup.StartupOrchestrator;
+import com.example.deliveryapp.startup.StartupTracer;
+import com.google.firebase.auth.FirebaseUser;
 
 public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        restoreSession();
+    }
+
+    private void showWelcome() {
         setContentView(R.layout.activity_main);
+        StartupTracer.observeFirstFrame(this);
 
         Button startButton = findViewById(R.id.btnStart);
         if (startButton != null) {
@@ -24,4 +36,46 @@ public class MainActivity extends AppCompatActivity {
             });
         }
     }
+
+    /**
+     * Sends a rider whose Firebase session is still valid straight to the status screen, which
+     * renders the last snapshot while the warm-up pipeline refreshes it. Reading the persisted
+     * session may initialize Firebase and touch disk, so it runs on a startup worker; the window
+     * shows its theme background until the result is posted back.
+     */
+    private void restoreSession() {
+        Context appContext = getApplicationContext();
+        StartupOrchestrator.execute(() -> {
+            FirebaseUser user = FirebaseSupport.getAuth(appContext).getCurrentUser();
+            String email = user != null ? user.getEmail() : null;
+            int cachedUserId = !TextUtils.isEmpty(email)
+                    ? SessionSnapshotStore.getInstance(appContext).getCachedUserId(email)
+                    : -1;
+            runOnUiThread(() -> onSessionResolved(email, cachedUserId));
+        });
+    }
+
+    private void onSessionResolved(@Nullable String email, int cachedUserId) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        if (TextUtils.isEmpty(email)) {
+            showWelcome();
+            return;
+        }
+
+        WarmUpPipeline pipeline = WarmUpPipeline.getInstance();
+        if (!pipeline.hasRecentRun()) {
+            pipeline.start(email, getString(R.string.server_health_path), cachedUserId);
+        }
+        startActivity(new Intent(this, StatusActivity.class));
+        finish();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // The rider is still reading the welcome screen; use the idle time to set up the API connection.
+        ServerConnectionManager.getInstance().preconnect();
+    }
 }
@@ -4,6 +4,8 @@ import android.os.Bundle;
 
 import androidx.annotation.Nullable;
 
+import com.example.deliveryapp.map.TilePrefetcher;
+
 public class MapActivity extends BottomNavActivity {
 
     @Override
@@ -11,5 +13,7 @@ public class MapActivity extends BottomNavActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_customer_map);
         setupBottomNavigation(R.id.menu_map);
+        // Normally already done at startup; covers a pack that was postponed or failed then.
+        TilePrefetcher.getInstance(this).start();
     }
 }
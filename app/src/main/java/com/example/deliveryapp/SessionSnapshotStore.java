@@ -0,0 +1,271 @@
+package com.example.deliveryapp;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.network.OrderInfo;
+import com.example.deliveryapp.network.ShiftInfo;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the last staff ID, shifts and deliveries loaded for the signed-in rider so a restored
+ * session can render them immediately on cold start while fresh data loads in the background.
+ * Snapshots belong to one email address and are ignored for any other account or once they are
+ * older than {@link #MAX_AGE_MS}.
+ */
+public final class SessionSnapshotStore {
+
+    private static final String TAG = "SessionSnapshotStore";
+    private static final String PREFS_NAME = "session_snapshot";
+    private static final String KEY_EMAIL = "email";
+    private static final String KEY_USER_ID = "user_id";
+    private static final String KEY_SHIFTS = "shifts";
+    private static final String KEY_SHIFTS_SAVED_AT = "shifts_saved_at";
+    private static final String KEY_ORDERS = "orders";
+    private static final String KEY_ORDERS_SAVED_AT = "orders_saved_at";
+
+    /** Snapshots older than this are not shown; a rider's schedule rarely carries over further. */
+    public static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(3);
+
+    private static volatile SessionSnapshotStore instance;
+
+    private final SharedPreferences preferences;
+
+    private SessionSnapshotStore(@NonNull Context context) {
+        preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @NonNull
+    public static SessionSnapshotStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (SessionSnapshotStore.class) {
+                if (instance == null) {
+                    instance = new SessionSnapshotStore(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the staff ID last resolved for {@code email}, or {@code -1} when unknown.
+     */
+    public int getCachedUserId(@Nullable String email) {
+        if (!belongsTo(email)) {
+            return -1;
+        }
+        return preferences.getInt(KEY_USER_ID, -1);
+    }
+
+    @NonNull
+    public List<ShiftInfo> getShifts(@Nullable String email) {
+        if (!belongsTo(email) || isExpired(KEY_SHIFTS_SAVED_AT)) {
+            return Collections.emptyList();
+        }
+        String stored = preferences.getString(KEY_SHIFTS, null);
+        if (stored == null) {
+            return Collections.emptyList();
+        }
+        try {
+            JSONArray array = new JSONArray(stored);
+            List<ShiftInfo> shifts = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                shifts.add(readShift(array.getJSONObject(i)));
+            }
+            return shifts;
+        } catch (JSONException e) {
+            Log.w(TAG, "Discarding unreadable shift snapshot", e);
+            return Collections.emptyList();
+        }
+    }
+
+    @NonNull
+    public List<OrderInfo> getOrders(@Nullable String email) {
+        if (!belongsTo(email) || isExpired(KEY_ORDERS_SAVED_AT)) {
+            return Collections.emptyList();
+        }
+        String stored = preferences.getString(KEY_ORDERS, null);
+        if (stored == null) {
+            return Collections.emptyList();
+        }
+        try {
+            JSONArray array = new JSONArray(stored);
+            List<OrderInfo> orders = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                orders.add(readOrder(array.getJSONObject(i)));
+            }
+            return orders;
+        } catch (JSONException e) {
+            Log.w(TAG, "Discarding unreadable order snapshot", e);
+            return Collections.emptyList();
+        }
+    }
+
+    @MainThread
+    public void saveUserId(@Nullable String email, int userId) {
+        if (TextUtils.isEmpty(email) || userId <= 0) {
+            return;
+        }
+        editorFor(email).putInt(KEY_USER_ID, userId).apply();
+    }
+
+    @MainThread
+    public void saveShifts(@Nullable String email, @NonNull List<ShiftInfo> shifts) {
+        if (TextUtils.isEmpty(email)) {
+            return;
+        }
+        try {
+            JSONArray array = new JSONArray();
+            for (ShiftInfo shift : shifts) {
+                array.put(writeShift(shift));
+            }
+            editorFor(email)
+                    .putString(KEY_SHIFTS, array.toString())
+                    .putLong(KEY_SHIFTS_SAVED_AT, System.currentTimeMillis())
+                    .apply();
+        } catch (JSONException e) {
+            Log.w(TAG, "Unable to store shift snapshot", e);
+        }
+    }
+
+    @MainThread
+    public void saveOrders(@Nullable String email, @NonNull List<OrderInfo> orders) {
+        if (TextUtils.isEmpty(email)) {
+            return;
+        }
+        try {
+            JSONArray array = new JSONArray();
+            for (OrderInfo order : orders) {
+                array.put(writeOrder(order));
+            }
+            editorFor(email)
+                    .putString(KEY_ORDERS, array.toString())
+                    .putLong(KEY_ORDERS_SAVED_AT, System.currentTimeMillis())
+                    .apply();
+        } catch (JSONException e) {
+            Log.w(TAG, "Unable to store order snapshot", e);
+        }
+    }
+
+    public void clear() {
+        preferences.edit().clear().apply();
+    }
+
+    /**
+     * Returns an editor for {@code email}'s snapshot, wiping whatever another account left behind.
+     */
+    @NonNull
+    private SharedPreferences.Editor editorFor(@NonNull String email) {
+        SharedPreferences.Editor editor = preferences.edit();
+        String normalized = normalize(email);
+        if (!normalized.equals(preferences.getString(KEY_EMAIL, null))) {
+            editor.clear().putString(KEY_EMAIL, normalized);
+        }
+        return editor;
+    }
+
+    private boolean belongsTo(@Nullable String email) {
+        return !TextUtils.isEmpty(email) && normalize(email).equals(preferences.getString(KEY_EMAIL, null));
+    }
+
+    private boolean isExpired(@NonNull String savedAtKey) {
+        long savedAt = preferences.getLong(savedAtKey, 0L);
+        long age = System.currentTimeMillis() - savedAt;
+        return savedAt <= 0 || age < 0 || age > MAX_AGE_MS;
+    }
+
+    @NonNull
+    private static String normalize(@NonNull String email) {
+        return email.trim().toLowerCase(Locale.US);
+    }
+
+    @NonNull
+    private static JSONObject writeShift(@NonNull ShiftInfo shift) throws JSONException {
+        return new JSONObject()
+                .put("id", shift.getId())
+                .put("user_id", shift.getUserId())
+                .putOpt("staff_name", shift.getStaffName())
+                .putOpt("shift_date", shift.getShiftDate())
+                .putOpt("scheduled_start", shift.getScheduledStart())
+                .putOpt("scheduled_end", shift.getScheduledEnd())
+                .putOpt("actual_start", shift.getActualStart())
+                .putOpt("actual_end", shift.getActualEnd())
+                .putOpt("status", shift.getStatus())
+                .putOpt("notes", shift.getNotes())
+                .putOpt("location", shift.getLocation());
+    }
+
+    @NonNull
+    private static ShiftInfo readShift(@NonNull JSONObject object) {
+        return new ShiftInfo(
+                object.optInt("id", -1),
+                object.optInt("user_id", -1),
+                optString(object, "staff_name"),
+                optString(object, "shift_date"),
+                optString(object, "scheduled_start"),
+                optString(object, "scheduled_end"),
+                optString(object, "actual_start"),
+                optString(object, "actual_end"),
+                optString(object, "status"),
+                optString(object, "notes"),
+                optString(object, "location")
+        );
+    }
+
+    @NonNull
+    private static JSONObject writeOrder(@NonNull OrderInfo order) throws JSONException {
+        return new JSONObject()
+                .put("order_id", order.getOrderId())
+                .put("user_id", order.getUserId())
+                .putOpt("status", order.getStatus())
+                .putOpt("order_date", order.getOrderDate())
+                .putOpt("fulfillment_type", order.getFulfillmentType())
+                .putOpt("source", order.getSource())
+                .put("item_count", order.getItemCount())
+                .put("total_amount", order.getTotalAmount())
+                .putOpt("item_summary", order.getItemSummary())
+                .putOpt("image_url", order.getImageUrl())
+                .putOpt("delivery_address", order.getDeliveryAddress())
+                .put("latitude", order.hasCoordinates() ? order.getLatitude() : JSONObject.NULL)
+                .put("longitude", order.hasCoordinates() ? order.getLongitude() : JSONObject.NULL);
+    }
+
+    @NonNull
+    private static OrderInfo readOrder(@NonNull JSONObject object) {
+        return new OrderInfo(
+                object.optInt("order_id", -1),
+                object.optInt("user_id", -1),
+                optString(object, "status"),
+                optString(object, "order_date"),
+                optString(object, "fulfillment_type"),
+                optString(object, "source"),
+                object.optInt("item_count", 0),
+                object.optDouble("total_amount", 0d),
+                optString(object, "item_summary"),
+                optString(object, "image_url"),
+                optString(object, "delivery_address"),
+                object.optDouble("latitude", Double.NaN),
+                object.optDouble("longitude", Double.NaN)
+        );
+    }
+
+    @Nullable
+    private static String optString(@NonNull JSONObject object, @NonNull String key) {
+        return object.isNull(key) ? null : object.optString(key, null);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.deliveryapp;
 
+import android.Manifest;
+import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.text.TextUtils;
@@ -16,11 +18,18 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 
 import com.example.deliveryapp.AppConfig;
-import com.example.deliveryapp.network.ServerConnectionManager;
+import com.example.deliveryapp.location.RiderLocationTracker;
+import com.example.deliveryapp.network.BatchRequest;
+import com.example.deliveryapp.network.BatchService;
+import com.example.deliveryapp.network.NetworkFuture;
+import com.example.deliveryapp.network.PushChannel;
 import com.example.deliveryapp.network.ShiftInfo;
 import com.example.deliveryapp.network.ShiftService;
 import com.example.deliveryapp.network.UserService;
-import com.google.firebase.auth.FirebaseAuth;
+import com.example.deliveryapp.network.WarmUpPipeline;
+import com.example.deliveryapp.startup.StartupTracer;
+import com.example.deliveryapp.wallet.EarningsLedger;
+import com.example.deliveryapp.wallet.EarningsTracker;
 import com.google.firebase.auth.FirebaseUser;
 
 import java.time.Duration;
@@ -37,9 +46,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StatusActivity extends BottomNavActivity {
 
+    private static final int REQUEST_LOCATION_PERMISSION = 1;
+
     private TextView statusBanner;
     private ProgressBar connectionProgress;
 
@@ -61,7 +73,21 @@ public class StatusActivity extends BottomNavActivity {
     private TextView shiftListEmptyView;
 
     private final ShiftService shiftService = new ShiftService();
+    private final BatchService batchService = new BatchService();
+    private final WarmUpPipeline.Listener warmUpListener = this::onWarmUpNodeCompleted;
+    private final PushChannel.Listener pushListener = new PushChannel.Listener() {
+        @Override
+        public void onShiftsChanged() {
+            WarmUpPipeline.getInstance().invalidate();
+            if (resolvedUserId != null && !isShiftLoading && !isStartRequestRunning) {
+                loadShifts(false);
+            }
+        }
+    };
     private final UserService userService = new UserService();
+    /** The profile lookup chained into the first shift fetch, while it runs. */
+    @Nullable
+    private NetworkFuture<ShiftService.ShiftSchedule> identityRequest;
     @Nullable
     private ShiftInfo currentShift;
     @Nullable
@@ -70,6 +96,12 @@ public class StatusActivity extends BottomNavActivity {
     private boolean isShiftLoading;
     private boolean isStartRequestRunning;
     private boolean isResolvingUserId;
+    private boolean showingSnapshot;
+    /** The shift list last rendered from the server, to recognise unchanged refreshes. */
+    @Nullable
+    private List<ShiftInfo> renderedShifts;
+    private boolean locationPermissionRequested;
+    private boolean started;
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -77,9 +109,34 @@ public class StatusActivity extends BottomNavActivity {
         setContentView(R.layout.activity_status);
         setupBottomNavigation(R.id.menu_status);
 
+        StartupTracer.observeFirstFrame(this);
+
         initViews();
-        checkServerConnection();
-        resolveStaffIdentity(false);
+        renderSnapshot();
+        loadInitialState();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        started = true;
+        subscribeToPush();
+    }
+
+    @Override
+    protected void onStop() {
+        started = false;
+        PushChannel.getInstance().unsubscribe(pushListener);
+        super.onStop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        WarmUpPipeline.getInstance().removeListener(warmUpListener);
+        if (identityRequest != null) {
+            identityRequest.cancel();
+        }
+        super.onDestroy();
     }
 
     private void initViews() {
@@ -119,33 +176,170 @@ public class StatusActivity extends BottomNavActivity {
         updateStartButtonState();
     }
 
-    private void checkServerConnection() {
-        if (statusBanner == null || connectionProgress == null) {
+    /**
+     * Shows the shifts saved by the previous session, if any, so a restored session has something
+     * on screen while the refresh runs. Refresh failures keep the snapshot visible.
+     */
+    private void renderSnapshot() {
+        List<ShiftInfo> cached = SessionSnapshotStore.getInstance(this).getShifts(getRiderEmail());
+        if (cached.isEmpty()) {
+            return;
+        }
+        showingSnapshot = true;
+        bindShift(cached.get(0));
+        populateShiftList(cached);
+        StartupTracer.markUsableData(this);
+    }
+
+    @Nullable
+    private String getRiderEmail() {
+        FirebaseUser firebaseUser = FirebaseSupport.getAuth(this).getCurrentUser();
+        return firebaseUser != null ? firebaseUser.getEmail() : null;
+    }
+
+    private void rememberUserId(int userId) {
+        resolvedUserId = userId;
+        SessionSnapshotStore.getInstance(this).saveUserId(getRiderEmail(), userId);
+    }
+
+    /**
+     * Issues the health check, profile lookup and (when the staff ID is already known) the shift
+     * fetch as one batch so the first render does not wait on several serial round trips.
+     */
+    private void loadInitialState() {
+        WarmUpPipeline pipeline = WarmUpPipeline.getInstance();
+        if (pipeline.claim(WarmUpPipeline.Node.SHIFTS)) {
+            consumeWarmUp(pipeline);
+            return;
+        }
+
+        BatchRequest.Builder builder = new BatchRequest.Builder();
+        if (statusBanner != null && connectionProgress != null) {
+            connectionProgress.setVisibility(View.VISIBLE);
+            updateStatusUi(StatusState.CHECKING, getString(R.string.status_checking_message));
+            builder.health(getString(R.string.server_health_path));
+        }
+
+        int cachedUserId = SessionSnapshotStore.getInstance(this).getCachedUserId(getRiderEmail());
+        if (AppConfig.DEFAULT_STAFF_USER_ID > 0 || cachedUserId > 0) {
+            resolvedUserId = AppConfig.DEFAULT_STAFF_USER_ID > 0 ? AppConfig.DEFAULT_STAFF_USER_ID : cachedUserId;
+            showShiftLoading(true);
+            builder.shifts(resolvedUserId);
+        } else {
+            FirebaseUser firebaseUser = FirebaseSupport.getAuth(this).getCurrentUser();
+            if (firebaseUser != null && !TextUtils.isEmpty(firebaseUser.getEmail())) {
+                isResolvingUserId = true;
+                showResolvingUserIdState();
+                builder.profile(firebaseUser.getEmail());
+            } else {
+                resolveStaffIdentity(false);
+            }
+        }
+
+        BatchRequest request = builder.build();
+        if (request.size() == 0) {
             return;
         }
 
-        connectionProgress.setVisibility(View.VISIBLE);
-        updateStatusUi(StatusState.CHECKING, getString(R.string.status_checking_message));
-
-        ServerConnectionManager.getInstance().checkConnection(
-                getString(R.string.server_health_path),
-                (isConnected, errorMessage) -> {
-                    connectionProgress.setVisibility(View.GONE);
-
-                    if (isConnected) {
-                        updateStatusUi(
-                                StatusState.CONNECTED,
-                                getString(R.string.status_connected, AppConfig.API_BASE_URL)
-                        );
-                    } else {
-                        String errorText = getString(R.string.status_connection_failed);
-                        if (errorMessage != null && !errorMessage.isEmpty()) {
-                            errorText = errorText + " (" + errorMessage + ")";
-                        }
-                        updateStatusUi(StatusState.ERROR, errorText);
-                    }
+        batchService.execute(request, result -> {
+            if (result.hasHealth()) {
+                onConnectionResult(result.isServerReachable(), result.getHealthError());
+            }
+            if (result.hasProfile()) {
+                isResolvingUserId = false;
+                String profileError = result.getProfileError();
+                if (profileError == null) {
+                    onUserIdResolved(result.getUserId(), false);
+                } else {
+                    onUserIdFailed(profileError, false);
                 }
-        );
+            }
+            if (result.hasShifts()) {
+                showShiftLoading(false);
+                String shiftsError = result.getShiftsError();
+                if (shiftsError == null) {
+                    onShiftsLoaded(result.getShifts(), result.getShiftsMessage(), false);
+                } else {
+                    onShiftsFailed(shiftsError, false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Renders the results the login warm-up already fetched (or is still fetching) instead of
+     * repeating the same requests.
+     */
+    private void consumeWarmUp(@NonNull WarmUpPipeline pipeline) {
+        if (statusBanner != null && connectionProgress != null) {
+            connectionProgress.setVisibility(View.VISIBLE);
+            updateStatusUi(StatusState.CHECKING, getString(R.string.status_checking_message));
+        }
+        if (pipeline.getResult(WarmUpPipeline.Node.USER_ID) == null) {
+            isResolvingUserId = true;
+            showResolvingUserIdState();
+        }
+        pipeline.addListener(warmUpListener);
+    }
+
+    private void onWarmUpNodeCompleted(@NonNull WarmUpPipeline.Node node, @NonNull WarmUpPipeline.NodeResult result) {
+        String errorMessage = result.getErrorMessage() != null ? result.getErrorMessage() : "";
+        switch (node) {
+            case HEALTH:
+                onConnectionResult(result.isSuccessful(), result.getErrorMessage());
+                break;
+            case USER_ID:
+                isResolvingUserId = false;
+                if (result.isSuccessful()) {
+                    rememberUserId(result.getUserId());
+                    showShiftLoading(WarmUpPipeline.getInstance().getResult(WarmUpPipeline.Node.SHIFTS) == null);
+                } else {
+                    onUserIdFailed(errorMessage, false);
+                }
+                break;
+            case SHIFTS:
+                if (result.isSkipped()) {
+                    break;
+                }
+                showShiftLoading(false);
+                if (result.isSuccessful()) {
+                    onShiftsLoaded(result.getShifts(), result.getServerMessage(), false);
+                } else {
+                    onShiftsFailed(errorMessage, false);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onConnectionResult(boolean isConnected, @Nullable String errorMessage) {
+        if (statusBanner == null || connectionProgress == null) {
+            return;
+        }
+        connectionProgress.setVisibility(View.GONE);
+
+        if (isConnected) {
+            updateStatusUi(
+                    StatusState.CONNECTED,
+                    getString(R.string.status_connected, AppConfig.API_BASE_URL)
+            );
+        } else {
+            String errorText = getString(R.string.status_connection_failed);
+            if (errorMessage != null && !errorMessage.isEmpty()) {
+                errorText = errorText + " (" + errorMessage + ")";
+            }
+            updateStatusUi(StatusState.ERROR, errorText);
+        }
+    }
+
+    /**
+     * Listens for shift changes pushed by the server once the staff ID is known.
+     */
+    private void subscribeToPush() {
+        if (started && resolvedUserId != null) {
+            PushChannel.getInstance().subscribe(resolvedUserId, pushListener);
+        }
     }
 
     private void loadShifts(boolean userRequestedRefresh) {
@@ -163,34 +357,109 @@ public class StatusActivity extends BottomNavActivity {
             @Override
             public void onSuccess(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
                 showShiftLoading(false);
-                if (shifts.isEmpty()) {
-                    String message = !TextUtils.isEmpty(serverMessage)
-                            ? serverMessage
-                            : getString(R.string.status_shift_no_shift_message);
-                    showNoShift(message);
-                    populateShiftList(Collections.emptyList());
-                } else {
-                    ShiftInfo first = shifts.get(0);
-                    bindShift(first);
-                    populateShiftList(shifts);
-                    if (!TextUtils.isEmpty(serverMessage) && userRequestedRefresh) {
-                        showToast(serverMessage);
-                    }
+                onShiftsLoaded(shifts, serverMessage, userRequestedRefresh);
+            }
+
+            @Override
+            public void onUnchanged(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
+                showShiftLoading(false);
+                if (shifts != renderedShifts) {
+                    onShiftsLoaded(shifts, serverMessage, userRequestedRefresh);
                 }
             }
 
             @Override
             public void onError(@NonNull String errorMessage) {
                 showShiftLoading(false);
-                showNoShift(!TextUtils.isEmpty(errorMessage)
-                        ? errorMessage
-                        : getString(R.string.status_shift_load_error));
-                if (userRequestedRefresh) {
-                    showToast(errorMessage);
-                }
-                populateShiftList(Collections.emptyList());
+                onShiftsFailed(errorMessage, userRequestedRefresh);
             }
-        });
+        }).bindTo(this);
+    }
+
+    private void onShiftsLoaded(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage, boolean userRequestedRefresh) {
+        showingSnapshot = false;
+        renderedShifts = shifts;
+        subscribeToPush();
+        SessionSnapshotStore.getInstance(this).saveShifts(getRiderEmail(), shifts);
+        if (shifts.isEmpty()) {
+            String message = !TextUtils.isEmpty(serverMessage)
+                    ? serverMessage
+                    : getString(R.string.status_shift_no_shift_message);
+            showNoShift(message);
+            populateShiftList(Collections.emptyList());
+        } else {
+            ShiftInfo first = shifts.get(0);
+            bindShift(first);
+            populateShiftList(shifts);
+            if (!TextUtils.isEmpty(serverMessage) && userRequestedRefresh) {
+                showToast(serverMessage);
+            }
+        }
+        syncLocationTracking(shifts);
+        StartupTracer.markUsableData(this);
+    }
+
+    /**
+     * Tracks the rider's location and credits finished orders to the shift in progress among
+     * {@code shifts}, stopping once none is, which is how the end of a shift is noticed.
+     */
+    private void syncLocationTracking(@NonNull List<ShiftInfo> shifts) {
+        RiderLocationTracker tracker = RiderLocationTracker.getInstance(this);
+        ShiftInfo activeShift = null;
+        for (ShiftInfo shift : shifts) {
+            if (shift.hasStarted() && !shift.isCompleted()) {
+                activeShift = shift;
+                break;
+            }
+        }
+        EarningsTracker.getInstance(this).setActiveShift(activeShift != null ? activeShift.getId() : EarningsLedger.NO_SHIFT);
+        if (activeShift == null || resolvedUserId == null) {
+            tracker.stop();
+            return;
+        }
+        if (!RiderLocationTracker.isEnabled()) {
+            return;
+        }
+        if (!tracker.hasLocationPermission()) {
+            if (!locationPermissionRequested) {
+                locationPermissionRequested = true;
+                requestPermissions(
+                        new String[]{Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.ACCESS_COARSE_LOCATION},
+                        REQUEST_LOCATION_PERMISSION
+                );
+            }
+            return;
+        }
+        tracker.start(resolvedUserId, activeShift.getId());
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode != REQUEST_LOCATION_PERMISSION) {
+            return;
+        }
+        // Riders may grant only approximate location; coarse fixes still show the route.
+        for (int result : grantResults) {
+            if (result == PackageManager.PERMISSION_GRANTED) {
+                syncLocationTracking(new ArrayList<>(loadedShifts));
+                return;
+            }
+        }
+    }
+
+    private void onShiftsFailed(@NonNull String errorMessage, boolean userRequestedRefresh) {
+        if (showingSnapshot) {
+            showToast(!TextUtils.isEmpty(errorMessage) ? errorMessage : getString(R.string.status_shift_load_error));
+            return;
+        }
+        showNoShift(!TextUtils.isEmpty(errorMessage)
+                ? errorMessage
+                : getString(R.string.status_shift_load_error));
+        if (userRequestedRefresh) {
+            showToast(errorMessage);
+        }
+        populateShiftList(Collections.emptyList());
     }
 
     private void resolveStaffIdentity(boolean userRequestedRefresh) {
@@ -207,7 +476,7 @@ public class StatusActivity extends BottomNavActivity {
             return;
         }
 
-        FirebaseUser firebaseUser = FirebaseAuth.getInstance().getCurrentUser();
+        FirebaseUser firebaseUser = FirebaseSupport.getAuth(this).getCurrentUser();
         if (firebaseUser == null || TextUtils.isEmpty(firebaseUser.getEmail())) {
             resolvedUserId = null;
             showShiftLoading(false);
@@ -225,31 +494,68 @@ public class StatusActivity extends BottomNavActivity {
             showShiftLoading(true);
         }
 
+        // The shift fetch starts on the network thread as soon as the lookup answers, without a
+        // round trip through the main thread in between.
         String email = firebaseUser.getEmail();
-        userService.fetchUserIdByEmail(email, new UserService.UserIdCallback() {
+        AtomicInteger lookedUpUserId = new AtomicInteger(-1);
+        NetworkFuture<ShiftService.ShiftSchedule> request = userService.fetchUserIdByEmailAsync(email)
+                .then(userId -> {
+                    lookedUpUserId.set(userId);
+                    return shiftService.fetchShiftsAsync(userId);
+                })
+                .deliverOn(this::runOnUiThread);
+        identityRequest = request;
+        request.addListener(NetworkFuture.DIRECT, new NetworkFuture.Listener<ShiftService.ShiftSchedule>() {
             @Override
-            public void onSuccess(int userId) {
+            public void onSuccess(@Nullable ShiftService.ShiftSchedule schedule) {
+                identityRequest = null;
                 isResolvingUserId = false;
-                resolvedUserId = userId;
-                loadShifts(userRequestedRefresh);
+                rememberUserId(lookedUpUserId.get());
+                showShiftLoading(false);
+                if (schedule == null) {
+                    onShiftsLoaded(Collections.emptyList(), null, userRequestedRefresh);
+                    return;
+                }
+                onShiftsLoaded(schedule.getShifts(), schedule.getServerMessage(), userRequestedRefresh);
             }
 
             @Override
             public void onError(@NonNull String errorMessage) {
+                identityRequest = null;
                 isResolvingUserId = false;
-                resolvedUserId = null;
-                showShiftLoading(false);
-                String display = !TextUtils.isEmpty(errorMessage)
-                        ? errorMessage
-                        : getString(R.string.status_shift_user_id_error);
-                showNoShift(display);
-                if (userRequestedRefresh || currentShift != null) {
-                    showToast(display);
+                int userId = lookedUpUserId.get();
+                if (userId < 0) {
+                    onUserIdFailed(errorMessage, userRequestedRefresh);
+                    return;
                 }
+                rememberUserId(userId);
+                showShiftLoading(false);
+                onShiftsFailed(errorMessage, userRequestedRefresh);
             }
         });
     }
 
+    private void onUserIdResolved(int userId, boolean userRequestedRefresh) {
+        rememberUserId(userId);
+        loadShifts(userRequestedRefresh);
+    }
+
+    private void onUserIdFailed(@NonNull String errorMessage, boolean userRequestedRefresh) {
+        resolvedUserId = null;
+        showShiftLoading(false);
+        String display = !TextUtils.isEmpty(errorMessage)
+                ? errorMessage
+                : getString(R.string.status_shift_user_id_error);
+        if (showingSnapshot) {
+            showToast(display);
+            return;
+        }
+        showNoShift(display);
+        if (userRequestedRefresh || currentShift != null) {
+            showToast(display);
+        }
+    }
+
     private void showResolvingUserIdState() {
         showShiftLoading(true);
         if (shiftCard != null && currentShift == null) {
@@ -341,7 +647,7 @@ public class StatusActivity extends BottomNavActivity {
         }
 
         if (shiftStatusView != null) {
-            shiftStatusView.setText(formatStatusLabel(shift.getStatus(), locale));
+            shiftStatusView.setText(formatStatusLabel(shift));
         }
 
         if (shiftLocationView != null) {
@@ -433,7 +739,7 @@ public class StatusActivity extends BottomNavActivity {
 
         TextView statusView = itemView.findViewById(R.id.itemShiftStatus);
         if (statusView != null) {
-            statusView.setText(formatStatusLabel(shift.getStatus(), locale));
+            statusView.setText(formatStatusLabel(shift));
         }
 
         TextView locationView = itemView.findViewById(R.id.itemShiftLocation);
@@ -463,7 +769,11 @@ public class StatusActivity extends BottomNavActivity {
         shiftService.startShift(currentShift.getId(), new ShiftService.ShiftActionCallback() {
             @Override
             public void onSuccess(@Nullable ShiftInfo updatedShift, @Nullable String serverMessage) {
+                WarmUpPipeline.getInstance().invalidate();
                 setStartShiftLoading(false);
+                if (updatedShift != null) {
+                    syncLocationTracking(Collections.singletonList(updatedShift));
+                }
                 loadShifts(false);
                 String message = !TextUtils.isEmpty(serverMessage)
                         ? serverMessage
@@ -478,7 +788,7 @@ public class StatusActivity extends BottomNavActivity {
                         ? errorMessage
                         : getString(R.string.status_shift_start_failed));
             }
-        });
+        }).bindTo(this);
     }
 
     private void setStartShiftLoading(boolean loading) {
@@ -635,39 +945,14 @@ public class StatusActivity extends BottomNavActivity {
         return getString(R.string.status_shift_time_placeholder);
     }
 
-    private String formatStatusLabel(@Nullable String status, @NonNull Locale locale) {
-        String value;
-        if (TextUtils.isEmpty(status)) {
+    private String formatStatusLabel(@NonNull ShiftInfo shift) {
+        String value = shift.getStatusLabel();
+        if (value == null) {
             value = getString(R.string.status_shift_status_unknown_value);
-        } else {
-            value = capitalizeStatus(status, locale);
         }
         return getString(R.string.status_shift_status, value);
     }
 
-    private String capitalizeStatus(@NonNull String status, @NonNull Locale locale) {
-        String normalized = status.trim().replace('_', ' ');
-        if (normalized.isEmpty()) {
-            return getString(R.string.status_shift_status_unknown_value);
-        }
-        String[] parts = normalized.split("\\s+");
-        StringBuilder builder = new StringBuilder();
-        for (String part : parts) {
-            if (part.isEmpty()) {
-                continue;
-            }
-            if (builder.length() > 0) {
-                builder.append(' ');
-            }
-            String lower = part.toLowerCase(locale);
-            builder.append(Character.toUpperCase(lower.charAt(0)));
-            if (lower.length() > 1) {
-                builder.append(lower.substring(1));
-            }
-        }
-        return builder.length() > 0 ? builder.toString() : status;
-    }
-
     private String formatTime(@NonNull LocalTime time, @NonNull Locale locale) {
         return time.format(DateTimeFormatter.ofPattern("h:mm a", locale));
     }
@@ -1,15 +1,73 @@
 package com.example.deliveryapp;
 
 import android.os.Bundle;
+import android.view.View;
+import android.widget.TextView;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
+
+import com.example.deliveryapp.wallet.EarningsLedger;
+import com.example.deliveryapp.wallet.EarningsTracker;
+import com.example.deliveryapp.wallet.Money;
+
+import java.text.NumberFormat;
+import java.util.Locale;
 
 public class WalletsActivity extends BottomNavActivity {
 
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.getDefault());
+
+    private TextView balanceView;
+    private View todayRow;
+    private View shiftRow;
+    private View weekRow;
+    private View lifetimeRow;
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activitywallet);
         setupBottomNavigation(R.id.menu_wallets);
+
+        balanceView = findViewById(R.id.tvBalanceAmount);
+        todayRow = findViewById(R.id.walletToday);
+        shiftRow = findViewById(R.id.walletShift);
+        weekRow = findViewById(R.id.walletWeek);
+        lifetimeRow = findViewById(R.id.walletLifetime);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        EarningsTracker.getInstance(this).loadSummary(this::showSummary);
+    }
+
+    private void showSummary(@NonNull EarningsTracker.Summary summary) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        balanceView.setText(Money.format(summary.getToday().getAmountMinorUnits(), currencyFormat));
+        bindTotal(todayRow, R.string.wallet_today, summary.getToday());
+        shiftRow.setVisibility(summary.isShiftActive() ? View.VISIBLE : View.GONE);
+        if (summary.isShiftActive()) {
+            bindTotal(shiftRow, R.string.wallet_shift, summary.getShift());
+        }
+        bindTotal(weekRow, R.string.wallet_week, summary.getWeek());
+        bindTotal(lifetimeRow, R.string.wallet_lifetime, summary.getLifetime());
+    }
+
+    private void bindTotal(@NonNull View row, @StringRes int label, @NonNull EarningsLedger.Totals totals) {
+        TextView labelView = row.findViewById(R.id.walletTotalLabel);
+        TextView ordersView = row.findViewById(R.id.walletTotalOrders);
+        TextView amountView = row.findViewById(R.id.walletTotalAmount);
+        labelView.setText(label);
+        ordersView.setText(getResources().getQuantityString(
+                R.plurals.wallet_order_count,
+                totals.getOrderCount(),
+                totals.getOrderCount()
+        ));
+        amountView.setText(Money.format(totals.getAmountMinorUnits(), currencyFormat));
     }
 }
@@ -0,0 +1,132 @@
+package com.example.deliveryapp.geocode;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Looks up delivery addresses through {@link GeocodeCache}, falling back to a
+ * {@link GeocodeResolver} on a miss. Addresses are reduced with {@link AddressNormalizer} first so
+ * a repeat customer resolves once no matter how the order assembled their address.
+ *
+ * <p>Matches are trusted for {@link #FOUND_TTL_MS}; misses are cached too, but only for
+ * {@link #NOT_FOUND_TTL_MS} so a place the backend learns about later is picked up. When the
+ * backend fails, an expired entry is still served rather than nothing.</p>
+ */
+public final class AddressGeocoder {
+
+    /** Streets and barangays do not move; re-check occasionally in case the backend improved. */
+    public static final long FOUND_TTL_MS = TimeUnit.DAYS.toMillis(90);
+    public static final long NOT_FOUND_TTL_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String CACHE_FILE_NAME = "geocode_cache.bin";
+
+    private static volatile AddressGeocoder instance;
+
+    private final GeocodeCache cache;
+    private final GeocodeResolver resolver;
+    private final AtomicInteger resolverCalls = new AtomicInteger();
+
+    private boolean loaded;
+
+    public AddressGeocoder(@NonNull GeocodeCache cache, @NonNull GeocodeResolver resolver) {
+        this.cache = cache;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Returns the app-wide geocoder, backed by the platform {@link android.location.Geocoder} and a
+     * cache file in the app's private storage. The file is read on first use, off the main thread.
+     */
+    @NonNull
+    public static AddressGeocoder getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (AddressGeocoder.class) {
+                if (instance == null) {
+                    Context appContext = context.getApplicationContext();
+                    GeocodeCache cache = new GeocodeCache(new File(appContext.getFilesDir(), CACHE_FILE_NAME));
+                    instance = new AddressGeocoder(cache, new AndroidGeocoderResolver(appContext));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the position of {@code address}, or {@code null} when it is blank, unknown to the
+     * backend, or could not be resolved right now.
+     */
+    @WorkerThread
+    @Nullable
+    public GeocodeResult geocode(@Nullable String address) {
+        String key = AddressNormalizer.normalize(address);
+        if (key == null) {
+            return null;
+        }
+        ensureLoaded();
+
+        GeocodeCache.Entry cached = cache.get(key);
+        if (cached != null && isFresh(cached)) {
+            return foundOrNull(cached.getResult());
+        }
+
+        GeocodeResult resolved;
+        try {
+            resolverCalls.incrementAndGet();
+            resolved = resolver.resolve(key);
+        } catch (IOException e) {
+            return cached != null ? foundOrNull(cached.getResult()) : null;
+        }
+        cache.put(key, resolved != null ? resolved : GeocodeResult.NOT_FOUND);
+        return resolved != null ? foundOrNull(resolved) : null;
+    }
+
+    /**
+     * Persists entries added since the last flush. Call after a batch of lookups.
+     */
+    @WorkerThread
+    public void flush() throws IOException {
+        ensureLoaded();
+        cache.save();
+    }
+
+    public int getResolverCallCount() {
+        return resolverCalls.get();
+    }
+
+    @NonNull
+    public GeocodeCache getCache() {
+        return cache;
+    }
+
+    private synchronized void ensureLoaded() {
+        if (!loaded) {
+            cache.load();
+            loaded = true;
+        }
+    }
+
+    private boolean isFresh(@NonNull GeocodeCache.Entry entry) {
+        long ttl = entry.getResult().isFound() ? FOUND_TTL_MS : NOT_FOUND_TTL_MS;
+        return cache.ageOf(entry) < ttl;
+    }
+
+    @Nullable
+    private static GeocodeResult foundOrNull(@NonNull GeocodeResult result) {
+        return result.isFound() ? result : null;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "AddressGeocoder{resolverCalls=%d, %s}", resolverCalls.get(), cache);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.deliveryapp.geocode;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces free-text delivery addresses to a canonical key so the same customer address typed or
+ * assembled slightly differently ("Blk 5 Lot 2 Rizal St., Brgy. San Roque, Marikina City, PH"
+ * versus "block 5 lot 2 rizal street barangay san roque marikina city") maps to one geocode cache
+ * entry.
+ *
+ * <p>Normalization lowercases, strips accents and punctuation, expands common Philippine address
+ * abbreviations, drops number markers and a trailing country, and removes components repeated
+ * verbatim (the order parser may join {@code City} and {@code Municipality} holding the same
+ * value). Word order is otherwise preserved, since reordering can merge genuinely different
+ * addresses.</p>
+ */
+public final class AddressNormalizer {
+
+    private static final Map<String, String> ABBREVIATIONS = new HashMap<>();
+    private static final Set<String> COUNTRY_NAMES = new HashSet<>(Arrays.asList("philippines", "ph", "phl"));
+    private static final Set<String> NUMBER_MARKERS = new HashSet<>(Arrays.asList("no", "nos", "num", "number"));
+
+    static {
+        ABBREVIATIONS.put("st", "street");
+        ABBREVIATIONS.put("str", "street");
+        ABBREVIATIONS.put("ave", "avenue");
+        ABBREVIATIONS.put("av", "avenue");
+        ABBREVIATIONS.put("rd", "road");
+        ABBREVIATIONS.put("blvd", "boulevard");
+        ABBREVIATIONS.put("hwy", "highway");
+        ABBREVIATIONS.put("ext", "extension");
+        ABBREVIATIONS.put("cor", "corner");
+        ABBREVIATIONS.put("brgy", "barangay");
+        ABBREVIATIONS.put("bgy", "barangay");
+        ABBREVIATIONS.put("bry", "barangay");
+        ABBREVIATIONS.put("blk", "block");
+        ABBREVIATIONS.put("bk", "block");
+        ABBREVIATIONS.put("lt", "lot");
+        ABBREVIATIONS.put("ph", "phase");
+        ABBREVIATIONS.put("subd", "subdivision");
+        ABBREVIATIONS.put("vill", "village");
+        ABBREVIATIONS.put("bldg", "building");
+        ABBREVIATIONS.put("flr", "floor");
+        ABBREVIATIONS.put("sto", "santo");
+        ABBREVIATIONS.put("sta", "santa");
+        ABBREVIATIONS.put("gen", "general");
+        ABBREVIATIONS.put("mt", "mount");
+        ABBREVIATIONS.put("prov", "province");
+    }
+
+    private AddressNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Returns the canonical form of {@code address}, or {@code null} when nothing meaningful is
+     * left after normalization.
+     */
+    @Nullable
+    public static String normalize(@Nullable String address) {
+        if (address == null) {
+            return null;
+        }
+        String folded = Normalizer.normalize(address, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                // Keep hyphens only inside numbers such as "12-b" lot codes or "1-2" ranges.
+                .replaceAll("(?<![0-9])-|-(?![0-9a-z])", " ");
+
+        List<List<String>> components = new ArrayList<>();
+        for (String rawComponent : folded.split("[,;\\n]+")) {
+            List<String> tokens = new ArrayList<>();
+            for (String token : rawComponent.split("[^a-z0-9-]+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+            if (!tokens.isEmpty()) {
+                components.add(tokens);
+            }
+        }
+        stripCountry(components);
+
+        List<List<String>> distinct = new ArrayList<>();
+        for (List<String> tokens : components) {
+            List<String> words = expand(tokens);
+            if (!words.isEmpty() && !distinct.contains(words)) {
+                distinct.add(words);
+            }
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (List<String> words : distinct) {
+            for (String word : words) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(word);
+            }
+        }
+        return builder.length() > 0 ? builder.toString() : null;
+    }
+
+    /**
+     * Removes a trailing country, either as its own component or as the last word of the final
+     * one. Runs before abbreviation expansion because "PH" is also short for "phase".
+     */
+    private static void stripCountry(@NonNull List<List<String>> components) {
+        while (!components.isEmpty()) {
+            List<String> last = components.get(components.size() - 1);
+            if (!COUNTRY_NAMES.contains(last.get(last.size() - 1))) {
+                return;
+            }
+            last.remove(last.size() - 1);
+            if (!last.isEmpty()) {
+                return;
+            }
+            components.remove(components.size() - 1);
+        }
+    }
+
+    @NonNull
+    private static List<String> expand(@NonNull List<String> tokens) {
+        List<String> words = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean beforeNumber = i + 1 < tokens.size() && Character.isDigit(tokens.get(i + 1).charAt(0));
+            if (beforeNumber && NUMBER_MARKERS.contains(token)) {
+                // "No. 12", "Number 12" and "#12" all become "12".
+                continue;
+            }
+            String expanded = ABBREVIATIONS.get(token);
+            words.add(expanded != null ? expanded : token);
+        }
+        return words;
+    }
+}
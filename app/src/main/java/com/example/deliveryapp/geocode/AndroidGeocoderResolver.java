@@ -0,0 +1,66 @@
+package com.example.deliveryapp.geocode;
+
+import android.content.Context;
+import android.location.Address;
+import android.location.Geocoder;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link GeocodeResolver} backed by the platform {@link Geocoder}. The platform reports no match
+ * quality, so confidence is inferred from the most specific address part it returned.
+ */
+public final class AndroidGeocoderResolver implements GeocodeResolver {
+
+    private static final Locale PHILIPPINES = new Locale("en", "PH");
+    // AddressNormalizer drops the country; add it back so the platform does not look abroad.
+    private static final String COUNTRY_SUFFIX = ", Philippines";
+
+    private final Geocoder geocoder;
+
+    public AndroidGeocoderResolver(@NonNull Context context) {
+        geocoder = new Geocoder(context.getApplicationContext(), PHILIPPINES);
+    }
+
+    @WorkerThread
+    @Nullable
+    @Override
+    @SuppressWarnings("deprecation")
+    public GeocodeResult resolve(@NonNull String normalizedAddress) throws IOException {
+        if (!Geocoder.isPresent()) {
+            throw new IOException("No geocoder backend on this device");
+        }
+        List<Address> matches = geocoder.getFromLocationName(normalizedAddress + COUNTRY_SUFFIX, 1);
+        if (matches == null || matches.isEmpty()) {
+            return null;
+        }
+        Address match = matches.get(0);
+        if (!match.hasLatitude() || !match.hasLongitude()) {
+            return null;
+        }
+        return new GeocodeResult(match.getLatitude(), match.getLongitude(), confidenceOf(match));
+    }
+
+    private static float confidenceOf(@NonNull Address match) {
+        if (!TextUtils.isEmpty(match.getSubThoroughfare())) {
+            return 0.95f;
+        }
+        if (!TextUtils.isEmpty(match.getThoroughfare())) {
+            return 0.8f;
+        }
+        if (!TextUtils.isEmpty(match.getSubLocality())) {
+            return 0.6f;
+        }
+        if (!TextUtils.isEmpty(match.getLocality())) {
+            return 0.4f;
+        }
+        return 0.2f;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.deliveryapp.geocode;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, file-backed map from normalized address to {@link GeocodeResult}. Entries are kept in
+ * access order and the least recently used one is evicted once {@code maxEntries} is exceeded, so
+ * repeat customers stay cached while one-off addresses age out.
+ *
+ * <p>The whole table lives in memory (a few hundred short entries) and is written to disk by
+ * {@link #save()} into a temporary file that replaces the previous one only once complete, so a
+ * crash mid-write leaves the old cache intact. An unreadable or foreign file is discarded.</p>
+ *
+ * <p>All methods are thread-safe; {@link #load()} and {@link #save()} do file I/O.</p>
+ */
+public final class GeocodeCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    private static final int FILE_MAGIC = 0x47454f43; // "GEOC"
+    private static final int FILE_VERSION = 1;
+
+    /**
+     * A cached result and when it was resolved.
+     */
+    public static final class Entry {
+
+        private final GeocodeResult result;
+        private final long resolvedAtMillis;
+
+        Entry(@NonNull GeocodeResult result, long resolvedAtMillis) {
+            this.result = result;
+            this.resolvedAtMillis = resolvedAtMillis;
+        }
+
+        @NonNull
+        public GeocodeResult getResult() {
+            return result;
+        }
+
+        public long getResolvedAtMillis() {
+            return resolvedAtMillis;
+        }
+    }
+
+    private final File file;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private boolean dirty;
+    private int hitCount;
+    private int missCount;
+    private int evictionCount;
+
+    public GeocodeCache(@NonNull File file) {
+        this(file, DEFAULT_MAX_ENTRIES, System::currentTimeMillis);
+    }
+
+    public GeocodeCache(@NonNull File file, int maxEntries, @NonNull LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GeocodeCache.Entry> eldest) {
+                if (size() > GeocodeCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the entry for {@code normalizedAddress} and marks it recently used, or {@code null}
+     * when none is cached.
+     */
+    @Nullable
+    public synchronized Entry get(@NonNull String normalizedAddress) {
+        Entry entry = entries.get(normalizedAddress);
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores {@code result} for {@code normalizedAddress}, stamped with the current time.
+     */
+    public synchronized void put(@NonNull String normalizedAddress, @NonNull GeocodeResult result) {
+        entries.put(normalizedAddress, new Entry(result, clock.getAsLong()));
+        dirty = true;
+    }
+
+    public synchronized void remove(@NonNull String normalizedAddress) {
+        if (entries.remove(normalizedAddress) != null) {
+            dirty = true;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns how long ago {@code entry} was resolved, never negative even if the clock moved back.
+     */
+    public long ageOf(@NonNull Entry entry) {
+        return Math.max(0L, clock.getAsLong() - entry.getResolvedAtMillis());
+    }
+
+    /**
+     * Replaces the in-memory table with the one stored on disk. A missing file leaves the cache
+     * empty; a corrupt one is deleted.
+     */
+    @WorkerThread
+    public synchronized void load() {
+        entries.clear();
+        dirty = false;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) {
+                throw new IOException("Unrecognized geocode cache format");
+            }
+            int count = input.readInt();
+            // Entries are stored least recently used first, so re-inserting them restores the order.
+            for (int i = 0; i < count; i++) {
+                String key = input.readUTF();
+                double latitude = input.readDouble();
+                double longitude = input.readDouble();
+                float confidence = input.readFloat();
+                long resolvedAt = input.readLong();
+                entries.put(key, new Entry(new GeocodeResult(latitude, longitude, confidence), resolvedAt));
+            }
+        } catch (FileNotFoundException e) {
+            // Nothing cached yet.
+        } catch (IOException e) {
+            entries.clear();
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    /**
+     * Writes the table to disk if it changed since the last {@link #load()} or {@link #save()}.
+     */
+    @WorkerThread
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(FILE_VERSION);
+            output.writeInt(entries.size());
+            for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                GeocodeResult result = entry.getResult();
+                output.writeUTF(mapEntry.getKey());
+                output.writeDouble(result.getLatitude());
+                output.writeDouble(result.getLongitude());
+                output.writeFloat(result.getConfidence());
+                output.writeLong(entry.getResolvedAtMillis());
+            }
+        }
+        if (!temp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw new IOException("Unable to replace " + file);
+        }
+        dirty = false;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                Locale.US,
+                "GeocodeCache{size=%d/%d, hits=%d, misses=%d, evictions=%d}",
+                entries.size(),
+                maxEntries,
+                hitCount,
+                missCount,
+                evictionCount
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.deliveryapp.geocode;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+
+/**
+ * Backend that turns a normalized address into a position when {@link GeocodeCache} has no
+ * answer. Implementations may block on the network.
+ */
+public interface GeocodeResolver {
+
+    /**
+     * Returns the best match for {@code normalizedAddress}, or {@code null} when the backend knows
+     * no such place. Throw {@link IOException} for transient failures so they are not cached as
+     * misses.
+     */
+    @WorkerThread
+    @Nullable
+    GeocodeResult resolve(@NonNull String normalizedAddress) throws IOException;
+}
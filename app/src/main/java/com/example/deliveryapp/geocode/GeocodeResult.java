@@ -0,0 +1,60 @@
+package com.example.deliveryapp.geocode;
+
+import androidx.annotation.NonNull;
+
+import com.example.deliveryapp.route.GeoPoint;
+
+import java.util.Locale;
+
+/**
+ * The position a {@link GeocodeResolver} found for an address, with how sure it is about it.
+ * {@link #NOT_FOUND} records that the backend had no answer so the miss can be cached too.
+ */
+public final class GeocodeResult {
+
+    public static final GeocodeResult NOT_FOUND = new GeocodeResult(Double.NaN, Double.NaN, 0f);
+
+    private final double latitude;
+    private final double longitude;
+    private final float confidence;
+
+    /**
+     * @param confidence how precisely the backend matched the address, from 0 (no idea) to 1
+     *                   (exact street address)
+     */
+    public GeocodeResult(double latitude, double longitude, float confidence) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.confidence = Math.max(0f, Math.min(1f, confidence));
+    }
+
+    public boolean isFound() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public float getConfidence() {
+        return confidence;
+    }
+
+    @NonNull
+    public GeoPoint toGeoPoint() {
+        return new GeoPoint(latitude, longitude);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        if (!isFound()) {
+            return "GeocodeResult{not found}";
+        }
+        return String.format(Locale.US, "GeocodeResult{%.6f, %.6f, confidence=%.2f}", latitude, longitude, confidence);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.deliveryapp.history;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.network.OrderInfo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of delivery history and the query for the page after it.
+ */
+public final class HistoryPage {
+
+    private final List<OrderInfo> orders;
+    private final long[] orderedAtMillis;
+    @Nullable
+    private final HistoryQuery nextQuery;
+    private final long queryNanos;
+
+    HistoryPage(@NonNull List<OrderInfo> orders, @NonNull long[] orderedAtMillis, @Nullable HistoryQuery nextQuery, long queryNanos) {
+        this.orders = Collections.unmodifiableList(orders);
+        this.orderedAtMillis = orderedAtMillis;
+        this.nextQuery = nextQuery;
+        this.queryNanos = queryNanos;
+    }
+
+    @NonNull
+    public List<OrderInfo> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Returns when the order at {@code index} was placed, the value history is sorted by.
+     */
+    public long getOrderedAtMillis(int index) {
+        return orderedAtMillis[index];
+    }
+
+    public boolean hasMore() {
+        return nextQuery != null;
+    }
+
+    @Nullable
+    public HistoryQuery getNextQuery() {
+        return nextQuery;
+    }
+
+    public long getQueryNanos() {
+        return queryNanos;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.deliveryapp.history;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Selects one page of a rider's delivery history, newest first. Pages are addressed by the last
+ * row of the previous page rather than by offset, so reading far back costs the same as reading
+ * the first page and rows recorded meanwhile do not shift the pages.
+ */
+public final class HistoryQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 30;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final int userId;
+    private final long fromMillis;
+    private final long toMillis;
+    @Nullable
+    private final String status;
+    @Nullable
+    private final String search;
+    private final int pageSize;
+    private final long beforeMillis;
+    private final int beforeOrderId;
+
+    private HistoryQuery(@NonNull Builder builder) {
+        userId = builder.userId;
+        fromMillis = builder.fromMillis;
+        toMillis = builder.toMillis;
+        status = builder.status;
+        search = builder.search;
+        pageSize = builder.pageSize;
+        beforeMillis = builder.beforeMillis;
+        beforeOrderId = builder.beforeOrderId;
+    }
+
+    @NonNull
+    public static Builder builder(int userId) {
+        return new Builder(userId);
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /** Inclusive lower bound of the order time, or {@link Long#MIN_VALUE} for none. */
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    /** Exclusive upper bound of the order time, or {@link Long#MAX_VALUE} for none. */
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    /** Lowercase status to match exactly, or {@code null} for any. */
+    @Nullable
+    public String getStatus() {
+        return status;
+    }
+
+    /** Full-text {@code MATCH} expression, or {@code null} when not searching. */
+    @Nullable
+    public String getMatchExpression() {
+        return search;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isFirstPage() {
+        return beforeOrderId == 0;
+    }
+
+    public long getBeforeMillis() {
+        return beforeMillis;
+    }
+
+    public int getBeforeOrderId() {
+        return beforeOrderId;
+    }
+
+    /**
+     * Returns the same query continuing after the row ordered at {@code orderedAtMillis} with id
+     * {@code orderId}.
+     */
+    @NonNull
+    HistoryQuery after(long orderedAtMillis, int orderId) {
+        Builder builder = new Builder(userId)
+                .range(fromMillis, toMillis)
+                .pageSize(pageSize);
+        builder.status = status;
+        builder.search = search;
+        builder.beforeMillis = orderedAtMillis;
+        builder.beforeOrderId = orderId;
+        return builder.build();
+    }
+
+    public static final class Builder {
+
+        private final int userId;
+        private long fromMillis = Long.MIN_VALUE;
+        private long toMillis = Long.MAX_VALUE;
+        @Nullable
+        private String status;
+        @Nullable
+        private String search;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private long beforeMillis;
+        private int beforeOrderId;
+
+        private Builder(int userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * Restricts results to orders placed in {@code [fromMillis, toMillis)}.
+         */
+        @NonNull
+        public Builder range(long fromMillis, long toMillis) {
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            return this;
+        }
+
+        @NonNull
+        public Builder status(@Nullable String status) {
+            String normalized = status != null ? status.trim().toLowerCase(Locale.US) : "";
+            this.status = normalized.isEmpty() ? null : normalized;
+            return this;
+        }
+
+        /**
+         * Restricts results to orders whose address or item summary contains words starting with
+         * every word of {@code text}.
+         */
+        @NonNull
+        public Builder search(@Nullable String text) {
+            this.search = HistoryTokenizer.matchExpression(text);
+            return this;
+        }
+
+        @NonNull
+        public Builder pageSize(int pageSize) {
+            this.pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, pageSize));
+            return this;
+        }
+
+        @NonNull
+        public HistoryQuery build() {
+            return new HistoryQuery(this);
+        }
+    }
+}
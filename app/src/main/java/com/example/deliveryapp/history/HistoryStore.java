@@ -0,0 +1,408 @@
+package com.example.deliveryapp.history;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.deliveryapp.network.OrderInfo;
+import com.example.deliveryapp.network.OrderService;
+import com.example.deliveryapp.wallet.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the rider's delivered and cancelled orders in a local SQLite database so the history
+ * screen can page and search months of deliveries without the server.
+ *
+ * <p>Orders are sorted by when they were placed. Two indexes, {@code (user_id, ordered_at,
+ * order_id)} and {@code (user_id, status_key, ordered_at, order_id)}, serve date-range pages with
+ * and without a status filter directly in index order. Addresses and item summaries are folded by
+ * {@link HistoryTokenizer} into an FTS4 table keyed by order id, with prefix indexes so
+ * search-as-you-type stays a lookup rather than a scan.</p>
+ *
+ * <p>All database work runs on one background thread; results are delivered on the main
+ * thread.</p>
+ */
+public final class HistoryStore implements OrderService.FinishedOrderSink {
+
+    public interface Callback<T> {
+        @MainThread
+        void onResult(@NonNull T result);
+    }
+
+    /** Orders placed longer ago than this are dropped when the database is opened. */
+    public static final long RETENTION_MS = TimeUnit.DAYS.toMillis(400);
+
+    private static final String TAG = "HistoryStore";
+    private static final String DATABASE_NAME = "order_history.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_ORDERS = "history_orders";
+    private static final String TABLE_SEARCH = "history_search";
+    private static final String COLUMNS =
+            "o.order_id, o.user_id, o.status, o.order_date, o.fulfillment_type, o.source, o.item_count, "
+                    + "o.total_minor, o.item_summary, o.image_url, o.delivery_address, o.latitude, o.longitude, "
+                    + "o.ordered_at";
+
+    private static volatile HistoryStore instance;
+
+    private final DatabaseHelper helper;
+    private final TimeZone branchZone;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "history-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Executor thread only: what was last written per order, to skip unchanged rewrites.
+    private final Map<Integer, Integer> writtenFingerprints = new HashMap<>();
+
+    private HistoryStore(@NonNull Context context) {
+        helper = new DatabaseHelper(context.getApplicationContext());
+        branchZone = TimeZone.getDefault();
+    }
+
+    @NonNull
+    public static HistoryStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (HistoryStore.class) {
+                if (instance == null) {
+                    instance = new HistoryStore(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public void onFinishedOrders(int userId, @NonNull List<OrderInfo> orders) {
+        List<OrderInfo> snapshot = new ArrayList<>(orders);
+        executor.execute(() -> record(userId, snapshot));
+    }
+
+    public void query(@NonNull HistoryQuery query, @NonNull Callback<HistoryPage> callback) {
+        executor.execute(() -> {
+            HistoryPage page = queryPage(query);
+            mainHandler.post(() -> callback.onResult(page));
+        });
+    }
+
+    public void summarize(@NonNull HistoryQuery query, @NonNull Callback<HistorySummary> callback) {
+        executor.execute(() -> {
+            HistorySummary summary = querySummary(query);
+            mainHandler.post(() -> callback.onResult(summary));
+        });
+    }
+
+    /**
+     * Delivers the distinct statuses in {@code userId}'s history, in the status index's order, for
+     * the history screen's status filter.
+     */
+    public void statuses(int userId, @NonNull Callback<List<String>> callback) {
+        executor.execute(() -> {
+            List<String> statuses = queryStatuses(userId);
+            mainHandler.post(() -> callback.onResult(statuses));
+        });
+    }
+
+    @WorkerThread
+    private void record(int userId, @NonNull List<OrderInfo> orders) {
+        SQLiteDatabase db = openDatabase();
+        if (db == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int written = 0;
+        db.beginTransaction();
+        try {
+            for (OrderInfo order : orders) {
+                int fingerprint = fingerprint(userId, order);
+                Integer previous = writtenFingerprints.get(order.getOrderId());
+                if (previous != null && previous == fingerprint) {
+                    continue;
+                }
+                writeOrder(db, userId, order, now);
+                writtenFingerprints.put(order.getOrderId(), fingerprint);
+                written++;
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLiteException e) {
+            Log.w(TAG, "Unable to record finished orders", e);
+            writtenFingerprints.clear();
+        } finally {
+            db.endTransaction();
+        }
+        if (written > 0) {
+            Log.d(TAG, "Recorded " + written + " of " + orders.size() + " finished orders");
+        }
+    }
+
+    private void writeOrder(@NonNull SQLiteDatabase db, int userId, @NonNull OrderInfo order, long now) {
+        String status = order.getStatus() != null ? order.getStatus().trim() : "";
+        ContentValues values = new ContentValues();
+        values.put("user_id", userId);
+        values.put("status", status);
+        values.put("status_key", status.toLowerCase(Locale.US));
+        values.put("order_date", order.getOrderDate());
+        values.put("fulfillment_type", order.getFulfillmentType());
+        values.put("source", order.getSource());
+        values.put("item_count", order.getItemCount());
+        values.put("total_minor", order.getTotalMinorUnits());
+        values.put("item_summary", order.getItemSummary());
+        values.put("image_url", order.getImageUrl());
+        values.put("delivery_address", order.getDeliveryAddress());
+        if (order.hasCoordinates()) {
+            values.put("latitude", order.getLatitude());
+            values.put("longitude", order.getLongitude());
+        } else {
+            values.putNull("latitude");
+            values.putNull("longitude");
+        }
+        long orderedAt = OrderDates.parse(order.getOrderDate(), branchZone);
+        if (orderedAt != OrderDates.UNKNOWN) {
+            values.put("ordered_at", orderedAt);
+        }
+
+        String[] id = {String.valueOf(order.getOrderId())};
+        if (db.update(TABLE_ORDERS, values, "order_id = ?", id) == 0) {
+            // Orders without a usable date sort by when they were first seen.
+            values.put("order_id", order.getOrderId());
+            values.put("ordered_at", orderedAt != OrderDates.UNKNOWN ? orderedAt : now);
+            values.put("recorded_at", now);
+            db.insertOrThrow(TABLE_ORDERS, null, values);
+        }
+
+        db.delete(TABLE_SEARCH, "docid = ?", id);
+        String tokens = HistoryTokenizer.indexText(order.getDeliveryAddress(), order.getItemSummary());
+        if (!tokens.isEmpty()) {
+            db.execSQL("INSERT INTO " + TABLE_SEARCH + " (docid, tokens) VALUES (?, ?)", new Object[]{order.getOrderId(), tokens});
+        }
+    }
+
+    @WorkerThread
+    @NonNull
+    private HistoryPage queryPage(@NonNull HistoryQuery query) {
+        long startedAt = SystemClock.elapsedRealtimeNanos();
+        List<OrderInfo> orders = new ArrayList<>();
+        long[] orderedAt = new long[query.getPageSize() + 1];
+        SQLiteDatabase db = openDatabase();
+        if (db != null) {
+            List<String> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ").append(TABLE_ORDERS).append(" o WHERE ");
+            appendFilters(sql, args, query);
+            if (!query.isFirstPage()) {
+                sql.append(" AND (o.ordered_at < ? OR (o.ordered_at = ? AND o.order_id < ?))");
+                args.add(String.valueOf(query.getBeforeMillis()));
+                args.add(String.valueOf(query.getBeforeMillis()));
+                args.add(String.valueOf(query.getBeforeOrderId()));
+            }
+            // One extra row tells whether another page follows.
+            sql.append(" ORDER BY o.ordered_at DESC, o.order_id DESC LIMIT ").append(query.getPageSize() + 1);
+            try (Cursor cursor = db.rawQuery(sql.toString(), args.toArray(new String[0]))) {
+                while (cursor.moveToNext()) {
+                    orderedAt[orders.size()] = cursor.getLong(13);
+                    orders.add(readOrder(cursor));
+                }
+            } catch (SQLiteException e) {
+                Log.w(TAG, "History query failed", e);
+                orders.clear();
+            }
+        }
+
+        HistoryQuery next = null;
+        if (orders.size() > query.getPageSize()) {
+            orders.remove(orders.size() - 1);
+            OrderInfo last = orders.get(orders.size() - 1);
+            next = query.after(orderedAt[orders.size() - 1], last.getOrderId());
+        }
+        long elapsed = SystemClock.elapsedRealtimeNanos() - startedAt;
+        return new HistoryPage(orders, Arrays.copyOf(orderedAt, orders.size()), next, elapsed);
+    }
+
+    @WorkerThread
+    @NonNull
+    private List<String> queryStatuses(int userId) {
+        List<String> statuses = new ArrayList<>();
+        SQLiteDatabase db = openDatabase();
+        if (db == null) {
+            return statuses;
+        }
+        // Grouping on status_key walks history_orders_by_status; MIN picks one spelling per key.
+        String sql = "SELECT MIN(status) FROM " + TABLE_ORDERS
+                + " WHERE user_id = ? AND status_key != '' GROUP BY status_key ORDER BY status_key";
+        try (Cursor cursor = db.rawQuery(sql, new String[]{String.valueOf(userId)})) {
+            while (cursor.moveToNext()) {
+                statuses.add(cursor.getString(0));
+            }
+        } catch (SQLiteException e) {
+            Log.w(TAG, "History status query failed", e);
+            statuses.clear();
+        }
+        return statuses;
+    }
+
+    @WorkerThread
+    @NonNull
+    private HistorySummary querySummary(@NonNull HistoryQuery query) {
+        SQLiteDatabase db = openDatabase();
+        if (db == null) {
+            return new HistorySummary(0, 0L);
+        }
+        List<String> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*), SUM(o.total_minor) FROM ").append(TABLE_ORDERS).append(" o WHERE ");
+        appendFilters(sql, args, query);
+        try (Cursor cursor = db.rawQuery(sql.toString(), args.toArray(new String[0]))) {
+            if (cursor.moveToFirst()) {
+                return new HistorySummary(cursor.getInt(0), cursor.getLong(1));
+            }
+        } catch (SQLiteException e) {
+            Log.w(TAG, "History summary failed", e);
+        }
+        return new HistorySummary(0, 0L);
+    }
+
+    private static void appendFilters(@NonNull StringBuilder sql, @NonNull List<String> args, @NonNull HistoryQuery query) {
+        sql.append("o.user_id = ?");
+        args.add(String.valueOf(query.getUserId()));
+        if (query.getStatus() != null) {
+            sql.append(" AND o.status_key = ?");
+            args.add(query.getStatus());
+        }
+        if (query.getFromMillis() != Long.MIN_VALUE) {
+            sql.append(" AND o.ordered_at >= ?");
+            args.add(String.valueOf(query.getFromMillis()));
+        }
+        if (query.getToMillis() != Long.MAX_VALUE) {
+            sql.append(" AND o.ordered_at < ?");
+            args.add(String.valueOf(query.getToMillis()));
+        }
+        if (query.getMatchExpression() != null) {
+            sql.append(" AND o.order_id IN (SELECT docid FROM ").append(TABLE_SEARCH)
+                    .append(" WHERE ").append(TABLE_SEARCH).append(" MATCH ?)");
+            args.add(query.getMatchExpression());
+        }
+    }
+
+    @NonNull
+    private static OrderInfo readOrder(@NonNull Cursor cursor) {
+        return new OrderInfo(
+                cursor.getInt(0),
+                cursor.getInt(1),
+                cursor.getString(2),
+                cursor.getString(3),
+                cursor.getString(4),
+                cursor.getString(5),
+                cursor.getInt(6),
+                Money.toMajorUnits(cursor.getLong(7)),
+                cursor.getString(8),
+                cursor.getString(9),
+                cursor.getString(10),
+                cursor.isNull(11) ? Double.NaN : cursor.getDouble(11),
+                cursor.isNull(12) ? Double.NaN : cursor.getDouble(12)
+        );
+    }
+
+    private static int fingerprint(int userId, @NonNull OrderInfo order) {
+        return Objects.hash(
+                userId,
+                order.getStatus(),
+                order.getOrderDate(),
+                order.getFulfillmentType(),
+                order.getSource(),
+                order.getItemCount(),
+                order.getTotalMinorUnits(),
+                order.getItemSummary(),
+                order.getImageUrl(),
+                order.getDeliveryAddress(),
+                order.getLatitude(),
+                order.getLongitude()
+        );
+    }
+
+    @WorkerThread
+    @Nullable
+    private SQLiteDatabase openDatabase() {
+        try {
+            return helper.getWritableDatabase();
+        } catch (SQLiteException e) {
+            Log.w(TAG, "Unable to open the history database", e);
+            return null;
+        }
+    }
+
+    private static final class DatabaseHelper extends SQLiteOpenHelper {
+
+        DatabaseHelper(@NonNull Context context) {
+            super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        }
+
+        @Override
+        public void onCreate(@NonNull SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE_ORDERS + " ("
+                    + "order_id INTEGER PRIMARY KEY, "
+                    + "user_id INTEGER NOT NULL, "
+                    + "status TEXT NOT NULL, "
+                    + "status_key TEXT NOT NULL, "
+                    + "ordered_at INTEGER NOT NULL, "
+                    + "order_date TEXT, "
+                    + "fulfillment_type TEXT, "
+                    + "source TEXT, "
+                    + "item_count INTEGER NOT NULL, "
+                    + "total_minor INTEGER NOT NULL, "
+                    + "item_summary TEXT, "
+                    + "image_url TEXT, "
+                    + "delivery_address TEXT, "
+                    + "latitude REAL, "
+                    + "longitude REAL, "
+                    + "recorded_at INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX history_orders_by_time ON " + TABLE_ORDERS + " (user_id, ordered_at, order_id)");
+            db.execSQL("CREATE INDEX history_orders_by_status ON " + TABLE_ORDERS + " (user_id, status_key, ordered_at, order_id)");
+            db.execSQL("CREATE VIRTUAL TABLE " + TABLE_SEARCH + " USING fts4(tokens, prefix=\"2,3\")");
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SQLiteDatabase db, int oldVersion, int newVersion) {
+            // No released schema has changed yet.
+        }
+
+        @Override
+        public void onOpen(@NonNull SQLiteDatabase db) {
+            super.onOpen(db);
+            if (db.isReadOnly()) {
+                return;
+            }
+            String[] cutoff = {String.valueOf(System.currentTimeMillis() - RETENTION_MS)};
+            db.beginTransaction();
+            try {
+                db.execSQL("DELETE FROM " + TABLE_SEARCH + " WHERE docid IN (SELECT order_id FROM " + TABLE_ORDERS
+                        + " WHERE ordered_at < ?)", cutoff);
+                db.delete(TABLE_ORDERS, "ordered_at < ?", cutoff);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.deliveryapp.history;
+
+/**
+ * Totals over every order a {@link HistoryQuery} matches, ignoring paging.
+ */
+public final class HistorySummary {
+
+    private final int orderCount;
+    private final long totalMinorUnits;
+
+    HistorySummary(int orderCount, long totalMinorUnits) {
+        this.orderCount = orderCount;
+        this.totalMinorUnits = totalMinorUnits;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Returns the sum of the matching order totals in centavos.
+     */
+    public long getTotalMinorUnits() {
+        return totalMinorUnits;
+    }
+}
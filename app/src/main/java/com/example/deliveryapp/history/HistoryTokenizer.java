@@ -0,0 +1,94 @@
+package com.example.deliveryapp.history;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits addresses, item summaries and search input into the tokens stored in the history search
+ * index. Both sides go through the same folding, so "Sampaloc" finds "SAMPALOC" and "Pañaderia"
+ * finds "panaderia": accents are stripped, case is folded and anything that is not a letter or
+ * digit separates tokens.
+ */
+public final class HistoryTokenizer {
+
+    /** Shorter search words match too much to be useful as prefixes. */
+    static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_QUERY_TOKENS = 8;
+
+    private HistoryTokenizer() {
+        // Utility class
+    }
+
+    /**
+     * Returns the distinct tokens of {@code text} in order of first appearance.
+     */
+    @NonNull
+    public static List<String> tokens(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.US);
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Builds the text indexed for one order: the tokens of its address and item summary.
+     */
+    @NonNull
+    public static String indexText(@Nullable String deliveryAddress, @Nullable String itemSummary) {
+        Set<String> tokens = new LinkedHashSet<>(tokens(deliveryAddress));
+        tokens.addAll(tokens(itemSummary));
+        return String.join(" ", tokens);
+    }
+
+    /**
+     * Turns free-form search input into a full-text {@code MATCH} expression where every word must
+     * match the start of some token, so typing "ens sampa" finds "Ensaymada" delivered to
+     * "Sampaloc".
+     *
+     * @return the expression, or {@code null} when the input has nothing searchable
+     */
+    @Nullable
+    public static String matchExpression(@Nullable String query) {
+        List<String> tokens = tokens(query);
+        StringBuilder expression = new StringBuilder();
+        int used = 0;
+        for (String token : tokens) {
+            if (used == MAX_QUERY_TOKENS) {
+                break;
+            }
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append(token);
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                expression.append('*');
+            }
+            used++;
+        }
+        return expression.length() > 0 ? expression.toString() : null;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.deliveryapp.history;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.TimeZone;
+
+/**
+ * Parses the order dates sent by the order API into epoch milliseconds, the sort key of the
+ * history store. The API sends MySQL-style {@code yyyy-MM-dd HH:mm:ss} values in branch time,
+ * sometimes with a {@code T} separator, fractional seconds, an explicit offset or without the
+ * time.
+ *
+ * <p>All accepted forms share one fixed layout, so values are read field by field at known
+ * positions rather than through {@code SimpleDateFormat}: history writes parse every order of a
+ * sync, and a formatter per pattern per call was most of that cost.</p>
+ */
+public final class OrderDates {
+
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private OrderDates() {
+        // Utility class
+    }
+
+    /**
+     * Accepts {@code yyyy-MM-dd}, optionally followed by {@code ' '} or {@code 'T'} and
+     * {@code HH:mm}, {@code HH:mm:ss} or {@code HH:mm:ss.fraction}. Complete date-times may end in
+     * {@code Z} or an offset ({@code +08:00}, {@code +0800}, {@code +08}); anything else is read in
+     * {@code zone}.
+     *
+     * @return epoch milliseconds, or {@link #UNKNOWN} when {@code raw} matches no known format
+     */
+    public static long parse(@Nullable String raw, @NonNull TimeZone zone) {
+        if (raw == null) {
+            return UNKNOWN;
+        }
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && raw.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start < 10) {
+            return UNKNOWN;
+        }
+
+        int year = digits(raw, start, 4);
+        int month = raw.charAt(start + 4) == '-' ? digits(raw, start + 5, 2) : -1;
+        int day = raw.charAt(start + 7) == '-' ? digits(raw, start + 8, 2) : -1;
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return UNKNOWN;
+        }
+        long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+        int index = start + 10;
+        if (index == end) {
+            return toUtc(millis, zone);
+        }
+
+        char separator = raw.charAt(index);
+        if ((separator != ' ' && separator != 'T') || end - index < 6 || raw.charAt(index + 3) != ':') {
+            return UNKNOWN;
+        }
+        int hour = digits(raw, index + 1, 2);
+        int minute = digits(raw, index + 4, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return UNKNOWN;
+        }
+        millis += (hour * 60L + minute) * MILLIS_PER_MINUTE;
+        index += 6;
+        if (index == end) {
+            return toUtc(millis, zone);
+        }
+
+        if (raw.charAt(index) != ':' || end - index < 3) {
+            return UNKNOWN;
+        }
+        int second = digits(raw, index + 1, 2);
+        if (second < 0 || second > 59) {
+            return UNKNOWN;
+        }
+        millis += second * 1000L;
+        index += 3;
+
+        if (index < end && raw.charAt(index) == '.') {
+            int fractionStart = ++index;
+            int fraction = 0;
+            while (index < end && isDigit(raw.charAt(index))) {
+                if (index - fractionStart < 3) {
+                    fraction = fraction * 10 + (raw.charAt(index) - '0');
+                }
+                index++;
+            }
+            int fractionDigits = index - fractionStart;
+            if (fractionDigits == 0) {
+                return UNKNOWN;
+            }
+            for (int i = fractionDigits; i < 3; i++) {
+                fraction *= 10;
+            }
+            millis += fraction;
+        }
+        if (index == end) {
+            return toUtc(millis, zone);
+        }
+
+        long offsetMillis = offset(raw, index, end);
+        return offsetMillis == UNKNOWN ? UNKNOWN : millis - offsetMillis;
+    }
+
+    /**
+     * Reads {@code Z}, {@code ±HH:mm}, {@code ±HHmm} or {@code ±HH} spanning exactly
+     * {@code [index, end)}.
+     */
+    private static long offset(@NonNull String raw, int index, int end) {
+        char sign = raw.charAt(index);
+        if (sign == 'Z' && index + 1 == end) {
+            return 0L;
+        }
+        if (sign != '+' && sign != '-') {
+            return UNKNOWN;
+        }
+        int length = end - index - 1;
+        int hours = length >= 2 ? digits(raw, index + 1, 2) : -1;
+        int minutes;
+        if (length == 2) {
+            minutes = 0;
+        } else if (length == 4) {
+            minutes = digits(raw, index + 3, 2);
+        } else if (length == 5 && raw.charAt(index + 3) == ':') {
+            minutes = digits(raw, index + 4, 2);
+        } else {
+            return UNKNOWN;
+        }
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+            return UNKNOWN;
+        }
+        long millis = (hours * 60L + minutes) * MILLIS_PER_MINUTE;
+        return sign == '-' ? -millis : millis;
+    }
+
+    /**
+     * Converts a wall-clock time in {@code zone}, expressed as if it were UTC, to epoch millis.
+     * Starting from standard time resolves the hour repeated when DST ends to its second
+     * occurrence, as {@code Calendar} does.
+     */
+    private static long toUtc(long localMillis, @NonNull TimeZone zone) {
+        return localMillis - zone.getOffset(localMillis - zone.getRawOffset());
+    }
+
+    /**
+     * @return the value of {@code count} ASCII digits at {@code index}, or -1 if any is not one
+     */
+    private static int digits(@NonNull String raw, int index, int count) {
+        int value = 0;
+        for (int i = index; i < index + count; i++) {
+            char c = raw.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar (Howard Hinnant's algorithm).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+}
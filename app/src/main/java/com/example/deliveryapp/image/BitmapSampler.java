@@ -0,0 +1,58 @@
+package com.example.deliveryapp.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+
+/**
+ * Decodes images at (roughly) the size they are displayed at instead of their full resolution,
+ * which keeps a 12 MP product photo from costing ~48 MB of heap for a 72 dp thumbnail.
+ */
+final class BitmapSampler {
+
+    private BitmapSampler() {
+        // Utility class
+    }
+
+    /**
+     * Returns the largest power-of-two sample size that keeps both decoded dimensions at least as
+     * large as the requested ones. Power-of-two values decode fastest.
+     */
+    static int calculateInSampleSize(int sourceWidth, int sourceHeight, int requestedWidth, int requestedHeight) {
+        if (requestedWidth <= 0 || requestedHeight <= 0) {
+            return 1;
+        }
+        int sampleSize = 1;
+        while (sourceWidth / (sampleSize * 2) >= requestedWidth
+                && sourceHeight / (sampleSize * 2) >= requestedHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    @WorkerThread
+    @Nullable
+    static Bitmap decode(@NonNull File file, int requestedWidth, int requestedHeight, @NonNull Bitmap.Config config) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inSampleSize = calculateInSampleSize(
+                options.outWidth,
+                options.outHeight,
+                requestedWidth,
+                requestedHeight
+        );
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = config;
+        return BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.deliveryapp.image;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stores downloaded image bytes in the app's cache directory, one file per URL. When the total
+ * size exceeds the budget the least recently used files are deleted; reads refresh a file's
+ * timestamp so it counts as used.
+ */
+final class ImageDiskCache {
+
+    private static final String TAG = "ImageDiskCache";
+    private static final String FILE_SUFFIX = ".img";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+
+    ImageDiskCache(@NonNull File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    @WorkerThread
+    @Nullable
+    File get(@NonNull String url) {
+        File file = fileFor(url);
+        if (!file.isFile()) {
+            return null;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Returns a fresh temporary file to download into. Pass it to {@link #commit(File, String)}
+     * once complete, or delete it on failure.
+     */
+    @WorkerThread
+    @NonNull
+    File newTempFile() throws IOException {
+        ensureDirectory();
+        return File.createTempFile("download", TEMP_SUFFIX, directory);
+    }
+
+    /**
+     * Moves a completed download into place for {@code url} and trims the cache.
+     */
+    @WorkerThread
+    @NonNull
+    File commit(@NonNull File tempFile, @NonNull String url) throws IOException {
+        File target = fileFor(url);
+        if (!tempFile.renameTo(target)) {
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+            throw new IOException("Unable to move downloaded image into the cache");
+        }
+        trim();
+        return target;
+    }
+
+    private synchronized void trim() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long total = 0L;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        // Trim a little below the budget so the next few downloads do not trim again.
+        long target = maxBytes - maxBytes / 10;
+        for (File file : files) {
+            if (total <= target) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private void ensureDirectory() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Unable to create image cache directory");
+        }
+    }
+
+    @NonNull
+    private File fileFor(@NonNull String url) {
+        return new File(directory, hash(url) + FILE_SUFFIX);
+    }
+
+    @NonNull
+    private static String hash(@NonNull String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            Log.w(TAG, "SHA-1 unavailable, falling back to hashCode", e);
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.example.deliveryapp.image;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.deliveryapp.network.ServerConnectionManager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads order images into {@link ImageView}s through three tiers: a memory LRU sized from the
+ * device's heap class, a disk cache, and the network. Images are decoded at the size of the view
+ * that shows them. Concurrent requests for the same image share a single load, loads for views
+ * that are rebound or scrolled away are cancelled, and {@link #prefetch(String, int, int)} warms
+ * the caches for rows about to become visible at a lower priority than on-screen rows.
+ *
+ * <p>The public methods must be called on the main thread.</p>
+ */
+public final class ImageLoader {
+
+    private static final String TAG = "ImageLoader";
+    private static final String DISK_CACHE_DIRECTORY = "images";
+    private static final long DISK_CACHE_BYTES = 20L * 1024 * 1024;
+    private static final long MAX_DOWNLOAD_BYTES = 8L * 1024 * 1024;
+    private static final int WORKER_THREADS = 3;
+    private static final int PRIORITY_VISIBLE = 0;
+    private static final int PRIORITY_PREFETCH = 1;
+
+    private static volatile ImageLoader instance;
+
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ImageDiskCache diskCache;
+    private final ThreadPoolExecutor executor;
+    private final Handler mainHandler;
+    private final Bitmap.Config bitmapConfig;
+    private final DisplayMetrics displayMetrics;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+
+    // Main-thread only.
+    private final Map<String, LoadTask> inFlight = new HashMap<>();
+    private final Map<ImageView, LoadTask> viewTasks = new WeakHashMap<>();
+    private final Map<ImageView, String> boundKeys = new WeakHashMap<>();
+
+    private ImageLoader(@NonNull Context context) {
+        Context appContext = context.getApplicationContext();
+        ActivityManager activityManager = (ActivityManager) appContext.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClassMb = activityManager != null ? activityManager.getMemoryClass() : 32;
+        boolean lowRamDevice = activityManager != null && activityManager.isLowRamDevice();
+
+        // An eighth of the app heap (a sixteenth on low-RAM devices) is plenty for list thumbnails.
+        int cacheBytes = memoryClassMb * 1024 * 1024 / (lowRamDevice ? 16 : 8);
+        memoryCache = new LruCache<String, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+        bitmapConfig = lowRamDevice ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        diskCache = new ImageDiskCache(new File(appContext.getCacheDir(), DISK_CACHE_DIRECTORY), DISK_CACHE_BYTES);
+        displayMetrics = appContext.getResources().getDisplayMetrics();
+        mainHandler = ServerConnectionManager.getInstance().getMainThreadHandler();
+
+        executor = new ThreadPoolExecutor(
+                WORKER_THREADS,
+                WORKER_THREADS,
+                30,
+                TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @NonNull
+    public static ImageLoader getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (ImageLoader.class) {
+                if (instance == null) {
+                    instance = new ImageLoader(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Shows the image at {@code url} (absolute, or relative to the API base URL) in {@code view},
+     * replacing whatever load was previously bound to it. Does nothing if the same image is
+     * already bound.
+     */
+    @MainThread
+    public void load(@NonNull ImageView view, @Nullable String url) {
+        URL resolved = resolve(url);
+        if (resolved == null) {
+            cancel(view);
+            boundKeys.remove(view);
+            view.setImageDrawable(null);
+            return;
+        }
+
+        int width = targetWidth(view);
+        int height = targetHeight(view);
+        String key = cacheKey(resolved, width, height);
+        if (key.equals(boundKeys.get(view))) {
+            return;
+        }
+
+        cancel(view);
+        boundKeys.put(view, key);
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        view.setImageDrawable(null);
+        LoadTask task = obtainTask(key, resolved, width, height, PRIORITY_VISIBLE);
+        task.targets.add(view);
+        viewTasks.put(view, task);
+    }
+
+    /**
+     * Stops a pending load for {@code view}. The shared load keeps running if other views or a
+     * prefetch still need it.
+     */
+    @MainThread
+    public void cancel(@NonNull ImageView view) {
+        LoadTask task = viewTasks.remove(view);
+        if (task == null) {
+            return;
+        }
+        boundKeys.remove(view);
+        task.targets.remove(view);
+        releaseIfUnused(task);
+    }
+
+    /**
+     * Loads the image into the memory cache at the given display size without showing it.
+     */
+    @MainThread
+    public void prefetch(@Nullable String url, int widthPx, int heightPx) {
+        URL resolved = resolve(url);
+        if (resolved == null) {
+            return;
+        }
+        String key = cacheKey(resolved, widthPx, heightPx);
+        if (memoryCache.get(key) != null) {
+            return;
+        }
+        obtainTask(key, resolved, widthPx, heightPx, PRIORITY_PREFETCH).prefetch = true;
+    }
+
+    @MainThread
+    public void cancelPrefetch(@Nullable String url, int widthPx, int heightPx) {
+        URL resolved = resolve(url);
+        if (resolved == null) {
+            return;
+        }
+        LoadTask task = inFlight.get(cacheKey(resolved, widthPx, heightPx));
+        if (task != null) {
+            task.prefetch = false;
+            releaseIfUnused(task);
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "ImageLoader{memory=%d/%d B, memoryHits=%d, diskHits=%d, downloads=%d, inFlight=%d}",
+                memoryCache.size(),
+                memoryCache.maxSize(),
+                memoryHits.get(),
+                diskHits.get(),
+                downloads.get(),
+                inFlight.size()
+        );
+    }
+
+    @NonNull
+    private LoadTask obtainTask(@NonNull String key, @NonNull URL url, int width, int height, int priority) {
+        LoadTask task = inFlight.get(key);
+        if (task == null) {
+            task = new LoadTask(key, url, width, height, priority, sequence.incrementAndGet());
+            inFlight.put(key, task);
+            executor.execute(task);
+        } else if (priority < task.priority && executor.remove(task)) {
+            // Still queued as a prefetch: re-queue it ahead of other prefetches.
+            task.priority = priority;
+            executor.execute(task);
+        }
+        return task;
+    }
+
+    private void releaseIfUnused(@NonNull LoadTask task) {
+        if (!task.targets.isEmpty() || task.prefetch) {
+            return;
+        }
+        task.cancelled = true;
+        executor.remove(task);
+        if (inFlight.get(task.key) == task) {
+            inFlight.remove(task.key);
+        }
+    }
+
+    @MainThread
+    private void deliver(@NonNull LoadTask task, @Nullable Bitmap bitmap) {
+        if (inFlight.get(task.key) == task) {
+            inFlight.remove(task.key);
+        }
+        for (ImageView view : task.targets) {
+            if (viewTasks.get(view) != task) {
+                continue;
+            }
+            viewTasks.remove(view);
+            if (bitmap != null) {
+                view.setImageBitmap(bitmap);
+            } else {
+                // Allow a later bind to retry.
+                boundKeys.remove(view);
+            }
+        }
+        task.targets.clear();
+    }
+
+    @WorkerThread
+    @Nullable
+    private Bitmap fetch(@NonNull LoadTask task) throws IOException {
+        String url = task.url.toString();
+        File file = diskCache.get(url);
+        if (file != null) {
+            diskHits.incrementAndGet();
+        } else {
+            file = download(task);
+            if (file == null) {
+                return null;
+            }
+        }
+        if (task.cancelled) {
+            return null;
+        }
+        return BitmapSampler.decode(file, task.width, task.height, bitmapConfig);
+    }
+
+    @WorkerThread
+    @Nullable
+    private File download(@NonNull LoadTask task) throws IOException {
+        HttpURLConnection connection = null;
+        File tempFile = null;
+        boolean completed = false;
+        try {
+            connection = (HttpURLConnection) task.url.openConnection();
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(10_000);
+            connection.setRequestMethod("GET");
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new IOException("HTTP " + statusCode);
+            }
+            long declaredLength = connection.getContentLength();
+            if (declaredLength > MAX_DOWNLOAD_BYTES) {
+                throw new IOException("Image too large: " + declaredLength + " bytes");
+            }
+
+            tempFile = diskCache.newTempFile();
+            long total = 0L;
+            try (InputStream input = connection.getInputStream();
+                 OutputStream output = new FileOutputStream(tempFile)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    if (task.cancelled) {
+                        return null;
+                    }
+                    total += read;
+                    if (total > MAX_DOWNLOAD_BYTES) {
+                        throw new IOException("Image exceeds " + MAX_DOWNLOAD_BYTES + " bytes");
+                    }
+                    output.write(buffer, 0, read);
+                }
+            }
+            completed = true;
+            downloads.incrementAndGet();
+            File stored = diskCache.commit(tempFile, task.url.toString());
+            tempFile = null;
+            return stored;
+        } finally {
+            if (tempFile != null) {
+                //noinspection ResultOfMethodCallIgnored
+                tempFile.delete();
+            }
+            if (connection != null && !completed) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    @Nullable
+    private static URL resolve(@Nullable String url) {
+        if (url == null || url.trim().isEmpty()) {
+            return null;
+        }
+        return ServerConnectionManager.getInstance().buildUrl(url);
+    }
+
+    @NonNull
+    private static String cacheKey(@NonNull URL url, int width, int height) {
+        return url + "@" + width + "x" + height;
+    }
+
+    private int targetWidth(@NonNull ImageView view) {
+        if (view.getWidth() > 0) {
+            return view.getWidth();
+        }
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null && params.width > 0) {
+            return params.width;
+        }
+        return displayMetrics.widthPixels;
+    }
+
+    private int targetHeight(@NonNull ImageView view) {
+        if (view.getHeight() > 0) {
+            return view.getHeight();
+        }
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null && params.height > 0) {
+            return params.height;
+        }
+        return displayMetrics.heightPixels;
+    }
+
+    private final class LoadTask implements Runnable, Comparable<LoadTask> {
+
+        @NonNull
+        final String key;
+        @NonNull
+        final URL url;
+        final int width;
+        final int height;
+        final long order;
+        // Main-thread only.
+        final List<ImageView> targets = new ArrayList<>(1);
+        boolean prefetch;
+        volatile int priority;
+        volatile boolean cancelled;
+
+        LoadTask(@NonNull String key, @NonNull URL url, int width, int height, int priority, long order) {
+            this.key = key;
+            this.url = url;
+            this.width = width;
+            this.height = height;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            Bitmap bitmap = null;
+            try {
+                bitmap = fetch(this);
+            } catch (IOException | OutOfMemoryError e) {
+                Log.d(TAG, "Unable to load " + url + ": " + e.getMessage());
+            }
+            if (bitmap != null) {
+                memoryCache.put(key, bitmap);
+            }
+            final Bitmap result = bitmap;
+            mainHandler.post(() -> deliver(this, result));
+        }
+
+        @Override
+        public int compareTo(@NonNull LoadTask other) {
+            if (priority != other.priority) {
+                return Integer.compare(priority, other.priority);
+            }
+            // Newer requests first: the rows the rider just scrolled to matter most.
+            return Long.compare(other.order, order);
+        }
+    }
+}
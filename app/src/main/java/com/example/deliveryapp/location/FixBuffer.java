@@ -0,0 +1,282 @@
+package com.example.deliveryapp.location;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds recorded fixes until they are uploaded, delta-encoded so a shift's worth fits in a few
+ * tens of kilobytes. Each fix is stored as five variable-length integers: the time, latitude and
+ * longitude as zig-zag encoded differences from the previous fix (the first fix against zero),
+ * then accuracy and speed as plain values. Consecutive fixes a few seconds and meters apart take
+ * about eight bytes instead of the 30-plus of fixed-width fields.
+ *
+ * <p>When given a file the buffer is also an append-only log: every fix is appended as it is
+ * recorded, so a process killed mid-shift loses nothing, and {@link #load()} reads it back,
+ * ignoring a record cut short by a crash. Discarding uploaded fixes rewrites the file through a
+ * temporary copy.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public final class FixBuffer {
+
+    /** Eight hours of fixes at the fastest sampling rate, with room to spare. */
+    public static final int DEFAULT_MAX_FIXES = 20_000;
+
+    /**
+     * Share of the cap that may build up beyond it before the oldest fixes are dropped, so the
+     * file is rewritten once per batch of fixes rather than for every fix.
+     */
+    private static final int TRIM_BATCH_DIVISOR = 10;
+    private static final int FIELDS_PER_FIX = 5;
+    private static final int MAX_RECORD_BYTES = FIELDS_PER_FIX * 10;
+
+    @Nullable
+    private final File file;
+    private final int maxFixes;
+    private final int trimBatch;
+
+    private byte[] bytes = new byte[1024];
+    private int length;
+    private int count;
+    @Nullable
+    private LocationFix last;
+
+    public FixBuffer(@Nullable File file) {
+        this(file, DEFAULT_MAX_FIXES);
+    }
+
+    public FixBuffer(@Nullable File file, int maxFixes) {
+        if (maxFixes <= 0) {
+            throw new IllegalArgumentException("maxFixes must be positive");
+        }
+        this.file = file;
+        this.maxFixes = maxFixes;
+        this.trimBatch = Math.max(1, maxFixes / TRIM_BATCH_DIVISOR);
+    }
+
+    /**
+     * Replaces the buffer's contents with the fixes logged in the backing file.
+     */
+    public void load() throws IOException {
+        clearMemory();
+        if (file == null) {
+            return;
+        }
+        byte[] stored;
+        try (InputStream input = new FileInputStream(file)) {
+            stored = readFully(input, file.length());
+        } catch (FileNotFoundException e) {
+            return;
+        }
+        List<LocationFix> fixes = decode(stored, stored.length, Integer.MAX_VALUE);
+        for (LocationFix fix : fixes) {
+            appendToMemory(fix);
+        }
+        if (length != stored.length || count > maxFixes) {
+            // Torn final record, or the cap shrank: persist the clean prefix.
+            trimToCap();
+            rewriteFile();
+        }
+    }
+
+    /**
+     * Records {@code fix}. Once the cap is exceeded by a tenth, the oldest fixes are dropped down
+     * to the cap in one go.
+     */
+    public void append(@NonNull LocationFix fix) throws IOException {
+        int start = length;
+        appendToMemory(fix);
+        if (file != null) {
+            try (FileOutputStream output = new FileOutputStream(file, true)) {
+                output.write(bytes, start, length - start);
+            }
+        }
+        if (count >= maxFixes + trimBatch) {
+            discardOldest(count - maxFixes);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the encoded size of the held fixes in bytes.
+     */
+    public int byteSize() {
+        return length;
+    }
+
+    /**
+     * Returns up to {@code max} of the oldest fixes, oldest first, without removing them.
+     */
+    @NonNull
+    public List<LocationFix> peek(int max) {
+        if (count == 0 || max <= 0) {
+            return Collections.emptyList();
+        }
+        return decode(bytes, length, max);
+    }
+
+    @Nullable
+    public LocationFix getOldest() {
+        List<LocationFix> oldest = peek(1);
+        return oldest.isEmpty() ? null : oldest.get(0);
+    }
+
+    /**
+     * Removes the {@code n} oldest fixes, typically once they were uploaded.
+     */
+    public void discardOldest(int n) throws IOException {
+        if (n <= 0) {
+            return;
+        }
+        if (n >= count) {
+            clear();
+            return;
+        }
+        List<LocationFix> remaining = decode(bytes, length, Integer.MAX_VALUE);
+        clearMemory();
+        for (LocationFix fix : remaining.subList(n, remaining.size())) {
+            appendToMemory(fix);
+        }
+        rewriteFile();
+    }
+
+    public void clear() throws IOException {
+        clearMemory();
+        if (file != null && file.exists() && !file.delete()) {
+            throw new IOException("Unable to delete " + file);
+        }
+    }
+
+    private void clearMemory() {
+        length = 0;
+        count = 0;
+        last = null;
+    }
+
+    private void trimToCap() {
+        if (count <= maxFixes) {
+            return;
+        }
+        List<LocationFix> fixes = decode(bytes, length, Integer.MAX_VALUE);
+        clearMemory();
+        for (LocationFix fix : fixes.subList(fixes.size() - maxFixes, fixes.size())) {
+            appendToMemory(fix);
+        }
+    }
+
+    private void appendToMemory(@NonNull LocationFix fix) {
+        if (length + MAX_RECORD_BYTES > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + MAX_RECORD_BYTES));
+        }
+        LocationFix previous = last;
+        length = writeZigZag(bytes, length, fix.getTimeMillis() - (previous != null ? previous.getTimeMillis() : 0L));
+        length = writeZigZag(bytes, length, (long) fix.getLatitudeE6() - (previous != null ? previous.getLatitudeE6() : 0));
+        length = writeZigZag(bytes, length, (long) fix.getLongitudeE6() - (previous != null ? previous.getLongitudeE6() : 0));
+        length = writeVarLong(bytes, length, fix.getAccuracyMeters());
+        length = writeVarLong(bytes, length, fix.getSpeedDecimetersPerSecond());
+        last = fix;
+        count++;
+    }
+
+    private void rewriteFile() throws IOException {
+        if (file == null) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temp)) {
+            output.write(bytes, 0, length);
+        }
+        if (!temp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw new IOException("Unable to replace " + file);
+        }
+    }
+
+    /**
+     * Decodes up to {@code max} complete fixes from the first {@code limit} bytes of
+     * {@code source}.
+     */
+    @NonNull
+    static List<LocationFix> decode(@NonNull byte[] source, int limit, int max) {
+        List<LocationFix> fixes = new ArrayList<>();
+        long[] fields = new long[FIELDS_PER_FIX];
+        long time = 0;
+        long latitude = 0;
+        long longitude = 0;
+        int position = 0;
+        while (position < limit && fixes.size() < max) {
+            int cursor = position;
+            for (int field = 0; field < FIELDS_PER_FIX; field++) {
+                long value = 0;
+                int shift = 0;
+                boolean complete = false;
+                while (cursor < limit && shift < 64) {
+                    byte b = source[cursor++];
+                    value |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                    if ((b & 0x80) == 0) {
+                        complete = true;
+                        break;
+                    }
+                }
+                if (!complete) {
+                    return fixes;
+                }
+                fields[field] = value;
+            }
+            time += unZigZag(fields[0]);
+            latitude += unZigZag(fields[1]);
+            longitude += unZigZag(fields[2]);
+            fixes.add(new LocationFix(time, (int) latitude, (int) longitude, (int) fields[3], (int) fields[4]));
+            position = cursor;
+        }
+        return fixes;
+    }
+
+    private static int writeZigZag(@NonNull byte[] target, int offset, long value) {
+        return writeVarLong(target, offset, (value << 1) ^ (value >> 63));
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarLong(@NonNull byte[] target, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset++] = (byte) value;
+        return offset;
+    }
+
+    @NonNull
+    private static byte[] readFully(@NonNull InputStream input, long expectedLength) throws IOException {
+        byte[] buffer = new byte[(int) Math.max(0, Math.min(expectedLength, Integer.MAX_VALUE - 8))];
+        int total = 0;
+        int read;
+        while (total < buffer.length && (read = input.read(buffer, total, buffer.length - total)) != -1) {
+            total += read;
+        }
+        return total == buffer.length ? buffer : Arrays.copyOf(buffer, total);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.deliveryapp.location;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Posts a batch of fixes as gzip-compressed JSON. Rows after the first hold differences from the
+ * previous row, mirroring {@link FixBuffer}, so the repetitive digits compress away:
+ *
+ * <pre>
+ * {"user_id":7,"shift_id":42,"encoding":"delta",
+ *  "fields":["time_ms","lat_e6","lng_e6","accuracy_m","speed_dms"],
+ *  "fixes":[[1718000000000,14599500,120984200,8,52],[5000,-312,127,7,55],...]}
+ * </pre>
+ *
+ * <p>The endpoint must accept {@code Content-Encoding: gzip}.</p>
+ */
+public final class LocationBatchUploader {
+
+    /**
+     * Outcome of one upload attempt.
+     */
+    public static final class Result {
+
+        private final int statusCode;
+        private final int jsonBytes;
+        private final int sentBytes;
+
+        Result(int statusCode, int jsonBytes, int sentBytes) {
+            this.statusCode = statusCode;
+            this.jsonBytes = jsonBytes;
+            this.sentBytes = sentBytes;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public boolean isSuccessful() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+
+        /**
+         * Returns whether the server refused this batch outright, so sending it again is useless.
+         */
+        public boolean isRejected() {
+            return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+        }
+
+        public int getJsonBytes() {
+            return jsonBytes;
+        }
+
+        public int getSentBytes() {
+            return sentBytes;
+        }
+    }
+
+    private static final int TIMEOUT_MS = 10_000;
+
+    @WorkerThread
+    @NonNull
+    public Result upload(@NonNull URL endpoint, int userId, int shiftId, @NonNull List<LocationFix> fixes) throws IOException {
+        byte[] json = toJson(userId, shiftId, fixes).getBytes(StandardCharsets.UTF_8);
+        byte[] body = gzip(json);
+
+        HttpURLConnection connection = null;
+        boolean bodyConsumed = false;
+        try {
+            connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body);
+            }
+
+            int statusCode = connection.getResponseCode();
+            InputStream response = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (response != null) {
+                try (InputStream input = response) {
+                    byte[] discard = new byte[1024];
+                    while (input.read(discard) != -1) {
+                        // Read to the end so the connection can be reused.
+                    }
+                }
+            }
+            bodyConsumed = true;
+            return new Result(statusCode, json.length, body.length);
+        } finally {
+            if (connection != null && !bodyConsumed) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    @NonNull
+    static String toJson(int userId, int shiftId, @NonNull List<LocationFix> fixes) {
+        StringBuilder json = new StringBuilder(64 + fixes.size() * 24);
+        json.append("{\"user_id\":").append(userId)
+                .append(",\"shift_id\":").append(shiftId)
+                .append(",\"encoding\":\"delta\"")
+                .append(",\"fields\":[\"time_ms\",\"lat_e6\",\"lng_e6\",\"accuracy_m\",\"speed_dms\"]")
+                .append(",\"fixes\":[");
+        LocationFix previous = null;
+        for (LocationFix fix : fixes) {
+            if (previous != null) {
+                json.append(',');
+            }
+            json.append('[')
+                    .append(fix.getTimeMillis() - (previous != null ? previous.getTimeMillis() : 0L)).append(',')
+                    .append(fix.getLatitudeE6() - (previous != null ? previous.getLatitudeE6() : 0)).append(',')
+                    .append(fix.getLongitudeE6() - (previous != null ? previous.getLongitudeE6() : 0)).append(',')
+                    .append(fix.getAccuracyMeters()).append(',')
+                    .append(fix.getSpeedDecimetersPerSecond())
+                    .append(']');
+            previous = fix;
+        }
+        return json.append("]}").toString();
+    }
+
+    @NonNull
+    private static byte[] gzip(@NonNull byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.deliveryapp.location;
+
+import androidx.annotation.NonNull;
+
+import com.example.deliveryapp.route.GeoPoint;
+
+import java.util.Locale;
+
+/**
+ * One position report. Coordinates are stored in millionths of a degree (about 11 cm), accuracy
+ * in whole meters and speed in tenths of a meter per second, which is all dispatch needs and lets
+ * {@link FixBuffer} encode consecutive fixes as small integer deltas.
+ */
+public final class LocationFix {
+
+    private final long timeMillis;
+    private final int latitudeE6;
+    private final int longitudeE6;
+    private final int accuracyMeters;
+    private final int speedDecimetersPerSecond;
+
+    public LocationFix(long timeMillis, int latitudeE6, int longitudeE6, int accuracyMeters, int speedDecimetersPerSecond) {
+        this.timeMillis = timeMillis;
+        this.latitudeE6 = latitudeE6;
+        this.longitudeE6 = longitudeE6;
+        this.accuracyMeters = Math.max(0, accuracyMeters);
+        this.speedDecimetersPerSecond = Math.max(0, speedDecimetersPerSecond);
+    }
+
+    /**
+     * @param speedMetersPerSecond negative when the provider reported no speed
+     */
+    @NonNull
+    public static LocationFix of(
+            long timeMillis,
+            double latitude,
+            double longitude,
+            float accuracyMeters,
+            float speedMetersPerSecond
+    ) {
+        return new LocationFix(
+                timeMillis,
+                (int) Math.round(latitude * 1e6),
+                (int) Math.round(longitude * 1e6),
+                Math.round(accuracyMeters),
+                speedMetersPerSecond < 0 ? 0 : Math.round(speedMetersPerSecond * 10)
+        );
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getLatitudeE6() {
+        return latitudeE6;
+    }
+
+    public int getLongitudeE6() {
+        return longitudeE6;
+    }
+
+    public int getAccuracyMeters() {
+        return accuracyMeters;
+    }
+
+    public int getSpeedDecimetersPerSecond() {
+        return speedDecimetersPerSecond;
+    }
+
+    public float getSpeedMetersPerSecond() {
+        return speedDecimetersPerSecond / 10f;
+    }
+
+    @NonNull
+    public GeoPoint toGeoPoint() {
+        return new GeoPoint(latitudeE6 / 1e6, longitudeE6 / 1e6);
+    }
+
+    public double distanceTo(@NonNull LocationFix other) {
+        return toGeoPoint().distanceTo(other.toGeoPoint());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LocationFix)) {
+            return false;
+        }
+        LocationFix fix = (LocationFix) other;
+        return timeMillis == fix.timeMillis
+                && latitudeE6 == fix.latitudeE6
+                && longitudeE6 == fix.longitudeE6
+                && accuracyMeters == fix.accuracyMeters
+                && speedDecimetersPerSecond == fix.speedDecimetersPerSecond;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(timeMillis);
+        result = 31 * result + latitudeE6;
+        result = 31 * result + longitudeE6;
+        result = 31 * result + accuracyMeters;
+        result = 31 * result + speedDecimetersPerSecond;
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "LocationFix{t=%d, %.6f, %.6f, ±%dm, %.1fm/s}",
+                timeMillis,
+                latitudeE6 / 1e6,
+                longitudeE6 / 1e6,
+                accuracyMeters,
+                getSpeedMetersPerSecond()
+        );
+    }
+}
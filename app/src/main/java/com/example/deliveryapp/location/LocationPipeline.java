@@ -0,0 +1,225 @@
+package com.example.deliveryapp.location;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one shift's fixes from the location provider to the server: {@link SamplingPolicy} filters
+ * them, {@link FixBuffer} holds them, and {@link LocationBatchUploader} sends them in batches.
+ *
+ * <p>Waking the cellular radio costs far more battery than the few kilobytes sent, so uploads
+ * are timed to share radio wake-ups. A batch goes out on its own only once it is
+ * {@link #MAX_BATCH_AGE_MS} old or {@link #FULL_BATCH_FIXES} long. When other app traffic has
+ * just woken the radio ({@link #onNetworkActivity(long)}), anything older than
+ * {@link #PIGGYBACK_MIN_AGE_MS} rides along. Failed uploads back off exponentially and keep their
+ * fixes.</p>
+ *
+ * <p>Times are wall-clock milliseconds supplied by the caller. Not thread-safe: confine each
+ * pipeline to one worker thread.</p>
+ */
+public final class LocationPipeline {
+
+    public static final long MAX_BATCH_AGE_MS = TimeUnit.MINUTES.toMillis(5);
+    public static final int FULL_BATCH_FIXES = 200;
+    public static final long PIGGYBACK_MIN_AGE_MS = TimeUnit.SECONDS.toMillis(30);
+    public static final int MAX_UPLOAD_FIXES = 500;
+
+    private static final long INITIAL_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final FixBuffer buffer;
+    private final SamplingPolicy policy;
+    private final LocationBatchUploader uploader;
+    private final URL endpoint;
+    private final int userId;
+    private final int shiftId;
+
+    private long nextAttemptAt;
+    private long retryDelayMs = INITIAL_RETRY_DELAY_MS;
+
+    private int recordedFixes;
+    private int skippedFixes;
+    private int uploads;
+    private int piggybackedUploads;
+    private int failedUploads;
+    private int uploadedFixes;
+    private int rejectedFixes;
+    private long jsonBytes;
+    private long sentBytes;
+
+    public LocationPipeline(
+            @NonNull FixBuffer buffer,
+            @NonNull SamplingPolicy policy,
+            @NonNull LocationBatchUploader uploader,
+            @NonNull URL endpoint,
+            int userId,
+            int shiftId
+    ) {
+        this.buffer = buffer;
+        this.policy = policy;
+        this.uploader = uploader;
+        this.endpoint = endpoint;
+        this.userId = userId;
+        this.shiftId = shiftId;
+    }
+
+    public int getShiftId() {
+        return shiftId;
+    }
+
+    @NonNull
+    public SamplingPolicy.Tier getTier() {
+        return policy.getTier();
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Offers a new fix; records it if the sampling policy keeps it and uploads when a batch is
+     * due.
+     *
+     * @return whether the fix was recorded
+     */
+    @WorkerThread
+    public boolean onFix(@NonNull LocationFix fix, long nowMillis) throws IOException {
+        boolean keep = policy.offer(fix);
+        if (keep) {
+            buffer.append(fix);
+            recordedFixes++;
+        } else {
+            skippedFixes++;
+        }
+        if (isUploadDue(nowMillis, false)) {
+            uploadPending(nowMillis, false);
+        }
+        return keep;
+    }
+
+    /**
+     * Tells the pipeline another request just used the network, so sending now is cheap.
+     */
+    @WorkerThread
+    public void onNetworkActivity(long nowMillis) {
+        if (isUploadDue(nowMillis, true)) {
+            uploadPending(nowMillis, true);
+        }
+    }
+
+    /**
+     * Sends everything still buffered regardless of age or back-off, e.g. at the end of a shift.
+     *
+     * @return whether the buffer is now empty
+     */
+    @WorkerThread
+    public boolean flush(long nowMillis) {
+        if (!buffer.isEmpty()) {
+            uploadPending(nowMillis, false);
+        }
+        return buffer.isEmpty();
+    }
+
+    boolean isUploadDue(long nowMillis, boolean networkActive) {
+        if (buffer.isEmpty() || nowMillis < nextAttemptAt) {
+            return false;
+        }
+        if (buffer.size() >= FULL_BATCH_FIXES) {
+            return true;
+        }
+        LocationFix oldest = buffer.getOldest();
+        long age = oldest != null ? nowMillis - oldest.getTimeMillis() : 0L;
+        return age >= MAX_BATCH_AGE_MS || (networkActive && age >= PIGGYBACK_MIN_AGE_MS);
+    }
+
+    private void uploadPending(long nowMillis, boolean piggybacked) {
+        while (!buffer.isEmpty()) {
+            List<LocationFix> batch = buffer.peek(MAX_UPLOAD_FIXES);
+            try {
+                LocationBatchUploader.Result result = uploader.upload(endpoint, userId, shiftId, batch);
+                jsonBytes += result.getJsonBytes();
+                sentBytes += result.getSentBytes();
+                if (result.isSuccessful()) {
+                    uploads++;
+                    if (piggybacked) {
+                        piggybackedUploads++;
+                    }
+                    uploadedFixes += batch.size();
+                } else if (result.isRejected()) {
+                    rejectedFixes += batch.size();
+                } else {
+                    scheduleRetry(nowMillis);
+                    return;
+                }
+                buffer.discardOldest(batch.size());
+                nextAttemptAt = 0;
+                retryDelayMs = INITIAL_RETRY_DELAY_MS;
+            } catch (IOException e) {
+                scheduleRetry(nowMillis);
+                return;
+            }
+        }
+    }
+
+    private void scheduleRetry(long nowMillis) {
+        failedUploads++;
+        nextAttemptAt = nowMillis + retryDelayMs;
+        retryDelayMs = Math.min(MAX_RETRY_DELAY_MS, retryDelayMs * 2);
+    }
+
+    public int getRecordedFixes() {
+        return recordedFixes;
+    }
+
+    public int getSkippedFixes() {
+        return skippedFixes;
+    }
+
+    public int getUploads() {
+        return uploads;
+    }
+
+    public int getPiggybackedUploads() {
+        return piggybackedUploads;
+    }
+
+    public int getFailedUploads() {
+        return failedUploads;
+    }
+
+    public int getUploadedFixes() {
+        return uploadedFixes;
+    }
+
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "LocationPipeline{shift=%d, recorded=%d, skipped=%d, pending=%d (%d bytes), uploads=%d "
+                        + "(%d piggybacked, %d failed), uploadedFixes=%d, rejectedFixes=%d, json=%d bytes, sent=%d bytes}",
+                shiftId,
+                recordedFixes,
+                skippedFixes,
+                buffer.size(),
+                buffer.byteSize(),
+                uploads,
+                piggybackedUploads,
+                failedUploads,
+                uploadedFixes,
+                rejectedFixes,
+                jsonBytes,
+                sentBytes
+        );
+    }
+}
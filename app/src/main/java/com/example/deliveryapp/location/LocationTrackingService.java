@@ -0,0 +1,113 @@
+package com.example.deliveryapp.location;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.IBinder;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.R;
+import com.example.deliveryapp.StatusActivity;
+
+/**
+ * Keeps the app in the foreground, with an ongoing notification, while
+ * {@link RiderLocationTracker} reports a shift. Without it the platform throttles location
+ * updates to a few an hour as soon as the rider leaves the app. The service does no work of its
+ * own; the tracker starts it with tracking and stops it with tracking.
+ */
+public final class LocationTrackingService extends Service {
+
+    private static final String TAG = "LocationTrackingService";
+    private static final String CHANNEL_ID = "shift_location";
+    private static final int NOTIFICATION_ID = 1001;
+
+    /**
+     * Starts the service, or does nothing if the platform refuses, as it does for apps started
+     * from the background on Android 12 and later.
+     */
+    static void start(@NonNull Context context) {
+        Intent intent = new Intent(context, LocationTrackingService.class);
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                context.startForegroundService(intent);
+            } else {
+                context.startService(intent);
+            }
+        } catch (IllegalStateException | SecurityException e) {
+            Log.w(TAG, "Unable to start the location service", e);
+        }
+    }
+
+    static void stop(@NonNull Context context) {
+        context.stopService(new Intent(context, LocationTrackingService.class));
+    }
+
+    @Override
+    public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                startForeground(NOTIFICATION_ID, buildNotification(), ServiceInfo.FOREGROUND_SERVICE_TYPE_LOCATION);
+            } else {
+                startForeground(NOTIFICATION_ID, buildNotification());
+            }
+        } catch (IllegalStateException | SecurityException e) {
+            // Permission revoked or start not allowed; the tracker keeps working while the app is open.
+            Log.w(TAG, "Unable to enter the foreground", e);
+            stopSelf();
+        }
+        // Tracking does not survive the process, so neither should the service.
+        return START_NOT_STICKY;
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(@Nullable Intent intent) {
+        return null;
+    }
+
+    @NonNull
+    private Notification buildNotification() {
+        PendingIntent openStatus = PendingIntent.getActivity(
+                this,
+                0,
+                new Intent(this, StatusActivity.class),
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        Notification.Builder builder;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationManager notificationManager = getSystemService(NotificationManager.class);
+            if (notificationManager != null) {
+                notificationManager.createNotificationChannel(new NotificationChannel(
+                        CHANNEL_ID,
+                        getString(R.string.location_tracking_channel),
+                        NotificationManager.IMPORTANCE_LOW
+                ));
+            }
+            builder = new Notification.Builder(this, CHANNEL_ID);
+        } else {
+            builder = legacyBuilder();
+        }
+        return builder
+                .setSmallIcon(R.drawable.ic_location)
+                .setContentTitle(getString(R.string.location_tracking_title))
+                .setContentText(getString(R.string.location_tracking_text))
+                .setContentIntent(openStatus)
+                .setOngoing(true)
+                .build();
+    }
+
+    @NonNull
+    @SuppressWarnings("deprecation")
+    private Notification.Builder legacyBuilder() {
+        return new Notification.Builder(this).setPriority(Notification.PRIORITY_LOW);
+    }
+}
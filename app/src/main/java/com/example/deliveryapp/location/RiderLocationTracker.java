@@ -0,0 +1,320 @@
+package com.example.deliveryapp.location;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.deliveryapp.AppConfig;
+import com.example.deliveryapp.network.ServerConnectionManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the rider's position to {@link AppConfig#LOCATION_UPLOAD_PATH} while a shift is in
+ * progress. Fixes come from the platform {@link LocationManager} at the rate the
+ * {@link SamplingPolicy} picks for the rider's current speed and flow through a
+ * {@link LocationPipeline} on a dedicated background thread. Pending fixes are kept in a per-shift
+ * file, so they survive the process being killed and are sent when tracking resumes for the same
+ * shift.
+ *
+ * <p>While tracking, a {@link LocationTrackingService} keeps the app in the foreground so updates
+ * keep arriving when the rider switches to another app. Tracking stops when {@link #stop()} is
+ * called at shift end or after {@link #MAX_TRACKING_MS} as a safety net, with a final attempt to
+ * send what is left.</p>
+ */
+public final class RiderLocationTracker {
+
+    /** Longer than any shift; stops tracking if the end of a shift is never observed. */
+    public static final long MAX_TRACKING_MS = TimeUnit.HOURS.toMillis(12);
+
+    private static final String TAG = "RiderLocationTracker";
+    private static final String BUFFER_FILE_PREFIX = "location_fixes_";
+    private static final float UNKNOWN_ACCURACY_METERS = 999f;
+
+    private static volatile RiderLocationTracker instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable stopRunnable = this::stop;
+    private final ServerConnectionManager.NetworkActivityListener activityListener = this::onNetworkActivity;
+    private final LocationListener locationListener = new LocationListener() {
+        @Override
+        public void onLocationChanged(@NonNull Location location) {
+            onFix(location);
+        }
+
+        // Required before API 29, where these had no default implementation.
+        @Override
+        @SuppressWarnings("deprecation")
+        public void onStatusChanged(String provider, int status, Bundle extras) {
+        }
+
+        @Override
+        public void onProviderEnabled(@NonNull String provider) {
+            LocationPipeline current = pipeline;
+            if (current != null) {
+                requestUpdates(current.getTier());
+            }
+        }
+
+        @Override
+        public void onProviderDisabled(@NonNull String provider) {
+            LocationPipeline current = pipeline;
+            if (current != null) {
+                requestUpdates(current.getTier());
+            }
+        }
+    };
+
+    // Main-thread only.
+    @Nullable
+    private HandlerThread thread;
+    private int activeShiftId = -1;
+
+    // Read from network threads; written on the main thread.
+    @Nullable
+    private volatile Handler workerHandler;
+
+    // Tracking thread only.
+    @Nullable
+    private LocationPipeline pipeline;
+
+    // Written on the tracking thread; read from any thread.
+    @Nullable
+    private volatile LocationFix lastFix;
+
+    private RiderLocationTracker(@NonNull Context context) {
+        appContext = context.getApplicationContext();
+    }
+
+    @NonNull
+    public static RiderLocationTracker getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (RiderLocationTracker.class) {
+                if (instance == null) {
+                    instance = new RiderLocationTracker(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns whether an upload endpoint is configured at all.
+     */
+    public static boolean isEnabled() {
+        return !AppConfig.LOCATION_UPLOAD_PATH.isEmpty();
+    }
+
+    public boolean hasLocationPermission() {
+        return appContext.checkSelfPermission(Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED
+                || appContext.checkSelfPermission(Manifest.permission.ACCESS_COARSE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /**
+     * Returns the newest of the last fix seen while tracking and the platform's last known
+     * position, or {@code null} when neither is younger than {@code maxAgeMs} or location
+     * permission is missing.
+     */
+    @Nullable
+    public LocationFix getLastFix(long maxAgeMs) {
+        LocationFix newest = lastFix;
+        LocationManager locationManager = getLocationManager();
+        if (locationManager != null && hasLocationPermission()) {
+            for (String provider : new String[]{LocationManager.GPS_PROVIDER, LocationManager.NETWORK_PROVIDER}) {
+                try {
+                    Location known = locationManager.getLastKnownLocation(provider);
+                    if (known != null && (newest == null || known.getTime() > newest.getTimeMillis())) {
+                        newest = toFix(known);
+                    }
+                } catch (SecurityException | IllegalArgumentException e) {
+                    Log.w(TAG, "Unable to read last known location from " + provider, e);
+                }
+            }
+        }
+        if (newest == null || System.currentTimeMillis() - newest.getTimeMillis() > maxAgeMs) {
+            return null;
+        }
+        return newest;
+    }
+
+    @MainThread
+    public boolean isTracking(int shiftId) {
+        return thread != null && activeShiftId == shiftId;
+    }
+
+    /**
+     * Starts reporting positions for {@code shiftId}, switching over from any other shift.
+     *
+     * @return whether tracking is running; {@code false} without an endpoint or permission
+     */
+    @MainThread
+    public boolean start(int userId, int shiftId) {
+        if (isTracking(shiftId)) {
+            return true;
+        }
+        stop();
+        URL endpoint = isEnabled() ? ServerConnectionManager.getInstance().buildUrl(AppConfig.LOCATION_UPLOAD_PATH) : null;
+        if (endpoint == null || !hasLocationPermission()) {
+            return false;
+        }
+
+        HandlerThread trackingThread = new HandlerThread("rider-location", Process.THREAD_PRIORITY_BACKGROUND);
+        trackingThread.start();
+        Handler handler = new Handler(trackingThread.getLooper());
+        thread = trackingThread;
+        workerHandler = handler;
+        activeShiftId = shiftId;
+
+        handler.post(() -> openPipeline(endpoint, userId, shiftId));
+        LocationTrackingService.start(appContext);
+        ServerConnectionManager.getInstance().addNetworkActivityListener(activityListener);
+        mainHandler.postDelayed(stopRunnable, MAX_TRACKING_MS);
+        Log.i(TAG, "Tracking shift " + shiftId);
+        return true;
+    }
+
+    /**
+     * Stops location updates and sends whatever is still buffered.
+     */
+    @MainThread
+    public void stop() {
+        HandlerThread trackingThread = thread;
+        Handler handler = workerHandler;
+        if (trackingThread == null || handler == null) {
+            return;
+        }
+        mainHandler.removeCallbacks(stopRunnable);
+        ServerConnectionManager.getInstance().removeNetworkActivityListener(activityListener);
+        handler.post(this::closePipeline);
+        trackingThread.quitSafely();
+        LocationTrackingService.stop(appContext);
+        thread = null;
+        workerHandler = null;
+        activeShiftId = -1;
+    }
+
+    private void onNetworkActivity() {
+        Handler handler = workerHandler;
+        if (handler != null) {
+            handler.post(() -> {
+                LocationPipeline current = pipeline;
+                if (current != null) {
+                    current.onNetworkActivity(System.currentTimeMillis());
+                }
+            });
+        }
+    }
+
+    @WorkerThread
+    private void openPipeline(@NonNull URL endpoint, int userId, int shiftId) {
+        File directory = appContext.getFilesDir();
+        String fileName = BUFFER_FILE_PREFIX + shiftId + ".bin";
+        // Fixes left over from other shifts can no longer be attributed reliably.
+        File[] leftovers = directory.listFiles((dir, name) -> name.startsWith(BUFFER_FILE_PREFIX) && !name.equals(fileName));
+        if (leftovers != null) {
+            for (File leftover : leftovers) {
+                //noinspection ResultOfMethodCallIgnored
+                leftover.delete();
+            }
+        }
+
+        FixBuffer buffer = new FixBuffer(new File(directory, fileName));
+        try {
+            buffer.load();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to read buffered fixes", e);
+        }
+        pipeline = new LocationPipeline(buffer, new SamplingPolicy(), new LocationBatchUploader(), endpoint, userId, shiftId);
+        requestUpdates(pipeline.getTier());
+    }
+
+    @WorkerThread
+    private void closePipeline() {
+        LocationManager locationManager = getLocationManager();
+        if (locationManager != null) {
+            locationManager.removeUpdates(locationListener);
+        }
+        LocationPipeline current = pipeline;
+        pipeline = null;
+        if (current != null) {
+            current.flush(System.currentTimeMillis());
+            Log.i(TAG, "Stopped: " + current);
+        }
+    }
+
+    @WorkerThread
+    private void onFix(@NonNull Location location) {
+        LocationPipeline current = pipeline;
+        if (current == null) {
+            return;
+        }
+        LocationFix fix = toFix(location);
+        lastFix = fix;
+        SamplingPolicy.Tier previousTier = current.getTier();
+        try {
+            current.onFix(fix, System.currentTimeMillis());
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to buffer location fix", e);
+        }
+        if (current.getTier() != previousTier) {
+            requestUpdates(current.getTier());
+        }
+    }
+
+    @NonNull
+    private static LocationFix toFix(@NonNull Location location) {
+        return LocationFix.of(
+                location.getTime(),
+                location.getLatitude(),
+                location.getLongitude(),
+                location.hasAccuracy() ? location.getAccuracy() : UNKNOWN_ACCURACY_METERS,
+                location.hasSpeed() ? location.getSpeed() : -1f
+        );
+    }
+
+    /**
+     * (Re)subscribes at {@code tier}'s rate. The provider is given no distance filter: stationary
+     * riders still need the occasional fix for the heartbeat, and the sampling policy does the
+     * distance filtering.
+     */
+    @WorkerThread
+    private void requestUpdates(@NonNull SamplingPolicy.Tier tier) {
+        LocationManager locationManager = getLocationManager();
+        Looper looper = Looper.myLooper();
+        if (locationManager == null || looper == null) {
+            return;
+        }
+        locationManager.removeUpdates(locationListener);
+        String provider = locationManager.isProviderEnabled(LocationManager.GPS_PROVIDER)
+                ? LocationManager.GPS_PROVIDER
+                : LocationManager.NETWORK_PROVIDER;
+        try {
+            locationManager.requestLocationUpdates(provider, tier.getIntervalMillis(), 0f, locationListener, looper);
+        } catch (SecurityException | IllegalArgumentException e) {
+            Log.w(TAG, "Unable to request location updates from " + provider, e);
+        }
+    }
+
+    @Nullable
+    private LocationManager getLocationManager() {
+        return (LocationManager) appContext.getSystemService(Context.LOCATION_SERVICE);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.deliveryapp.location;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how often to ask for positions and which of them are worth keeping. A rider waiting at
+ * the bakeshop needs a fix every half minute at most, while one weaving through traffic needs one
+ * every few seconds; asking the location provider for the slower rate lets it power the GPS down
+ * between fixes.
+ *
+ * <p>Speed is smoothed across fixes so one noisy reading does not flip the rate back and forth.
+ * A fix is kept when the rider moved farther than both the tier's distance and the fix's own
+ * accuracy (so GPS jitter while parked is dropped), or when nothing was kept for
+ * {@link #HEARTBEAT_MS} so dispatch can tell a parked rider from a lost one.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public final class SamplingPolicy {
+
+    /**
+     * Request rate for a band of speeds.
+     */
+    public enum Tier {
+        STATIONARY(TimeUnit.SECONDS.toMillis(30), 30),
+        SLOW(TimeUnit.SECONDS.toMillis(10), 15),
+        MOVING(TimeUnit.SECONDS.toMillis(5), 25),
+        FAST(TimeUnit.SECONDS.toMillis(4), 50);
+
+        private final long intervalMillis;
+        private final float minDistanceMeters;
+
+        Tier(long intervalMillis, float minDistanceMeters) {
+            this.intervalMillis = intervalMillis;
+            this.minDistanceMeters = minDistanceMeters;
+        }
+
+        public long getIntervalMillis() {
+            return intervalMillis;
+        }
+
+        public float getMinDistanceMeters() {
+            return minDistanceMeters;
+        }
+    }
+
+    public static final long HEARTBEAT_MS = TimeUnit.MINUTES.toMillis(2);
+    /** Fixes less accurate than this only count as heartbeats. */
+    public static final int MAX_ACCURACY_METERS = 100;
+
+    private static final float SLOW_SPEED = 1.0f;
+    private static final float MOVING_SPEED = 4.0f;
+    private static final float FAST_SPEED = 15.0f;
+    private static final float SMOOTHING = 0.5f;
+
+    private Tier tier = Tier.STATIONARY;
+    private float smoothedSpeed;
+    @Nullable
+    private LocationFix lastSeen;
+    @Nullable
+    private LocationFix lastKept;
+
+    @NonNull
+    public Tier getTier() {
+        return tier;
+    }
+
+    /**
+     * Updates the speed estimate with {@code fix} and returns whether it should be recorded.
+     */
+    public boolean offer(@NonNull LocationFix fix) {
+        updateSpeed(fix);
+        lastSeen = fix;
+
+        LocationFix previous = lastKept;
+        boolean keep;
+        if (previous == null) {
+            keep = true;
+        } else if (fix.getTimeMillis() - previous.getTimeMillis() >= HEARTBEAT_MS) {
+            keep = true;
+        } else if (fix.getAccuracyMeters() > MAX_ACCURACY_METERS) {
+            keep = false;
+        } else {
+            double moved = fix.distanceTo(previous);
+            keep = moved >= tier.getMinDistanceMeters() && moved > fix.getAccuracyMeters();
+        }
+        if (keep) {
+            lastKept = fix;
+        }
+        return keep;
+    }
+
+    private void updateSpeed(@NonNull LocationFix fix) {
+        float speed;
+        if (fix.getSpeedDecimetersPerSecond() > 0 || lastSeen == null) {
+            speed = fix.getSpeedMetersPerSecond();
+        } else {
+            long elapsedMillis = fix.getTimeMillis() - lastSeen.getTimeMillis();
+            if (elapsedMillis <= 0) {
+                return;
+            }
+            // Movement within the fixes' accuracy is indistinguishable from jitter.
+            double moved = Math.max(0, fix.distanceTo(lastSeen) - Math.max(fix.getAccuracyMeters(), lastSeen.getAccuracyMeters()));
+            speed = (float) (moved / (elapsedMillis / 1000.0));
+        }
+        smoothedSpeed = lastSeen == null ? speed : smoothedSpeed + SMOOTHING * (speed - smoothedSpeed);
+        tier = tierFor(smoothedSpeed);
+    }
+
+    @NonNull
+    static Tier tierFor(float metersPerSecond) {
+        if (metersPerSecond >= FAST_SPEED) {
+            return Tier.FAST;
+        }
+        if (metersPerSecond >= MOVING_SPEED) {
+            return Tier.MOVING;
+        }
+        if (metersPerSecond >= SLOW_SPEED) {
+            return Tier.SLOW;
+        }
+        return Tier.STATIONARY;
+    }
+}
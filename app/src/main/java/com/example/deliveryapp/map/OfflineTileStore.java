@@ -0,0 +1,277 @@
+package com.example.deliveryapp.map;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves map tiles from the offline {@link TilePackFile} only; it never touches the network, so
+ * panning works the same in a dead zone as on Wi-Fi. Decoded tiles are kept in a small memory LRU,
+ * and misses are decoded on a worker thread newest-request-first, so the tiles the rider just
+ * panned to appear before ones already scrolled away.
+ *
+ * <p>{@link TilePrefetcher} fills the pack. The public methods must be called on the main thread
+ * unless noted.</p>
+ */
+public final class OfflineTileStore {
+
+    public interface Callback {
+        /**
+         * Called on the main thread with the decoded tile, or {@code null} when the offline pack
+         * does not cover it.
+         */
+        void onTileLoaded(long key, @Nullable Bitmap tile);
+    }
+
+    public interface PackListener {
+        /**
+         * Called on the main thread once a new pack is in place, so views can draw its tiles.
+         */
+        void onPackReplaced();
+    }
+
+    private static final String TAG = "OfflineTileStore";
+    private static final String PACK_FILE_NAME = "map_tiles.pack";
+    private static final int MAX_MEMORY_CACHE_BYTES = 8 * 1024 * 1024;
+
+    private static volatile OfflineTileStore instance;
+
+    private final File packFile;
+    private final LruCache<Long, Bitmap> memoryCache;
+    private final ThreadPoolExecutor executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong packReads = new AtomicLong();
+
+    private volatile boolean packReplaced;
+
+    // Worker-thread only.
+    @Nullable
+    private TilePackFile pack;
+    private boolean packOpened;
+
+    // Main-thread only.
+    private final Map<Long, List<Callback>> pending = new HashMap<>();
+    private final Set<Long> missing = new HashSet<>();
+    private final List<PackListener> packListeners = new ArrayList<>();
+
+    private OfflineTileStore(@NonNull Context context) {
+        Context appContext = context.getApplicationContext();
+        packFile = new File(appContext.getFilesDir(), PACK_FILE_NAME);
+
+        ActivityManager activityManager = (ActivityManager) appContext.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClassMb = activityManager != null ? activityManager.getMemoryClass() : 32;
+        // A screenful of tiles plus a ring around it; the mapped pack backs everything else.
+        int cacheBytes = Math.min(MAX_MEMORY_CACHE_BYTES, memoryClassMb * 1024 * 1024 / 16);
+        memoryCache = new LruCache<Long, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+
+        executor = new ThreadPoolExecutor(
+                1,
+                1,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingDeque<Runnable>() {
+                    @Override
+                    public boolean offer(Runnable runnable) {
+                        return offerFirst(runnable);
+                    }
+                },
+                runnable -> {
+                    Thread thread = new Thread(runnable, "map-tiles");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @NonNull
+    public static OfflineTileStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (OfflineTileStore.class) {
+                if (instance == null) {
+                    instance = new OfflineTileStore(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    @NonNull
+    File getPackFile() {
+        return packFile;
+    }
+
+    /**
+     * Returns the tile if it is decoded in memory.
+     */
+    @MainThread
+    @Nullable
+    public Bitmap peek(long key) {
+        Bitmap tile = memoryCache.get(key);
+        if (tile != null) {
+            memoryHits.incrementAndGet();
+        }
+        return tile;
+    }
+
+    /**
+     * Returns whether the pack is known not to contain {@code key}, so callers can stop asking.
+     */
+    @MainThread
+    public boolean isMissing(long key) {
+        return missing.contains(key);
+    }
+
+    /**
+     * Decodes the tile for {@code key} from the offline pack and hands it to {@code callback}.
+     * Requests for a tile already being decoded share the work.
+     */
+    @MainThread
+    public void load(long key, @NonNull Callback callback) {
+        Bitmap cached = peek(key);
+        if (cached != null || missing.contains(key)) {
+            callback.onTileLoaded(key, cached);
+            return;
+        }
+        List<Callback> callbacks = pending.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        pending.put(key, callbacks);
+        executor.execute(() -> {
+            Bitmap tile = decode(key);
+            mainHandler.post(() -> deliver(key, tile));
+        });
+    }
+
+    @MainThread
+    public void addPackListener(@NonNull PackListener listener) {
+        packListeners.add(listener);
+    }
+
+    @MainThread
+    public void removePackListener(@NonNull PackListener listener) {
+        packListeners.remove(listener);
+    }
+
+    /**
+     * Drops queued decodes, typically when the map leaves the screen.
+     */
+    @MainThread
+    public void cancelPending() {
+        executor.getQueue().clear();
+        pending.clear();
+    }
+
+    /**
+     * Switches to a freshly written pack. Safe to call from any thread.
+     */
+    public void onPackReplaced() {
+        packReplaced = true;
+        mainHandler.post(() -> {
+            memoryCache.evictAll();
+            missing.clear();
+            for (PackListener listener : new ArrayList<>(packListeners)) {
+                listener.onPackReplaced();
+            }
+        });
+    }
+
+    @MainThread
+    private void deliver(long key, @Nullable Bitmap tile) {
+        if (tile != null) {
+            memoryCache.put(key, tile);
+        } else {
+            missing.add(key);
+        }
+        List<Callback> callbacks = pending.remove(key);
+        if (callbacks == null) {
+            return;
+        }
+        for (Callback callback : callbacks) {
+            callback.onTileLoaded(key, tile);
+        }
+    }
+
+    @WorkerThread
+    @Nullable
+    private Bitmap decode(long key) {
+        TilePackFile current = openPack();
+        if (current == null) {
+            return null;
+        }
+        byte[] bytes = current.read(key);
+        if (bytes == null) {
+            return null;
+        }
+        packReads.incrementAndGet();
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        // Map tiles are opaque, so half-size pixels lose nothing visible.
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+    }
+
+    @WorkerThread
+    @Nullable
+    private TilePackFile openPack() {
+        if (!packOpened || packReplaced) {
+            packOpened = true;
+            packReplaced = false;
+            try {
+                pack = TilePackFile.open(packFile);
+            } catch (FileNotFoundException e) {
+                pack = null;
+            } catch (IOException e) {
+                Log.w(TAG, "Unable to open offline tile pack", e);
+                pack = null;
+            }
+        }
+        return pack;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "OfflineTileStore{memoryHits=%d, packReads=%d, cached=%d bytes}",
+                memoryHits.get(),
+                packReads.get(),
+                memoryCache.size()
+        );
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.deliveryapp.map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A latitude/longitude rectangle, such as a branch's delivery area.
+ */
+public final class TileArea {
+
+    private final double south;
+    private final double west;
+    private final double north;
+    private final double east;
+
+    public TileArea(double south, double west, double north, double east) {
+        this.south = south;
+        this.west = west;
+        this.north = north;
+        this.east = east;
+    }
+
+    /**
+     * Parses {@code "south,west,north,east"} in degrees, returning {@code null} when the text is
+     * malformed or does not describe a non-empty area.
+     */
+    @Nullable
+    public static TileArea parse(@Nullable String bounds) {
+        if (bounds == null) {
+            return null;
+        }
+        String[] parts = bounds.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        double[] values = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        boolean valid = values[0] < values[2] && values[1] < values[3]
+                && values[0] >= -90 && values[2] <= 90 && values[1] >= -180 && values[3] <= 180;
+        return valid ? new TileArea(values[0], values[1], values[2], values[3]) : null;
+    }
+
+    public double getCenterLatitude() {
+        return (south + north) / 2;
+    }
+
+    public double getCenterLongitude() {
+        return (west + east) / 2;
+    }
+
+    /**
+     * Returns the keys of the tiles covering this area at zoom levels {@code minZoom} through
+     * {@code maxZoom}.
+     */
+    @NonNull
+    public List<Long> tiles(int minZoom, int maxZoom) {
+        return TileMath.covering(south, west, north, east, minZoom, maxZoom);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%.5f,%.5f,%.5f,%.5f", south, west, north, east);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.deliveryapp.map;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.AppConfig;
+
+/**
+ * Minimal pannable map drawn from {@link OfflineTileStore}. Tiles come from memory or the offline
+ * pack only, so dragging the map never waits on the network; tiles outside the pack are drawn as
+ * blank squares. It starts centered on the delivery area and redraws when a new pack arrives.
+ */
+public class TileMapView extends View {
+
+    private static final int DEFAULT_ZOOM = 15;
+
+    private final OfflineTileStore store;
+    private final int tileSizePx;
+    private final Paint tilePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint placeholderPaint = new Paint();
+    private final Rect tileBounds = new Rect();
+    private final OfflineTileStore.Callback tileCallback = (key, tile) -> {
+        if (tile != null) {
+            invalidate();
+        }
+    };
+    private final OfflineTileStore.PackListener packListener = this::invalidate;
+
+    private int zoom = DEFAULT_ZOOM;
+    // Map center in screen pixels from the top-left corner of the zoom level's world image.
+    private double centerX;
+    private double centerY;
+    private float lastTouchX;
+    private float lastTouchY;
+
+    public TileMapView(@NonNull Context context) {
+        this(context, null);
+    }
+
+    public TileMapView(@NonNull Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        store = OfflineTileStore.getInstance(context);
+        // Tiles are drawn at 256 dp so labels stay readable on dense screens.
+        tileSizePx = Math.round(TileMath.TILE_SIZE * getResources().getDisplayMetrics().density);
+        placeholderPaint.setColor(Color.rgb(0xE0, 0xE0, 0xE0));
+        TileArea deliveryArea = isInEditMode() ? null : TileArea.parse(AppConfig.DELIVERY_AREA_BOUNDS);
+        if (deliveryArea != null) {
+            setCenter(deliveryArea.getCenterLatitude(), deliveryArea.getCenterLongitude());
+        }
+    }
+
+    public void setCenter(double latitude, double longitude) {
+        centerX = TileMath.tileX(longitude, zoom) * tileSizePx;
+        centerY = TileMath.tileY(latitude, zoom) * tileSizePx;
+        invalidate();
+    }
+
+    public void setZoom(int newZoom) {
+        int clamped = Math.max(TilePrefetcher.MIN_ZOOM, Math.min(TilePrefetcher.MAX_ZOOM, newZoom));
+        double scale = Math.pow(2, clamped - zoom);
+        centerX *= scale;
+        centerY *= scale;
+        zoom = clamped;
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        store.addPackListener(packListener);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        store.removePackListener(packListener);
+        store.cancelPending();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+        double left = centerX - width / 2.0;
+        double top = centerY - height / 2.0;
+        int tilesPerSide = 1 << zoom;
+        int firstX = (int) Math.floor(left / tileSizePx);
+        int lastX = (int) Math.floor((left + width) / tileSizePx);
+        int firstY = Math.max(0, (int) Math.floor(top / tileSizePx));
+        int lastY = Math.min(tilesPerSide - 1, (int) Math.floor((top + height) / tileSizePx));
+
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                int screenLeft = (int) Math.round(x * (double) tileSizePx - left);
+                int screenTop = (int) Math.round(y * (double) tileSizePx - top);
+                tileBounds.set(screenLeft, screenTop, screenLeft + tileSizePx, screenTop + tileSizePx);
+                // Wrap around the antimeridian.
+                int wrappedX = Math.floorMod(x, tilesPerSide);
+                long key = TileMath.key(zoom, wrappedX, y);
+                Bitmap tile = store.peek(key);
+                if (tile != null) {
+                    canvas.drawBitmap(tile, null, tileBounds, tilePaint);
+                } else {
+                    canvas.drawRect(tileBounds, placeholderPaint);
+                    if (!store.isMissing(key)) {
+                        store.load(key, tileCallback);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(@NonNull MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                getParent().requestDisallowInterceptTouchEvent(true);
+                lastTouchX = event.getX();
+                lastTouchY = event.getY();
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                centerX -= event.getX() - lastTouchX;
+                centerY -= event.getY() - lastTouchY;
+                lastTouchX = event.getX();
+                lastTouchY = event.getY();
+                invalidate();
+                return true;
+            case MotionEvent.ACTION_UP:
+                performClick();
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.deliveryapp.map;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Web Mercator ("slippy map") tile arithmetic, matching the z/x/y scheme of OpenStreetMap-style
+ * tile servers. Tile coordinates are fractional where a position falls inside a tile; the integer
+ * part names the tile.
+ */
+public final class TileMath {
+
+    public static final int TILE_SIZE = 256;
+    public static final int MAX_ZOOM = 20;
+
+    /** Latitudes beyond this are cut off by the square Mercator world. */
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private TileMath() {
+        // Utility class
+    }
+
+    public static double tileX(double longitude, int zoom) {
+        return (longitude + 180.0) / 360.0 * (1 << zoom);
+    }
+
+    public static double tileY(double latitude, int zoom) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double radians = Math.toRadians(clamped);
+        double mercator = Math.log(Math.tan(radians) + 1.0 / Math.cos(radians));
+        return (1.0 - mercator / Math.PI) / 2.0 * (1 << zoom);
+    }
+
+    public static double longitude(double tileX, int zoom) {
+        return tileX / (1 << zoom) * 360.0 - 180.0;
+    }
+
+    public static double latitude(double tileY, int zoom) {
+        double n = Math.PI - 2.0 * Math.PI * tileY / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Packs a tile address into one {@code long}. Keys sort by zoom, then x, then y, which keeps a
+     * zoom level's tiles together in {@link TilePackFile}.
+     */
+    public static long key(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Unsupported zoom " + zoom);
+        }
+        return ((long) zoom << 48) | ((long) x << 24) | y;
+    }
+
+    public static int zoomOf(long key) {
+        return (int) (key >>> 48);
+    }
+
+    public static int xOf(long key) {
+        return (int) ((key >>> 24) & 0xFFFFFF);
+    }
+
+    public static int yOf(long key) {
+        return (int) (key & 0xFFFFFF);
+    }
+
+    /**
+     * Returns the keys of every tile that overlaps the given bounds at each zoom level from
+     * {@code minZoom} to {@code maxZoom}, lowest zoom first.
+     */
+    @NonNull
+    public static List<Long> covering(
+            double south,
+            double west,
+            double north,
+            double east,
+            int minZoom,
+            int maxZoom
+    ) {
+        List<Long> keys = new ArrayList<>();
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            int lastTile = (1 << zoom) - 1;
+            int minX = clamp((int) Math.floor(tileX(west, zoom)), lastTile);
+            int maxX = clamp((int) Math.floor(tileX(east, zoom)), lastTile);
+            // Tile rows grow southwards.
+            int minY = clamp((int) Math.floor(tileY(north, zoom)), lastTile);
+            int maxY = clamp((int) Math.floor(tileY(south, zoom)), lastTile);
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    keys.add(key(zoom, x, y));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static int clamp(int tile, int lastTile) {
+        return Math.max(0, Math.min(lastTile, tile));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.deliveryapp.map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only view of a tile pack written by {@link TilePackWriter}: every tile of the offline area
+ * in one file, behind a sorted index.
+ *
+ * <pre>
+ * int   magic "CTIL"
+ * int   version
+ * long  created at (epoch millis)
+ * int   coverage length, then that many UTF-8 bytes
+ * int   tile count
+ * count x { long key, int offset, int length }   sorted by key; offset is from the data start
+ * tile bytes
+ * </pre>
+ *
+ * <p>The file is memory-mapped once, so a lookup is a binary search over the mapped index plus a
+ * copy of the tile bytes: no read syscalls or stream objects per tile, and the kernel page cache
+ * does the buffering. Reads use absolute offsets on duplicated buffers and are safe from any
+ * thread. Replacing the file on disk does not disturb an open mapping; open the new file to see
+ * the new tiles.</p>
+ */
+public final class TilePackFile {
+
+    static final int MAGIC = 0x4354494c; // "CTIL"
+    static final int VERSION = 1;
+    static final int INDEX_ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final long createdAtMillis;
+    private final String coverage;
+    private final int tileCount;
+    private final int indexStart;
+    private final int dataStart;
+
+    private TilePackFile(@NonNull ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a tile pack");
+            }
+            createdAtMillis = buffer.getLong(8);
+            int coverageLength = buffer.getInt(16);
+            byte[] coverageBytes = new byte[coverageLength];
+            ByteBuffer reader = buffer.duplicate();
+            reader.position(20);
+            reader.get(coverageBytes);
+            coverage = new String(coverageBytes, StandardCharsets.UTF_8);
+            tileCount = buffer.getInt(20 + coverageLength);
+            indexStart = 24 + coverageLength;
+            dataStart = indexStart + tileCount * INDEX_ENTRY_BYTES;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | BufferUnderflowException
+                | NegativeArraySizeException e) {
+            throw new IOException("Truncated tile pack", e);
+        }
+        if (tileCount < 0 || indexStart + (long) tileCount * INDEX_ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("Truncated tile pack");
+        }
+    }
+
+    /**
+     * Maps {@code file} into memory. The file handle is closed right away; the mapping stays valid
+     * until the returned object is garbage collected.
+     */
+    @NonNull
+    public static TilePackFile open(@NonNull File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            return new TilePackFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Returns the description of the area, zoom levels and source the pack was built for.
+     */
+    @NonNull
+    public String getCoverage() {
+        return coverage;
+    }
+
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    public boolean contains(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns a copy of the encoded tile for {@code key}, or {@code null} when the pack does not
+     * contain it.
+     */
+    @Nullable
+    public byte[] read(long key) {
+        int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+        int entry = indexStart + index * INDEX_ENTRY_BYTES;
+        int offset = buffer.getInt(entry + 8);
+        int length = buffer.getInt(entry + 12);
+        byte[] bytes = new byte[length];
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(dataStart + offset);
+        reader.get(bytes);
+        return bytes;
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = tileCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = buffer.getLong(indexStart + mid * INDEX_ENTRY_BYTES);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
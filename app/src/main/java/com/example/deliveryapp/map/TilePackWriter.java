@@ -0,0 +1,136 @@
+package com.example.deliveryapp.map;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds a {@link TilePackFile}. Tiles may be added in any order; their bytes are spooled to a
+ * side file as they arrive and only the index is kept in memory. {@link #commit()} writes the
+ * header and sorted index, appends the spooled bytes, and moves the result over the target in one
+ * rename, so readers only ever see a complete pack. Closing without committing discards the work.
+ */
+public final class TilePackWriter implements Closeable {
+
+    private final File target;
+    private final String coverage;
+    private final long createdAtMillis;
+    private final File dataFile;
+    private final File packFile;
+    private final OutputStream data;
+    // key -> {offset, length}
+    private final TreeMap<Long, int[]> index = new TreeMap<>();
+
+    private int dataLength;
+    private boolean finished;
+
+    public TilePackWriter(@NonNull File target, @NonNull String coverage, long createdAtMillis) throws IOException {
+        this.target = target;
+        this.coverage = coverage;
+        this.createdAtMillis = createdAtMillis;
+        this.dataFile = new File(target.getPath() + ".data");
+        this.packFile = new File(target.getPath() + ".tmp");
+        File directory = target.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        this.data = new BufferedOutputStream(new FileOutputStream(dataFile));
+    }
+
+    /**
+     * Appends the encoded tile for {@code key}. A key added twice keeps its first tile.
+     */
+    public void add(long key, @NonNull byte[] tile) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Writer already finished");
+        }
+        if (index.containsKey(key)) {
+            return;
+        }
+        if ((long) dataLength + tile.length > Integer.MAX_VALUE) {
+            throw new IOException("Tile pack too large");
+        }
+        data.write(tile);
+        index.put(key, new int[]{dataLength, tile.length});
+        dataLength += tile.length;
+    }
+
+    public int getTileCount() {
+        return index.size();
+    }
+
+    /**
+     * Writes the pack and replaces {@code target} with it.
+     */
+    public void commit() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Writer already finished");
+        }
+        finished = true;
+        try {
+            data.close();
+            byte[] coverageBytes = coverage.getBytes(StandardCharsets.UTF_8);
+            try (FileOutputStream packOutput = new FileOutputStream(packFile)) {
+                DataOutputStream header = new DataOutputStream(new BufferedOutputStream(packOutput));
+                header.writeInt(TilePackFile.MAGIC);
+                header.writeInt(TilePackFile.VERSION);
+                header.writeLong(createdAtMillis);
+                header.writeInt(coverageBytes.length);
+                header.write(coverageBytes);
+                header.writeInt(index.size());
+                for (Map.Entry<Long, int[]> entry : index.entrySet()) {
+                    header.writeLong(entry.getKey());
+                    header.writeInt(entry.getValue()[0]);
+                    header.writeInt(entry.getValue()[1]);
+                }
+                header.flush();
+
+                try (FileInputStream dataInput = new FileInputStream(dataFile);
+                     FileChannel source = dataInput.getChannel()) {
+                    FileChannel destination = packOutput.getChannel();
+                    long copied = 0;
+                    while (copied < dataLength) {
+                        copied += source.transferTo(copied, dataLength - copied, destination);
+                    }
+                }
+                packOutput.getFD().sync();
+            }
+            if (!packFile.renameTo(target)) {
+                throw new IOException("Unable to replace " + target);
+            }
+        } finally {
+            deleteTemporaryFiles();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            data.close();
+        } finally {
+            deleteTemporaryFiles();
+        }
+    }
+
+    private void deleteTemporaryFiles() {
+        //noinspection ResultOfMethodCallIgnored
+        dataFile.delete();
+        //noinspection ResultOfMethodCallIgnored
+        packFile.delete();
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.deliveryapp.map;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.deliveryapp.AppConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Downloads every tile covering {@link AppConfig#DELIVERY_AREA_BOUNDS} from
+ * {@link AppConfig#MAP_TILE_URL_TEMPLATE} into the pack {@link OfflineTileStore} reads, so the map
+ * never has to fetch tiles while the rider is out on the road.
+ *
+ * <p>A complete pack built for the same area and source is kept for {@link #REFRESH_AFTER_MS}.
+ * Refreshes wait for an unmetered network unless there is no pack yet. Tiles a still-fresh pack
+ * already has are copied instead of downloaded again, and the new pack keeps the older date, so
+ * copied tiles are still refreshed on time. Failed downloads are retried once at the end of a
+ * run. A run that loses more than half its tiles keeps the previous pack; otherwise the pack is
+ * written without the failed tiles, and the next run copies the rest and downloads only those.</p>
+ */
+public final class TilePrefetcher {
+
+    public static final int MIN_ZOOM = 12;
+    public static final int MAX_ZOOM = 16;
+    /** Roughly 15 MB of PNG tiles; the zoom range shrinks until a large area fits. */
+    public static final int MAX_TILES = 4_000;
+    public static final long REFRESH_AFTER_MS = TimeUnit.DAYS.toMillis(30);
+
+    private static final String TAG = "TilePrefetcher";
+    private static final int MAX_TILE_BYTES = 512 * 1024;
+
+    private static volatile TilePrefetcher instance;
+
+    private final Context appContext;
+    private final OfflineTileStore store;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tile-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private TilePrefetcher(@NonNull Context context) {
+        appContext = context.getApplicationContext();
+        store = OfflineTileStore.getInstance(appContext);
+    }
+
+    @NonNull
+    public static TilePrefetcher getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (TilePrefetcher.class) {
+                if (instance == null) {
+                    instance = new TilePrefetcher(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Brings the offline pack up to date in the background. Does nothing while a run is already
+     * in progress or when no tile source is configured.
+     */
+    public void start() {
+        if (AppConfig.MAP_TILE_URL_TEMPLATE.isEmpty() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                prefetch();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @WorkerThread
+    private void prefetch() {
+        TileArea area = TileArea.parse(AppConfig.DELIVERY_AREA_BOUNDS);
+        if (area == null) {
+            Log.w(TAG, "Ignoring malformed DELIVERY_AREA_BOUNDS: " + AppConfig.DELIVERY_AREA_BOUNDS);
+            return;
+        }
+        int maxZoom = MAX_ZOOM;
+        List<Long> keys = area.tiles(MIN_ZOOM, maxZoom);
+        while (keys.size() > MAX_TILES && maxZoom > MIN_ZOOM) {
+            maxZoom--;
+            keys = area.tiles(MIN_ZOOM, maxZoom);
+        }
+        String template = AppConfig.MAP_TILE_URL_TEMPLATE;
+        String coverage = area + "|" + MIN_ZOOM + "-" + maxZoom + "|" + template;
+
+        File packFile = store.getPackFile();
+        TilePackFile existing = openExisting(packFile);
+        long now = System.currentTimeMillis();
+        boolean existingFresh = existing != null
+                && now - existing.getCreatedAtMillis() < REFRESH_AFTER_MS
+                && existing.getCoverage().endsWith("|" + template);
+        if (existingFresh && coverage.equals(existing.getCoverage()) && existing.getTileCount() >= keys.size()) {
+            return;
+        }
+        if (existing != null && isNetworkMetered()) {
+            Log.i(TAG, "Postponing tile refresh until an unmetered network is available");
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        int downloaded = 0;
+        int reused = 0;
+        List<Long> failedKeys = new ArrayList<>();
+        long createdAt = existingFresh ? Math.min(now, existing.getCreatedAtMillis()) : now;
+        try (TilePackWriter writer = new TilePackWriter(packFile, coverage, createdAt)) {
+            for (long key : keys) {
+                byte[] tile = existingFresh ? existing.read(key) : null;
+                if (tile != null) {
+                    reused++;
+                } else {
+                    try {
+                        tile = download(template, key);
+                        downloaded++;
+                    } catch (IOException e) {
+                        failedKeys.add(key);
+                        continue;
+                    }
+                }
+                writer.add(key, tile);
+            }
+            // Second chance for tiles lost to a dropped connection or a rate limit.
+            for (Iterator<Long> iterator = failedKeys.iterator(); iterator.hasNext(); ) {
+                long key = iterator.next();
+                try {
+                    writer.add(key, download(template, key));
+                    downloaded++;
+                    iterator.remove();
+                } catch (IOException e) {
+                    // Still missing; the next run tries again.
+                }
+            }
+            int failed = failedKeys.size();
+            if (failed * 2 > keys.size()) {
+                Log.w(TAG, "Keeping previous tiles; " + failed + " of " + keys.size() + " downloads failed");
+                return;
+            }
+            writer.commit();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write offline tile pack", e);
+            return;
+        }
+        store.onPackReplaced();
+        Log.i(TAG, "Offline tiles ready: " + downloaded + " downloaded, " + reused + " reused, "
+                + failedKeys.size() + " failed in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) + " ms");
+    }
+
+    @Nullable
+    private static TilePackFile openExisting(@NonNull File packFile) {
+        try {
+            return TilePackFile.open(packFile);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Replacing unreadable offline tile pack", e);
+            return null;
+        }
+    }
+
+    private boolean isNetworkMetered() {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        return connectivityManager == null || connectivityManager.isActiveNetworkMetered();
+    }
+
+    @WorkerThread
+    @NonNull
+    private byte[] download(@NonNull String template, long key) throws IOException {
+        URL url = new URL(template
+                .replace("{z}", Integer.toString(TileMath.zoomOf(key)))
+                .replace("{x}", Integer.toString(TileMath.xOf(key)))
+                .replace("{y}", Integer.toString(TileMath.yOf(key))));
+        HttpURLConnection connection = null;
+        boolean bodyConsumed = false;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(10_000);
+            connection.setRequestMethod("GET");
+            connection.setRequestProperty("User-Agent", appContext.getPackageName() + " offline-tiles");
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new IOException("HTTP " + statusCode + " for " + url);
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream(32 * 1024);
+            try (InputStream input = connection.getInputStream()) {
+                byte[] buffer = new byte[8 * 1024];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    if (output.size() + read > MAX_TILE_BYTES) {
+                        throw new IOException("Tile too large: " + url);
+                    }
+                    output.write(buffer, 0, read);
+                }
+            }
+            bodyConsumed = true;
+            return output.toByteArray();
+        } finally {
+            // Leave fully read connections open so the next tile reuses the keep-alive socket.
+            if (connection != null && !bodyConsumed) {
+                connection.disconnect();
+            }
+        }
+    }
+}
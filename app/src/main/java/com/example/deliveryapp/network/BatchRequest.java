@@ -0,0 +1,120 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Describes the logical calls that {@link BatchService} should combine into a single round trip.
+ * Each call is optional; only the ones that were configured are sent.
+ */
+public final class BatchRequest {
+
+    @Nullable
+    private final String healthPath;
+    private final boolean includeHealth;
+    @Nullable
+    private final String profileEmail;
+    private final int shiftsUserId;
+    private final int ordersUserId;
+
+    private BatchRequest(@NonNull Builder builder) {
+        healthPath = builder.healthPath;
+        includeHealth = builder.includeHealth;
+        profileEmail = builder.profileEmail;
+        shiftsUserId = builder.shiftsUserId;
+        ordersUserId = builder.ordersUserId;
+    }
+
+    public boolean includesHealth() {
+        return includeHealth;
+    }
+
+    @Nullable
+    public String getHealthPath() {
+        return healthPath;
+    }
+
+    public boolean includesProfile() {
+        return profileEmail != null;
+    }
+
+    @Nullable
+    public String getProfileEmail() {
+        return profileEmail;
+    }
+
+    public boolean includesShifts() {
+        return shiftsUserId > 0;
+    }
+
+    public int getShiftsUserId() {
+        return shiftsUserId;
+    }
+
+    public boolean includesOrders() {
+        return ordersUserId > 0;
+    }
+
+    public int getOrdersUserId() {
+        return ordersUserId;
+    }
+
+    public int size() {
+        int size = 0;
+        if (includesHealth()) {
+            size++;
+        }
+        if (includesProfile()) {
+            size++;
+        }
+        if (includesShifts()) {
+            size++;
+        }
+        if (includesOrders()) {
+            size++;
+        }
+        return size;
+    }
+
+    public static final class Builder {
+
+        @Nullable
+        private String healthPath;
+        private boolean includeHealth;
+        @Nullable
+        private String profileEmail;
+        private int shiftsUserId;
+        private int ordersUserId;
+
+        @NonNull
+        public Builder health(@Nullable String path) {
+            includeHealth = true;
+            healthPath = path;
+            return this;
+        }
+
+        @NonNull
+        public Builder profile(@NonNull String email) {
+            String trimmed = email.trim();
+            profileEmail = trimmed.isEmpty() ? null : trimmed;
+            return this;
+        }
+
+        @NonNull
+        public Builder shifts(int userId) {
+            shiftsUserId = userId;
+            return this;
+        }
+
+        @NonNull
+        public Builder unfinishedOrders(int userId) {
+            ordersUserId = userId;
+            return this;
+        }
+
+        @NonNull
+        public BatchRequest build() {
+            return new BatchRequest(this);
+        }
+    }
+}
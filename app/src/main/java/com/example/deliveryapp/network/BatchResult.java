@@ -0,0 +1,144 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the outcome of every call in a {@link BatchRequest}. Calls that were not part of the
+ * request report {@code false} from their {@code has*} accessor.
+ */
+public final class BatchResult {
+
+    private final boolean batched;
+
+    private boolean hasHealth;
+    private boolean serverReachable;
+    @Nullable
+    private String healthError;
+
+    private boolean hasProfile;
+    private int userId = -1;
+    @Nullable
+    private String profileError;
+
+    private boolean hasShifts;
+    @NonNull
+    private List<ShiftInfo> shifts = Collections.emptyList();
+    @Nullable
+    private String shiftsMessage;
+    @Nullable
+    private String shiftsError;
+
+    private boolean hasOrders;
+    @NonNull
+    private List<OrderInfo> orders = Collections.emptyList();
+    @Nullable
+    private String ordersMessage;
+    @Nullable
+    private String ordersError;
+
+    BatchResult(boolean batched) {
+        this.batched = batched;
+    }
+
+    /**
+     * Returns {@code true} when the calls were served by the backend batch endpoint in a single
+     * exchange, or {@code false} when they were fanned out as parallel individual requests.
+     */
+    public boolean wasBatched() {
+        return batched;
+    }
+
+    public boolean hasHealth() {
+        return hasHealth;
+    }
+
+    public boolean isServerReachable() {
+        return serverReachable;
+    }
+
+    @Nullable
+    public String getHealthError() {
+        return healthError;
+    }
+
+    public boolean hasProfile() {
+        return hasProfile;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    @Nullable
+    public String getProfileError() {
+        return profileError;
+    }
+
+    public boolean hasShifts() {
+        return hasShifts;
+    }
+
+    @NonNull
+    public List<ShiftInfo> getShifts() {
+        return shifts;
+    }
+
+    @Nullable
+    public String getShiftsMessage() {
+        return shiftsMessage;
+    }
+
+    @Nullable
+    public String getShiftsError() {
+        return shiftsError;
+    }
+
+    public boolean hasOrders() {
+        return hasOrders;
+    }
+
+    @NonNull
+    public List<OrderInfo> getOrders() {
+        return orders;
+    }
+
+    @Nullable
+    public String getOrdersMessage() {
+        return ordersMessage;
+    }
+
+    @Nullable
+    public String getOrdersError() {
+        return ordersError;
+    }
+
+    void setHealth(boolean reachable, @Nullable String error) {
+        hasHealth = true;
+        serverReachable = reachable;
+        healthError = reachable ? null : error;
+    }
+
+    void setProfile(int resolvedUserId, @Nullable String error) {
+        hasProfile = true;
+        userId = error == null ? resolvedUserId : -1;
+        profileError = error;
+    }
+
+    void setShifts(@NonNull List<ShiftInfo> loadedShifts, @Nullable String message, @Nullable String error) {
+        hasShifts = true;
+        shifts = error == null ? loadedShifts : Collections.<ShiftInfo>emptyList();
+        shiftsMessage = message;
+        shiftsError = error;
+    }
+
+    void setOrders(@NonNull List<OrderInfo> loadedOrders, @Nullable String message, @Nullable String error) {
+        hasOrders = true;
+        orders = error == null ? loadedOrders : Collections.<OrderInfo>emptyList();
+        ordersMessage = message;
+        ordersError = error;
+    }
+}
@@ -0,0 +1,431 @@
+package com.example.deliveryapp.network;
+
+import android.os.Handler;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.AppConfig;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Combines several logical calls (health check, profile lookup, shifts and unfinished orders) into
+ * one HTTP exchange when the backend exposes a batch endpoint, and transparently fans them out as
+ * parallel individual requests when it does not.
+ *
+ * <p>The batch endpoint receives a JSON body such as
+ * {@code {"requests":[{"id":"shifts","method":"POST","path":"PHP/shift_functions.php","params":{...}}]}}
+ * and is expected to answer with {@code {"responses":[{"id":"shifts","status":200,"body":{...}}]}},
+ * where each {@code body} is exactly what the individual endpoint would have returned.</p>
+ */
+public class BatchService {
+
+    public interface BatchCallback {
+        void onComplete(@NonNull BatchResult result);
+    }
+
+    /**
+     * Turns the body of one part of a batch response into what the individual endpoint's
+     * service would have made of it.
+     */
+    interface PartInterpreter {
+        @NonNull
+        UserService.UserIdResult profile(int statusCode, @NonNull String body);
+
+        @NonNull
+        ShiftService.ShiftFetchResult shifts(int statusCode, @NonNull String body);
+
+        @NonNull
+        OrderService.ResponseBundle orders(int userId, int statusCode, @NonNull String body);
+    }
+
+    private static final String TAG = "BatchService";
+
+    private static final String ID_HEALTH = "health";
+    private static final String ID_PROFILE = "profile";
+    private static final String ID_SHIFTS = "shifts";
+    private static final String ID_ORDERS = "orders";
+
+    /** Set once the server has shown it has no batch endpoint, so later calls skip straight to fan-out. */
+    private static volatile boolean batchEndpointUnsupported;
+
+    private final ServerConnectionManager connectionManager;
+    private final Handler mainHandler;
+    private final UserService userService;
+    private final ShiftService shiftService;
+    private final OrderService orderService;
+    private final PartInterpreter partInterpreter;
+
+    public BatchService() {
+        connectionManager = ServerConnectionManager.getInstance();
+        mainHandler = connectionManager.getMainThreadHandler();
+        userService = new UserService();
+        shiftService = new ShiftService();
+        orderService = new OrderService();
+        partInterpreter = new PartInterpreter() {
+            @NonNull
+            @Override
+            public UserService.UserIdResult profile(int statusCode, @NonNull String body) {
+                return userService.interpretProfileResponse(statusCode, body);
+            }
+
+            @NonNull
+            @Override
+            public ShiftService.ShiftFetchResult shifts(int statusCode, @NonNull String body) {
+                return shiftService.interpretShiftFetchResponse(statusCode, body);
+            }
+
+            @NonNull
+            @Override
+            public OrderService.ResponseBundle orders(int userId, int statusCode, @NonNull String body) {
+                return orderService.interpretOrderListResponse(userId, statusCode, body);
+            }
+        };
+    }
+
+    public void execute(@NonNull BatchRequest request, @NonNull BatchCallback callback) {
+        if (request.size() == 0) {
+            callback.onComplete(new BatchResult(false));
+            return;
+        }
+
+        URL batchUrl = resolveBatchUrl();
+        if (batchUrl == null || request.size() < 2) {
+            fanOut(request, callback);
+            return;
+        }
+
+        connectionManager.getNetworkExecutor().execute(() -> {
+            BatchResult result = executeBatch(batchUrl, request);
+            if (result == null) {
+                mainHandler.post(() -> fanOut(request, callback));
+                return;
+            }
+            mainHandler.post(() -> callback.onComplete(result));
+        });
+    }
+
+    @Nullable
+    private URL resolveBatchUrl() {
+        if (batchEndpointUnsupported) {
+            return null;
+        }
+        String path = AppConfig.BATCH_API_PATH;
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return connectionManager.buildUrl(path);
+    }
+
+    /**
+     * Sends every call in one request. Returns {@code null} when the server does not understand
+     * batches, in which case the caller falls back to individual requests.
+     */
+    @Nullable
+    private BatchResult executeBatch(@NonNull URL batchUrl, @NonNull BatchRequest request) {
+        byte[] payload;
+        try {
+            payload = buildBatchPayload(request).toString().getBytes(StandardCharsets.UTF_8);
+        } catch (JSONException e) {
+            Log.w(TAG, "Unable to encode batch request", e);
+            return null;
+        }
+
+        HttpRequest httpRequest = new HttpRequest.Builder(batchUrl)
+                .post(payload, "application/json; charset=utf-8")
+                .header("Accept", "application/json")
+                .readTimeoutMs(15_000)
+                .build();
+        try {
+            HttpResponse response = connectionManager.execute(httpRequest, null);
+            int statusCode = response.getStatusCode();
+            if (statusCode == 404 || statusCode == 405 || statusCode == 501) {
+                markUnsupported("HTTP " + statusCode);
+                return null;
+            }
+            if (!response.isSuccessful()) {
+                return null;
+            }
+
+            Map<String, SubResponse> responses = parseBatchResponse(response.getBody());
+            if (responses == null) {
+                markUnsupported("unrecognised response body");
+                return null;
+            }
+            return interpret(request, responses, partInterpreter);
+        } catch (IOException e) {
+            String message = e.getMessage() != null ? e.getMessage() : "Network request failed.";
+            return failAll(request, message);
+        }
+    }
+
+    @NonNull
+    private JSONObject buildBatchPayload(@NonNull BatchRequest request) throws JSONException {
+        JSONArray requests = new JSONArray();
+        if (request.includesHealth()) {
+            String healthPath = request.getHealthPath();
+            requests.put(buildEntry(ID_HEALTH, "GET", healthPath != null ? healthPath.trim() : "", null));
+        }
+        if (request.includesProfile()) {
+            requests.put(buildEntry(
+                    ID_PROFILE,
+                    "GET",
+                    AppConfig.USER_PROFILE_PATH,
+                    UserService.buildProfileParams(request.getProfileEmail())
+            ));
+        }
+        if (request.includesShifts()) {
+            requests.put(buildEntry(
+                    ID_SHIFTS,
+                    "POST",
+                    AppConfig.SHIFT_SCHEDULE_PATH,
+                    ShiftService.buildFetchFormFields(request.getShiftsUserId())
+            ));
+        }
+        if (request.includesOrders()) {
+            requests.put(buildEntry(
+                    ID_ORDERS,
+                    "GET",
+                    AppConfig.ORDER_LIST_PATH,
+                    OrderService.buildOrderListParams(request.getOrdersUserId())
+            ));
+        }
+        JSONObject payload = new JSONObject();
+        payload.put("requests", requests);
+        return payload;
+    }
+
+    @NonNull
+    private JSONObject buildEntry(
+            @NonNull String id,
+            @NonNull String method,
+            @NonNull String path,
+            @Nullable Map<String, String> params
+    ) throws JSONException {
+        JSONObject entry = new JSONObject();
+        entry.put("id", id);
+        entry.put("method", method);
+        entry.put("path", path);
+        JSONObject paramsObject = new JSONObject();
+        if (params != null) {
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                paramsObject.put(param.getKey(), param.getValue());
+            }
+        }
+        entry.put("params", paramsObject);
+        return entry;
+    }
+
+    /**
+     * Splits a batch response body into its parts by ID, or returns {@code null} if it is not a
+     * batch response.
+     */
+    @Nullable
+    static Map<String, SubResponse> parseBatchResponse(@NonNull String bodyString) {
+        String trimmed = bodyString.trim();
+        JSONArray responses = null;
+        try {
+            if (trimmed.startsWith("[")) {
+                responses = new JSONArray(trimmed);
+            } else if (trimmed.startsWith("{")) {
+                responses = new JSONObject(trimmed).optJSONArray("responses");
+            }
+        } catch (JSONException ignored) {
+            return null;
+        }
+        if (responses == null) {
+            return null;
+        }
+
+        Map<String, SubResponse> byId = new HashMap<>();
+        for (int i = 0; i < responses.length(); i++) {
+            JSONObject item = responses.optJSONObject(i);
+            if (item == null) {
+                continue;
+            }
+            String id = item.optString("id", "").trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            SubResponse subResponse = new SubResponse();
+            subResponse.statusCode = item.optInt("status", 200);
+            Object body = item.opt("body");
+            if (body == null || body == JSONObject.NULL) {
+                subResponse.body = "";
+            } else {
+                subResponse.body = body.toString();
+            }
+            byId.put(id, subResponse);
+        }
+        return byId;
+    }
+
+    /**
+     * Builds the result of a batch from its parts. A missing or failed part fails only its own
+     * call.
+     */
+    @NonNull
+    static BatchResult interpret(
+            @NonNull BatchRequest request,
+            @NonNull Map<String, SubResponse> responses,
+            @NonNull PartInterpreter interpreter
+    ) {
+        BatchResult result = new BatchResult(true);
+        if (request.includesHealth()) {
+            SubResponse response = responses.get(ID_HEALTH);
+            if (response == null) {
+                result.setHealth(false, missingMessage(ID_HEALTH));
+            } else {
+                boolean reachable = response.statusCode >= 200 && response.statusCode < 300;
+                result.setHealth(reachable, "HTTP " + response.statusCode);
+            }
+        }
+        if (request.includesProfile()) {
+            SubResponse response = responses.get(ID_PROFILE);
+            if (response == null) {
+                result.setProfile(-1, missingMessage(ID_PROFILE));
+            } else {
+                UserService.UserIdResult profile = interpreter.profile(response.statusCode, response.body);
+                result.setProfile(profile.userId, profile.errorMessage);
+            }
+        }
+        if (request.includesShifts()) {
+            SubResponse response = responses.get(ID_SHIFTS);
+            if (response == null) {
+                result.setShifts(Collections.<ShiftInfo>emptyList(), null, missingMessage(ID_SHIFTS));
+            } else {
+                ShiftService.ShiftFetchResult shifts = interpreter.shifts(response.statusCode, response.body);
+                result.setShifts(shifts.getShifts(), shifts.serverMessage, shifts.errorMessage);
+            }
+        }
+        if (request.includesOrders()) {
+            SubResponse response = responses.get(ID_ORDERS);
+            if (response == null) {
+                result.setOrders(Collections.<OrderInfo>emptyList(), null, missingMessage(ID_ORDERS));
+            } else {
+                OrderService.ResponseBundle orders = interpreter.orders(request.getOrdersUserId(), response.statusCode, response.body);
+                result.setOrders(orders.getOrders(), orders.serverMessage, orders.errorMessage);
+            }
+        }
+        return result;
+    }
+
+    @NonNull
+    static BatchResult failAll(@NonNull BatchRequest request, @NonNull String message) {
+        BatchResult result = new BatchResult(true);
+        if (request.includesHealth()) {
+            result.setHealth(false, message);
+        }
+        if (request.includesProfile()) {
+            result.setProfile(-1, message);
+        }
+        if (request.includesShifts()) {
+            result.setShifts(Collections.<ShiftInfo>emptyList(), null, message);
+        }
+        if (request.includesOrders()) {
+            result.setOrders(Collections.<OrderInfo>emptyList(), null, message);
+        }
+        return result;
+    }
+
+    /**
+     * Issues each call as its own request in parallel and reports once all of them have finished.
+     * Runs on the main thread, which is also where every service delivers its callback, so the
+     * pending counter needs no synchronisation.
+     */
+    private void fanOut(@NonNull BatchRequest request, @NonNull BatchCallback callback) {
+        BatchResult result = new BatchResult(false);
+        int[] pending = new int[]{request.size()};
+        Runnable onCallFinished = () -> {
+            pending[0]--;
+            if (pending[0] == 0) {
+                callback.onComplete(result);
+            }
+        };
+
+        if (request.includesHealth()) {
+            connectionManager.checkConnection(request.getHealthPath(), (isConnected, errorMessage) -> {
+                result.setHealth(isConnected, errorMessage);
+                onCallFinished.run();
+            });
+        }
+
+        if (request.includesProfile()) {
+            userService.fetchUserIdByEmail(request.getProfileEmail(), new UserService.UserIdCallback() {
+                @Override
+                public void onSuccess(int userId) {
+                    result.setProfile(userId, null);
+                    onCallFinished.run();
+                }
+
+                @Override
+                public void onError(@NonNull String errorMessage) {
+                    result.setProfile(-1, errorMessage);
+                    onCallFinished.run();
+                }
+            });
+        }
+
+        if (request.includesShifts()) {
+            shiftService.fetchShifts(request.getShiftsUserId(), new ShiftService.ShiftFetchCallback() {
+                @Override
+                public void onSuccess(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
+                    result.setShifts(shifts, serverMessage, null);
+                    onCallFinished.run();
+                }
+
+                @Override
+                public void onError(@NonNull String errorMessage) {
+                    result.setShifts(Collections.<ShiftInfo>emptyList(), null, errorMessage);
+                    onCallFinished.run();
+                }
+            });
+        }
+
+        if (request.includesOrders()) {
+            orderService.fetchUnfinishedOrders(request.getOrdersUserId(), new OrderService.OrderFetchCallback() {
+                @Override
+                public void onSuccess(@NonNull List<OrderInfo> orders, @Nullable String serverMessage) {
+                    result.setOrders(orders, serverMessage, null);
+                    onCallFinished.run();
+                }
+
+                @Override
+                public void onError(@NonNull String errorMessage) {
+                    result.setOrders(Collections.<OrderInfo>emptyList(), null, errorMessage);
+                    onCallFinished.run();
+                }
+            });
+        }
+    }
+
+    private void markUnsupported(@NonNull String reason) {
+        if (!batchEndpointUnsupported) {
+            Log.i(TAG, "Batch endpoint unavailable (" + reason + "); falling back to individual requests.");
+        }
+        batchEndpointUnsupported = true;
+    }
+
+    @NonNull
+    private static String missingMessage(@NonNull String id) {
+        return "Batch response did not include the " + id + " result.";
+    }
+
+    static final class SubResponse {
+        int statusCode;
+        @NonNull
+        String body = "";
+    }
+}
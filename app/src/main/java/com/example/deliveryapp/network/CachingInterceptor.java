@@ -0,0 +1,99 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Revalidates GET requests against the last response for the same URL. Responses that carry an
+ * {@code ETag} or {@code Last-Modified} header are kept, the next request for that URL sends them
+ * back as {@code If-None-Match} / {@code If-Modified-Since}, and a {@code 304 Not Modified}
+ * answer is replaced by the kept response, so an unchanged list costs the server no body and the
+ * app no download. The replayed body also has the same {@link ResponseFingerprints fingerprint},
+ * so it is not parsed again either.
+ *
+ * <p>Only the most recently used {@code maxEntries} URLs are kept, in memory.</p>
+ */
+final class CachingInterceptor implements Interceptor {
+
+    static final int DEFAULT_MAX_ENTRIES = 8;
+
+    private final Map<String, HttpResponse> entries;
+
+    CachingInterceptor(int maxEntries) {
+        entries = new LinkedHashMap<String, HttpResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HttpResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @NonNull
+    @Override
+    public HttpResponse intercept(@NonNull Chain chain) throws IOException {
+        HttpRequest request = chain.request();
+        if (!"GET".equals(request.getMethod())) {
+            return chain.proceed(request);
+        }
+
+        String key = request.getUrl().toString();
+        HttpResponse cached = get(key);
+        HttpRequest.Builder conditional = request.newBuilder();
+        if (cached != null) {
+            String etag = cached.getHeader("ETag");
+            String lastModified = cached.getHeader("Last-Modified");
+            if (etag != null) {
+                conditional.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                conditional.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        HttpResponse response = chain.proceed(conditional.build());
+        if (response.getStatusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            if (cached != null) {
+                return cached.replayedFromCache(response.getReceivedAtMs());
+            }
+            // Evicted meanwhile: ask again without validators.
+            return chain.proceed(request);
+        }
+        if (response.getStatusCode() == HttpURLConnection.HTTP_OK
+                && (response.getHeader("ETag") != null || response.getHeader("Last-Modified") != null)) {
+            put(key, response);
+        } else if (cached != null) {
+            remove(key);
+        }
+        return response;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Nullable
+    private HttpResponse get(@NonNull String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(@NonNull String key, @NonNull HttpResponse response) {
+        synchronized (entries) {
+            entries.put(key, response);
+        }
+    }
+
+    private void remove(@NonNull String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Negotiates and decodes the CBOR form of the order and shift lists. List requests send
+ * {@link #ACCEPT_HEADER}, which prefers CBOR and still accepts JSON. Servers that cannot answer
+ * in CBOR send JSON, which goes through the JSON parsing as before.
+ *
+ * <p>The CBOR documents mirror the JSON ones with their snake_case field names: either an array
+ * of orders or shifts, or a map holding that array under {@code orders}, {@code shifts} or
+ * {@code data} next to {@code success}, {@code message} and {@code error}. Decoding goes straight
+ * from the bytes into an {@link OrderTable} or {@link ShiftInfo}s with no intermediate tree.</p>
+ */
+final class CborPayloads {
+
+    static final String MEDIA_TYPE = "application/cbor";
+    /**
+     * Prefers CBOR, which decodes with no JSON parsing or intermediate tree, and ranks JSON just
+     * below it so servers without CBOR support answer as before.
+     */
+    static final String ACCEPT_HEADER = MEDIA_TYPE + ", application/json;q=0.9";
+
+    /**
+     * What was decoded from a list response, with the server's message or error.
+     */
+    static final class Payload<T> {
+        @Nullable
+        T value;
+        @Nullable
+        String serverMessage;
+        @Nullable
+        String errorMessage;
+    }
+
+    private CborPayloads() {
+        // Utility class
+    }
+
+    /**
+     * Returns whether a {@code Content-Type} header announces a CBOR body.
+     */
+    static boolean isCbor(@Nullable String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+        return MEDIA_TYPE.equalsIgnoreCase(mediaType);
+    }
+
+    /**
+     * Decodes an order list. Orders without a positive ID are dropped, as in the JSON form.
+     *
+     * @param branchZone zone of order dates sent without an offset
+     */
+    @NonNull
+    static Payload<OrderTable> decodeOrders(@NonNull byte[] body, @NonNull TimeZone branchZone) {
+        Payload<OrderTable> payload = new Payload<>();
+        OrderTable.Builder table = new OrderTable.Builder(branchZone);
+        StringDeduplicator strings = new StringDeduplicator();
+        try {
+            CborReader reader = new CborReader(body);
+            if (!reader.hasNext()) {
+                payload.value = table.build();
+                return payload;
+            }
+            if (reader.peekType() == CborReader.ARRAY) {
+                readOrders(reader, table, strings);
+            } else {
+                String error = null;
+                boolean success = true;
+                int size = reader.readMapStart();
+                for (int i = 0; reader.hasNextElement(size, i); i++) {
+                    String key = reader.readKey();
+                    switch (key) {
+                        case "orders":
+                        case "data":
+                            if (reader.peekType() == CborReader.ARRAY) {
+                                readOrders(reader, table, strings);
+                            } else {
+                                reader.skip();
+                            }
+                            break;
+                        case "message":
+                        case "info":
+                        case "detail":
+                            payload.serverMessage = firstNonBlank(payload.serverMessage, reader.readString());
+                            break;
+                        case "error":
+                        case "reason":
+                            error = firstNonBlank(error, reader.readString());
+                            break;
+                        case "success":
+                            success = reader.readBoolean(true);
+                            break;
+                        default:
+                            reader.skip();
+                    }
+                }
+                if (error == null && !success) {
+                    error = payload.serverMessage != null ? payload.serverMessage : "Request failed";
+                }
+                if (error != null && table.size() == 0) {
+                    payload.errorMessage = error;
+                }
+            }
+            payload.value = table.build();
+        } catch (IOException | IllegalStateException e) {
+            payload.value = null;
+            payload.errorMessage = ErrorNormalizationInterceptor.UNEXPECTED_RESPONSE_MESSAGE;
+        }
+        return payload;
+    }
+
+    /**
+     * Decodes a shift schedule. Repeated shift IDs are dropped, as in the JSON form.
+     */
+    @NonNull
+    static Payload<List<ShiftInfo>> decodeShifts(@NonNull byte[] body) {
+        Payload<List<ShiftInfo>> payload = new Payload<>();
+        List<ShiftInfo> shifts = new ArrayList<>();
+        Set<Integer> seenIds = new HashSet<>();
+        StringDeduplicator strings = new StringDeduplicator();
+        try {
+            CborReader reader = new CborReader(body);
+            if (!reader.hasNext()) {
+                payload.value = shifts;
+                return payload;
+            }
+            if (reader.peekType() == CborReader.ARRAY) {
+                readShifts(reader, shifts, seenIds, strings);
+                payload.value = shifts;
+                return payload;
+            }
+
+            Boolean success = null;
+            boolean hasShifts = false;
+            String status = null;
+            String message = null;
+            String error = null;
+            int size = reader.readMapStart();
+            for (int i = 0; reader.hasNextElement(size, i); i++) {
+                String key = reader.readKey();
+                switch (key) {
+                    case "shifts":
+                    case "data":
+                        hasShifts = true;
+                        if (reader.peekType() == CborReader.ARRAY) {
+                            readShifts(reader, shifts, seenIds, strings);
+                        } else if (reader.peekType() == CborReader.MAP) {
+                            addIfNew(shifts, seenIds, readShift(reader, strings));
+                        } else {
+                            reader.skip();
+                        }
+                        break;
+                    case "shift":
+                        hasShifts = true;
+                        if (reader.peekType() == CborReader.MAP) {
+                            addIfNew(shifts, seenIds, readShift(reader, strings));
+                        } else {
+                            reader.skip();
+                        }
+                        break;
+                    case "success":
+                        success = reader.readBoolean(false);
+                        break;
+                    case "status":
+                        status = reader.readString();
+                        break;
+                    case "message":
+                    case "info":
+                    case "detail":
+                        message = firstNonBlank(message, reader.readString());
+                        break;
+                    case "error":
+                    case "reason":
+                        error = firstNonBlank(error, reader.readString());
+                        break;
+                    default:
+                        reader.skip();
+                }
+            }
+            String serverMessage = message != null ? message : error;
+            boolean ok = success != null ? success : hasShifts || size == 0 || isSuccessStatus(status);
+            if (!ok) {
+                payload.errorMessage = serverMessage != null ? serverMessage : "Failed to load shift data.";
+                return payload;
+            }
+            payload.value = shifts;
+            payload.serverMessage = serverMessage;
+        } catch (IOException e) {
+            payload.value = null;
+            payload.errorMessage = ErrorNormalizationInterceptor.UNEXPECTED_RESPONSE_MESSAGE;
+        }
+        return payload;
+    }
+
+    private static void readOrders(
+            @NonNull CborReader reader,
+            @NonNull OrderTable.Builder table,
+            @NonNull StringDeduplicator strings
+    ) throws IOException {
+        int size = reader.readArrayStart();
+        for (int i = 0; reader.hasNextElement(size, i); i++) {
+            if (reader.peekType() == CborReader.MAP) {
+                readOrder(reader, table, strings);
+            } else {
+                reader.skip();
+            }
+        }
+    }
+
+    private static void readOrder(
+            @NonNull CborReader reader,
+            @NonNull OrderTable.Builder table,
+            @NonNull StringDeduplicator strings
+    ) throws IOException {
+        int orderId = -1;
+        int userId = 0;
+        String status = null;
+        String orderDate = null;
+        String fulfillmentType = null;
+        String source = null;
+        int itemCount = 0;
+        double totalAmount = 0.0;
+        String itemSummary = null;
+        String imageUrl = null;
+        String deliveryAddress = null;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+
+        int size = reader.readMapStart();
+        for (int i = 0; reader.hasNextElement(size, i); i++) {
+            String key = reader.readKey();
+            switch (key) {
+                case "order_id":
+                case "id":
+                    orderId = (int) reader.readLong(orderId);
+                    break;
+                case "user_id":
+                    userId = (int) reader.readLong(userId);
+                    break;
+                case "status":
+                    status = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "order_date":
+                    orderDate = nonBlank(reader.readString());
+                    break;
+                case "fulfillment_type":
+                    fulfillmentType = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "source":
+                    source = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "item_count":
+                    itemCount = (int) reader.readLong(itemCount);
+                    break;
+                case "total_amount":
+                    totalAmount = reader.readDouble(totalAmount);
+                    break;
+                case "item_summary":
+                    itemSummary = nonBlank(reader.readString());
+                    break;
+                case "image_url":
+                    imageUrl = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "delivery_address":
+                    deliveryAddress = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "delivery_latitude":
+                    latitude = reader.readDouble(latitude);
+                    break;
+                case "delivery_longitude":
+                    longitude = reader.readDouble(longitude);
+                    break;
+                default:
+                    reader.skip();
+            }
+        }
+        if (orderId <= 0) {
+            return;
+        }
+        table.add(orderId, userId, status, orderDate, fulfillmentType, source, itemCount, totalAmount,
+                itemSummary, imageUrl, deliveryAddress, latitude, longitude);
+    }
+
+    private static void readShifts(
+            @NonNull CborReader reader,
+            @NonNull List<ShiftInfo> shifts,
+            @NonNull Set<Integer> seenIds,
+            @NonNull StringDeduplicator strings
+    ) throws IOException {
+        int size = reader.readArrayStart();
+        for (int i = 0; reader.hasNextElement(size, i); i++) {
+            if (reader.peekType() == CborReader.MAP) {
+                addIfNew(shifts, seenIds, readShift(reader, strings));
+            } else {
+                reader.skip();
+            }
+        }
+    }
+
+    @NonNull
+    private static ShiftInfo readShift(@NonNull CborReader reader, @NonNull StringDeduplicator strings) throws IOException {
+        int shiftId = -1;
+        int userId = 0;
+        String staffName = null;
+        String shiftDate = null;
+        String scheduledStart = null;
+        String scheduledEnd = null;
+        String actualStart = null;
+        String actualEnd = null;
+        String status = null;
+        String notes = null;
+        String location = null;
+
+        int size = reader.readMapStart();
+        for (int i = 0; reader.hasNextElement(size, i); i++) {
+            String key = reader.readKey();
+            switch (key) {
+                case "shift_id":
+                case "id":
+                    shiftId = (int) reader.readLong(shiftId);
+                    break;
+                case "user_id":
+                case "staff_id":
+                    userId = (int) reader.readLong(userId);
+                    break;
+                case "staff_name":
+                case "name":
+                    staffName = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "shift_date":
+                    shiftDate = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "scheduled_start":
+                    scheduledStart = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "scheduled_end":
+                    scheduledEnd = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "actual_start":
+                    actualStart = nonBlank(reader.readString());
+                    break;
+                case "actual_end":
+                    actualEnd = nonBlank(reader.readString());
+                    break;
+                case "status":
+                    status = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                case "notes":
+                    notes = nonBlank(reader.readString());
+                    break;
+                case "location":
+                    location = strings.dedupe(nonBlank(reader.readString()));
+                    break;
+                default:
+                    reader.skip();
+            }
+        }
+        return new ShiftInfo(shiftId, userId, staffName, shiftDate, scheduledStart, scheduledEnd,
+                actualStart, actualEnd, status, notes, location != null ? location : strings.dedupe(notes));
+    }
+
+    private static void addIfNew(@NonNull List<ShiftInfo> shifts, @NonNull Set<Integer> seenIds, @NonNull ShiftInfo shift) {
+        int id = shift.getId();
+        if (id > 0 && !seenIds.add(id)) {
+            return;
+        }
+        shifts.add(shift);
+    }
+
+    private static boolean isSuccessStatus(@Nullable String status) {
+        if (status == null) {
+            return false;
+        }
+        String value = status.trim().toLowerCase(Locale.US);
+        return value.equals("success") || value.equals("ok");
+    }
+
+    @Nullable
+    private static String nonBlank(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @Nullable
+    private static String firstNonBlank(@Nullable String current, @Nullable String candidate) {
+        return current != null ? current : nonBlank(candidate);
+    }
+}
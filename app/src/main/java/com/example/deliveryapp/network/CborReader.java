@@ -0,0 +1,429 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull reader for CBOR (RFC 8949) documents held in memory. Callers walk the document item by
+ * item and decode straight into their own objects; nothing is built for items they skip.
+ *
+ * <p>Definite and indefinite length strings, arrays and maps are supported. Tags are read
+ * past, so a tagged value reads like the untagged one. Readers are lenient in the way the JSON
+ * parsing is: numbers may be read as strings and numeric strings as numbers.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+final class CborReader {
+
+    static final int UNSIGNED = 0;
+    static final int NEGATIVE = 1;
+    static final int BYTES = 2;
+    static final int TEXT = 3;
+    static final int ARRAY = 4;
+    static final int MAP = 5;
+    static final int SIMPLE = 7;
+
+    private static final int TAG = 6;
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xFF;
+    private static final int FALSE = 20;
+    private static final int TRUE = 21;
+    private static final int NULL = 22;
+    private static final int UNDEFINED = 23;
+    private static final int HALF_FLOAT = 25;
+    private static final int SINGLE_FLOAT = 26;
+    private static final int DOUBLE_FLOAT = 27;
+    /** Deepest nesting {@link #skip()} follows, so a hostile document cannot overflow the stack. */
+    private static final int MAX_DEPTH = 64;
+
+    @NonNull
+    private final byte[] data;
+    private final int end;
+    private int position;
+
+    CborReader(@NonNull byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    CborReader(@NonNull byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    boolean hasNext() {
+        return position < end;
+    }
+
+    /**
+     * Returns the major type of the next item, such as {@link #MAP}, reading past any tags.
+     */
+    int peekType() throws IOException {
+        skipTags();
+        return (peekByte() & 0xFF) >>> 5;
+    }
+
+    /**
+     * Returns whether the next item is {@code null} or {@code undefined}.
+     */
+    boolean peekNull() throws IOException {
+        skipTags();
+        int initial = peekByte() & 0xFF;
+        return initial == (SIMPLE << 5 | NULL) || initial == (SIMPLE << 5 | UNDEFINED);
+    }
+
+    /**
+     * Reads the head of an array and returns its size, or {@code -1} if its length is
+     * indefinite. Loop over the elements with {@link #hasNextElement(int, int)}.
+     */
+    int readArrayStart() throws IOException {
+        return readContainerStart(ARRAY);
+    }
+
+    /**
+     * Reads the head of a map and returns its number of entries, or {@code -1} if its length is
+     * indefinite. Each entry is a key followed by its value.
+     */
+    int readMapStart() throws IOException {
+        return readContainerStart(MAP);
+    }
+
+    /**
+     * Returns whether a container of {@code size} (as returned by {@link #readArrayStart()} or
+     * {@link #readMapStart()}) has an element after the {@code read} already read, consuming
+     * the end marker of an indefinite container.
+     */
+    boolean hasNextElement(int size, int read) throws IOException {
+        if (size >= 0) {
+            return read < size;
+        }
+        if ((peekByte() & 0xFF) == BREAK) {
+            position++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a map key, which the API always sends as text.
+     */
+    @NonNull
+    String readKey() throws IOException {
+        String key = readString();
+        if (key == null) {
+            throw malformed("map key is not text");
+        }
+        return key;
+    }
+
+    /**
+     * Reads a text item, or a number or boolean as its text. Returns {@code null} for
+     * {@code null} and for items that have no text form, which are skipped.
+     */
+    @Nullable
+    String readString() throws IOException {
+        int type = peekType();
+        switch (type) {
+            case TEXT:
+                return readText();
+            case UNSIGNED:
+            case NEGATIVE:
+                return Long.toString(readLong());
+            case SIMPLE:
+                int simple = peekByte() & 0x1F;
+                if (simple == FALSE || simple == TRUE) {
+                    return Boolean.toString(readBoolean());
+                }
+                if (simple == HALF_FLOAT || simple == SINGLE_FLOAT || simple == DOUBLE_FLOAT) {
+                    return formatDouble(readDouble());
+                }
+                skip();
+                return null;
+            default:
+                skip();
+                return null;
+        }
+    }
+
+    /**
+     * Reads an integer. Floats are truncated and numeric text is parsed; anything else is
+     * skipped and {@code fallback} returned.
+     */
+    long readLong(long fallback) throws IOException {
+        int type = peekType();
+        if (type == UNSIGNED || type == NEGATIVE) {
+            return readLong();
+        }
+        if (type == SIMPLE && isFloat()) {
+            return (long) readDouble();
+        }
+        if (type == TEXT) {
+            try {
+                return Long.parseLong(readText().trim());
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        skip();
+        return fallback;
+    }
+
+    /**
+     * Reads a number of any encoding. Numeric text is parsed; anything else is skipped and
+     * {@code fallback} returned.
+     */
+    double readDouble(double fallback) throws IOException {
+        int type = peekType();
+        if (type == UNSIGNED || type == NEGATIVE) {
+            return readLong();
+        }
+        if (type == SIMPLE && isFloat()) {
+            return readDouble();
+        }
+        if (type == TEXT) {
+            try {
+                return Double.parseDouble(readText().trim());
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        skip();
+        return fallback;
+    }
+
+    /**
+     * Reads a boolean. Numbers are true unless zero, and text is true when it reads
+     * {@code true}, {@code success} or {@code 1}; anything else is skipped and {@code fallback}
+     * returned.
+     */
+    boolean readBoolean(boolean fallback) throws IOException {
+        int type = peekType();
+        if (type == SIMPLE) {
+            int simple = peekByte() & 0x1F;
+            if (simple == FALSE || simple == TRUE) {
+                return readBoolean();
+            }
+        } else if (type == UNSIGNED || type == NEGATIVE) {
+            return readLong() != 0;
+        } else if (type == TEXT) {
+            String value = readText().trim();
+            return value.equalsIgnoreCase("true") || value.equalsIgnoreCase("success") || value.equals("1");
+        }
+        skip();
+        return fallback;
+    }
+
+    /**
+     * Reads past the next item, including everything nested in it.
+     */
+    void skip() throws IOException {
+        skip(0);
+    }
+
+    private void skip(int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw malformed("nested too deeply");
+        }
+        int type = peekType();
+        int info = peekByte() & 0x1F;
+        switch (type) {
+            case UNSIGNED:
+            case NEGATIVE:
+                position++;
+                readArgument(info);
+                return;
+            case BYTES:
+            case TEXT:
+                if (info == INDEFINITE) {
+                    position++;
+                    while ((peekByte() & 0xFF) != BREAK) {
+                        skip(depth + 1);
+                    }
+                    position++;
+                } else {
+                    position++;
+                    advance(readLength(info));
+                }
+                return;
+            case ARRAY:
+            case MAP: {
+                int size = readContainerStart(type);
+                int items = type == MAP && size >= 0 ? size * 2 : size;
+                for (int i = 0; hasNextElement(items, i); i++) {
+                    skip(depth + 1);
+                    if (type == MAP && size < 0) {
+                        skip(depth + 1);
+                    }
+                }
+                return;
+            }
+            default:
+                position++;
+                if (info == HALF_FLOAT) {
+                    advance(2);
+                } else if (info == SINGLE_FLOAT) {
+                    advance(4);
+                } else if (info == DOUBLE_FLOAT) {
+                    advance(8);
+                } else if (info == 24) {
+                    advance(1);
+                } else if (info > DOUBLE_FLOAT) {
+                    throw malformed("reserved simple value");
+                }
+        }
+    }
+
+    @NonNull
+    private String readText() throws IOException {
+        int info = data[position++] & 0x1F;
+        if (info != INDEFINITE) {
+            int length = readLength(info);
+            int start = position;
+            advance(length);
+            return new String(data, start, length, StandardCharsets.UTF_8);
+        }
+        // Indefinite text is a run of definite chunks; join the bytes before decoding.
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        while ((peekByte() & 0xFF) != BREAK) {
+            int chunk = peekByte() & 0xFF;
+            if (chunk >>> 5 != TEXT || (chunk & 0x1F) == INDEFINITE) {
+                throw malformed("bad text chunk");
+            }
+            position++;
+            int length = readLength(chunk & 0x1F);
+            int start = position;
+            advance(length);
+            joined.write(data, start, length);
+        }
+        position++;
+        return new String(joined.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private long readLong() throws IOException {
+        int initial = data[position++] & 0xFF;
+        long argument = readArgument(initial & 0x1F);
+        if (argument < 0) {
+            throw malformed("integer out of range");
+        }
+        return initial >>> 5 == NEGATIVE ? -1 - argument : argument;
+    }
+
+    private double readDouble() throws IOException {
+        int info = data[position++] & 0x1F;
+        switch (info) {
+            case HALF_FLOAT:
+                return halfToDouble((int) readBigEndian(2));
+            case SINGLE_FLOAT:
+                return Float.intBitsToFloat((int) readBigEndian(4));
+            default:
+                return Double.longBitsToDouble(readBigEndian(8));
+        }
+    }
+
+    private boolean readBoolean() {
+        return (data[position++] & 0x1F) == TRUE;
+    }
+
+    private boolean isFloat() throws IOException {
+        int info = peekByte() & 0x1F;
+        return info == HALF_FLOAT || info == SINGLE_FLOAT || info == DOUBLE_FLOAT;
+    }
+
+    private int readContainerStart(int expectedType) throws IOException {
+        if (peekType() != expectedType) {
+            throw malformed(expectedType == MAP ? "expected a map" : "expected an array");
+        }
+        int info = data[position++] & 0x1F;
+        return info == INDEFINITE ? -1 : readLength(info);
+    }
+
+    private void skipTags() throws IOException {
+        while ((peekByte() & 0xFF) >>> 5 == TAG) {
+            int info = data[position++] & 0x1F;
+            readArgument(info);
+        }
+    }
+
+    private int readLength(int info) throws IOException {
+        long length = readArgument(info);
+        if (length < 0 || length > end - position) {
+            throw malformed("length runs past the end");
+        }
+        return (int) length;
+    }
+
+    private long readArgument(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return readBigEndian(1);
+            case 25:
+                return readBigEndian(2);
+            case 26:
+                return readBigEndian(4);
+            case 27:
+                return readBigEndian(8);
+            default:
+                throw malformed("bad length");
+        }
+    }
+
+    private long readBigEndian(int bytes) throws IOException {
+        if (end - position < bytes) {
+            throw malformed("truncated");
+        }
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = value << 8 | (data[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private byte peekByte() throws IOException {
+        if (position >= end) {
+            throw malformed("truncated");
+        }
+        return data[position];
+    }
+
+    private void advance(int bytes) throws IOException {
+        if (end - position < bytes) {
+            throw malformed("truncated");
+        }
+        position += bytes;
+    }
+
+    @NonNull
+    private IOException malformed(@NonNull String reason) {
+        return new IOException("Malformed CBOR at byte " + position + ": " + reason);
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = (half >>> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        double value;
+        if (exponent == 0) {
+            value = Math.scalb((double) mantissa, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    @NonNull
+    private static String formatDouble(double value) {
+        // Whole numbers read like the integers JSON would have carried.
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
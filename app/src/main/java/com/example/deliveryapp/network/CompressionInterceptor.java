@@ -0,0 +1,28 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Asks for compressed responses and compresses large request bodies, via {@link HttpCompression}.
+ * Responses are decompressed while the transport reads them.
+ */
+final class CompressionInterceptor implements Interceptor {
+
+    @NonNull
+    @Override
+    public HttpResponse intercept(@NonNull Chain chain) throws IOException {
+        HttpRequest request = chain.request();
+        HttpRequest.Builder builder = request.newBuilder()
+                .header("Accept-Encoding", HttpCompression.ACCEPT_ENCODING);
+        byte[] body = request.getBody();
+        if (body != null && request.getHeader("Content-Encoding") == null) {
+            byte[] encoded = HttpCompression.encodeRequestBody(body);
+            if (encoded != body) {
+                builder.body(encoded).header("Content-Encoding", "gzip");
+            }
+        }
+        return chain.proceed(builder.build());
+    }
+}
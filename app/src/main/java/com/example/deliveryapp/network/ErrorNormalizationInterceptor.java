@@ -0,0 +1,80 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+
+/**
+ * Decides whether a response is a failure and, if so, describes it the same way for every
+ * service: the server's own error or message when the body is JSON, a service-specific message
+ * when a web server answered with an HTML page, and the status code otherwise.
+ */
+final class ErrorNormalizationInterceptor implements Interceptor {
+
+    static final String UNEXPECTED_RESPONSE_MESSAGE = "Server returned an unexpected response.";
+
+    /** Longest raw body quoted in a message. */
+    private static final int MAX_QUOTED_BODY_CHARS = 200;
+
+    @NonNull
+    @Override
+    public HttpResponse intercept(@NonNull Chain chain) throws IOException {
+        HttpRequest request = chain.request();
+        HttpResponse response = chain.proceed(request);
+        return response.withErrorMessage(describe(
+                response.getStatusCode(),
+                response.getBody(),
+                response.isHtml(),
+                request.getHtmlErrorMessage()
+        ));
+    }
+
+    /**
+     * Like the interceptor, for responses that did not pass through the pipeline, such as the
+     * parts of a batch response.
+     */
+    @Nullable
+    static String describe(int statusCode, @NonNull String body, @Nullable String htmlMessage) {
+        String trimmed = body.trim();
+        return describe(statusCode, body, !trimmed.isEmpty() && trimmed.charAt(0) == '<', htmlMessage);
+    }
+
+    @Nullable
+    private static String describe(int statusCode, @NonNull String body, boolean html, @Nullable String htmlMessage) {
+        boolean successful = statusCode >= 200 && statusCode < 300;
+        if (html) {
+            String message = htmlMessage != null ? htmlMessage : UNEXPECTED_RESPONSE_MESSAGE;
+            return successful ? message : message + " (HTTP " + statusCode + ")";
+        }
+        if (successful) {
+            return null;
+        }
+
+        JSONObject json = null;
+        Object parsed = JsonBodies.parse(body);
+        if (parsed instanceof JSONObject) {
+            json = (JSONObject) parsed;
+        } else if (parsed instanceof JSONArray) {
+            json = ((JSONArray) parsed).optJSONObject(0);
+        }
+        if (json != null) {
+            String message = JsonBodies.firstString(json, "error", "message", "detail", "reason");
+            if (message != null) {
+                return message;
+            }
+        }
+
+        String trimmed = body.trim();
+        if (trimmed.isEmpty()) {
+            return "HTTP " + statusCode;
+        }
+        if (trimmed.length() > MAX_QUOTED_BODY_CHARS) {
+            trimmed = trimmed.substring(0, MAX_QUOTED_BODY_CHARS) + "…";
+        }
+        return "HTTP " + statusCode + ": " + trimmed;
+    }
+}
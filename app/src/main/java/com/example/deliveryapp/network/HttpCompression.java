@@ -0,0 +1,216 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.AppConfig;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Negotiates gzip/deflate encoded bodies for {@link HttpURLConnection} requests. Because we set
+ * {@code Accept-Encoding} ourselves the platform no longer decompresses transparently, so the
+ * response stream returned here is unwrapped while it is being read.
+ */
+final class HttpCompression {
+
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /** Bodies smaller than this rarely shrink enough to pay for the gzip header. */
+    static final int MIN_COMPRESSIBLE_BODY_BYTES = 1024;
+
+    private static final int STREAM_BUFFER_SIZE = 8 * 1024;
+
+    private HttpCompression() {
+        // Utility class
+    }
+
+    static void prepareRequest(@NonNull HttpURLConnection connection) {
+        connection.setRequestProperty("Accept-Encoding", ACCEPT_ENCODING);
+    }
+
+    /**
+     * Encodes an outgoing request body, compressing it with gzip when request compression is
+     * enabled and the payload is large enough to benefit. Returns {@code payload} itself when it
+     * is sent as is; otherwise the caller must send {@code Content-Encoding: gzip}.
+     */
+    @NonNull
+    static byte[] encodeRequestBody(@NonNull byte[] payload) {
+        byte[] encoded = payload;
+        if (AppConfig.COMPRESS_REQUEST_BODIES && payload.length >= MIN_COMPRESSIBLE_BODY_BYTES) {
+            byte[] compressed = gzip(payload);
+            if (compressed != null && compressed.length < payload.length) {
+                encoded = compressed;
+            }
+        }
+        NetworkMetrics.getInstance().recordRequestBody(payload.length, encoded.length, encoded != payload);
+        return encoded;
+    }
+
+    /**
+     * Opens the response (or error) stream of {@code connection} and wraps it in a decoder that
+     * matches the {@code Content-Encoding} reported by the server. Byte counts are reported to
+     * {@link NetworkMetrics} once the returned stream is closed.
+     */
+    @Nullable
+    static InputStream openResponseStream(@NonNull HttpURLConnection connection, int statusCode) throws IOException {
+        InputStream raw = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (raw == null) {
+            return null;
+        }
+
+        CountingInputStream wire = new CountingInputStream(raw);
+        String encoding = connection.getContentEncoding();
+        String normalized = encoding != null ? encoding.trim().toLowerCase(Locale.US) : "";
+
+        InputStream decoded;
+        Inflater inflater = null;
+        if (normalized.equals("gzip") || normalized.equals("x-gzip")) {
+            decoded = new GZIPInputStream(wire, STREAM_BUFFER_SIZE);
+        } else if (normalized.equals("deflate")) {
+            // Servers disagree on whether "deflate" means zlib-wrapped or raw DEFLATE data, so peek
+            // at the first two bytes to pick the right inflater mode.
+            BufferedInputStream buffered = new BufferedInputStream(wire, STREAM_BUFFER_SIZE);
+            inflater = new Inflater(!hasZlibHeader(buffered));
+            decoded = new InflaterInputStream(buffered, inflater, STREAM_BUFFER_SIZE);
+        } else {
+            decoded = wire;
+        }
+        return new MeteredInputStream(decoded, wire, inflater, decoded != wire);
+    }
+
+    @Nullable
+    static byte[] gzip(@NonNull byte[] payload) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(payload.length / 4, 64));
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(output, STREAM_BUFFER_SIZE)) {
+            gzipStream.write(payload);
+        } catch (IOException e) {
+            return null;
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean hasZlibHeader(@NonNull BufferedInputStream stream) throws IOException {
+        stream.mark(2);
+        int cmf = stream.read();
+        int flg = stream.read();
+        stream.reset();
+        if (cmf < 0 || flg < 0) {
+            return false;
+        }
+        return (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                count += skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private static final class MeteredInputStream extends FilterInputStream {
+
+        @NonNull
+        private final CountingInputStream wire;
+        @Nullable
+        private final Inflater inflater;
+        private final boolean compressed;
+        private long decodedBytes;
+        private boolean closed;
+
+        MeteredInputStream(
+                @NonNull InputStream decoded,
+                @NonNull CountingInputStream wire,
+                @Nullable Inflater inflater,
+                boolean compressed
+        ) {
+            super(decoded);
+            this.wire = wire;
+            this.inflater = inflater;
+            this.compressed = compressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                decodedBytes++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                decodedBytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+                NetworkMetrics.getInstance().recordResponseBody(wire.count, decodedBytes, compressed);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs API requests through an ordered list of {@link Interceptor}s and then a {@link Transport}
+ * that talks to the server. The first interceptor sees the request first and the response last.
+ *
+ * <p>{@code HttpPipelineBenchmark} reports what the chain itself costs per request, with
+ * interceptors that do little or nothing, so it can be compared with the network time it wraps.</p>
+ */
+final class HttpPipeline {
+
+    interface Transport {
+        /**
+         * Sends {@code request} and reads the whole response, registering the connection with
+         * {@code handle} so cancelling aborts it.
+         */
+        @NonNull
+        HttpResponse execute(@NonNull HttpRequest request, @Nullable RequestHandle handle) throws IOException;
+    }
+
+    private final Interceptor[] interceptors;
+    private final Transport transport;
+
+    HttpPipeline(@NonNull List<? extends Interceptor> interceptors, @NonNull Transport transport) {
+        this.interceptors = new ArrayList<Interceptor>(interceptors).toArray(new Interceptor[0]);
+        this.transport = transport;
+    }
+
+    /**
+     * Sends {@code request} on the calling thread, which must not be the main thread.
+     *
+     * @param handle cancels the request, or {@code null} if it cannot be cancelled
+     * @throws IOException if the request failed or was cancelled
+     */
+    @NonNull
+    HttpResponse execute(@NonNull HttpRequest request, @Nullable RequestHandle handle) throws IOException {
+        return new Step(0, request, handle).proceed(request);
+    }
+
+    private final class Step implements Interceptor.Chain {
+
+        private final int index;
+        private final HttpRequest request;
+        @Nullable
+        private final RequestHandle handle;
+
+        Step(int index, @NonNull HttpRequest request, @Nullable RequestHandle handle) {
+            this.index = index;
+            this.request = request;
+            this.handle = handle;
+        }
+
+        @NonNull
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return handle != null && handle.isCancelled();
+        }
+
+        @NonNull
+        @Override
+        public HttpResponse proceed(@NonNull HttpRequest next) throws IOException {
+            if (index == interceptors.length) {
+                return transport.execute(next, handle);
+            }
+            return interceptors[index].intercept(new Step(index + 1, next, handle));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An API request as it passes through the {@link HttpPipeline}. Immutable; interceptors that
+ * change it build a copy with {@link #newBuilder()}.
+ */
+final class HttpRequest {
+
+    static final int DEFAULT_TIMEOUT_MS = 10_000;
+
+    @NonNull
+    private final URL url;
+    @NonNull
+    private final String method;
+    @NonNull
+    private final Map<String, String> headers;
+    @Nullable
+    private final byte[] body;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final boolean idempotent;
+    @Nullable
+    private final String htmlErrorMessage;
+
+    private HttpRequest(@NonNull Builder builder) {
+        url = builder.url;
+        method = builder.method;
+        headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        body = builder.body;
+        connectTimeoutMs = builder.connectTimeoutMs;
+        readTimeoutMs = builder.readTimeoutMs;
+        idempotent = builder.idempotent;
+        htmlErrorMessage = builder.htmlErrorMessage;
+    }
+
+    @NonNull
+    URL getUrl() {
+        return url;
+    }
+
+    @NonNull
+    String getMethod() {
+        return method;
+    }
+
+    @NonNull
+    Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    @Nullable
+    String getHeader(@NonNull String name) {
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the request body as sent, or {@code null} for requests without one.
+     */
+    @Nullable
+    byte[] getBody() {
+        return body;
+    }
+
+    int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    int getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    /**
+     * Returns whether sending the request twice is harmless, so it may be retried.
+     */
+    boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * Returns what to tell the rider when the server answers with an HTML page, or {@code null}
+     * for the generic message.
+     */
+    @Nullable
+    String getHtmlErrorMessage() {
+        return htmlErrorMessage;
+    }
+
+    @NonNull
+    Builder newBuilder() {
+        return new Builder(this);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return method + " " + url;
+    }
+
+    static final class Builder {
+
+        @NonNull
+        private URL url;
+        @NonNull
+        private String method = "GET";
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        @Nullable
+        private byte[] body;
+        private int connectTimeoutMs = DEFAULT_TIMEOUT_MS;
+        private int readTimeoutMs = DEFAULT_TIMEOUT_MS;
+        private boolean idempotent = true;
+        @Nullable
+        private String htmlErrorMessage;
+
+        Builder(@NonNull URL url) {
+            this.url = url;
+        }
+
+        private Builder(@NonNull HttpRequest request) {
+            url = request.url;
+            method = request.method;
+            headers.putAll(request.headers);
+            body = request.body;
+            connectTimeoutMs = request.connectTimeoutMs;
+            readTimeoutMs = request.readTimeoutMs;
+            idempotent = request.idempotent;
+            htmlErrorMessage = request.htmlErrorMessage;
+        }
+
+        @NonNull
+        Builder url(@NonNull URL value) {
+            url = value;
+            return this;
+        }
+
+        /**
+         * Makes this a POST of {@code content} with the given content type. POSTs are not
+         * retried unless marked {@link #idempotent(boolean) idempotent}.
+         */
+        @NonNull
+        Builder post(@NonNull byte[] content, @NonNull String contentType) {
+            method = "POST";
+            body = content;
+            idempotent = false;
+            return header("Content-Type", contentType);
+        }
+
+        /**
+         * Replaces the body, keeping the method.
+         */
+        @NonNull
+        Builder body(@Nullable byte[] content) {
+            body = content;
+            return this;
+        }
+
+        /**
+         * Sets a header, replacing any value set under the same name in any letter case.
+         */
+        @NonNull
+        Builder header(@NonNull String name, @NonNull String value) {
+            removeHeader(name);
+            headers.put(name, value);
+            return this;
+        }
+
+        @NonNull
+        Builder removeHeader(@NonNull String name) {
+            headers.keySet().removeIf(existing -> existing.equalsIgnoreCase(name));
+            return this;
+        }
+
+        @NonNull
+        Builder readTimeoutMs(int value) {
+            readTimeoutMs = value;
+            return this;
+        }
+
+        @NonNull
+        Builder idempotent(boolean value) {
+            idempotent = value;
+            return this;
+        }
+
+        @NonNull
+        Builder htmlErrorMessage(@Nullable String value) {
+            htmlErrorMessage = value;
+            return this;
+        }
+
+        @NonNull
+        HttpRequest build() {
+            return new HttpRequest(this);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An API response read in full, as it passes back through the {@link HttpPipeline}. Immutable;
+ * interceptors derive changed copies.
+ */
+final class HttpResponse {
+
+    private final int statusCode;
+    @NonNull
+    private final Map<String, List<String>> headers;
+    @NonNull
+    private final String body;
+    @Nullable
+    private final byte[] binaryBody;
+    private final long receivedAtMs;
+    private final boolean fromCache;
+    @Nullable
+    private final String errorMessage;
+
+    /**
+     * @param headers      header names map to their values; a {@code null} name (the status
+     *                     line) is ignored
+     * @param receivedAtMs when the response headers arrived, in {@code elapsedRealtime} time
+     */
+    HttpResponse(int statusCode, @Nullable Map<String, List<String>> headers, @NonNull String body, long receivedAtMs) {
+        this(statusCode, copyHeaders(headers), body, null, receivedAtMs, false, null);
+    }
+
+    /**
+     * Creates a response with a binary body, such as CBOR; its text {@link #getBody() body} is
+     * empty.
+     */
+    HttpResponse(int statusCode, @Nullable Map<String, List<String>> headers, @NonNull byte[] binaryBody, long receivedAtMs) {
+        this(statusCode, copyHeaders(headers), "", binaryBody, receivedAtMs, false, null);
+    }
+
+    private HttpResponse(
+            int statusCode,
+            @NonNull Map<String, List<String>> headers,
+            @NonNull String body,
+            @Nullable byte[] binaryBody,
+            long receivedAtMs,
+            boolean fromCache,
+            @Nullable String errorMessage
+    ) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.binaryBody = binaryBody;
+        this.receivedAtMs = receivedAtMs;
+        this.fromCache = fromCache;
+        this.errorMessage = errorMessage;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Returns the first value of a header, matching its name in any letter case.
+     */
+    @Nullable
+    String getHeader(@NonNull String name) {
+        List<String> values = headers.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @NonNull
+    Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    @NonNull
+    String getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the body of a binary response, or {@code null} if the body is text.
+     */
+    @Nullable
+    byte[] getBinaryBody() {
+        return binaryBody;
+    }
+
+    /**
+     * Returns a 64-bit hash of the body, text or binary, for telling whether it changed.
+     */
+    long bodyFingerprint() {
+        return binaryBody != null ? PollingScheduler.fingerprint(binaryBody) : PollingScheduler.fingerprint(body);
+    }
+
+    long getReceivedAtMs() {
+        return receivedAtMs;
+    }
+
+    /**
+     * Returns whether the body was replayed from the cache after the server answered
+     * {@code 304 Not Modified}.
+     */
+    boolean isFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * Returns why the request failed, in words for the rider, or {@code null} if it did not.
+     * Set by the error normalization step for every response that passes through it.
+     */
+    @Nullable
+    String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Returns whether the body is an HTML page, such as a web server's error page, rather than
+     * the JSON the API speaks.
+     */
+    boolean isHtml() {
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '<';
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    HttpResponse withErrorMessage(@Nullable String message) {
+        return new HttpResponse(statusCode, headers, body, binaryBody, receivedAtMs, fromCache, message);
+    }
+
+    /**
+     * Returns this cached response as the answer to a revalidation that arrived at
+     * {@code revalidatedAtMs}.
+     */
+    @NonNull
+    HttpResponse replayedFromCache(long revalidatedAtMs) {
+        return new HttpResponse(statusCode, headers, body, binaryBody, revalidatedAtMs, true, errorMessage);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        String size = binaryBody != null ? binaryBody.length + " bytes" : body.length() + " chars";
+        return "HttpResponse{" + statusCode + (fromCache ? ", cached" : "") + ", " + size + "}";
+    }
+
+    @NonNull
+    private static Map<String, List<String>> copyHeaders(@Nullable Map<String, List<String>> source) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (source != null) {
+            for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    copy.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * One step of the {@link HttpPipeline}, such as retrying, caching or recording metrics. Each step
+ * sees the request on its way out and the response on its way back, and may change either,
+ * answer without calling the next step, or call it more than once.
+ */
+interface Interceptor {
+
+    interface Chain {
+        @NonNull
+        HttpRequest request();
+
+        /**
+         * Returns whether the caller has cancelled the request; steps should stop retrying.
+         */
+        boolean isCancelled();
+
+        /**
+         * Passes {@code request} to the next step and returns its response.
+         */
+        @NonNull
+        HttpResponse proceed(@NonNull HttpRequest request) throws IOException;
+    }
+
+    @NonNull
+    HttpResponse intercept(@NonNull Chain chain) throws IOException;
+}
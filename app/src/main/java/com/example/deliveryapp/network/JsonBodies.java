@@ -0,0 +1,58 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Parses API response bodies, which may hold either a JSON object or a JSON array.
+ */
+final class JsonBodies {
+
+    private JsonBodies() {
+        // Utility class
+    }
+
+    /**
+     * Returns the {@link JSONObject} or {@link JSONArray} in {@code body}, picked by its first
+     * character so it is parsed once, or {@code null} if it is empty or not JSON.
+     */
+    @Nullable
+    static Object parse(@NonNull String body) {
+        String trimmed = body.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        try {
+            char first = trimmed.charAt(0);
+            if (first == '{') {
+                return new JSONObject(trimmed);
+            }
+            if (first == '[') {
+                return new JSONArray(trimmed);
+            }
+        } catch (JSONException ignored) {
+            // Not JSON after all.
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first non-blank string value under {@code keys}, trimmed.
+     */
+    @Nullable
+    static String firstString(@NonNull JSONObject object, @NonNull String... keys) {
+        for (String key : keys) {
+            if (object.has(key) && !object.isNull(key)) {
+                String value = object.optString(key, "").trim();
+                if (!value.isEmpty()) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+}
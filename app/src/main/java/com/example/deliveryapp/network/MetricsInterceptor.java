@@ -0,0 +1,27 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Records how long each attempt took until its response headers arrived, for
+ * {@link NetworkMetrics} and the {@link ServerConnectionManager.NetworkActivityListener}s.
+ */
+final class MetricsInterceptor implements Interceptor {
+
+    private final ServerConnectionManager connectionManager;
+
+    MetricsInterceptor(@NonNull ServerConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @NonNull
+    @Override
+    public HttpResponse intercept(@NonNull Chain chain) throws IOException {
+        long requestStartedAt = connectionManager.markRequestStart();
+        HttpResponse response = chain.proceed(chain.request());
+        connectionManager.recordResponseLatency(requestStartedAt, response.getReceivedAtMs());
+        return response;
+    }
+}
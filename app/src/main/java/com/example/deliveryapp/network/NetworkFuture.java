@@ -0,0 +1,536 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The result of a network request that will arrive later, as an alternative to the services'
+ * callback interfaces that can be chained and combined.
+ *
+ * <p>A future ends in exactly one of three ways: it succeeds with a value (which may be
+ * {@code null}), it fails with an error message, or it is cancelled. Listeners run on the
+ * executor they were added with and only for success or failure; a cancelled future notifies
+ * nobody. Futures returned by the services complete on the network thread, so background work
+ * can chain requests without going through the main thread; screens add their listeners with
+ * the main thread's executor, or call {@link #deliverOn(Executor)} once.</p>
+ *
+ * <p>Cancelling a future cancels the request behind it. A cancelled source cancels everything
+ * derived from it. In the other direction, each future derived through the chaining methods or
+ * combinators is a dependent of its source: cancelling it, or a combinator giving up on a source
+ * it no longer needs (a failed {@link #all(List)}, a settled {@link #race(List)}, a
+ * {@link #timeout(long)} that fired), releases that dependency, and the source is cancelled once
+ * its last dependent has released it. Two chains started from one request therefore do not
+ * cancel each other.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ */
+public final class NetworkFuture<T> {
+
+    public interface Listener<T> {
+        void onSuccess(@Nullable T value);
+
+        void onError(@NonNull String errorMessage);
+    }
+
+    public interface Transform<T, R> {
+        /**
+         * Converts a value. A {@link RuntimeException} thrown here fails the derived future.
+         */
+        @Nullable
+        R apply(@Nullable T value);
+    }
+
+    public interface Continuation<T, R> {
+        /**
+         * Starts the next step once the previous one succeeded.
+         */
+        @NonNull
+        NetworkFuture<R> apply(@Nullable T value);
+    }
+
+    /** Runs listeners on whichever thread completes the future. */
+    public static final Executor DIRECT = Runnable::run;
+
+    public static final String TIMEOUT_MESSAGE = "Request timed out.";
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private static volatile ScheduledExecutorService timeoutScheduler;
+
+    private final Object lock = new Object();
+    private volatile int state = PENDING;
+    @Nullable
+    private T value;
+    @Nullable
+    private String errorMessage;
+    @Nullable
+    private List<Runnable> settleActions = new ArrayList<>();
+    @Nullable
+    private List<Runnable> cancelActions = new ArrayList<>();
+    // Guarded by lock: futures derived from this one that have not released it.
+    private int dependents;
+
+    @NonNull
+    public static <T> NetworkFuture<T> succeeded(@Nullable T value) {
+        NetworkFuture<T> future = new NetworkFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    @NonNull
+    public static <T> NetworkFuture<T> failed(@NonNull String errorMessage) {
+        NetworkFuture<T> future = new NetworkFuture<>();
+        future.fail(errorMessage);
+        return future;
+    }
+
+    /**
+     * Succeeds with {@code result}.
+     *
+     * @return {@code false} if the future had already ended
+     */
+    public boolean complete(@Nullable T result) {
+        return settle(SUCCEEDED, result, null);
+    }
+
+    /**
+     * Fails with {@code message}.
+     *
+     * @return {@code false} if the future had already ended
+     */
+    public boolean fail(@NonNull String message) {
+        return settle(FAILED, null, message);
+    }
+
+    /**
+     * Cancels the future and the work behind it; pending listeners are dropped.
+     *
+     * @return {@code false} if the future had already ended
+     */
+    public boolean cancel() {
+        return settle(CANCELLED, null, null);
+    }
+
+    public boolean isDone() {
+        return state != PENDING;
+    }
+
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    /**
+     * Runs {@code action} if this future is cancelled, at once if it already was. Producers use
+     * it to abort their work.
+     */
+    @NonNull
+    public NetworkFuture<T> onCancel(@NonNull Runnable action) {
+        synchronized (lock) {
+            if (cancelActions != null) {
+                cancelActions.add(action);
+                return this;
+            }
+        }
+        if (state == CANCELLED) {
+            action.run();
+        }
+        return this;
+    }
+
+    /**
+     * Notifies {@code listener} on {@code executor} when the future succeeds or fails.
+     */
+    @NonNull
+    public NetworkFuture<T> addListener(@NonNull Executor executor, @NonNull Listener<? super T> listener) {
+        whenSettled(() -> executor.execute(() -> {
+            if (state == SUCCEEDED) {
+                listener.onSuccess(value);
+            } else {
+                listener.onError(errorMessageOrDefault());
+            }
+        }));
+        return this;
+    }
+
+    /**
+     * Returns a future with the same outcome that completes on {@code executor}, so everything
+     * chained after it runs there.
+     */
+    @NonNull
+    public NetworkFuture<T> deliverOn(@NonNull Executor executor) {
+        NetworkFuture<T> derived = derive();
+        addListener(executor, new Listener<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                derived.complete(result);
+            }
+
+            @Override
+            public void onError(@NonNull String message) {
+                derived.fail(message);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Converts the value once this future succeeds; failures pass through unchanged.
+     */
+    @NonNull
+    public <R> NetworkFuture<R> map(@NonNull Transform<? super T, ? extends R> transform) {
+        NetworkFuture<R> derived = derive();
+        addListener(DIRECT, new Listener<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                R mapped;
+                try {
+                    mapped = transform.apply(result);
+                } catch (RuntimeException e) {
+                    derived.fail(describe(e));
+                    return;
+                }
+                derived.complete(mapped);
+            }
+
+            @Override
+            public void onError(@NonNull String message) {
+                derived.fail(message);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Starts the request returned by {@code continuation} once this future succeeds, and ends
+     * with its outcome. Failures skip the continuation.
+     */
+    @NonNull
+    public <R> NetworkFuture<R> then(@NonNull Continuation<? super T, R> continuation) {
+        NetworkFuture<R> derived = derive();
+        addListener(DIRECT, new Listener<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                if (derived.isDone()) {
+                    return;
+                }
+                NetworkFuture<R> next;
+                try {
+                    next = continuation.apply(result);
+                } catch (RuntimeException e) {
+                    derived.fail(describe(e));
+                    return;
+                }
+                derived.onCancel(next.addDependent());
+                next.onCancel(derived::cancel);
+                next.forwardTo(derived);
+            }
+
+            @Override
+            public void onError(@NonNull String message) {
+                derived.fail(message);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Turns a failure into a value; successes pass through unchanged.
+     */
+    @NonNull
+    public NetworkFuture<T> recover(@NonNull Transform<String, ? extends T> fallback) {
+        NetworkFuture<T> derived = derive();
+        addListener(DIRECT, new Listener<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                derived.complete(result);
+            }
+
+            @Override
+            public void onError(@NonNull String message) {
+                T recovered;
+                try {
+                    recovered = fallback.apply(message);
+                } catch (RuntimeException e) {
+                    derived.fail(describe(e));
+                    return;
+                }
+                derived.complete(recovered);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Like {@link #timeout(long, ScheduledExecutorService)} on a shared timer thread.
+     */
+    @NonNull
+    public NetworkFuture<T> timeout(long timeoutMs) {
+        return timeout(timeoutMs, getTimeoutScheduler());
+    }
+
+    /**
+     * Returns a future that fails with {@link #TIMEOUT_MESSAGE} if this one has not ended within
+     * {@code timeoutMs}. This one is released first, and so cancelled unless other futures still
+     * depend on it, before the failure is reported.
+     */
+    @NonNull
+    public NetworkFuture<T> timeout(long timeoutMs, @NonNull ScheduledExecutorService scheduler) {
+        NetworkFuture<T> derived = new NetworkFuture<>();
+        Runnable release = addDependent();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        derived.onCancel(release);
+        onCancel(() -> {
+            if (!timedOut.get()) {
+                derived.cancel();
+            }
+        });
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (!derived.isDone() && timedOut.compareAndSet(false, true)) {
+                release.run();
+                derived.fail(TIMEOUT_MESSAGE);
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+        derived.whenEnded(() -> timer.cancel(false));
+        forwardTo(derived);
+        return derived;
+    }
+
+    /**
+     * Returns a future that succeeds with every value, in the order given, once all succeed. The
+     * first failure fails it at once and cancels the rest.
+     */
+    @NonNull
+    public static <T> NetworkFuture<List<T>> all(@NonNull List<? extends NetworkFuture<? extends T>> futures) {
+        NetworkFuture<List<T>> combined = new NetworkFuture<>();
+        if (futures.isEmpty()) {
+            combined.complete(Collections.<T>emptyList());
+            return combined;
+        }
+        int count = futures.size();
+        Object[] values = new Object[count];
+        AtomicInteger remaining = new AtomicInteger(count);
+        List<Runnable> releases = new ArrayList<>(count);
+        for (NetworkFuture<? extends T> future : futures) {
+            releases.add(future.addDependent());
+        }
+        for (int i = 0; i < count; i++) {
+            NetworkFuture<? extends T> future = futures.get(i);
+            int index = i;
+            combined.onCancel(releases.get(i));
+            future.onCancel(combined::cancel);
+            future.addListener(DIRECT, new Listener<T>() {
+                @Override
+                public void onSuccess(@Nullable T result) {
+                    values[index] = result;
+                    if (remaining.decrementAndGet() == 0) {
+                        @SuppressWarnings("unchecked")
+                        List<T> list = (List<T>) (List<?>) Collections.unmodifiableList(Arrays.asList(values));
+                        combined.complete(list);
+                    }
+                }
+
+                @Override
+                public void onError(@NonNull String message) {
+                    if (combined.fail(message)) {
+                        runAll(releases);
+                    }
+                }
+            });
+        }
+        return combined;
+    }
+
+    /**
+     * Returns a future that ends like whichever of {@code futures} ends first, success or
+     * failure, and cancels the others.
+     */
+    @NonNull
+    public static <T> NetworkFuture<T> race(@NonNull List<? extends NetworkFuture<? extends T>> futures) {
+        NetworkFuture<T> winner = new NetworkFuture<>();
+        if (futures.isEmpty()) {
+            winner.fail("Nothing to race.");
+            return winner;
+        }
+        List<Runnable> releases = new ArrayList<>(futures.size());
+        for (NetworkFuture<? extends T> future : futures) {
+            releases.add(future.addDependent());
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            winner.onCancel(releases.get(i));
+            futures.get(i).addListener(DIRECT, new Listener<T>() {
+                @Override
+                public void onSuccess(@Nullable T result) {
+                    if (winner.complete(result)) {
+                        runAll(releases);
+                    }
+                }
+
+                @Override
+                public void onError(@NonNull String message) {
+                    if (winner.fail(message)) {
+                        runAll(releases);
+                    }
+                }
+            });
+        }
+        return winner;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        switch (state) {
+            case SUCCEEDED:
+                return "NetworkFuture{succeeded}";
+            case FAILED:
+                return "NetworkFuture{failed: " + errorMessage + "}";
+            case CANCELLED:
+                return "NetworkFuture{cancelled}";
+            default:
+                return "NetworkFuture{pending}";
+        }
+    }
+
+    /**
+     * Returns a new dependent future: it is cancelled with this one, and cancelling it releases
+     * this one.
+     */
+    @NonNull
+    private <R> NetworkFuture<R> derive() {
+        NetworkFuture<R> derived = new NetworkFuture<>();
+        derived.onCancel(addDependent());
+        onCancel(derived::cancel);
+        return derived;
+    }
+
+    /**
+     * Counts one more dependent and returns the action that releases it, which has an effect
+     * only the first time it runs. The last release cancels this future.
+     */
+    @NonNull
+    private Runnable addDependent() {
+        synchronized (lock) {
+            dependents++;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            boolean last;
+            synchronized (lock) {
+                last = --dependents == 0;
+            }
+            if (last) {
+                cancel();
+            }
+        };
+    }
+
+    private void forwardTo(@NonNull NetworkFuture<T> target) {
+        addListener(DIRECT, new Listener<T>() {
+            @Override
+            public void onSuccess(@Nullable T result) {
+                target.complete(result);
+            }
+
+            @Override
+            public void onError(@NonNull String message) {
+                target.fail(message);
+            }
+        });
+    }
+
+    private boolean settle(int outcome, @Nullable T result, @Nullable String message) {
+        List<Runnable> actions;
+        synchronized (lock) {
+            if (state != PENDING) {
+                return false;
+            }
+            value = result;
+            errorMessage = message;
+            state = outcome;
+            actions = outcome == CANCELLED ? cancelActions : settleActions;
+            settleActions = null;
+            cancelActions = null;
+        }
+        if (actions != null) {
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code action} once the future succeeds or fails; never if it is cancelled.
+     */
+    private void whenSettled(@NonNull Runnable action) {
+        synchronized (lock) {
+            if (settleActions != null) {
+                settleActions.add(action);
+                return;
+            }
+        }
+        if (state != CANCELLED) {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs {@code action} once the future ends in any way.
+     */
+    private void whenEnded(@NonNull Runnable action) {
+        whenSettled(action);
+        onCancel(action);
+    }
+
+    @NonNull
+    private String errorMessageOrDefault() {
+        return errorMessage != null ? errorMessage : "Request failed.";
+    }
+
+    @NonNull
+    private static String describe(@NonNull RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static void runAll(@NonNull List<Runnable> actions) {
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    @NonNull
+    private static ScheduledExecutorService getTimeoutScheduler() {
+        if (timeoutScheduler == null) {
+            synchronized (NetworkFuture.class) {
+                if (timeoutScheduler == null) {
+                    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        Thread thread = new Thread(runnable, "network-timeout");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler.setRemoveOnCancelPolicy(true);
+                    timeoutScheduler = scheduler;
+                }
+            }
+        }
+        return timeoutScheduler;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counters describing how much data the network layer moves. The values are cheap
+ * to update from worker threads and can be logged or shown in debug screens.
+ */
+public final class NetworkMetrics {
+
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+
+    private final AtomicLong responseCount = new AtomicLong();
+    private final AtomicLong compressedResponseCount = new AtomicLong();
+    private final AtomicLong responseWireBytes = new AtomicLong();
+    private final AtomicLong responseDecodedBytes = new AtomicLong();
+    private final AtomicLong requestBodyCount = new AtomicLong();
+    private final AtomicLong compressedRequestBodyCount = new AtomicLong();
+    private final AtomicLong requestWireBytes = new AtomicLong();
+    private final AtomicLong requestOriginalBytes = new AtomicLong();
+    private final AtomicLong preconnectCount = new AtomicLong();
+    private final AtomicLong failedPreconnectCount = new AtomicLong();
+    private final AtomicLong preconnectTotalMs = new AtomicLong();
+    private final AtomicLong warmRequestCount = new AtomicLong();
+    private final AtomicLong warmLatencyTotalMs = new AtomicLong();
+    private final AtomicLong coldRequestCount = new AtomicLong();
+    private final AtomicLong coldLatencyTotalMs = new AtomicLong();
+    private final AtomicLong firstRequestLatencyMs = new AtomicLong(-1);
+    private volatile boolean firstRequestWarm;
+
+    private NetworkMetrics() {
+    }
+
+    @NonNull
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    void recordResponseBody(long wireBytes, long decodedBytes, boolean compressed) {
+        responseCount.incrementAndGet();
+        if (compressed) {
+            compressedResponseCount.incrementAndGet();
+        }
+        responseWireBytes.addAndGet(Math.max(wireBytes, 0));
+        responseDecodedBytes.addAndGet(Math.max(decodedBytes, 0));
+    }
+
+    void recordRequestBody(long originalBytes, long wireBytes, boolean compressed) {
+        requestBodyCount.incrementAndGet();
+        if (compressed) {
+            compressedRequestBodyCount.incrementAndGet();
+        }
+        requestOriginalBytes.addAndGet(Math.max(originalBytes, 0));
+        requestWireBytes.addAndGet(Math.max(wireBytes, 0));
+    }
+
+    void recordPreconnect(long durationMs, boolean successful) {
+        if (successful) {
+            preconnectCount.incrementAndGet();
+            preconnectTotalMs.addAndGet(Math.max(durationMs, 0));
+        } else {
+            failedPreconnectCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records the time from opening a request until its response headers arrived.
+     *
+     * @param warm whether a pre-warmed connection to the host was available when the request started
+     * @return {@code true} when this was the first request recorded since the last reset
+     */
+    boolean recordRequestLatency(long latencyMs, boolean warm) {
+        long clamped = Math.max(latencyMs, 0);
+        if (warm) {
+            warmRequestCount.incrementAndGet();
+            warmLatencyTotalMs.addAndGet(clamped);
+        } else {
+            coldRequestCount.incrementAndGet();
+            coldLatencyTotalMs.addAndGet(clamped);
+        }
+        if (firstRequestLatencyMs.compareAndSet(-1, clamped)) {
+            firstRequestWarm = warm;
+            return true;
+        }
+        return false;
+    }
+
+    public long getResponseCount() {
+        return responseCount.get();
+    }
+
+    public long getCompressedResponseCount() {
+        return compressedResponseCount.get();
+    }
+
+    public long getResponseWireBytes() {
+        return responseWireBytes.get();
+    }
+
+    public long getResponseDecodedBytes() {
+        return responseDecodedBytes.get();
+    }
+
+    public long getRequestBodyCount() {
+        return requestBodyCount.get();
+    }
+
+    public long getCompressedRequestBodyCount() {
+        return compressedRequestBodyCount.get();
+    }
+
+    public long getRequestWireBytes() {
+        return requestWireBytes.get();
+    }
+
+    public long getRequestOriginalBytes() {
+        return requestOriginalBytes.get();
+    }
+
+    public long getPreconnectCount() {
+        return preconnectCount.get();
+    }
+
+    public long getFailedPreconnectCount() {
+        return failedPreconnectCount.get();
+    }
+
+    /**
+     * Returns the mean time a successful pre-warm spent on DNS, TCP and TLS setup, or {@code -1}
+     * when none completed.
+     */
+    public long getAveragePreconnectMs() {
+        return average(preconnectTotalMs.get(), preconnectCount.get());
+    }
+
+    /**
+     * Returns the time to response headers of the first request since the last reset, or
+     * {@code -1} when no request has completed yet.
+     */
+    public long getFirstRequestLatencyMs() {
+        return firstRequestLatencyMs.get();
+    }
+
+    public boolean wasFirstRequestWarm() {
+        return firstRequestWarm;
+    }
+
+    public long getWarmRequestCount() {
+        return warmRequestCount.get();
+    }
+
+    public long getAverageWarmLatencyMs() {
+        return average(warmLatencyTotalMs.get(), warmRequestCount.get());
+    }
+
+    public long getColdRequestCount() {
+        return coldRequestCount.get();
+    }
+
+    public long getAverageColdLatencyMs() {
+        return average(coldLatencyTotalMs.get(), coldRequestCount.get());
+    }
+
+    /**
+     * Returns the number of bytes that compression kept off the wire in both directions.
+     */
+    public long getBytesSaved() {
+        long responseSaved = responseDecodedBytes.get() - responseWireBytes.get();
+        long requestSaved = requestOriginalBytes.get() - requestWireBytes.get();
+        return Math.max(responseSaved, 0) + Math.max(requestSaved, 0);
+    }
+
+    public void reset() {
+        responseCount.set(0);
+        compressedResponseCount.set(0);
+        responseWireBytes.set(0);
+        responseDecodedBytes.set(0);
+        requestBodyCount.set(0);
+        compressedRequestBodyCount.set(0);
+        requestWireBytes.set(0);
+        requestOriginalBytes.set(0);
+        preconnectCount.set(0);
+        failedPreconnectCount.set(0);
+        preconnectTotalMs.set(0);
+        warmRequestCount.set(0);
+        warmLatencyTotalMs.set(0);
+        coldRequestCount.set(0);
+        coldLatencyTotalMs.set(0);
+        firstRequestLatencyMs.set(-1);
+        firstRequestWarm = false;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "NetworkMetrics{responses=%d (%d compressed), received=%d B wire / %d B decoded, "
+                        + "requestBodies=%d (%d compressed), sent=%d B wire / %d B original, saved=%d B, "
+                        + "preconnects=%d (%d failed, avg %d ms), firstRequest=%d ms (%s), "
+                        + "latency warm=%d x %d ms / cold=%d x %d ms}",
+                getResponseCount(),
+                getCompressedResponseCount(),
+                getResponseWireBytes(),
+                getResponseDecodedBytes(),
+                getRequestBodyCount(),
+                getCompressedRequestBodyCount(),
+                getRequestWireBytes(),
+                getRequestOriginalBytes(),
+                getBytesSaved(),
+                getPreconnectCount(),
+                getFailedPreconnectCount(),
+                getAveragePreconnectMs(),
+                getFirstRequestLatencyMs(),
+                wasFirstRequestWarm() ? "warm" : "cold",
+                getWarmRequestCount(),
+                getAverageWarmLatencyMs(),
+                getColdRequestCount(),
+                getAverageColdLatencyMs()
+        );
+    }
+
+    private static long average(long total, long count) {
+        return count > 0 ? total / count : -1;
+    }
+}
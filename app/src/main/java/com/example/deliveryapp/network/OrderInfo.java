@@ -3,6 +3,8 @@ package com.example.deliveryapp.network;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.deliveryapp.wallet.Money;
+
 /**
  * Represents a delivery order entry returned by the Cindy's Bakeshop APIs.
  */
@@ -19,13 +21,16 @@ public class OrderInfo {
     @Nullable
     private final String source;
     private final int itemCount;
-    private final double totalAmount;
+    private final long totalMinorUnits;
     @Nullable
     private final String itemSummary;
     @Nullable
     private final String imageUrl;
     @Nullable
     private final String deliveryAddress;
+    private final double latitude;
+    private final double longitude;
+    private final OrderStatus orderStatus;
 
     public OrderInfo(
             int orderId,
@@ -39,18 +44,44 @@ public class OrderInfo {
             @Nullable String itemSummary,
             @Nullable String imageUrl,
             @Nullable String deliveryAddress
+    ) {
+        this(orderId, userId, status, orderDate, fulfillmentType, source, itemCount, totalAmount,
+                itemSummary, imageUrl, deliveryAddress, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * @param latitude  drop-off latitude in degrees, or {@link Double#NaN} when unknown
+     * @param longitude drop-off longitude in degrees, or {@link Double#NaN} when unknown
+     */
+    public OrderInfo(
+            int orderId,
+            int userId,
+            @Nullable String status,
+            @Nullable String orderDate,
+            @Nullable String fulfillmentType,
+            @Nullable String source,
+            int itemCount,
+            double totalAmount,
+            @Nullable String itemSummary,
+            @Nullable String imageUrl,
+            @Nullable String deliveryAddress,
+            double latitude,
+            double longitude
     ) {
         this.orderId = orderId;
         this.userId = userId;
         this.status = status;
+        this.orderStatus = OrderStatus.classify(status);
         this.orderDate = orderDate;
         this.fulfillmentType = fulfillmentType;
         this.source = source;
         this.itemCount = itemCount;
-        this.totalAmount = totalAmount;
+        this.totalMinorUnits = Money.toMinorUnits(totalAmount);
         this.itemSummary = itemSummary;
         this.imageUrl = imageUrl;
         this.deliveryAddress = deliveryAddress;
+        this.latitude = latitude;
+        this.longitude = longitude;
     }
 
     public int getOrderId() {
@@ -66,6 +97,14 @@ public class OrderInfo {
         return status;
     }
 
+    /**
+     * Returns the status classified when the order was parsed.
+     */
+    @NonNull
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
     @Nullable
     public String getOrderDate() {
         return orderDate;
@@ -85,8 +124,18 @@ public class OrderInfo {
         return itemCount;
     }
 
+    /**
+     * Returns the order total in pesos, for display. Use {@link #getTotalMinorUnits()} for sums.
+     */
     public double getTotalAmount() {
-        return totalAmount;
+        return Money.toMajorUnits(totalMinorUnits);
+    }
+
+    /**
+     * Returns the order total in centavos.
+     */
+    public long getTotalMinorUnits() {
+        return totalMinorUnits;
     }
 
     @Nullable
@@ -104,6 +153,24 @@ public class OrderInfo {
         return deliveryAddress;
     }
 
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Returns {@code true} when the order carries a usable drop-off position.
+     */
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude)
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180
+                && !(latitude == 0 && longitude == 0);
+    }
+
     @NonNull
     @Override
     public String toString() {
@@ -115,10 +182,12 @@ public class OrderInfo {
                 ", fulfillmentType='" + fulfillmentType + '\'' +
                 ", source='" + source + '\'' +
                 ", itemCount=" + itemCount +
-                ", totalAmount=" + totalAmount +
+                ", totalMinorUnits=" + totalMinorUnits +
                 ", itemSummary='" + itemSummary + '\'' +
                 ", imageUrl='" + imageUrl + '\'' +
                 ", deliveryAddress='" + deliveryAddress + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
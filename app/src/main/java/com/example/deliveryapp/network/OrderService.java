@@ -10,27 +10,26 @@ import androidx.annotation.Nullable;
 import com.example.deliveryapp.AppConfig;
 
 import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Loads delivery orders from the Cindy's Bakeshop order API and filters the entries that still
- * require driver attention.
+ * require driver attention. Finished orders are handed to the registered
+ * {@link FinishedOrderSink}s instead of being dropped.
  */
 public class OrderService {
 
@@ -38,8 +37,27 @@ public class OrderService {
         void onSuccess(@NonNull List<OrderInfo> orders, @Nullable String serverMessage);
 
         void onError(@NonNull String errorMessage);
+
+        /**
+         * Called instead of {@link #onSuccess} when the server returned exactly what it did last
+         * time for this rider; {@code orders} is the same list delivered then. Screens still
+         * showing that list can skip rebinding it.
+         */
+        default void onUnchanged(@NonNull List<OrderInfo> orders, @Nullable String serverMessage) {
+            onSuccess(orders, serverMessage);
+        }
+    }
+
+    /**
+     * Receives the delivered, completed or cancelled orders found in an order list response.
+     * Called on the network thread; implementations should hand the work off quickly.
+     */
+    public interface FinishedOrderSink {
+        void onFinishedOrders(int userId, @NonNull List<OrderInfo> orders);
     }
 
+    private static final List<FinishedOrderSink> finishedOrderSinks = new CopyOnWriteArrayList<>();
+
     private final ServerConnectionManager connectionManager;
     private final Handler mainHandler;
 
@@ -48,74 +66,198 @@ public class OrderService {
         mainHandler = connectionManager.getMainThreadHandler();
     }
 
-    public void fetchUnfinishedOrders(int userId, @NonNull OrderFetchCallback callback) {
+    public static void addFinishedOrderSink(@NonNull FinishedOrderSink sink) {
+        if (!finishedOrderSinks.contains(sink)) {
+            finishedOrderSinks.add(sink);
+        }
+    }
+
+    public static void removeFinishedOrderSink(@NonNull FinishedOrderSink sink) {
+        finishedOrderSinks.remove(sink);
+    }
+
+    /**
+     * Loads the rider's unfinished orders. The callback is not invoked if the returned handle is
+     * cancelled first.
+     */
+    @NonNull
+    public RequestHandle fetchUnfinishedOrders(int userId, @NonNull OrderFetchCallback callback) {
+        return fetchUnfinishedOrders(userId, callback, mainHandler::post);
+    }
+
+    /**
+     * Like {@link #fetchUnfinishedOrders(int, OrderFetchCallback)}, completing on the network
+     * thread. Cancelling the future cancels the request.
+     */
+    @NonNull
+    public NetworkFuture<List<OrderInfo>> fetchUnfinishedOrdersAsync(int userId) {
+        NetworkFuture<List<OrderInfo>> future = new NetworkFuture<>();
+        RequestHandle handle = fetchUnfinishedOrders(userId, new OrderFetchCallback() {
+            @Override
+            public void onSuccess(@NonNull List<OrderInfo> orders, @Nullable String serverMessage) {
+                future.complete(orders);
+            }
+
+            @Override
+            public void onError(@NonNull String errorMessage) {
+                future.fail(errorMessage);
+            }
+        }, NetworkFuture.DIRECT);
+        future.onCancel(handle::cancel);
+        return future;
+    }
+
+    @NonNull
+    private RequestHandle fetchUnfinishedOrders(int userId, @NonNull OrderFetchCallback callback, @NonNull Executor delivery) {
+        RequestHandle handle = new RequestHandle(mainHandler, delivery);
         if (userId <= 0) {
-            callback.onError("Missing or invalid staff user ID.");
-            return;
+            handle.deliverNow(() -> callback.onError("Missing or invalid staff user ID."));
+            return handle;
         }
 
         URL base = connectionManager.buildUrl(AppConfig.ORDER_LIST_PATH);
         if (base == null) {
-            callback.onError("Order endpoint URL could not be resolved.");
-            return;
+            handle.deliverNow(() -> callback.onError("Order endpoint URL could not be resolved."));
+            return handle;
         }
 
         URL requestUrl = buildOrderListUrl(base, userId);
         if (requestUrl == null) {
-            callback.onError("Unable to build the order request URL.");
-            return;
+            handle.deliverNow(() -> callback.onError("Unable to build the order request URL."));
+            return handle;
         }
 
         connectionManager.getNetworkExecutor().execute(() -> {
-            HttpURLConnection connection = null;
             try {
-                connection = (HttpURLConnection) requestUrl.openConnection();
-                connection.setConnectTimeout(10_000);
-                connection.setReadTimeout(10_000);
-                connection.setRequestMethod("GET");
-                connection.connect();
-
-                int statusCode = connection.getResponseCode();
-                String bodyString = readResponseBody(connection, statusCode);
-                if (statusCode < 200 || statusCode >= 300) {
-                    postError(callback, buildHttpErrorMessage(statusCode, bodyString));
+                HttpRequest request = new HttpRequest.Builder(requestUrl)
+                        .header("Accept", CborPayloads.ACCEPT_HEADER)
+                        .build();
+                HttpResponse response = connectionManager.execute(request, handle);
+                if (handle.isCancelled()) {
+                    return;
+                }
+                long bodyFingerprint = response.bodyFingerprint();
+                PollingScheduler.getInstance().recordResponse(
+                        PollingScheduler.Endpoint.ORDERS,
+                        response.getStatusCode(),
+                        bodyFingerprint,
+                        response.getHeader(PollingScheduler.POLL_INTERVAL_HEADER),
+                        response.getHeader("Retry-After"),
+                        System.currentTimeMillis()
+                );
+                ResponseFingerprints fingerprints = ResponseFingerprints.getInstance();
+                String requestKey = String.valueOf(userId);
+                long fingerprint = ResponseFingerprints.fingerprint(ResponseFingerprints.serverHash(response), bodyFingerprint);
+                ResponseBundle previous = response.getErrorMessage() == null
+                        ? fingerprints.match(PollingScheduler.Endpoint.ORDERS, requestKey, fingerprint, ResponseBundle.class)
+                        : null;
+                if (previous != null) {
+                    // Same content as last time: no parse, and the finished orders were already sunk.
+                    List<OrderInfo> orders = previous.getOrders();
+                    String message = previous.serverMessage;
+                    handle.post(() -> callback.onUnchanged(orders, message));
                     return;
                 }
 
-                ResponseBundle bundle = parseOrders(bodyString);
+                ResponseBundle bundle = interpretOrderListResponse(userId, response);
                 if (bundle.errorMessage != null) {
-                    postError(callback, bundle.errorMessage);
+                    fingerprints.invalidate(PollingScheduler.Endpoint.ORDERS);
+                    postError(handle, callback, bundle.errorMessage);
                     return;
                 }
 
-                List<OrderInfo> unfinished = filterUnfinished(bundle.orders);
-                postSuccess(callback, unfinished, bundle.serverMessage);
+                fingerprints.store(PollingScheduler.Endpoint.ORDERS, requestKey, fingerprint, bundle);
+                postSuccess(handle, callback, bundle.getOrders(), bundle.serverMessage);
             } catch (IOException e) {
-                String message = e.getMessage();
-                postError(callback, message != null ? message : "Unable to load deliveries.");
-            } finally {
-                if (connection != null) {
-                    connection.disconnect();
+                if (handle.isCancelled()) {
+                    // The read was aborted on purpose; nothing failed.
+                    return;
                 }
+                ResponseFingerprints.getInstance().invalidate(PollingScheduler.Endpoint.ORDERS);
+                PollingScheduler.getInstance().recordFailure(PollingScheduler.Endpoint.ORDERS);
+                String message = e.getMessage();
+                postError(handle, callback, message != null ? message : "Unable to load deliveries.");
             }
         });
+        return handle;
+    }
+
+    private void postSuccess(
+            @NonNull RequestHandle handle,
+            @NonNull OrderFetchCallback callback,
+            @NonNull List<OrderInfo> orders,
+            @Nullable String message
+    ) {
+        handle.post(() -> callback.onSuccess(orders, message));
     }
 
-    private void postSuccess(@NonNull OrderFetchCallback callback, @NonNull List<OrderInfo> orders, @Nullable String message) {
-        mainHandler.post(() -> callback.onSuccess(orders, message));
+    private void postError(@NonNull RequestHandle handle, @NonNull OrderFetchCallback callback, @NonNull String message) {
+        handle.post(() -> callback.onError(message));
     }
 
-    private void postError(@NonNull OrderFetchCallback callback, @NonNull String message) {
-        mainHandler.post(() -> callback.onError(message));
+    /**
+     * Turns a raw order list response into the unfinished orders for the driver and passes the
+     * finished ones to the {@link FinishedOrderSink}s. Shared by the direct request path and
+     * {@link BatchService}.
+     */
+    @NonNull
+    ResponseBundle interpretOrderListResponse(int userId, int statusCode, @NonNull String bodyString) {
+        String error = ErrorNormalizationInterceptor.describe(statusCode, bodyString, null);
+        return interpretOrderListResponse(userId, error, bodyString);
+    }
+
+    @NonNull
+    private ResponseBundle interpretOrderListResponse(int userId, @NonNull HttpResponse response) {
+        byte[] binaryBody = response.getBinaryBody();
+        if (binaryBody == null || response.getErrorMessage() != null) {
+            return interpretOrderListResponse(userId, response.getErrorMessage(), response.getBody());
+        }
+        return splitFinishedOrders(userId, decodeOrders(binaryBody));
+    }
+
+    @NonNull
+    private ResponseBundle interpretOrderListResponse(int userId, @Nullable String httpError, @NonNull String bodyString) {
+        if (httpError != null) {
+            ResponseBundle bundle = new ResponseBundle();
+            bundle.errorMessage = httpError;
+            return bundle;
+        }
+        return splitFinishedOrders(userId, parseOrders(bodyString));
+    }
+
+    @NonNull
+    private ResponseBundle splitFinishedOrders(int userId, @NonNull ResponseBundle bundle) {
+        OrderTable table = bundle.table;
+        if (bundle.errorMessage == null && table != null) {
+            // Split on the status column; only rows a caller reads become OrderInfo objects.
+            int[] rows = table.allRows();
+            bundle.orders = table.view(table.filterByStatus(rows, UNFINISHED_STATES));
+            int[] finishedRows = table.filterByStatus(rows, FINISHED_STATES);
+            if (finishedRows.length > 0) {
+                List<OrderInfo> finished = table.view(finishedRows);
+                for (FinishedOrderSink sink : finishedOrderSinks) {
+                    sink.onFinishedOrders(userId, finished);
+                }
+            }
+        }
+        return bundle;
+    }
+
+    @NonNull
+    static Map<String, String> buildOrderListParams(int userId) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("action", AppConfig.ORDER_LIST_ACTION);
+        params.put("user_id", String.valueOf(userId));
+        return params;
     }
 
     @Nullable
     private URL buildOrderListUrl(@NonNull URL base, int userId) {
-        Uri uri = Uri.parse(base.toString())
-                .buildUpon()
-                .appendQueryParameter("action", AppConfig.ORDER_LIST_ACTION)
-                .appendQueryParameter("user_id", String.valueOf(userId))
-                .build();
+        Uri.Builder builder = Uri.parse(base.toString()).buildUpon();
+        for (Map.Entry<String, String> entry : buildOrderListParams(userId).entrySet()) {
+            builder.appendQueryParameter(entry.getKey(), entry.getValue());
+        }
+        Uri uri = builder.build();
         try {
             return new URL(uri.toString());
         } catch (MalformedURLException e) {
@@ -123,6 +265,21 @@ public class OrderService {
         }
     }
 
+    /**
+     * Decodes a CBOR order list, which needs no JSON parsing and is not split into chunks.
+     */
+    @NonNull
+    private ResponseBundle decodeOrders(@NonNull byte[] body) {
+        CborPayloads.Payload<OrderTable> payload = CborPayloads.decodeOrders(body, TimeZone.getDefault());
+        ResponseBundle bundle = new ResponseBundle();
+        if (payload.value != null) {
+            bundle.setTable(payload.value);
+        }
+        bundle.serverMessage = payload.serverMessage;
+        bundle.errorMessage = payload.errorMessage;
+        return bundle;
+    }
+
     @NonNull
     private ResponseBundle parseOrders(@NonNull String bodyString) {
         ResponseBundle bundle = new ResponseBundle();
@@ -131,9 +288,9 @@ public class OrderService {
             return bundle;
         }
 
-        Object parsed = parseJsonValue(bodyString);
+        Object parsed = JsonBodies.parse(bodyString);
         if (parsed instanceof JSONArray) {
-            bundle.orders = parseOrdersArray((JSONArray) parsed);
+            bundle.setTable(parseOrdersArray((JSONArray) parsed));
             return bundle;
         }
         if (parsed instanceof JSONObject) {
@@ -146,7 +303,7 @@ public class OrderService {
                 }
             }
             if (ordersArray != null) {
-                bundle.orders = parseOrdersArray(ordersArray);
+                bundle.setTable(parseOrdersArray(ordersArray));
             } else {
                 bundle.orders = Collections.emptyList();
             }
@@ -158,64 +315,49 @@ public class OrderService {
             return bundle;
         }
 
-        bundle.errorMessage = "Server returned an unexpected response.";
+        bundle.errorMessage = ErrorNormalizationInterceptor.UNEXPECTED_RESPONSE_MESSAGE;
         return bundle;
     }
 
-    @Nullable
-    private Object parseJsonValue(@NonNull String value) {
-        String trimmed = value.trim();
-        if (trimmed.isEmpty()) {
-            return new JSONArray();
-        }
-        try {
-            return new JSONArray(trimmed);
-        } catch (JSONException ignored) {
-            // Try object next
-        }
-        try {
-            return new JSONObject(trimmed);
-        } catch (JSONException ignored) {
-            return null;
-        }
-    }
-
     @NonNull
-    private List<OrderInfo> parseOrdersArray(@NonNull JSONArray array) {
-        List<OrderInfo> orders = new ArrayList<>();
+    private OrderTable parseOrdersArray(@NonNull JSONArray array) {
+        OrderTable.Builder table = new OrderTable.Builder(TimeZone.getDefault());
+        // Scoped to this response so repeated values are shared without outliving the parse.
+        StringDeduplicator strings = new StringDeduplicator();
         for (int i = 0; i < array.length(); i++) {
             JSONObject object = array.optJSONObject(i);
-            OrderInfo info = parseOrder(object);
-            if (info != null) {
-                orders.add(info);
+            if (object != null) {
+                appendOrder(table, object, strings);
             }
         }
-        return orders;
+        return table.build();
     }
 
-    @Nullable
-    private OrderInfo parseOrder(@Nullable JSONObject object) {
-        if (object == null) {
-            return null;
-        }
+    private void appendOrder(
+            @NonNull OrderTable.Builder table,
+            @NonNull JSONObject object,
+            @NonNull StringDeduplicator strings
+    ) {
         int orderId = optInt(object, -1, "Order_ID", "order_id", "id");
         int userId = optInt(object, 0, "User_ID", "user_id");
-        String status = optString(object, "Status", "status");
+        String status = strings.dedupe(optString(object, "Status", "status"));
         String orderDate = optString(object, "Order_Date", "order_date", "date");
-        String fulfillmentType = optString(object, "Fulfillment_Type", "fulfillment_type");
-        String source = optString(object, "Source", "source");
+        String fulfillmentType = strings.dedupe(optString(object, "Fulfillment_Type", "fulfillment_type"));
+        String source = strings.dedupe(optString(object, "Source", "source"));
         int itemCount = optInt(object, 0, "Item_Count", "item_count", "items");
         double totalAmount = optDouble(object, 0.0, "Total_Amount", "total_amount", "Total");
         String itemSummary = optString(object, "Item_Summary", "item_summary");
         if (TextUtils.isEmpty(itemSummary)) {
             itemSummary = null;
         }
-        String imageUrl = optString(object, "Image_Url", "image_url", "Image_Path", "image");
-        String deliveryAddress = parseDeliveryAddress(object);
+        String imageUrl = strings.dedupe(optString(object, "Image_Url", "image_url", "Image_Path", "image"));
+        String deliveryAddress = strings.dedupe(parseDeliveryAddress(object));
+        double latitude = optDouble(object, Double.NaN, "Delivery_Latitude", "delivery_latitude", "Latitude", "latitude", "lat");
+        double longitude = optDouble(object, Double.NaN, "Delivery_Longitude", "delivery_longitude", "Longitude", "longitude", "lng", "lon");
         if (orderId <= 0) {
-            return null;
+            return;
         }
-        return new OrderInfo(
+        table.add(
                 orderId,
                 userId,
                 status,
@@ -226,7 +368,9 @@ public class OrderService {
                 totalAmount,
                 itemSummary,
                 imageUrl,
-                deliveryAddress
+                deliveryAddress,
+                latitude,
+                longitude
         );
     }
 
@@ -286,63 +430,16 @@ public class OrderService {
         }
     }
 
-    @NonNull
-    private List<OrderInfo> filterUnfinished(@Nullable List<OrderInfo> orders) {
-        if (orders == null || orders.isEmpty()) {
-            return Collections.emptyList();
-        }
-        List<OrderInfo> filtered = new ArrayList<>();
-        for (OrderInfo order : orders) {
-            if (order == null) {
-                continue;
-            }
-            if (!isFinished(order.getStatus())) {
-                filtered.add(order);
-            }
-        }
-        return filtered;
-    }
-
-    private boolean isFinished(@Nullable String status) {
-        if (status == null) {
-            return false;
-        }
-        String normalized = status.trim().toLowerCase(Locale.US);
-        if (normalized.isEmpty()) {
-            return false;
-        }
-        Set<String> finishedStatuses = FINISHED_STATUSES;
-        if (finishedStatuses.contains(normalized)) {
-            return true;
-        }
-        // Treat generic success phrases as finished as well.
-        return normalized.contains("delivered") || normalized.contains("completed");
-    }
-
     @Nullable
     private String extractMessage(@NonNull JSONObject object) {
-        String[] keys = new String[]{"message", "info", "detail"};
-        for (String key : keys) {
-            if (object.has(key) && !object.isNull(key)) {
-                String value = object.optString(key, "").trim();
-                if (!value.isEmpty()) {
-                    return value;
-                }
-            }
-        }
-        return null;
+        return JsonBodies.firstString(object, "message", "info", "detail");
     }
 
     @Nullable
     private String extractError(@NonNull JSONObject object) {
-        String[] keys = new String[]{"error", "reason"};
-        for (String key : keys) {
-            if (object.has(key) && !object.isNull(key)) {
-                String value = object.optString(key, "").trim();
-                if (!value.isEmpty()) {
-                    return value;
-                }
-            }
+        String error = JsonBodies.firstString(object, "error", "reason");
+        if (error != null) {
+            return error;
         }
         boolean successFlag = object.optBoolean("success", true);
         if (!successFlag) {
@@ -351,38 +448,6 @@ public class OrderService {
         return null;
     }
 
-    @NonNull
-    private String buildHttpErrorMessage(int statusCode, @NonNull String body) {
-        if (body.isEmpty()) {
-            return "HTTP " + statusCode;
-        }
-        if (looksLikeHtml(body)) {
-            return "HTTP " + statusCode;
-        }
-        return "HTTP " + statusCode + ": " + body;
-    }
-
-    private boolean looksLikeHtml(@NonNull String value) {
-        String lower = value.toLowerCase(Locale.US);
-        return lower.contains("<html") || lower.contains("<!doctype html");
-    }
-
-    @NonNull
-    private String readResponseBody(@NonNull HttpURLConnection connection, int statusCode) throws IOException {
-        InputStream stream = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
-        if (stream == null) {
-            return "";
-        }
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-            StringBuilder builder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
-            }
-            return builder.toString();
-        }
-    }
-
     private int optInt(@NonNull JSONObject object, int fallback, @NonNull String... keys) {
         for (String key : keys) {
             if (object.has(key) && !object.isNull(key)) {
@@ -434,25 +499,38 @@ public class OrderService {
         return null;
     }
 
-    private static class ResponseBundle {
+    private static final Set<OrderStatus> FINISHED_STATES;
+    private static final Set<OrderStatus> UNFINISHED_STATES;
+
+    static {
+        Set<OrderStatus> finished = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.isFinished()) {
+                finished.add(status);
+            }
+        }
+        FINISHED_STATES = Collections.unmodifiableSet(finished);
+        UNFINISHED_STATES = Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.copyOf(finished)));
+    }
+
+    static class ResponseBundle {
+        @Nullable
+        OrderTable table;
         @Nullable
         List<OrderInfo> orders;
         @Nullable
         String serverMessage;
         @Nullable
         String errorMessage;
-    }
 
-    private static final Set<String> FINISHED_STATUSES;
+        @NonNull
+        List<OrderInfo> getOrders() {
+            return orders != null ? orders : Collections.<OrderInfo>emptyList();
+        }
 
-    static {
-        Set<String> statuses = new HashSet<>();
-        statuses.add("delivered");
-        statuses.add("completed");
-        statuses.add("complete");
-        statuses.add("cancelled");
-        statuses.add("canceled");
-        statuses.add("refunded");
-        FINISHED_STATUSES = Collections.unmodifiableSet(statuses);
+        void setTable(@NonNull OrderTable table) {
+            this.table = table;
+            this.orders = table.view(table.allRows());
+        }
     }
 }
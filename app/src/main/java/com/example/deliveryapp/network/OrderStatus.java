@@ -0,0 +1,164 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Canonical lifecycle state of an order. {@link OrderInfo} classifies the backend's free-form
+ * status once when it is built, so checks such as "is this order finished" are field reads.
+ *
+ * <p>Orders move forward through {@link #PENDING} to {@link #COMPLETED}, possibly skipping
+ * steps the branch does not report. An unfinished order can be {@link #CANCELLED} and a delivered
+ * one {@link #REFUNDED}. {@link #UNKNOWN} covers statuses the app does not recognise and may move
+ * anywhere.</p>
+ *
+ * <p>Only the exact finished spellings {@link OrderService} has always recognised, and phrases
+ * mentioning a delivery or completion, classify as finished states; the alias table covers
+ * orders still in progress. Whether a finished order was collected follows
+ * {@code EarningsTracker}'s original rule: it was unless its status mentions a cancellation or
+ * refund.</p>
+ */
+public enum OrderStatus {
+
+    UNKNOWN("unknown", false, false),
+    PENDING("pending", false, false),
+    CONFIRMED("confirmed", false, false),
+    PREPARING("preparing", false, false),
+    READY("ready", false, false),
+    OUT_FOR_DELIVERY("out_for_delivery", false, false),
+    DELIVERED("delivered", true, true),
+    COMPLETED("completed", true, true),
+    CANCELLED("cancelled", true, false),
+    REFUNDED("refunded", true, false);
+
+    private static final StatusCodes<OrderStatus> CODES = new StatusCodes<OrderStatus>(32)
+            .add("pending", PENDING)
+            .add("new", PENDING)
+            .add("placed", PENDING)
+            .add("received", PENDING)
+            .add("confirmed", CONFIRMED)
+            .add("accepted", CONFIRMED)
+            .add("preparing", PREPARING)
+            .add("processing", PREPARING)
+            .add("in_preparation", PREPARING)
+            .add("baking", PREPARING)
+            .add("ready", READY)
+            .add("ready_for_pickup", READY)
+            .add("ready_for_delivery", READY)
+            .add("out_for_delivery", OUT_FOR_DELIVERY)
+            .add("in_transit", OUT_FOR_DELIVERY)
+            .add("on_the_way", OUT_FOR_DELIVERY)
+            .add("picked_up", OUT_FOR_DELIVERY)
+            .add("dispatched", OUT_FOR_DELIVERY);
+
+    /** Matched trimmed and case-insensitively, but otherwise exactly. */
+    private static final String[] FINISHED_CODES = {"delivered", "completed", "complete", "cancelled", "canceled", "refunded"};
+    private static final OrderStatus[] FINISHED_STATES = {DELIVERED, COMPLETED, COMPLETED, CANCELLED, CANCELLED, REFUNDED};
+
+    private static final int[] TRANSITIONS = new int[values().length];
+
+    static {
+        OrderStatus[] progression = {PENDING, CONFIRMED, PREPARING, READY, OUT_FOR_DELIVERY, DELIVERED, COMPLETED};
+        for (int i = 0; i < progression.length; i++) {
+            for (int j = i; j < progression.length; j++) {
+                allow(progression[i], progression[j]);
+            }
+            if (!progression[i].finished) {
+                allow(progression[i], CANCELLED);
+            }
+        }
+        allow(DELIVERED, REFUNDED);
+        allow(COMPLETED, REFUNDED);
+        allow(CANCELLED, CANCELLED);
+        allow(REFUNDED, REFUNDED);
+        for (OrderStatus status : values()) {
+            allow(UNKNOWN, status);
+            allow(status, UNKNOWN);
+        }
+    }
+
+    private final String code;
+    private final String label;
+    private final boolean finished;
+    private final boolean collected;
+
+    OrderStatus(@NonNull String code, boolean finished, boolean collected) {
+        this.code = code;
+        this.label = StatusCodes.toLabel(code);
+        this.finished = finished;
+        this.collected = collected;
+    }
+
+    /**
+     * Classifies a raw backend status without allocating. Finished states come from the exact
+     * finished spellings or from phrases mentioning a delivery or completion; a phrase that also
+     * mentions a cancellation or refund is {@link #CANCELLED} or {@link #REFUNDED}. Unfinished
+     * spelling variants such as {@code "Out for delivery"} and {@code "OUT-FOR-DELIVERY"} are
+     * equivalent. Anything else, including {@code null}, is {@link #UNKNOWN}.
+     */
+    @NonNull
+    public static OrderStatus classify(@Nullable String raw) {
+        if (StatusCodes.isBlank(raw)) {
+            return UNKNOWN;
+        }
+        for (int i = 0; i < FINISHED_CODES.length; i++) {
+            if (StatusCodes.equalsTrimmedIgnoreCase(raw, FINISHED_CODES[i])) {
+                return FINISHED_STATES[i];
+            }
+        }
+        boolean delivered = StatusCodes.containsIgnoreCase(raw, "delivered");
+        if (delivered || StatusCodes.containsIgnoreCase(raw, "completed")) {
+            if (StatusCodes.containsIgnoreCase(raw, "cancel")) {
+                return CANCELLED;
+            }
+            if (StatusCodes.containsIgnoreCase(raw, "refund")) {
+                return REFUNDED;
+            }
+            return delivered ? DELIVERED : COMPLETED;
+        }
+        OrderStatus status = CODES.lookup(raw);
+        return status != null ? status : UNKNOWN;
+    }
+
+    /**
+     * Returns the canonical snake_case code, e.g. {@code out_for_delivery}.
+     */
+    @NonNull
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the title-cased code, e.g. {@code Out For Delivery}.
+     */
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns {@code true} once the order needs nothing more from the rider.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns {@code true} when the order was handed over and its total counts as earned.
+     */
+    public boolean isCollected() {
+        return collected;
+    }
+
+    /**
+     * Returns whether an order in this state may next be reported as {@code next}. Repeating
+     * the same state is always allowed.
+     */
+    public boolean canTransitionTo(@NonNull OrderStatus next) {
+        return (TRANSITIONS[ordinal()] & (1 << next.ordinal())) != 0;
+    }
+
+    private static void allow(@NonNull OrderStatus from, @NonNull OrderStatus to) {
+        TRANSITIONS[from.ordinal()] |= 1 << to.ordinal();
+    }
+}
@@ -0,0 +1,492 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.history.OrderDates;
+import com.example.deliveryapp.wallet.Money;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Column-oriented store for a parsed order list. Numbers live in primitive arrays and statuses
+ * and sources are dictionary-encoded, so filtering, sorting and totals over thousands of orders
+ * touch only the columns involved and create no objects per row.
+ *
+ * <p>Operations work on selections, arrays of row numbers starting from {@link #allRows()};
+ * filters keep the order of the selection they are given. {@link OrderInfo} objects are created
+ * only when {@link #getOrder(int)} or a {@link #view(int[])} element is read, once per row.</p>
+ *
+ * <p>A table is immutable once built and may be shared between threads. Order timestamps are
+ * parsed with {@link OrderDates} the first time a date filter or sort needs them.</p>
+ */
+public final class OrderTable {
+
+    public enum Column {
+        ORDER_ID,
+        USER_ID,
+        ITEM_COUNT,
+        TOTAL,
+        PLACED_AT
+    }
+
+    /**
+     * Collects rows in the shape of the {@link OrderInfo} constructor. A builder builds one table.
+     */
+    public static final class Builder {
+
+        private final TimeZone branchZone;
+        private final Map<String, Integer> statusCodes = new HashMap<>();
+        private final Map<String, Integer> sourceCodes = new HashMap<>();
+        private String[] statusDictionary = new String[4];
+        private String[] sourceDictionary = new String[4];
+        private int statusCount;
+        private int sourceCount;
+
+        private int size;
+        private boolean built;
+        private int[] orderIds = new int[16];
+        private int[] userIds = new int[16];
+        private int[] itemCounts = new int[16];
+        private long[] totals = new long[16];
+        private double[] latitudes = new double[16];
+        private double[] longitudes = new double[16];
+        private int[] statuses = new int[16];
+        private int[] sources = new int[16];
+        private String[] orderDates = new String[16];
+        private String[] fulfillmentTypes = new String[16];
+        private String[] itemSummaries = new String[16];
+        private String[] imageUrls = new String[16];
+        private String[] deliveryAddresses = new String[16];
+
+        /**
+         * @param branchZone zone of order dates sent without an offset
+         */
+        public Builder(@NonNull TimeZone branchZone) {
+            this.branchZone = branchZone;
+        }
+
+        @NonNull
+        public Builder add(
+                int orderId,
+                int userId,
+                @Nullable String status,
+                @Nullable String orderDate,
+                @Nullable String fulfillmentType,
+                @Nullable String source,
+                int itemCount,
+                double totalAmount,
+                @Nullable String itemSummary,
+                @Nullable String imageUrl,
+                @Nullable String deliveryAddress,
+                double latitude,
+                double longitude
+        ) {
+            if (built) {
+                throw new IllegalStateException("Order table already built");
+            }
+            if (size == orderIds.length) {
+                grow(size * 2);
+            }
+            orderIds[size] = orderId;
+            userIds[size] = userId;
+            itemCounts[size] = itemCount;
+            totals[size] = Money.toMinorUnits(totalAmount);
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            statuses[size] = encodeStatus(status);
+            sources[size] = encodeSource(source);
+            orderDates[size] = orderDate;
+            fulfillmentTypes[size] = fulfillmentType;
+            itemSummaries[size] = itemSummary;
+            imageUrls[size] = imageUrl;
+            deliveryAddresses[size] = deliveryAddress;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @NonNull
+        public OrderTable build() {
+            if (built) {
+                throw new IllegalStateException("Order table already built");
+            }
+            built = true;
+            grow(size);
+            return new OrderTable(this);
+        }
+
+        private int encodeStatus(@Nullable String status) {
+            if (status == null) {
+                return NULL_CODE;
+            }
+            Integer code = statusCodes.get(status);
+            if (code == null) {
+                if (statusCount == statusDictionary.length) {
+                    statusDictionary = Arrays.copyOf(statusDictionary, statusCount * 2);
+                }
+                code = statusCount;
+                statusDictionary[statusCount++] = status;
+                statusCodes.put(status, code);
+            }
+            return code;
+        }
+
+        private int encodeSource(@Nullable String source) {
+            if (source == null) {
+                return NULL_CODE;
+            }
+            Integer code = sourceCodes.get(source);
+            if (code == null) {
+                if (sourceCount == sourceDictionary.length) {
+                    sourceDictionary = Arrays.copyOf(sourceDictionary, sourceCount * 2);
+                }
+                code = sourceCount;
+                sourceDictionary[sourceCount++] = source;
+                sourceCodes.put(source, code);
+            }
+            return code;
+        }
+
+        private void grow(int capacity) {
+            orderIds = Arrays.copyOf(orderIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            itemCounts = Arrays.copyOf(itemCounts, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            orderDates = Arrays.copyOf(orderDates, capacity);
+            fulfillmentTypes = Arrays.copyOf(fulfillmentTypes, capacity);
+            itemSummaries = Arrays.copyOf(itemSummaries, capacity);
+            imageUrls = Arrays.copyOf(imageUrls, capacity);
+            deliveryAddresses = Arrays.copyOf(deliveryAddresses, capacity);
+        }
+    }
+
+    /** Dictionary code of a missing status or source. */
+    private static final int NULL_CODE = -1;
+
+    private final TimeZone branchZone;
+    private final int size;
+    private final int[] orderIds;
+    private final int[] userIds;
+    private final int[] itemCounts;
+    private final long[] totals;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] statuses;
+    private final String[] statusDictionary;
+    /** Classification of each status dictionary entry, so rows never re-classify. */
+    private final OrderStatus[] statusStates;
+    private final int[] sources;
+    private final String[] sourceDictionary;
+    private final String[] orderDates;
+    private final String[] fulfillmentTypes;
+    private final String[] itemSummaries;
+    private final String[] imageUrls;
+    private final String[] deliveryAddresses;
+    private final AtomicReferenceArray<OrderInfo> views;
+    private final AtomicInteger materialized = new AtomicInteger();
+
+    @Nullable
+    private long[] placedAt;
+
+    private OrderTable(@NonNull Builder builder) {
+        branchZone = builder.branchZone;
+        size = builder.size;
+        orderIds = builder.orderIds;
+        userIds = builder.userIds;
+        itemCounts = builder.itemCounts;
+        totals = builder.totals;
+        latitudes = builder.latitudes;
+        longitudes = builder.longitudes;
+        statuses = builder.statuses;
+        statusDictionary = Arrays.copyOf(builder.statusDictionary, builder.statusCount);
+        statusStates = new OrderStatus[statusDictionary.length];
+        for (int i = 0; i < statusDictionary.length; i++) {
+            statusStates[i] = OrderStatus.classify(statusDictionary[i]);
+        }
+        sources = builder.sources;
+        sourceDictionary = Arrays.copyOf(builder.sourceDictionary, builder.sourceCount);
+        orderDates = builder.orderDates;
+        fulfillmentTypes = builder.fulfillmentTypes;
+        itemSummaries = builder.itemSummaries;
+        imageUrls = builder.imageUrls;
+        deliveryAddresses = builder.deliveryAddresses;
+        views = new AtomicReferenceArray<>(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @NonNull
+    public int[] allRows() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    public int getOrderId(int row) {
+        return orderIds[row];
+    }
+
+    public int getUserId(int row) {
+        return userIds[row];
+    }
+
+    public int getItemCount(int row) {
+        return itemCounts[row];
+    }
+
+    public long getTotalMinorUnits(int row) {
+        return totals[row];
+    }
+
+    @NonNull
+    public OrderStatus getOrderStatus(int row) {
+        int code = statuses[row];
+        return code != NULL_CODE ? statusStates[code] : OrderStatus.UNKNOWN;
+    }
+
+    @Nullable
+    public String getSource(int row) {
+        int code = sources[row];
+        return code != NULL_CODE ? sourceDictionary[code] : null;
+    }
+
+    /**
+     * Returns when the order was placed in epoch milliseconds, or {@link OrderDates#UNKNOWN}.
+     */
+    public long getPlacedAtMs(int row) {
+        return placedAtColumn()[row];
+    }
+
+    /**
+     * Keeps the rows of {@code rows} whose status is one of {@code wanted}.
+     */
+    @NonNull
+    public int[] filterByStatus(@NonNull int[] rows, @NonNull Set<OrderStatus> wanted) {
+        boolean nullMatches = wanted.contains(OrderStatus.UNKNOWN);
+        boolean[] matches = new boolean[statusStates.length];
+        for (int i = 0; i < statusStates.length; i++) {
+            matches[i] = wanted.contains(statusStates[i]);
+        }
+        int[] kept = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            int code = statuses[row];
+            if (code == NULL_CODE ? nullMatches : matches[code]) {
+                kept[count++] = row;
+            }
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * Keeps the rows of {@code rows} placed in {@code [fromMs, toMs)}; undated orders are dropped.
+     */
+    @NonNull
+    public int[] filterByPlacedAt(@NonNull int[] rows, long fromMs, long toMs) {
+        long[] column = placedAtColumn();
+        int[] kept = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            long value = column[row];
+            if (value != OrderDates.UNKNOWN && value >= fromMs && value < toMs) {
+                kept[count++] = row;
+            }
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * Returns {@code rows} ordered by {@code column}; ties keep their order in {@code rows}.
+     * Undated orders count as older than any dated one, so they come first in ascending order
+     * and last in descending order.
+     */
+    @NonNull
+    public int[] sort(@NonNull int[] rows, @NonNull Column column, boolean descending) {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            long key = keyOf(column, rows[i]);
+            // Negating Long.MIN_VALUE overflows; the complement reverses the order safely.
+            keys[i] = descending ? ~key : key;
+        }
+        int[] sorted = rows.clone();
+        mergeSort(keys, sorted, new long[rows.length], new int[rows.length], 0, rows.length);
+        return sorted;
+    }
+
+    public long sumTotalMinorUnits(@NonNull int[] rows) {
+        long sum = 0L;
+        for (int row : rows) {
+            sum += totals[row];
+        }
+        return sum;
+    }
+
+    public long sumItemCount(@NonNull int[] rows) {
+        long sum = 0L;
+        for (int row : rows) {
+            sum += itemCounts[row];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the order in {@code row}, creating it on first use.
+     */
+    @NonNull
+    public OrderInfo getOrder(int row) {
+        OrderInfo order = views.get(row);
+        if (order == null) {
+            OrderInfo created = new OrderInfo(
+                    orderIds[row],
+                    userIds[row],
+                    statuses[row] != NULL_CODE ? statusDictionary[statuses[row]] : null,
+                    orderDates[row],
+                    fulfillmentTypes[row],
+                    getSource(row),
+                    itemCounts[row],
+                    Money.toMajorUnits(totals[row]),
+                    itemSummaries[row],
+                    imageUrls[row],
+                    deliveryAddresses[row],
+                    latitudes[row],
+                    longitudes[row]
+            );
+            if (views.compareAndSet(row, null, created)) {
+                materialized.incrementAndGet();
+                order = created;
+            } else {
+                order = views.get(row);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns a read-only list over {@code rows} whose elements are created as they are read.
+     */
+    @NonNull
+    public List<OrderInfo> view(@NonNull int[] rows) {
+        return new RowList(rows);
+    }
+
+    /**
+     * Returns how many rows have been turned into {@link OrderInfo} objects.
+     */
+    public int getMaterializedCount() {
+        return materialized.get();
+    }
+
+    private long keyOf(@NonNull Column column, int row) {
+        switch (column) {
+            case ORDER_ID:
+                return orderIds[row];
+            case USER_ID:
+                return userIds[row];
+            case ITEM_COUNT:
+                return itemCounts[row];
+            case TOTAL:
+                return totals[row];
+            case PLACED_AT:
+                return placedAtColumn()[row];
+            default:
+                throw new IllegalArgumentException("Unknown column " + column);
+        }
+    }
+
+    @NonNull
+    private synchronized long[] placedAtColumn() {
+        if (placedAt == null) {
+            long[] column = new long[size];
+            // Orders placed in the same second share a string; parse each distinct one once.
+            Map<String, Long> parsed = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                String raw = orderDates[i];
+                Long value = raw != null ? parsed.get(raw) : null;
+                if (value == null) {
+                    value = OrderDates.parse(raw, branchZone);
+                    if (raw != null) {
+                        parsed.put(raw, value);
+                    }
+                }
+                column[i] = value;
+            }
+            placedAt = column;
+        }
+        return placedAt;
+    }
+
+    /**
+     * Stable merge sort of {@code rows} by {@code keys} over {@code [from, to)}.
+     */
+    private static void mergeSort(
+            @NonNull long[] keys,
+            @NonNull int[] rows,
+            @NonNull long[] keyBuffer,
+            @NonNull int[] rowBuffer,
+            int from,
+            int to
+    ) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(keys, rows, keyBuffer, rowBuffer, from, middle);
+        mergeSort(keys, rows, keyBuffer, rowBuffer, middle, to);
+        if (keys[middle - 1] <= keys[middle]) {
+            return;
+        }
+        System.arraycopy(keys, from, keyBuffer, from, to - from);
+        System.arraycopy(rows, from, rowBuffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && keyBuffer[left] <= keyBuffer[right])) {
+                keys[i] = keyBuffer[left];
+                rows[i] = rowBuffer[left++];
+            } else {
+                keys[i] = keyBuffer[right];
+                rows[i] = rowBuffer[right++];
+            }
+        }
+    }
+
+    private final class RowList extends AbstractList<OrderInfo> implements RandomAccess {
+
+        private final int[] rows;
+
+        RowList(@NonNull int[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public OrderInfo get(int index) {
+            return getOrder(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long to wait before polling the order and shift lists again when no push stream
+ * is available.
+ *
+ * <p>{@link OrderService} and {@link ShiftService} report every list response, and each poll
+ * round refreshes both lists, so the interval is decided once per round, when the next delay is
+ * asked for. If any endpoint answered with a body that differs from its previous one, the
+ * interval drops back to the minimum, so polling stays quick while a rider's orders are moving.
+ * Otherwise, if anything came back unchanged or failed, it doubles, up to the maximum, so an idle
+ * device barely touches the server. The first body seen for an endpoint has nothing to compare
+ * with and counts as neither.</p>
+ *
+ * <p>The server can steer the fleet: an {@value #POLL_INTERVAL_HEADER} header (seconds) raises
+ * the interval to at least that value, and {@code Retry-After} (seconds) on any response holds
+ * off the next poll until it has passed. Every delay is spread by up to
+ * {@link #DEFAULT_JITTER_FRACTION} either way from a per-device random source, so riders who
+ * start their shifts at the same minute drift apart instead of polling in step.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ */
+public final class PollingScheduler {
+
+    public enum Endpoint {
+        ORDERS,
+        SHIFTS
+    }
+
+    public static final String POLL_INTERVAL_HEADER = "X-Poll-Interval";
+
+    public static final long DEFAULT_MIN_INTERVAL_MS = TimeUnit.SECONDS.toMillis(15);
+    public static final long DEFAULT_MAX_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+    public static final double DEFAULT_JITTER_FRACTION = 0.2;
+
+    /** Longest server hint honoured, so a misconfigured header cannot silence a device. */
+    private static final long MAX_HINT_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static volatile PollingScheduler instance;
+
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final double jitterFraction;
+    private final Random random;
+    private final Map<Endpoint, Long> fingerprints = new EnumMap<>(Endpoint.class);
+
+    private long intervalMs;
+    private long serverHintMs;
+    private long notBeforeMs;
+    // Outcome of the responses recorded since the interval was last decided.
+    private boolean roundChanged;
+    private boolean roundUnchanged;
+    private int changedResponses;
+    private int unchangedResponses;
+    private int failedResponses;
+
+    public PollingScheduler(long minIntervalMs, long maxIntervalMs, double jitterFraction, @NonNull Random random) {
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = Math.max(minIntervalMs, maxIntervalMs);
+        this.jitterFraction = Math.max(0.0, Math.min(jitterFraction, 0.5));
+        this.random = random;
+        this.intervalMs = minIntervalMs;
+    }
+
+    /**
+     * Returns the scheduler shared by the services and the push channel.
+     */
+    @NonNull
+    public static PollingScheduler getInstance() {
+        if (instance == null) {
+            synchronized (PollingScheduler.class) {
+                if (instance == null) {
+                    instance = new PollingScheduler(
+                            DEFAULT_MIN_INTERVAL_MS,
+                            DEFAULT_MAX_INTERVAL_MS,
+                            DEFAULT_JITTER_FRACTION,
+                            new Random()
+                    );
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Records a response from {@code endpoint}.
+     *
+     * @param body               the response body, used only to tell whether anything changed
+     * @param pollIntervalHeader the {@value #POLL_INTERVAL_HEADER} header, if any
+     * @param retryAfterHeader   the {@code Retry-After} header, if any
+     */
+    public void recordResponse(
+            @NonNull Endpoint endpoint,
+            int statusCode,
+            @NonNull String body,
+            @Nullable String pollIntervalHeader,
+            @Nullable String retryAfterHeader,
+            long nowMs
+    ) {
+        recordResponse(endpoint, statusCode, fingerprint(body), pollIntervalHeader, retryAfterHeader, nowMs);
+    }
+
+    /**
+     * Like {@link #recordResponse(Endpoint, int, String, String, String, long)}, for a body
+     * already hashed with {@link #fingerprint(String)} or {@link #fingerprint(byte[])}.
+     */
+    synchronized void recordResponse(
+            @NonNull Endpoint endpoint,
+            int statusCode,
+            long bodyFingerprint,
+            @Nullable String pollIntervalHeader,
+            @Nullable String retryAfterHeader,
+            long nowMs
+    ) {
+        long hint = parseSeconds(pollIntervalHeader);
+        if (hint > 0) {
+            serverHintMs = hint;
+        }
+        long retryAfter = parseSeconds(retryAfterHeader);
+        if (retryAfter > 0) {
+            notBeforeMs = Math.max(notBeforeMs, nowMs + retryAfter);
+        }
+        if (statusCode < 200 || statusCode >= 300) {
+            roundUnchanged = true;
+            failedResponses++;
+            return;
+        }
+        Long previous = fingerprints.put(endpoint, bodyFingerprint);
+        if (previous == null) {
+            return;
+        }
+        if (previous != bodyFingerprint) {
+            roundChanged = true;
+            changedResponses++;
+        } else {
+            roundUnchanged = true;
+            unchangedResponses++;
+        }
+    }
+
+    /**
+     * Records that a request to the endpoint failed before any response arrived.
+     */
+    public synchronized void recordFailure(@NonNull Endpoint endpoint) {
+        roundUnchanged = true;
+        failedResponses++;
+    }
+
+    /**
+     * Settles the interval from the responses recorded since the last call and returns how long
+     * to wait from {@code nowMs} before the next poll.
+     */
+    public synchronized long nextDelayMs(long nowMs) {
+        if (roundChanged) {
+            intervalMs = minIntervalMs;
+        } else if (roundUnchanged) {
+            intervalMs = Math.min(intervalMs * 2, maxIntervalMs);
+        }
+        roundChanged = false;
+        roundUnchanged = false;
+        long base = Math.max(intervalMs, Math.min(serverHintMs, MAX_HINT_MS));
+        double spread = jitterFraction > 0 ? (random.nextDouble() * 2 - 1) * jitterFraction : 0.0;
+        long delay = Math.round(base * (1.0 + spread));
+        return Math.max(delay, notBeforeMs - nowMs);
+    }
+
+    /**
+     * Starts over at the minimum interval, e.g. when polling takes over from a lost stream and
+     * changes may have been missed.
+     */
+    public synchronized void reset() {
+        intervalMs = minIntervalMs;
+        roundChanged = false;
+        roundUnchanged = false;
+    }
+
+    /**
+     * Returns the interval settled by the last {@link #nextDelayMs(long)}, before jitter and
+     * server hints.
+     */
+    public synchronized long getIntervalMs() {
+        return intervalMs;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                Locale.US,
+                "PollingScheduler{interval=%d ms, hint=%d ms, changed=%d, unchanged=%d, failed=%d}",
+                intervalMs,
+                serverHintMs,
+                changedResponses,
+                unchangedResponses,
+                failedResponses
+        );
+    }
+
+    /**
+     * Reads a header given in whole seconds, or returns 0. HTTP dates in {@code Retry-After} are
+     * not used by the PHP backend and are ignored.
+     */
+    static long parseSeconds(@Nullable String value) {
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return seconds > 0 ? TimeUnit.SECONDS.toMillis(Math.min(seconds, TimeUnit.MILLISECONDS.toSeconds(MAX_HINT_MS))) : 0L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the body's characters; collisions only cost one missed speed-up.
+     */
+    static long fingerprint(@NonNull String body) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < body.length(); i++) {
+            hash ^= body.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 64-bit FNV-1a over the bytes of a binary body.
+     */
+    static long fingerprint(@NonNull byte[] body) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : body) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.deliveryapp.network;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.AppConfig;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tells visible screens when the rider's orders or shifts changed on the server so they can
+ * reload them without the rider pressing refresh. Changes arrive over a {@link PushStream} while
+ * at least one screen is subscribed; when {@link AppConfig#PUSH_STREAM_PATH} is not configured or
+ * the stream keeps failing, the same notifications are driven by polling paced by
+ * {@link PollingScheduler} instead, so screens do not need to know which is in use.
+ *
+ * <p>Bursts of events are coalesced: a listener hears about a change once per main-thread turn
+ * however many events announced it.</p>
+ */
+public final class PushChannel {
+
+    public interface Listener {
+        @MainThread
+        default void onOrdersChanged() {
+        }
+
+        @MainThread
+        default void onShiftsChanged() {
+        }
+    }
+
+    private static final String TAG = "PushChannel";
+
+    private static volatile PushChannel instance;
+
+    private final ServerConnectionManager connectionManager;
+    private final Handler mainHandler;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final AtomicBoolean ordersPending = new AtomicBoolean();
+    private final AtomicBoolean shiftsPending = new AtomicBoolean();
+
+    @Nullable
+    private PushStream stream;
+    private int userId;
+    @Nullable
+    private String lastEventId;
+
+    private PushChannel() {
+        connectionManager = ServerConnectionManager.getInstance();
+        mainHandler = connectionManager.getMainThreadHandler();
+    }
+
+    @NonNull
+    public static PushChannel getInstance() {
+        if (instance == null) {
+            synchronized (PushChannel.class) {
+                if (instance == null) {
+                    instance = new PushChannel();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Registers {@code listener} for changes to {@code userId}'s data and opens the stream if
+     * this is the first subscriber. Screens subscribe while started so nothing runs in the
+     * background.
+     */
+    @MainThread
+    public void subscribe(int userId, @NonNull Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        if (stream != null && this.userId != userId) {
+            closeStream();
+            lastEventId = null;
+        }
+        this.userId = userId;
+        if (stream == null) {
+            openStream();
+        }
+    }
+
+    @MainThread
+    public void unsubscribe(@NonNull Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            closeStream();
+        }
+    }
+
+    @NonNull
+    @MainThread
+    public PushStream.Mode getMode() {
+        return stream != null ? stream.getMode() : PushStream.Mode.STOPPED;
+    }
+
+    @MainThread
+    private void openStream() {
+        PollingScheduler scheduler = PollingScheduler.getInstance();
+        PushStream opened = new PushStream(buildStreamUrl(userId), PushStream.Timing.DEFAULT, scheduler, new PushStream.Listener() {
+            @Override
+            public void onEvent(@NonNull PushEvent event) {
+                if (event.affectsOrders()) {
+                    postOrdersChanged();
+                }
+                if (event.affectsShifts()) {
+                    postShiftsChanged();
+                }
+            }
+
+            @Override
+            public void onModeChanged(@NonNull PushStream.Mode mode) {
+                Log.d(TAG, "Push channel is " + mode);
+            }
+
+            @Override
+            public void onPollDue() {
+                Log.d(TAG, "Polling; " + scheduler + "; " + ResponseFingerprints.getInstance());
+                postOrdersChanged();
+                postShiftsChanged();
+            }
+        }, lastEventId);
+        stream = opened;
+        opened.start();
+    }
+
+    @MainThread
+    private void closeStream() {
+        PushStream closing = stream;
+        if (closing == null) {
+            return;
+        }
+        stream = null;
+        // Resume from here when a screen subscribes again.
+        lastEventId = closing.getLastEventId();
+        closing.stop();
+    }
+
+    private void postOrdersChanged() {
+        if (!ordersPending.compareAndSet(false, true)) {
+            return;
+        }
+        mainHandler.post(() -> {
+            ordersPending.set(false);
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onOrdersChanged();
+            }
+        });
+    }
+
+    private void postShiftsChanged() {
+        if (!shiftsPending.compareAndSet(false, true)) {
+            return;
+        }
+        mainHandler.post(() -> {
+            shiftsPending.set(false);
+            for (Listener listener : new ArrayList<>(listeners)) {
+                listener.onShiftsChanged();
+            }
+        });
+    }
+
+    @Nullable
+    private URL buildStreamUrl(int userId) {
+        if (AppConfig.PUSH_STREAM_PATH.isEmpty()) {
+            return null;
+        }
+        URL base = connectionManager.buildUrl(AppConfig.PUSH_STREAM_PATH);
+        if (base == null) {
+            return null;
+        }
+        Uri uri = Uri.parse(base.toString())
+                .buildUpon()
+                .appendQueryParameter("user_id", String.valueOf(userId))
+                .build();
+        try {
+            return new URL(uri.toString());
+        } catch (MalformedURLException e) {
+            Log.w(TAG, "Unable to build the push stream URL", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * One event received on the push stream. The server names events after what changed
+ * ({@code order_created}, {@code order_status}, {@code shift_updated}, ...); the data is
+ * informational only, since listeners reload the affected list rather than patch it.
+ */
+public final class PushEvent {
+
+    public static final String DEFAULT_TYPE = "message";
+    /** Sent when the server cannot replay from the requested event ID; everything may be stale. */
+    public static final String TYPE_RESYNC = "resync";
+
+    @Nullable
+    private final String id;
+    @NonNull
+    private final String type;
+    @NonNull
+    private final String data;
+
+    public PushEvent(@Nullable String id, @NonNull String type, @NonNull String data) {
+        this.id = id;
+        this.type = type;
+        this.data = data;
+    }
+
+    /**
+     * Returns the ID the stream resumes from after this event, or {@code null} if none was sent.
+     */
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getType() {
+        return type;
+    }
+
+    @NonNull
+    public String getData() {
+        return data;
+    }
+
+    public boolean affectsOrders() {
+        return isResync() || normalizedType().startsWith("order");
+    }
+
+    public boolean affectsShifts() {
+        return isResync() || normalizedType().startsWith("shift");
+    }
+
+    public boolean isResync() {
+        return TYPE_RESYNC.equals(normalizedType());
+    }
+
+    @NonNull
+    private String normalizedType() {
+        return type.trim().toLowerCase(Locale.US);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PushEvent{id=" + id + ", type=" + type + ", data=" + data.length() + " chars}";
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a server-sent events connection open on its own thread and falls back to polling when
+ * the stream cannot be used.
+ *
+ * <p>The server is expected to write a comment line at least every
+ * {@link Timing#getHeartbeatTimeoutMs()}; the read timeout doubles as the heartbeat watchdog, so
+ * a connection silently dropped by the mobile network is noticed and replaced. Reconnects send
+ * {@code Last-Event-ID} so the server can replay what was missed, and wait for the server's
+ * {@code retry} hint or an exponential back-off.</p>
+ *
+ * <p>After {@link Timing#getFailuresBeforePolling()} connections in a row fail to deliver
+ * anything, or at once when the server answers that it has no stream (404, 405, 501 or 204), the
+ * stream switches to {@link Mode#POLLING}: {@link Listener#onPollDue()} fires whenever the
+ * {@link PollingScheduler} says, and the stream is tried again every
+ * {@link Timing#getStreamRetryIntervalMs()}. Without a URL it only polls.</p>
+ *
+ * <p>Listener methods run on the stream thread.</p>
+ */
+public final class PushStream {
+
+    public enum Mode {
+        CONNECTING,
+        STREAMING,
+        POLLING,
+        STOPPED
+    }
+
+    public interface Listener {
+        void onEvent(@NonNull PushEvent event);
+
+        void onModeChanged(@NonNull Mode mode);
+
+        /**
+         * Called while polling when the app should fetch whatever the stream would have
+         * announced.
+         */
+        void onPollDue();
+    }
+
+    /**
+     * Delays used by the stream; {@link #DEFAULT} suits a server heartbeat every 15 seconds.
+     */
+    public static final class Timing {
+
+        public static final Timing DEFAULT = new Timing(
+                TimeUnit.SECONDS.toMillis(10),
+                TimeUnit.SECONDS.toMillis(45),
+                TimeUnit.SECONDS.toMillis(1),
+                TimeUnit.SECONDS.toMillis(30),
+                3,
+                TimeUnit.MINUTES.toMillis(5)
+        );
+
+        private final long connectTimeoutMs;
+        private final long heartbeatTimeoutMs;
+        private final long initialReconnectDelayMs;
+        private final long maxReconnectDelayMs;
+        private final int failuresBeforePolling;
+        private final long streamRetryIntervalMs;
+
+        public Timing(
+                long connectTimeoutMs,
+                long heartbeatTimeoutMs,
+                long initialReconnectDelayMs,
+                long maxReconnectDelayMs,
+                int failuresBeforePolling,
+                long streamRetryIntervalMs
+        ) {
+            this.connectTimeoutMs = connectTimeoutMs;
+            this.heartbeatTimeoutMs = heartbeatTimeoutMs;
+            this.initialReconnectDelayMs = initialReconnectDelayMs;
+            this.maxReconnectDelayMs = maxReconnectDelayMs;
+            this.failuresBeforePolling = Math.max(1, failuresBeforePolling);
+            this.streamRetryIntervalMs = streamRetryIntervalMs;
+        }
+
+        public long getHeartbeatTimeoutMs() {
+            return heartbeatTimeoutMs;
+        }
+
+        public int getFailuresBeforePolling() {
+            return failuresBeforePolling;
+        }
+
+        public long getStreamRetryIntervalMs() {
+            return streamRetryIntervalMs;
+        }
+    }
+
+    /**
+     * Time source and waits of the stream thread, so tests can follow its schedule without real
+     * delays.
+     */
+    interface Clock {
+        long currentTimeMillis();
+
+        /**
+         * Waits on {@code lock}, which the caller holds, for up to {@code delayMs} or until it is
+         * notified.
+         */
+        void await(@NonNull Object lock, long delayMs) throws InterruptedException;
+    }
+
+    static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void await(@NonNull Object lock, long delayMs) throws InterruptedException {
+            lock.wait(delayMs);
+        }
+    };
+
+    private enum Outcome {
+        /** The stream delivered data and then ended; reconnect promptly. */
+        ENDED,
+        /** Nothing usable arrived; counts towards falling back to polling. */
+        FAILED,
+        /** The server has no stream for us; poll right away. */
+        UNSUPPORTED
+    }
+
+    @Nullable
+    private final URL url;
+    private final Timing timing;
+    private final PollingScheduler scheduler;
+    private final Listener listener;
+    private final Clock clock;
+    private final Object lock = new Object();
+
+    @Nullable
+    private Thread thread;
+    private volatile boolean stopped;
+    @Nullable
+    private HttpURLConnection activeConnection;
+    @Nullable
+    private volatile String lastEventId;
+    private volatile Mode mode = Mode.STOPPED;
+    private long serverRetryMs = -1L;
+    private long reconnectDelayMs;
+    private long serverBusyDelayMs;
+    private boolean pollingSinceStream;
+
+    /**
+     * @param url         the stream endpoint, or {@code null} to poll only
+     * @param scheduler   paces polling while the stream is unavailable
+     * @param lastEventId where a previous stream left off, or {@code null}
+     */
+    public PushStream(
+            @Nullable URL url,
+            @NonNull Timing timing,
+            @NonNull PollingScheduler scheduler,
+            @NonNull Listener listener,
+            @Nullable String lastEventId
+    ) {
+        this(url, timing, scheduler, listener, lastEventId, SYSTEM_CLOCK);
+    }
+
+    PushStream(
+            @Nullable URL url,
+            @NonNull Timing timing,
+            @NonNull PollingScheduler scheduler,
+            @NonNull Listener listener,
+            @Nullable String lastEventId,
+            @NonNull Clock clock
+    ) {
+        this.url = url;
+        this.timing = timing;
+        this.scheduler = scheduler;
+        this.listener = listener;
+        this.lastEventId = lastEventId;
+        this.clock = clock;
+        this.reconnectDelayMs = timing.initialReconnectDelayMs;
+    }
+
+    /**
+     * Starts the stream thread. A stream can only be started once.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (thread != null) {
+                throw new IllegalStateException("Push stream already started");
+            }
+            thread = new Thread(this::run, "push-stream");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Closes the connection and ends the thread; returns without waiting for it.
+     */
+    public void stop() {
+        HttpURLConnection connection;
+        synchronized (lock) {
+            stopped = true;
+            connection = activeConnection;
+            activeConnection = null;
+            lock.notifyAll();
+        }
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    @NonNull
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the ID of the last event received, to hand to the next stream.
+     */
+    @Nullable
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    @WorkerThread
+    private void run() {
+        int failures = 0;
+        while (!stopped) {
+            if (url == null) {
+                poll(Long.MAX_VALUE);
+                break;
+            }
+            setMode(Mode.CONNECTING);
+            Outcome outcome = connect(url);
+            if (stopped) {
+                break;
+            }
+            if (outcome == Outcome.ENDED) {
+                failures = 0;
+                reconnectDelayMs = timing.initialReconnectDelayMs;
+                sleep(serverRetryMs >= 0 ? serverRetryMs : timing.initialReconnectDelayMs);
+            } else if (outcome == Outcome.UNSUPPORTED || ++failures >= timing.failuresBeforePolling) {
+                poll(clock.currentTimeMillis() + timing.streamRetryIntervalMs);
+                // One more failed probe sends us straight back to polling.
+                failures = timing.failuresBeforePolling - 1;
+            } else {
+                long delay = Math.max(reconnectDelayMs, serverBusyDelayMs);
+                serverBusyDelayMs = 0L;
+                sleep(delay);
+                reconnectDelayMs = Math.min(reconnectDelayMs * 2, timing.maxReconnectDelayMs);
+            }
+        }
+        setMode(Mode.STOPPED);
+    }
+
+    @NonNull
+    @WorkerThread
+    private Outcome connect(@NonNull URL target) {
+        HttpURLConnection connection = null;
+        ServerSentEventReader reader = null;
+        try {
+            connection = (HttpURLConnection) target.openConnection();
+            synchronized (lock) {
+                if (stopped) {
+                    return Outcome.FAILED;
+                }
+                activeConnection = connection;
+            }
+            connection.setConnectTimeout((int) timing.connectTimeoutMs);
+            connection.setReadTimeout((int) timing.heartbeatTimeoutMs);
+            connection.setRequestMethod("GET");
+            connection.setUseCaches(false);
+            connection.setRequestProperty("Accept", "text/event-stream");
+            connection.setRequestProperty("Cache-Control", "no-cache");
+            // A compressed event stream would be buffered by the decoder and arrive late.
+            connection.setRequestProperty("Accept-Encoding", "identity");
+            String resumeFrom = lastEventId;
+            if (resumeFrom != null) {
+                connection.setRequestProperty("Last-Event-ID", resumeFrom);
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode == HttpURLConnection.HTTP_NO_CONTENT
+                    || statusCode == HttpURLConnection.HTTP_NOT_FOUND
+                    || statusCode == HttpURLConnection.HTTP_BAD_METHOD
+                    || statusCode == HttpURLConnection.HTTP_NOT_IMPLEMENTED) {
+                return Outcome.UNSUPPORTED;
+            }
+            if (statusCode != HttpURLConnection.HTTP_OK) {
+                serverBusyDelayMs = PollingScheduler.parseSeconds(connection.getHeaderField("Retry-After"));
+                return Outcome.FAILED;
+            }
+            String contentType = connection.getContentType();
+            if (contentType == null || !contentType.trim().toLowerCase(Locale.US).startsWith("text/event-stream")) {
+                return Outcome.UNSUPPORTED;
+            }
+
+            setMode(Mode.STREAMING);
+            pollingSinceStream = false;
+            InputStream body = connection.getInputStream();
+            reader = new ServerSentEventReader(body, resumeFrom);
+            PushEvent event;
+            while ((event = reader.next()) != null) {
+                lastEventId = reader.getLastEventId();
+                listener.onEvent(event);
+            }
+            lastEventId = reader.getLastEventId();
+            return Outcome.ENDED;
+        } catch (IOException e) {
+            // Timeouts land here too: a missed heartbeat means the connection is gone.
+            if (reader != null && reader.getLineCount() > 0) {
+                lastEventId = reader.getLastEventId();
+                return Outcome.ENDED;
+            }
+            return Outcome.FAILED;
+        } finally {
+            if (reader != null) {
+                serverRetryMs = reader.getRetryMs() >= 0 ? reader.getRetryMs() : serverRetryMs;
+            }
+            synchronized (lock) {
+                if (activeConnection == connection) {
+                    activeConnection = null;
+                }
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Polls until {@code deadline} or until stopped. The first time after the stream was lost
+     * the scheduler starts over at its shortest interval, since changes may have been missed;
+     * later stream probes leave its pace alone.
+     */
+    @WorkerThread
+    private void poll(long deadline) {
+        setMode(Mode.POLLING);
+        if (!pollingSinceStream) {
+            pollingSinceStream = true;
+            scheduler.reset();
+        }
+        while (!stopped) {
+            long now = clock.currentTimeMillis();
+            if (now >= deadline) {
+                return;
+            }
+            sleep(Math.min(scheduler.nextDelayMs(now), deadline - now));
+            if (stopped || clock.currentTimeMillis() >= deadline) {
+                return;
+            }
+            listener.onPollDue();
+        }
+    }
+
+    private void sleep(long delayMs) {
+        long deadline = clock.currentTimeMillis() + delayMs;
+        synchronized (lock) {
+            long remaining = delayMs;
+            while (!stopped && remaining > 0) {
+                try {
+                    clock.await(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stopped = true;
+                    return;
+                }
+                remaining = deadline - clock.currentTimeMillis();
+            }
+        }
+    }
+
+    private void setMode(@NonNull Mode newMode) {
+        if (mode != newMode) {
+            mode = newMode;
+            listener.onModeChanged(newMode);
+        }
+    }
+}
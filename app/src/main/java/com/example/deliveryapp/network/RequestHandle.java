@@ -0,0 +1,162 @@
+package com.example.deliveryapp.network;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A request started by one of the services, which the caller can cancel.
+ *
+ * <p>Cancelling disconnects the connection in flight, so a blocked read ends at once. The
+ * response is not parsed and the callback is not invoked, so a closed screen is neither called
+ * back nor kept alive by the request for longer than it takes the network thread to notice.
+ * Screens use {@link #bindTo(LifecycleOwner)} to cancel automatically when destroyed.</p>
+ *
+ * <p>Cancelling and delivering race for one state, so exactly one of them wins: once
+ * {@link #cancel()} has returned, the result is either already being delivered or never will
+ * be, whichever thread delivers it.</p>
+ *
+ * <p>Cancelling a request that changes server state, such as starting a shift, only abandons the
+ * response; the server may already have applied it.</p>
+ */
+public final class RequestHandle {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int DELIVERED = 2;
+
+    private final Handler mainHandler;
+    private final Executor delivery;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private final Object lock = new Object();
+    private final LifecycleEventObserver lifecycleObserver = (source, event) -> {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            cancel();
+        }
+    };
+
+    @Nullable
+    private HttpURLConnection connection;
+    @Nullable
+    private Lifecycle boundLifecycle;
+
+    RequestHandle(@NonNull Handler mainHandler) {
+        this(mainHandler, mainHandler::post);
+    }
+
+    /**
+     * @param delivery where results are delivered; the main thread for callbacks, the network
+     *                 thread for {@link NetworkFuture}s
+     */
+    RequestHandle(@NonNull Handler mainHandler, @NonNull Executor delivery) {
+        this.mainHandler = mainHandler;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Cancels the request when {@code owner} is destroyed. Does nothing if the request has already
+     * delivered its result; cancels at once if {@code owner} is already destroyed.
+     */
+    @NonNull
+    @MainThread
+    public RequestHandle bindTo(@NonNull LifecycleOwner owner) {
+        if (state.get() != PENDING) {
+            return this;
+        }
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            cancel();
+            return this;
+        }
+        unbind();
+        boundLifecycle = lifecycle;
+        lifecycle.addObserver(lifecycleObserver);
+        return this;
+    }
+
+    /**
+     * Abandons the request. Safe to call from any thread, more than once, or after completion.
+     */
+    public void cancel() {
+        if (!state.compareAndSet(PENDING, CANCELLED)) {
+            return;
+        }
+        HttpURLConnection active;
+        synchronized (lock) {
+            active = connection;
+            connection = null;
+        }
+        if (active != null) {
+            active.disconnect();
+        }
+        unbindOnMain();
+    }
+
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    /**
+     * Registers the connection so {@link #cancel()} can abort it.
+     *
+     * @return {@code false} if the request was cancelled already and must not proceed
+     */
+    boolean attach(@NonNull HttpURLConnection active) {
+        synchronized (lock) {
+            if (state.get() == CANCELLED) {
+                return false;
+            }
+            connection = active;
+            return true;
+        }
+    }
+
+    /**
+     * Runs {@code result} on the delivery executor unless the request is cancelled by then. Only
+     * the first result of a request runs.
+     */
+    void post(@NonNull Runnable result) {
+        delivery.execute(() -> deliverNow(result));
+    }
+
+    /**
+     * Like {@link #post(Runnable)}, on the calling thread.
+     */
+    void deliverNow(@NonNull Runnable result) {
+        if (!state.compareAndSet(PENDING, DELIVERED)) {
+            return;
+        }
+        synchronized (lock) {
+            connection = null;
+        }
+        unbindOnMain();
+        result.run();
+    }
+
+    private void unbindOnMain() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            unbind();
+        } else {
+            mainHandler.post(this::unbind);
+        }
+    }
+
+    @MainThread
+    private void unbind() {
+        Lifecycle lifecycle = boundLifecycle;
+        if (lifecycle != null) {
+            boundLifecycle = null;
+            lifecycle.removeObserver(lifecycleObserver);
+        }
+    }
+}
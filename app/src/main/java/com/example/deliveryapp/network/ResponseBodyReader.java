@@ -0,0 +1,210 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reads response bodies into strings with as little copying as possible: the bytes go into a
+ * pooled buffer sized from {@code Content-Length} and are decoded from UTF-8 once, straight into
+ * the final string. Line breaks are kept, unlike the line-by-line readers this replaces.
+ *
+ * <p>Buffers of up to {@link #MAX_POOLED_BUFFER_BYTES} are returned to a small shared pool after
+ * each read, so steady polling reuses the same few arrays instead of allocating a growing
+ * {@link StringBuilder} per response. Bodies longer than the reader's maximum fail with an
+ * {@link IOException} rather than exhausting memory.</p>
+ *
+ * <p>Thread-safe.</p>
+ */
+final class ResponseBodyReader {
+
+    /**
+     * Thrown when a body is longer than the reader allows. Sending the request again would not
+     * help.
+     */
+    static final class BodyTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException(@NonNull String message) {
+            super(message);
+        }
+    }
+
+    static final int DEFAULT_MAX_BODY_BYTES = 16 * 1024 * 1024;
+    static final int MAX_POOLED_BUFFER_BYTES = 256 * 1024;
+    static final int POOL_SIZE = 4;
+
+    /** Used when the length is unknown. Most single responses fit. */
+    private static final int DEFAULT_INITIAL_BYTES = 16 * 1024;
+    /** Compressed JSON is rarely more than this many times smaller than the decoded body. */
+    private static final int COMPRESSION_RATIO_GUESS = 6;
+
+    private static volatile ResponseBodyReader instance;
+
+    private final int maxBodyBytes;
+    private final byte[][] pool = new byte[POOL_SIZE][];
+
+    ResponseBodyReader(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @NonNull
+    static ResponseBodyReader getInstance() {
+        if (instance == null) {
+            synchronized (ResponseBodyReader.class) {
+                if (instance == null) {
+                    instance = new ResponseBodyReader(DEFAULT_MAX_BODY_BYTES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Reads {@code stream} to the end as UTF-8 text and closes it.
+     *
+     * @param contentLength the {@code Content-Length} header, or a negative value if unknown
+     * @param compressed    whether {@code contentLength} counts compressed bytes, so the decoded
+     *                      body is likely longer
+     * @throws IOException if reading fails, or {@link BodyTooLargeException} if the body is
+     *                     longer than allowed
+     */
+    @NonNull
+    String read(@NonNull InputStream stream, long contentLength, boolean compressed) throws IOException {
+        return read(stream, contentLength, compressed, (buffer, length) -> {
+            int start = hasByteOrderMark(buffer, length) ? 3 : 0;
+            return new String(buffer, start, length - start, StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Like {@link #read(InputStream, long, boolean)}, for binary bodies: returns the bytes, in
+     * an array of exactly their length.
+     */
+    @NonNull
+    byte[] readBytes(@NonNull InputStream stream, long contentLength, boolean compressed) throws IOException {
+        return read(stream, contentLength, compressed, Arrays::copyOf);
+    }
+
+    /** Turns the filled part of a pooled buffer into a result that does not share it. */
+    private interface BodyDecoder<T> {
+        @NonNull
+        T decode(@NonNull byte[] buffer, int length);
+    }
+
+    @NonNull
+    private <T> T read(
+            @NonNull InputStream stream,
+            long contentLength,
+            boolean compressed,
+            @NonNull BodyDecoder<T> decoder
+    ) throws IOException {
+        try (InputStream body = stream) {
+            if (!compressed && contentLength > maxBodyBytes) {
+                throw tooLarge();
+            }
+            byte[] buffer = acquire(initialSize(contentLength, compressed));
+            try {
+                int length = 0;
+                while (true) {
+                    if (length == buffer.length) {
+                        if (length >= maxBodyBytes) {
+                            if (body.read() < 0) {
+                                break;
+                            }
+                            throw tooLarge();
+                        }
+                        buffer = grow(buffer, length);
+                    }
+                    int read = body.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        break;
+                    }
+                    length += read;
+                }
+                return decoder.decode(buffer, length);
+            } finally {
+                release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns a buffer of at least {@code minBytes} from the pool, or a new one. Callers hand it
+     * back with {@link #release(byte[])}.
+     */
+    @NonNull
+    byte[] acquire(int minBytes) {
+        synchronized (pool) {
+            int best = -1;
+            for (int i = 0; i < pool.length; i++) {
+                byte[] candidate = pool[i];
+                if (candidate != null && candidate.length >= minBytes
+                        && (best < 0 || candidate.length < pool[best].length)) {
+                    best = i;
+                }
+            }
+            if (best >= 0) {
+                byte[] buffer = pool[best];
+                pool[best] = null;
+                return buffer;
+            }
+        }
+        return new byte[minBytes];
+    }
+
+    /**
+     * Returns {@code buffer} to the pool if it is small enough to keep, replacing the smallest
+     * pooled buffer when the pool is full.
+     */
+    void release(@NonNull byte[] buffer) {
+        if (buffer.length > MAX_POOLED_BUFFER_BYTES) {
+            return;
+        }
+        synchronized (pool) {
+            int slot = -1;
+            for (int i = 0; i < pool.length; i++) {
+                if (pool[i] == null) {
+                    slot = i;
+                    break;
+                }
+                if (pool[i].length < buffer.length && (slot < 0 || pool[i].length < pool[slot].length)) {
+                    slot = i;
+                }
+            }
+            if (slot >= 0) {
+                pool[slot] = buffer;
+            }
+        }
+    }
+
+    private int initialSize(long contentLength, boolean compressed) {
+        long expected = contentLength < 0
+                ? DEFAULT_INITIAL_BYTES
+                : compressed ? contentLength * COMPRESSION_RATIO_GUESS : contentLength;
+        // One spare byte lets an exact Content-Length be confirmed without growing.
+        return (int) Math.max(1, Math.min(expected + 1, maxBodyBytes));
+    }
+
+    @NonNull
+    private byte[] grow(@NonNull byte[] buffer, int length) {
+        int size = (int) Math.min((long) buffer.length * 2, maxBodyBytes);
+        byte[] larger = acquire(size);
+        System.arraycopy(buffer, 0, larger, 0, length);
+        release(buffer);
+        return larger;
+    }
+
+    private static boolean hasByteOrderMark(@NonNull byte[] buffer, int length) {
+        return length >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF;
+    }
+
+    @NonNull
+    private BodyTooLargeException tooLarge() {
+        return new BodyTooLargeException(String.format(Locale.US, "Response body exceeds %d bytes.", maxBodyBytes));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Remembers a fingerprint of the last successful order and shift list responses, with what was
+ * parsed from them, so a refresh that returns the same content skips parsing and screens can
+ * skip rebinding. This works for the shift schedule too, which is POSTed and so never answered
+ * from the HTTP cache.
+ *
+ * <p>The fingerprint is the server's {@value #CONTENT_HASH_HEADER} or {@code ETag} header when
+ * present, else a 64-bit hash of the body. Entries are keyed by the request (the rider), so
+ * switching accounts never reuses another rider's list. A failed request clears its endpoint so
+ * the next success is parsed and shown in full.</p>
+ *
+ * <p>All methods are thread-safe.</p>
+ */
+public final class ResponseFingerprints {
+
+    public static final String CONTENT_HASH_HEADER = "X-Content-Hash";
+
+    private static final class Entry {
+        final String requestKey;
+        final long fingerprint;
+        final Object result;
+
+        Entry(@NonNull String requestKey, long fingerprint, @NonNull Object result) {
+            this.requestKey = requestKey;
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+
+    private static volatile ResponseFingerprints instance;
+
+    private final Map<PollingScheduler.Endpoint, Entry> entries = new EnumMap<>(PollingScheduler.Endpoint.class);
+    private final Map<PollingScheduler.Endpoint, int[]> counters = new EnumMap<>(PollingScheduler.Endpoint.class);
+
+    @NonNull
+    public static ResponseFingerprints getInstance() {
+        if (instance == null) {
+            synchronized (ResponseFingerprints.class) {
+                if (instance == null) {
+                    instance = new ResponseFingerprints();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns what was parsed from the last response for the same request when this one has the
+     * same fingerprint, or {@code null} if it must be parsed. Every call counts as a hit or miss.
+     */
+    @Nullable
+    public synchronized <T> T match(
+            @NonNull PollingScheduler.Endpoint endpoint,
+            @NonNull String requestKey,
+            long fingerprint,
+            @NonNull Class<T> type
+    ) {
+        Entry entry = entries.get(endpoint);
+        int[] counts = countersFor(endpoint);
+        if (entry != null
+                && entry.fingerprint == fingerprint
+                && entry.requestKey.equals(requestKey)
+                && type.isInstance(entry.result)) {
+            counts[0]++;
+            return type.cast(entry.result);
+        }
+        counts[1]++;
+        return null;
+    }
+
+    /**
+     * Records the result parsed from a successful response with {@code fingerprint}.
+     */
+    public synchronized void store(
+            @NonNull PollingScheduler.Endpoint endpoint,
+            @NonNull String requestKey,
+            long fingerprint,
+            @NonNull Object result
+    ) {
+        entries.put(endpoint, new Entry(requestKey, fingerprint, result));
+    }
+
+    /**
+     * Forgets the last response for {@code endpoint}, e.g. after a failure.
+     */
+    public synchronized void invalidate(@NonNull PollingScheduler.Endpoint endpoint) {
+        entries.remove(endpoint);
+    }
+
+    public synchronized int getHits(@NonNull PollingScheduler.Endpoint endpoint) {
+        return countersFor(endpoint)[0];
+    }
+
+    public synchronized int getMisses(@NonNull PollingScheduler.Endpoint endpoint) {
+        return countersFor(endpoint)[1];
+    }
+
+    /**
+     * Returns the share of responses that were skipped, between 0 and 1.
+     */
+    public synchronized double getHitRate(@NonNull PollingScheduler.Endpoint endpoint) {
+        int[] counts = countersFor(endpoint);
+        int total = counts[0] + counts[1];
+        return total > 0 ? (double) counts[0] / total : 0.0;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("ResponseFingerprints{");
+        for (PollingScheduler.Endpoint endpoint : PollingScheduler.Endpoint.values()) {
+            int[] counts = countersFor(endpoint);
+            if (builder.charAt(builder.length() - 1) != '{') {
+                builder.append(", ");
+            }
+            builder.append(String.format(
+                    Locale.US,
+                    "%s=%d/%d",
+                    endpoint.name().toLowerCase(Locale.US),
+                    counts[0],
+                    counts[0] + counts[1]
+            ));
+        }
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Returns the server's hash of a response body, if it sent one.
+     */
+    @Nullable
+    static String serverHash(@NonNull HttpResponse response) {
+        String hash = response.getHeader(CONTENT_HASH_HEADER);
+        return hash != null ? hash : response.getHeader("ETag");
+    }
+
+    /**
+     * Fingerprints a response by the server's content hash when it sent one, else by its body.
+     */
+    public static long fingerprint(@Nullable String serverHash, @NonNull String body) {
+        return fingerprint(serverHash, PollingScheduler.fingerprint(body));
+    }
+
+    /**
+     * Like {@link #fingerprint(String, String)}, for a body already hashed, e.g. with
+     * {@link HttpResponse#bodyFingerprint()}.
+     */
+    static long fingerprint(@Nullable String serverHash, long bodyFingerprint) {
+        if (serverHash != null && !serverHash.trim().isEmpty()) {
+            // Keep server hashes apart from body hashes that happen to collide.
+            return ~PollingScheduler.fingerprint(serverHash.trim());
+        }
+        return bodyFingerprint;
+    }
+
+    @NonNull
+    private int[] countersFor(@NonNull PollingScheduler.Endpoint endpoint) {
+        int[] counts = counters.get(endpoint);
+        if (counts == null) {
+            counts = new int[2];
+            counters.put(endpoint, counts);
+        }
+        return counts;
+    }
+}
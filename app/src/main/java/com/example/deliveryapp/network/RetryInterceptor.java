@@ -0,0 +1,59 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Sends idempotent requests again when the connection fails before a response arrives, which
+ * mostly happens when a pooled keep-alive socket was closed by the server while idle. Timeouts
+ * are not retried, since the rider has already waited the full timeout once, and neither are
+ * oversized bodies, requests that change server state or cancelled requests.
+ */
+final class RetryInterceptor implements Interceptor {
+
+    static final int DEFAULT_MAX_RETRIES = 1;
+    static final long DEFAULT_BACKOFF_MS = 300;
+
+    private final int maxRetries;
+    private final long backoffMs;
+
+    RetryInterceptor(int maxRetries, long backoffMs) {
+        this.maxRetries = maxRetries;
+        this.backoffMs = backoffMs;
+    }
+
+    @NonNull
+    @Override
+    public HttpResponse intercept(@NonNull Chain chain) throws IOException {
+        HttpRequest request = chain.request();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return chain.proceed(request);
+            } catch (InterruptedIOException | ResponseBodyReader.BodyTooLargeException e) {
+                throw e;
+            } catch (IOException e) {
+                if (!request.isIdempotent() || attempt >= maxRetries || chain.isCancelled()) {
+                    throw e;
+                }
+                if (!pause(backoffMs * (attempt + 1)) || chain.isCancelled()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean pause(long delayMs) {
+        if (delayMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delayMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
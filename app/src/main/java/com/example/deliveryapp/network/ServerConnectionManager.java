@@ -2,19 +2,26 @@ package com.example.deliveryapp.network;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.deliveryapp.AppConfig;
+import com.example.deliveryapp.AppForegroundTracker;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 public class ServerConnectionManager {
@@ -22,6 +29,11 @@ public class ServerConnectionManager {
     private static final String TAG = "ServerConnection";
     private static final int CONNECT_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(10);
     private static final int READ_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(10);
+    /**
+     * How long a pre-warmed connection is assumed to stay in the HTTP keep-alive pool. Kept below
+     * the platform pool's five minute idle limit so requests are not misreported as warm.
+     */
+    private static final long WARM_CONNECTION_TTL_MS = TimeUnit.MINUTES.toMillis(4);
 
     private static volatile ServerConnectionManager instance;
 
@@ -30,10 +42,33 @@ public class ServerConnectionManager {
     @Nullable
     private final URL baseUrl;
 
+    private final Object preconnectLock = new Object();
+    @Nullable
+    private Future<?> preconnectTask;
+    @Nullable
+    private HttpURLConnection preconnectConnection;
+    private volatile long warmSinceMs;
+    private final CopyOnWriteArrayList<NetworkActivityListener> activityListeners = new CopyOnWriteArrayList<>();
+    private final HttpPipeline pipeline;
+
     private ServerConnectionManager() {
         mainThreadHandler = new Handler(Looper.getMainLooper());
         networkExecutor = Executors.newCachedThreadPool();
         baseUrl = parseUrl(AppConfig.API_BASE_URL);
+        // Outermost first: errors are described once, after caching and retries have had
+        // their say, and metrics time each attempt on the wire.
+        pipeline = new HttpPipeline(Arrays.asList(
+                new ErrorNormalizationInterceptor(),
+                new CachingInterceptor(CachingInterceptor.DEFAULT_MAX_ENTRIES),
+                new RetryInterceptor(RetryInterceptor.DEFAULT_MAX_RETRIES, RetryInterceptor.DEFAULT_BACKOFF_MS),
+                new CompressionInterceptor(),
+                new MetricsInterceptor(this)
+        ), new UrlConnectionTransport());
+        AppForegroundTracker.getInstance().addListener(inForeground -> {
+            if (!inForeground) {
+                cancelPreconnect();
+            }
+        });
     }
 
     public static ServerConnectionManager getInstance() {
@@ -56,14 +91,20 @@ public class ServerConnectionManager {
 
         networkExecutor.execute(() -> {
             HttpURLConnection connection = null;
+            boolean bodyConsumed = false;
             try {
+                long requestStartedAt = markRequestStart();
                 connection = (HttpURLConnection) targetUrl.openConnection();
                 connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
                 connection.setReadTimeout(READ_TIMEOUT_MS);
                 connection.setRequestMethod("GET");
+                HttpCompression.prepareRequest(connection);
                 connection.connect();
 
                 int statusCode = connection.getResponseCode();
+                recordResponseLatency(requestStartedAt);
+                drainResponse(connection, statusCode);
+                bodyConsumed = true;
                 if (statusCode >= 200 && statusCode < 300) {
                     postResult(callback, true, null);
                 } else {
@@ -72,13 +113,52 @@ public class ServerConnectionManager {
             } catch (IOException e) {
                 postResult(callback, false, e.getMessage());
             } finally {
-                if (connection != null) {
-                    connection.disconnect();
-                }
+                releaseConnection(connection, bodyConsumed);
             }
         });
     }
 
+    /**
+     * Resolves the API host and opens a connection to it in the background so that DNS, TCP and
+     * TLS setup are already paid for when the first real request is made. The connection is left
+     * in the HTTP keep-alive pool for reuse. Does nothing while a pre-warm is in flight or a
+     * recent one is still considered warm.
+     */
+    public void preconnect() {
+        URL target = baseUrl;
+        if (target == null) {
+            return;
+        }
+        synchronized (preconnectLock) {
+            if (preconnectTask != null && !preconnectTask.isDone()) {
+                return;
+            }
+            if (isConnectionWarm(SystemClock.elapsedRealtime())) {
+                return;
+            }
+            preconnectTask = networkExecutor.submit(() -> runPreconnect(target));
+        }
+    }
+
+    /**
+     * Abandons an in-flight pre-warm, closing its socket. Called automatically when the app moves
+     * to the background; a completed pre-warm is left in the pool.
+     */
+    public void cancelPreconnect() {
+        HttpURLConnection inFlight;
+        synchronized (preconnectLock) {
+            if (preconnectTask != null) {
+                preconnectTask.cancel(true);
+                preconnectTask = null;
+            }
+            inFlight = preconnectConnection;
+            preconnectConnection = null;
+        }
+        if (inFlight != null) {
+            inFlight.disconnect();
+        }
+    }
+
     @Nullable
     public URL getBaseUrl() {
         return baseUrl;
@@ -100,6 +180,18 @@ public class ServerConnectionManager {
         }
     }
 
+    /**
+     * Sends an API request through the interceptor pipeline on the calling thread, which must be
+     * a network thread. The response's error message is set when the request failed.
+     *
+     * @param handle cancels the request, or {@code null}
+     * @throws IOException if no response arrived, including when {@code handle} was cancelled
+     */
+    @NonNull
+    HttpResponse execute(@NonNull HttpRequest request, @Nullable RequestHandle handle) throws IOException {
+        return pipeline.execute(request, handle);
+    }
+
     @NonNull
     public ExecutorService getNetworkExecutor() {
         return networkExecutor;
@@ -110,6 +202,115 @@ public class ServerConnectionManager {
         return mainThreadHandler;
     }
 
+    /**
+     * Returns a timestamp to pass to {@link #recordResponseLatency(long)} once the response
+     * headers of the request arrive.
+     */
+    long markRequestStart() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    void recordResponseLatency(long requestStartedAt) {
+        recordResponseLatency(requestStartedAt, SystemClock.elapsedRealtime());
+    }
+
+    void recordResponseLatency(long requestStartedAt, long receivedAt) {
+        long latencyMs = receivedAt - requestStartedAt;
+        boolean warm = isConnectionWarm(requestStartedAt);
+        if (NetworkMetrics.getInstance().recordRequestLatency(latencyMs, warm)) {
+            Log.i(TAG, "First request answered in " + latencyMs + " ms on a "
+                    + (warm ? "pre-warmed" : "cold") + " connection");
+        }
+        for (NetworkActivityListener listener : activityListeners) {
+            listener.onNetworkActivity();
+        }
+    }
+
+    /**
+     * Registers {@code listener} to hear about every API response, so background work can send
+     * its own traffic while the radio is already awake.
+     */
+    public void addNetworkActivityListener(@NonNull NetworkActivityListener listener) {
+        activityListeners.addIfAbsent(listener);
+    }
+
+    public void removeNetworkActivityListener(@NonNull NetworkActivityListener listener) {
+        activityListeners.remove(listener);
+    }
+
+    /**
+     * Finishes with {@code connection}. A connection whose response body was read to the end is
+     * simply left alone so the platform can hand its socket to the next request for the same
+     * host; anything else is torn down.
+     */
+    static void releaseConnection(@Nullable HttpURLConnection connection, boolean bodyConsumed) {
+        if (connection != null && !bodyConsumed) {
+            connection.disconnect();
+        }
+    }
+
+    private void runPreconnect(@NonNull URL target) {
+        long startedAt = SystemClock.elapsedRealtime();
+        HttpURLConnection connection = null;
+        boolean bodyConsumed = false;
+        try {
+            InetAddress.getAllByName(target.getHost());
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+
+            connection = (HttpURLConnection) target.openConnection();
+            synchronized (preconnectLock) {
+                preconnectConnection = connection;
+            }
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestMethod("HEAD");
+            connection.setUseCaches(false);
+            HttpCompression.prepareRequest(connection);
+
+            int statusCode = connection.getResponseCode();
+            drainResponse(connection, statusCode);
+            bodyConsumed = true;
+
+            long elapsed = SystemClock.elapsedRealtime() - startedAt;
+            warmSinceMs = SystemClock.elapsedRealtime();
+            NetworkMetrics.getInstance().recordPreconnect(elapsed, true);
+            Log.d(TAG, "Pre-warmed connection to " + target.getHost() + " in " + elapsed + " ms");
+        } catch (IOException e) {
+            NetworkMetrics.getInstance().recordPreconnect(SystemClock.elapsedRealtime() - startedAt, false);
+            Log.d(TAG, "Pre-warm of " + target.getHost() + " failed: " + e.getMessage());
+        } finally {
+            synchronized (preconnectLock) {
+                if (preconnectConnection == connection) {
+                    preconnectConnection = null;
+                }
+            }
+            releaseConnection(connection, bodyConsumed);
+        }
+    }
+
+    private boolean isConnectionWarm(long atMs) {
+        long warmSince = warmSinceMs;
+        return warmSince > 0 && atMs >= warmSince && atMs - warmSince <= WARM_CONNECTION_TTL_MS;
+    }
+
+    private void drainResponse(@NonNull HttpURLConnection connection, int statusCode) throws IOException {
+        InputStream stream = HttpCompression.openResponseStream(connection, statusCode);
+        if (stream == null) {
+            return;
+        }
+        ResponseBodyReader reader = ResponseBodyReader.getInstance();
+        byte[] buffer = reader.acquire(1024);
+        try (InputStream body = stream) {
+            while (body.read(buffer) != -1) {
+                // Discard; reading to the end lets the socket return to the keep-alive pool.
+            }
+        } finally {
+            reader.release(buffer);
+        }
+    }
+
     private URL parseUrl(@Nullable String urlValue) {
         if (urlValue == null || urlValue.trim().isEmpty()) {
             return null;
@@ -129,4 +330,11 @@ public class ServerConnectionManager {
     public interface ConnectionCallback {
         void onResult(boolean isConnected, @Nullable String errorMessage);
     }
+
+    public interface NetworkActivityListener {
+        /**
+         * Called on a network thread once a response has arrived. Must return quickly.
+         */
+        void onNetworkActivity();
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses a {@code text/event-stream} body into {@link PushEvent}s following the HTML
+ * server-sent events rules: {@code data} lines are joined with newlines, the last {@code id}
+ * carries over to later events, lines starting with a colon are comments (servers send them as
+ * heartbeats) and an event is dispatched at each blank line.
+ */
+public final class ServerSentEventReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final StringBuilder data = new StringBuilder();
+    private String eventType = "";
+    @Nullable
+    private String lastEventId;
+    private long retryMs = -1L;
+    private long lineCount;
+
+    /**
+     * @param lastEventId the ID the previous connection ended on, which events without an
+     *                    {@code id} field inherit
+     */
+    public ServerSentEventReader(@NonNull InputStream input, @Nullable String lastEventId) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.lastEventId = lastEventId;
+    }
+
+    /**
+     * Blocks until the next complete event arrives.
+     *
+     * @return the event, or {@code null} once the stream ends; a trailing event without its blank
+     * line is discarded
+     */
+    @Nullable
+    public PushEvent next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (lineCount++ == 0 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            if (line.isEmpty()) {
+                PushEvent event = dispatch();
+                if (event != null) {
+                    return event;
+                }
+                continue;
+            }
+            if (line.charAt(0) == ':') {
+                // Comment, typically a heartbeat; reading it already reset the read timeout.
+                continue;
+            }
+            int colon = line.indexOf(':');
+            String field = colon >= 0 ? line.substring(0, colon) : line;
+            String value = colon >= 0 ? line.substring(colon + 1) : "";
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            processField(field, value);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the ID to send as {@code Last-Event-ID} when reconnecting.
+     */
+    @Nullable
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Returns the reconnection delay the server last asked for, or {@code -1} if it has not.
+     */
+    public long getRetryMs() {
+        return retryMs;
+    }
+
+    /**
+     * Returns how many lines have been read, heartbeats included.
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void processField(@NonNull String field, @NonNull String value) {
+        switch (field) {
+            case "data":
+                data.append(value).append('\n');
+                break;
+            case "event":
+                eventType = value;
+                break;
+            case "id":
+                if (value.indexOf('\u0000') < 0) {
+                    lastEventId = value.isEmpty() ? null : value;
+                }
+                break;
+            case "retry":
+                if (!value.isEmpty() && isDigits(value)) {
+                    try {
+                        retryMs = Long.parseLong(value);
+                    } catch (NumberFormatException ignored) {
+                        // Too large to be meaningful.
+                    }
+                }
+                break;
+            default:
+                // Unknown fields are ignored.
+                break;
+        }
+    }
+
+    @Nullable
+    private PushEvent dispatch() {
+        String type = eventType.isEmpty() ? PushEvent.DEFAULT_TYPE : eventType;
+        eventType = "";
+        if (data.length() == 0) {
+            return null;
+        }
+        data.setLength(data.length() - 1);
+        PushEvent event = new PushEvent(lastEventId, type, data.toString());
+        data.setLength(0);
+        return event;
+    }
+
+    private static boolean isDigits(@NonNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
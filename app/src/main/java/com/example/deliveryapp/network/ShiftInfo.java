@@ -3,10 +3,9 @@ package com.example.deliveryapp.network;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.Locale;
-
 /**
- * Represents a single shift entry returned by the Cindy's Bakeshop backend.
+ * Represents a single shift entry returned by the Cindy's Bakeshop backend. The raw status is
+ * kept for storage; {@link #getShiftStatus()} is its classification, made once on construction.
  */
 public final class ShiftInfo {
 
@@ -30,6 +29,11 @@ public final class ShiftInfo {
     private final String notes;
     @Nullable
     private final String location;
+    private final ShiftStatus shiftStatus;
+    private final boolean started;
+    private final boolean ended;
+    @Nullable
+    private final String statusLabel;
 
     public ShiftInfo(
             int id,
@@ -55,6 +59,14 @@ public final class ShiftInfo {
         this.status = status;
         this.notes = notes;
         this.location = location;
+        this.shiftStatus = ShiftStatus.classify(status);
+        this.started = !StatusCodes.isBlank(actualStart);
+        this.ended = !StatusCodes.isBlank(actualEnd);
+        if (shiftStatus != ShiftStatus.UNKNOWN) {
+            this.statusLabel = shiftStatus.getLabel();
+        } else {
+            this.statusLabel = StatusCodes.isBlank(status) ? null : StatusCodes.toLabel(status);
+        }
     }
 
     public int getId() {
@@ -110,41 +122,37 @@ public final class ShiftInfo {
         return location;
     }
 
+    @NonNull
+    public ShiftStatus getShiftStatus() {
+        return shiftStatus;
+    }
+
+    /**
+     * Returns the status as shown to riders, e.g. {@code In Progress}, or {@code null} when the
+     * backend sent none. Unrecognised statuses are title-cased as received.
+     */
+    @Nullable
+    public String getStatusLabel() {
+        return statusLabel;
+    }
+
     public boolean hasStarted() {
-        return actualStart != null && !actualStart.trim().isEmpty();
+        return started;
     }
 
     public boolean hasEnded() {
-        return actualEnd != null && !actualEnd.trim().isEmpty();
+        return ended;
     }
 
     public boolean isCompleted() {
-        if (hasEnded()) {
-            return true;
-        }
-        if (status == null) {
-            return false;
-        }
-        String normalized = status.trim().toLowerCase(Locale.US);
-        return normalized.equals("completed") || normalized.equals("finished");
+        return ended || shiftStatus == ShiftStatus.COMPLETED;
     }
 
     public boolean canStart() {
-        if (id <= 0) {
-            return false;
-        }
-        if (hasStarted()) {
-            return false;
-        }
-        if (status == null) {
-            return true;
-        }
-        String normalized = status.trim().toLowerCase(Locale.US);
-        return !normalized.equals("in_progress")
-                && !normalized.equals("completed")
-                && !normalized.equals("finished")
-                && !normalized.equals("cancelled")
-                && !normalized.equals("missed");
+        return id > 0
+                && !started
+                && shiftStatus != ShiftStatus.IN_PROGRESS
+                && shiftStatus.canTransitionTo(ShiftStatus.IN_PROGRESS);
     }
 
     @NonNull
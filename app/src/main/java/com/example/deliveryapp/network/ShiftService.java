@@ -11,21 +11,18 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Handles loading and updating shift information via the Cindy's Bakeshop PHP endpoints.
@@ -36,6 +33,15 @@ public class ShiftService {
         void onSuccess(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage);
 
         void onError(@NonNull String errorMessage);
+
+        /**
+         * Called instead of {@link #onSuccess} when the server returned exactly what it did last
+         * time for this rider; {@code shifts} is the same list delivered then. Screens still
+         * showing that list can skip rebinding it.
+         */
+        default void onUnchanged(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
+            onSuccess(shifts, serverMessage);
+        }
     }
 
     public interface ShiftActionCallback {
@@ -44,6 +50,11 @@ public class ShiftService {
         void onError(@NonNull String errorMessage);
     }
 
+    /** Shown when a web server answers with an HTML page, usually because a path is misconfigured. */
+    private static final String HTML_RESPONSE_MESSAGE = "Shift service returned HTML instead of JSON. Verify the configured "
+            + "SHIFT_SCHEDULE_PATH and SHIFT_ACTION_PATH point to PHP endpoints that return JSON as described in the "
+            + "Cindy's Bakeshop shift_functions.php utilities.";
+
     private final Handler mainHandler;
     private final ServerConnectionManager connectionManager;
 
@@ -52,38 +63,69 @@ public class ShiftService {
         mainHandler = connectionManager.getMainThreadHandler();
     }
 
-    public void fetchShifts(int userId, @NonNull ShiftFetchCallback callback) {
+    /**
+     * Loads the rider's shift schedule. The callback is not invoked if the returned handle is
+     * cancelled first.
+     */
+    @NonNull
+    public RequestHandle fetchShifts(int userId, @NonNull ShiftFetchCallback callback) {
+        return fetchShifts(userId, callback, mainHandler::post);
+    }
+
+    /**
+     * Like {@link #fetchShifts(int, ShiftFetchCallback)}, completing on the network thread, where
+     * the schedule is also parsed. The schedule carries the server message along with the shifts.
+     * Cancelling the future cancels the request.
+     */
+    @NonNull
+    public NetworkFuture<ShiftSchedule> fetchShiftsAsync(int userId) {
+        NetworkFuture<ShiftSchedule> future = new NetworkFuture<>();
+        RequestHandle handle = fetchShifts(userId, new ShiftFetchCallback() {
+            @Override
+            public void onSuccess(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
+                future.complete(new ShiftSchedule(shifts, serverMessage));
+            }
+
+            @Override
+            public void onError(@NonNull String errorMessage) {
+                future.fail(errorMessage);
+            }
+        }, NetworkFuture.DIRECT);
+        future.onCancel(handle::cancel);
+        return future;
+    }
+
+    @NonNull
+    private RequestHandle fetchShifts(int userId, @NonNull ShiftFetchCallback callback, @NonNull Executor delivery) {
+        RequestHandle handle = new RequestHandle(mainHandler, delivery);
         if (userId <= 0) {
-            callback.onError("Missing or invalid staff user ID.");
-            return;
+            handle.deliverNow(() -> callback.onError("Missing or invalid staff user ID."));
+            return handle;
         }
 
         URL endpoint = connectionManager.buildUrl(AppConfig.SHIFT_SCHEDULE_PATH);
         if (endpoint == null) {
-            callback.onError("Shift endpoint URL could not be resolved.");
-            return;
+            handle.deliverNow(() -> callback.onError("Shift endpoint URL could not be resolved."));
+            return handle;
         }
 
-        String fetchAction = AppConfig.SHIFT_FETCH_ACTION != null && !AppConfig.SHIFT_FETCH_ACTION.trim().isEmpty()
-                ? AppConfig.SHIFT_FETCH_ACTION
-                : "get_shift_schedules";
+        Map<String, String> formFields = buildFetchFormFields(userId);
 
-        Map<String, String> formFields = new LinkedHashMap<>();
-        formFields.put("action", fetchAction);
-        formFields.put("user_id", String.valueOf(userId));
+        String requestKey = String.valueOf(userId);
+        executeRequest(handle, endpoint, formFields, PollingScheduler.Endpoint.SHIFTS, requestKey, new JsonResponseHandler() {
+            @Override
+            public void onSuccess(@NonNull JSONObject body, long fingerprint) {
+                deliverFetchResult(toFetchResult(body), fingerprint, requestKey, callback);
+            }
 
-        executeRequest(endpoint, formFields, new JsonResponseHandler() {
             @Override
-            public void onSuccess(@NonNull JSONObject body) {
-                boolean success = isSuccess(body);
-                String message = extractMessage(body);
-                if (!success) {
-                    callback.onError(message != null ? message : "Failed to load shift data.");
-                    return;
-                }
+            public void onDecoded(@NonNull ShiftFetchResult result, long fingerprint) {
+                deliverFetchResult(result, fingerprint, requestKey, callback);
+            }
 
-                List<ShiftInfo> shifts = extractShifts(body);
-                callback.onSuccess(shifts, message);
+            @Override
+            public void onUnchanged(@NonNull ShiftFetchResult previous) {
+                callback.onUnchanged(previous.getShifts(), previous.serverMessage);
             }
 
             @Override
@@ -91,27 +133,79 @@ public class ShiftService {
                 callback.onError(errorMessage);
             }
         });
+        return handle;
     }
 
-    public void startShift(int shiftId, @NonNull ShiftActionCallback callback) {
-        if (shiftId <= 0) {
-            callback.onError("Invalid shift identifier.");
+    private void deliverFetchResult(
+            @NonNull ShiftFetchResult result,
+            long fingerprint,
+            @NonNull String requestKey,
+            @NonNull ShiftFetchCallback callback
+    ) {
+        if (result.errorMessage != null) {
+            ResponseFingerprints.getInstance().invalidate(PollingScheduler.Endpoint.SHIFTS);
+            callback.onError(result.errorMessage);
             return;
         }
 
+        // Handed out again for unchanged responses, so nobody may modify it.
+        result.shifts = Collections.unmodifiableList(result.getShifts());
+        ResponseFingerprints.getInstance().store(PollingScheduler.Endpoint.SHIFTS, requestKey, fingerprint, result);
+        callback.onSuccess(result.getShifts(), result.serverMessage);
+    }
+
+    /**
+     * Asks the server to start a shift. Cancelling the returned handle only drops the result; the
+     * server may still have started the shift, which the next schedule load shows.
+     */
+    @NonNull
+    public RequestHandle startShift(int shiftId, @NonNull ShiftActionCallback callback) {
+        return startShift(shiftId, callback, mainHandler::post);
+    }
+
+    /**
+     * Like {@link #startShift(int, ShiftActionCallback)}, completing on the network thread with the
+     * updated shift, if the server returned it.
+     */
+    @NonNull
+    public NetworkFuture<ShiftInfo> startShiftAsync(int shiftId) {
+        NetworkFuture<ShiftInfo> future = new NetworkFuture<>();
+        RequestHandle handle = startShift(shiftId, new ShiftActionCallback() {
+            @Override
+            public void onSuccess(@Nullable ShiftInfo updatedShift, @Nullable String serverMessage) {
+                future.complete(updatedShift);
+            }
+
+            @Override
+            public void onError(@NonNull String errorMessage) {
+                future.fail(errorMessage);
+            }
+        }, NetworkFuture.DIRECT);
+        future.onCancel(handle::cancel);
+        return future;
+    }
+
+    @NonNull
+    private RequestHandle startShift(int shiftId, @NonNull ShiftActionCallback callback, @NonNull Executor delivery) {
+        RequestHandle handle = new RequestHandle(mainHandler, delivery);
+        if (shiftId <= 0) {
+            handle.deliverNow(() -> callback.onError("Invalid shift identifier."));
+            return handle;
+        }
+
         URL endpointUrl = connectionManager.buildUrl(AppConfig.SHIFT_ACTION_PATH);
         if (endpointUrl == null) {
-            callback.onError("Shift action endpoint URL could not be resolved.");
-            return;
+            handle.deliverNow(() -> callback.onError("Shift action endpoint URL could not be resolved."));
+            return handle;
         }
 
         Map<String, String> formFields = new LinkedHashMap<>();
         formFields.put("action", AppConfig.SHIFT_START_ACTION);
         formFields.put("shift_id", String.valueOf(shiftId));
 
-        executeRequest(endpointUrl, formFields, new JsonResponseHandler() {
+        executeRequest(handle, endpointUrl, formFields, null, null, new JsonResponseHandler() {
             @Override
-            public void onSuccess(@NonNull JSONObject body) {
+            public void onSuccess(@NonNull JSONObject body, long fingerprint) {
                 boolean success = isSuccess(body);
                 String message = extractMessage(body);
                 if (!success) {
@@ -128,66 +222,174 @@ public class ShiftService {
                 callback.onError(errorMessage);
             }
         });
+        return handle;
     }
 
-    private void executeRequest(@NonNull URL url, @NonNull Map<String, String> formFields, @NonNull JsonResponseHandler handler) {
+    /**
+     * @param handle       cancels the request; the handler is only called through it
+     * @param pollEndpoint the list this request polls, reported to the {@link PollingScheduler},
+     *                     or {@code null} for actions
+     * @param requestKey   for list requests, who the list is for; a response matching the last
+     *                     one stored in {@link ResponseFingerprints} under it is not parsed
+     */
+    private void executeRequest(
+            @NonNull RequestHandle handle,
+            @NonNull URL url,
+            @NonNull Map<String, String> formFields,
+            @Nullable PollingScheduler.Endpoint pollEndpoint,
+            @Nullable String requestKey,
+            @NonNull JsonResponseHandler handler
+    ) {
+        byte[] payload = buildFormPayload(formFields).getBytes(StandardCharsets.UTF_8);
+        HttpRequest.Builder builder = new HttpRequest.Builder(url)
+                .post(payload, "application/x-www-form-urlencoded")
+                // Loading the schedule is a read despite the POST; starting a shift is not.
+                .idempotent(pollEndpoint != null)
+                .htmlErrorMessage(HTML_RESPONSE_MESSAGE);
+        if (pollEndpoint != null) {
+            // Only schedule loads can be decoded from CBOR; actions stay JSON.
+            builder.header("Accept", CborPayloads.ACCEPT_HEADER);
+        }
+        HttpRequest request = builder.build();
         connectionManager.getNetworkExecutor().execute(() -> {
-            HttpURLConnection connection = null;
             try {
-                connection = (HttpURLConnection) url.openConnection();
-                connection.setConnectTimeout(10_000);
-                connection.setReadTimeout(10_000);
-                connection.setRequestMethod("POST");
-                connection.setDoInput(true);
-                connection.setDoOutput(true);
-                connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-
-                String payload = buildFormPayload(formFields);
-                byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
-                connection.setFixedLengthStreamingMode(payloadBytes.length);
-
-                try (OutputStream outputStream = connection.getOutputStream()) {
-                    outputStream.write(payloadBytes);
-                    outputStream.flush();
+                HttpResponse response = connectionManager.execute(request, handle);
+                if (handle.isCancelled()) {
+                    return;
+                }
+                String bodyString = response.getBody();
+                long bodyFingerprint = response.bodyFingerprint();
+                if (pollEndpoint != null) {
+                    PollingScheduler.getInstance().recordResponse(
+                            pollEndpoint,
+                            response.getStatusCode(),
+                            bodyFingerprint,
+                            response.getHeader(PollingScheduler.POLL_INTERVAL_HEADER),
+                            response.getHeader("Retry-After"),
+                            System.currentTimeMillis()
+                    );
                 }
 
-                int statusCode = connection.getResponseCode();
-                String bodyString = readResponseBody(connection, statusCode);
+                long fingerprint = ResponseFingerprints.fingerprint(ResponseFingerprints.serverHash(response), bodyFingerprint);
+                if (pollEndpoint != null && requestKey != null && response.getErrorMessage() == null) {
+                    ShiftFetchResult previous = ResponseFingerprints.getInstance()
+                            .match(pollEndpoint, requestKey, fingerprint, ShiftFetchResult.class);
+                    if (previous != null) {
+                        handle.post(() -> handler.onUnchanged(previous));
+                        return;
+                    }
+                }
 
-                if (statusCode < 200 || statusCode >= 300) {
-                    final String errorMessage = buildHttpErrorMessage(statusCode, bodyString);
-                    postToMain(() -> handler.onError(errorMessage));
+                byte[] binaryBody = response.getBinaryBody();
+                if (binaryBody != null && response.getErrorMessage() == null) {
+                    ShiftFetchResult decoded = decodeFetchResult(binaryBody);
+                    handle.post(() -> handler.onDecoded(decoded, fingerprint));
                     return;
                 }
 
-                JSONObject body = normalizeJsonPayload(bodyString);
-                if (body == null) {
-                    final String finalMessage = looksLikeHtml(bodyString)
-                            ? htmlFallbackMessage()
-                            : "Server returned an unexpected response.";
-                    postToMain(() -> handler.onError(finalMessage));
+                ParsedResponse parsed = parseResponse(response.getErrorMessage(), bodyString);
+                if (parsed.errorMessage != null) {
+                    if (pollEndpoint != null) {
+                        ResponseFingerprints.getInstance().invalidate(pollEndpoint);
+                    }
+                    final String errorMessage = parsed.errorMessage;
+                    handle.post(() -> handler.onError(errorMessage));
                     return;
                 }
 
-                JSONObject finalBody = body;
-                postToMain(() -> handler.onSuccess(finalBody));
+                JSONObject finalBody = parsed.body;
+                handle.post(() -> handler.onSuccess(finalBody, fingerprint));
             } catch (IOException e) {
-                postToMain(() -> handler.onError(e.getMessage() != null ? e.getMessage() : "Network request failed."));
-            } finally {
-                if (connection != null) {
-                    connection.disconnect();
+                if (handle.isCancelled()) {
+                    // The connection was aborted on purpose; nothing failed.
+                    return;
                 }
+                if (pollEndpoint != null) {
+                    ResponseFingerprints.getInstance().invalidate(pollEndpoint);
+                    PollingScheduler.getInstance().recordFailure(pollEndpoint);
+                }
+                handle.post(() -> handler.onError(e.getMessage() != null ? e.getMessage() : "Network request failed."));
             }
         });
     }
 
-    private void postToMain(@NonNull Runnable runnable) {
-        mainHandler.post(runnable);
+    @NonNull
+    static Map<String, String> buildFetchFormFields(int userId) {
+        String fetchAction = AppConfig.SHIFT_FETCH_ACTION != null && !AppConfig.SHIFT_FETCH_ACTION.trim().isEmpty()
+                ? AppConfig.SHIFT_FETCH_ACTION
+                : "get_shift_schedules";
+
+        Map<String, String> formFields = new LinkedHashMap<>();
+        formFields.put("action", fetchAction);
+        formFields.put("user_id", String.valueOf(userId));
+        return formFields;
+    }
+
+    /**
+     * Turns a raw shift schedule response into the driver's shifts. Shared by the direct request
+     * path and {@link BatchService}.
+     */
+    @NonNull
+    ShiftFetchResult interpretShiftFetchResponse(int statusCode, @NonNull String bodyString) {
+        String httpError = ErrorNormalizationInterceptor.describe(statusCode, bodyString, HTML_RESPONSE_MESSAGE);
+        ParsedResponse parsed = parseResponse(httpError, bodyString);
+        if (parsed.errorMessage != null) {
+            ShiftFetchResult result = new ShiftFetchResult();
+            result.errorMessage = parsed.errorMessage;
+            return result;
+        }
+        return toFetchResult(parsed.body);
+    }
+
+    @NonNull
+    private ShiftFetchResult decodeFetchResult(@NonNull byte[] body) {
+        CborPayloads.Payload<List<ShiftInfo>> payload = CborPayloads.decodeShifts(body);
+        ShiftFetchResult result = new ShiftFetchResult();
+        result.shifts = payload.value;
+        result.serverMessage = payload.serverMessage;
+        result.errorMessage = payload.errorMessage;
+        return result;
+    }
+
+    /**
+     * @param httpError the normalized error for the response, or {@code null} if it succeeded
+     */
+    @NonNull
+    private ParsedResponse parseResponse(@Nullable String httpError, @NonNull String bodyString) {
+        ParsedResponse parsed = new ParsedResponse();
+        if (httpError != null) {
+            parsed.errorMessage = httpError;
+            return parsed;
+        }
+
+        JSONObject body = normalizeJsonPayload(bodyString);
+        if (body == null) {
+            parsed.errorMessage = ErrorNormalizationInterceptor.UNEXPECTED_RESPONSE_MESSAGE;
+            return parsed;
+        }
+
+        parsed.body = body;
+        return parsed;
+    }
+
+    @NonNull
+    private ShiftFetchResult toFetchResult(@NonNull JSONObject body) {
+        ShiftFetchResult result = new ShiftFetchResult();
+        boolean success = isSuccess(body);
+        String message = extractMessage(body);
+        if (!success) {
+            result.errorMessage = message != null ? message : "Failed to load shift data.";
+            return result;
+        }
+
+        result.shifts = extractShifts(body);
+        result.serverMessage = message;
+        return result;
     }
 
     @Nullable
     private JSONObject normalizeJsonPayload(@NonNull String bodyString) {
-        Object parsed = parseJsonValue(bodyString);
+        Object parsed = JsonBodies.parse(bodyString);
         if (parsed instanceof JSONObject) {
             return (JSONObject) parsed;
         }
@@ -207,24 +409,6 @@ public class ShiftService {
         return null;
     }
 
-    @Nullable
-    private Object parseJsonValue(@NonNull String bodyString) {
-        String trimmed = bodyString.trim();
-        if (trimmed.isEmpty()) {
-            return new JSONObject();
-        }
-        try {
-            return new JSONObject(trimmed);
-        } catch (JSONException ignored) {
-            // Try parsing as an array next.
-        }
-        try {
-            return new JSONArray(trimmed);
-        } catch (JSONException ignored) {
-            return null;
-        }
-    }
-
     private boolean isSuccess(@NonNull JSONObject body) {
         if (body.length() == 0) {
             return true;
@@ -254,22 +438,15 @@ public class ShiftService {
 
     @Nullable
     private String extractMessage(@NonNull JSONObject body) {
-        String[] keys = new String[]{"message", "info", "detail", "error", "reason"};
-        for (String key : keys) {
-            if (body.has(key) && !body.isNull(key)) {
-                String value = body.optString(key, "").trim();
-                if (!value.isEmpty()) {
-                    return value;
-                }
-            }
-        }
-        return null;
+        return JsonBodies.firstString(body, "message", "info", "detail", "error", "reason");
     }
 
     @NonNull
     private List<ShiftInfo> extractShifts(@NonNull JSONObject body) {
         List<ShiftInfo> shifts = new ArrayList<>();
         Set<Integer> seenIds = new LinkedHashSet<>();
+        // Shifts repeat the same times, status, branch and staff name; share them for this parse.
+        StringDeduplicator strings = new StringDeduplicator();
 
         JSONArray dataArray = null;
         if (body.has("shifts") && !body.isNull("shifts")) {
@@ -281,7 +458,7 @@ public class ShiftService {
             if (dataObject instanceof JSONArray) {
                 dataArray = (JSONArray) dataObject;
             } else if (dataObject instanceof JSONObject) {
-                ShiftInfo parsed = parseShift((JSONObject) dataObject);
+                ShiftInfo parsed = parseShift((JSONObject) dataObject, strings);
                 addShiftIfNew(shifts, seenIds, parsed);
             }
         }
@@ -289,18 +466,18 @@ public class ShiftService {
         if (dataArray != null) {
             for (int i = 0; i < dataArray.length(); i++) {
                 JSONObject item = dataArray.optJSONObject(i);
-                ShiftInfo parsed = parseShift(item);
+                ShiftInfo parsed = parseShift(item, strings);
                 addShiftIfNew(shifts, seenIds, parsed);
             }
         }
 
         JSONObject shiftObject = body.optJSONObject("shift");
         if (shiftObject != null) {
-            ShiftInfo parsed = parseShift(shiftObject);
+            ShiftInfo parsed = parseShift(shiftObject, strings);
             addShiftIfNew(shifts, seenIds, parsed);
         }
 
-        ShiftInfo direct = parseShift(body);
+        ShiftInfo direct = parseShift(body, strings);
         addShiftIfNew(shifts, seenIds, direct);
 
         return shifts;
@@ -324,9 +501,10 @@ public class ShiftService {
 
     @Nullable
     private ShiftInfo extractShift(@NonNull JSONObject body) {
+        StringDeduplicator strings = new StringDeduplicator();
         JSONObject candidate = body.optJSONObject("shift");
         if (candidate != null) {
-            ShiftInfo parsed = parseShift(candidate);
+            ShiftInfo parsed = parseShift(candidate, strings);
             if (parsed != null) {
                 return parsed;
             }
@@ -335,7 +513,7 @@ public class ShiftService {
         JSONArray shiftsArray = body.optJSONArray("shifts");
         if (shiftsArray != null && shiftsArray.length() > 0) {
             JSONObject first = shiftsArray.optJSONObject(0);
-            ShiftInfo parsed = parseShift(first);
+            ShiftInfo parsed = parseShift(first, strings);
             if (parsed != null) {
                 return parsed;
             }
@@ -343,7 +521,7 @@ public class ShiftService {
 
         Object dataObject = body.opt("data");
         if (dataObject instanceof JSONObject) {
-            ShiftInfo parsed = parseShift((JSONObject) dataObject);
+            ShiftInfo parsed = parseShift((JSONObject) dataObject, strings);
             if (parsed != null) {
                 return parsed;
             }
@@ -351,14 +529,14 @@ public class ShiftService {
             JSONArray dataArray = (JSONArray) dataObject;
             if (dataArray.length() > 0) {
                 JSONObject first = dataArray.optJSONObject(0);
-                ShiftInfo parsed = parseShift(first);
+                ShiftInfo parsed = parseShift(first, strings);
                 if (parsed != null) {
                     return parsed;
                 }
             }
         }
 
-        ShiftInfo direct = parseShift(body);
+        ShiftInfo direct = parseShift(body, strings);
         if (direct != null && direct.getId() > 0) {
             return direct;
         }
@@ -367,25 +545,25 @@ public class ShiftService {
     }
 
     @Nullable
-    private ShiftInfo parseShift(@Nullable JSONObject jsonObject) {
+    private ShiftInfo parseShift(@Nullable JSONObject jsonObject, @NonNull StringDeduplicator strings) {
         if (jsonObject == null) {
             return null;
         }
 
         int shiftId = optInt(jsonObject, -1, "Shift_ID", "shift_id", "id");
         int userId = optInt(jsonObject, 0, "User_ID", "user_id", "staff_id", "Store_Staff_ID");
-        String shiftDate = optString(jsonObject, "Shift_Date", "shift_date", "date");
-        String scheduledStart = optString(jsonObject, "Scheduled_Start", "scheduled_start", "start_time", "start");
-        String scheduledEnd = optString(jsonObject, "Scheduled_End", "scheduled_end", "end_time", "end");
+        String shiftDate = strings.dedupe(optString(jsonObject, "Shift_Date", "shift_date", "date"));
+        String scheduledStart = strings.dedupe(optString(jsonObject, "Scheduled_Start", "scheduled_start", "start_time", "start"));
+        String scheduledEnd = strings.dedupe(optString(jsonObject, "Scheduled_End", "scheduled_end", "end_time", "end"));
         String actualStart = optString(jsonObject, "Actual_Start", "actual_start", "clock_in", "start_actual");
         String actualEnd = optString(jsonObject, "Actual_End", "actual_end", "clock_out", "end_actual");
-        String status = optString(jsonObject, "Status", "status", "Shift_Status", "shift_status");
+        String status = strings.dedupe(optString(jsonObject, "Status", "status", "Shift_Status", "shift_status"));
         String notes = optString(jsonObject, "Notes", "notes", "comment", "remarks");
-        String location = firstNonEmpty(
+        String location = strings.dedupe(firstNonEmpty(
                 optString(jsonObject, "Location", "location", "Branch", "branch", "Store", "store"),
                 notes
-        );
-        String staffName = optString(jsonObject, "Name", "name", "Staff_Name", "staff_name", "employee_name");
+        ));
+        String staffName = strings.dedupe(optString(jsonObject, "Name", "name", "Staff_Name", "staff_name", "employee_name"));
 
         return new ShiftInfo(
                 shiftId,
@@ -448,53 +626,6 @@ public class ShiftService {
         return null;
     }
 
-    private String buildHttpErrorMessage(int code, @NonNull String rawBody) {
-        if (looksLikeHtml(rawBody)) {
-            if (code == 404) {
-                return "Shift endpoint was not found (HTTP 404). Confirm the SHIFT_SCHEDULE_PATH build property points to the correct PHP script.";
-            }
-            return htmlFallbackMessage();
-        }
-
-        Object parsed = parseJsonValue(rawBody);
-        if (parsed instanceof JSONObject) {
-            JSONObject json = (JSONObject) parsed;
-            String message = extractMessage(json);
-            if (message != null && !message.isEmpty()) {
-                return message;
-            }
-        } else if (parsed instanceof JSONArray) {
-            JSONArray array = (JSONArray) parsed;
-            if (array.length() > 0) {
-                JSONObject first = array.optJSONObject(0);
-                if (first != null) {
-                    String message = extractMessage(first);
-                    if (message != null && !message.isEmpty()) {
-                        return message;
-                    }
-                }
-            }
-        }
-
-        if (!rawBody.trim().isEmpty()) {
-            return "HTTP " + code + ": " + rawBody.trim();
-        }
-        return "HTTP " + code;
-    }
-
-    private boolean looksLikeHtml(@NonNull String value) {
-        String trimmed = value.trim();
-        if (trimmed.isEmpty()) {
-            return false;
-        }
-        String lower = trimmed.toLowerCase(Locale.US);
-        return lower.startsWith("<!doctype") || lower.startsWith("<html") || lower.contains("<body");
-    }
-
-    private String htmlFallbackMessage() {
-        return "Shift service returned HTML instead of JSON. Verify the configured PHP endpoint returns JSON as described in the Cindy's Bakeshop shift_functions.php utilities.";
-    }
-
     @NonNull
     private String buildFormPayload(@NonNull Map<String, String> formFields) {
         StringBuilder builder = new StringBuilder();
@@ -514,25 +645,71 @@ public class ShiftService {
         return java.net.URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
-    @NonNull
-    private String readResponseBody(@NonNull HttpURLConnection connection, int statusCode) throws IOException {
-        InputStream stream = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
-        if (stream == null) {
-            return "";
-        }
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-            StringBuilder builder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
-            }
-            return builder.toString();
+    /**
+     * A rider's shifts together with the message the server sent with them.
+     */
+    public static final class ShiftSchedule {
+        @NonNull
+        private final List<ShiftInfo> shifts;
+        @Nullable
+        private final String serverMessage;
+
+        ShiftSchedule(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
+            this.shifts = shifts;
+            this.serverMessage = serverMessage;
+        }
+
+        @NonNull
+        public List<ShiftInfo> getShifts() {
+            return shifts;
+        }
+
+        @Nullable
+        public String getServerMessage() {
+            return serverMessage;
+        }
+    }
+
+    static class ShiftFetchResult {
+        @Nullable
+        List<ShiftInfo> shifts;
+        @Nullable
+        String serverMessage;
+        @Nullable
+        String errorMessage;
+
+        @NonNull
+        List<ShiftInfo> getShifts() {
+            return shifts != null ? shifts : Collections.<ShiftInfo>emptyList();
         }
     }
 
+    private static class ParsedResponse {
+        @Nullable
+        JSONObject body;
+        @Nullable
+        String errorMessage;
+    }
+
     private interface JsonResponseHandler {
-        void onSuccess(@NonNull JSONObject body);
+        /**
+         * @param fingerprint identifies the response content for {@link ResponseFingerprints}
+         */
+        void onSuccess(@NonNull JSONObject body, long fingerprint);
 
         void onError(@NonNull String errorMessage);
+
+        /**
+         * Called instead of {@link #onSuccess} for list requests answered in CBOR, with the
+         * decoded result.
+         */
+        default void onDecoded(@NonNull ShiftFetchResult result, long fingerprint) {
+        }
+
+        /**
+         * Called for list requests whose response matched the last stored result.
+         */
+        default void onUnchanged(@NonNull ShiftFetchResult previous) {
+        }
     }
 }
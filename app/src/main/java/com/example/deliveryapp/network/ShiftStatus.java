@@ -0,0 +1,114 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Canonical lifecycle state of a shift, classified once by {@link ShiftInfo} from the backend's
+ * free-form status.
+ *
+ * <p>A {@link #SCHEDULED} shift is started ({@link #IN_PROGRESS}), cancelled or missed; a shift in
+ * progress is completed or cancelled. {@link #COMPLETED}, {@link #CANCELLED} and {@link #MISSED}
+ * are terminal. {@link #UNKNOWN} covers statuses the app does not recognise and may move
+ * anywhere, so an unfamiliar status never locks the rider out of starting a shift.</p>
+ *
+ * <p>The states that stop a shift from starting or mark it completed are matched exactly
+ * (trimmed, any case), as {@link ShiftInfo} always has: {@code in_progress}, {@code completed},
+ * {@code finished}, {@code cancelled} and {@code missed}. Only the scheduled spellings go through
+ * the looser alias table.</p>
+ */
+public enum ShiftStatus {
+
+    UNKNOWN("unknown"),
+    SCHEDULED("scheduled"),
+    IN_PROGRESS("in_progress"),
+    COMPLETED("completed"),
+    CANCELLED("cancelled"),
+    MISSED("missed");
+
+    private static final StatusCodes<ShiftStatus> CODES = new StatusCodes<ShiftStatus>(8)
+            .add("scheduled", SCHEDULED)
+            .add("pending", SCHEDULED)
+            .add("upcoming", SCHEDULED)
+            .add("assigned", SCHEDULED);
+
+    private static final String[] EXACT_CODES = {"in_progress", "completed", "finished", "cancelled", "missed"};
+    private static final ShiftStatus[] EXACT_STATES = {IN_PROGRESS, COMPLETED, COMPLETED, CANCELLED, MISSED};
+
+    private static final int[] TRANSITIONS = new int[values().length];
+
+    static {
+        for (ShiftStatus status : values()) {
+            allow(status, status);
+            allow(UNKNOWN, status);
+            allow(status, UNKNOWN);
+        }
+        allow(SCHEDULED, IN_PROGRESS);
+        allow(SCHEDULED, CANCELLED);
+        allow(SCHEDULED, MISSED);
+        allow(IN_PROGRESS, COMPLETED);
+        allow(IN_PROGRESS, CANCELLED);
+        // Terminal states only ever repeat or fall back to UNKNOWN.
+    }
+
+    private final String code;
+    private final String label;
+
+    ShiftStatus(@NonNull String code) {
+        this.code = code;
+        this.label = StatusCodes.toLabel(code);
+    }
+
+    /**
+     * Classifies a raw backend status without allocating. Unrecognised values, including
+     * {@code null} and spellings such as {@code "In Progress"}, are {@link #UNKNOWN}.
+     */
+    @NonNull
+    public static ShiftStatus classify(@Nullable String raw) {
+        if (raw == null) {
+            return UNKNOWN;
+        }
+        for (int i = 0; i < EXACT_CODES.length; i++) {
+            if (StatusCodes.equalsTrimmedIgnoreCase(raw, EXACT_CODES[i])) {
+                return EXACT_STATES[i];
+            }
+        }
+        ShiftStatus status = CODES.lookup(raw);
+        return status != null ? status : UNKNOWN;
+    }
+
+    /**
+     * Returns the canonical snake_case code, e.g. {@code in_progress}.
+     */
+    @NonNull
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the title-cased code, e.g. {@code In Progress}.
+     */
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns {@code true} for states a shift never leaves.
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == CANCELLED || this == MISSED;
+    }
+
+    /**
+     * Returns whether a shift in this state may next be reported as {@code next}. Repeating
+     * the same state is always allowed.
+     */
+    public boolean canTransitionTo(@NonNull ShiftStatus next) {
+        return (TRANSITIONS[ordinal()] & (1 << next.ordinal())) != 0;
+    }
+
+    private static void allow(@NonNull ShiftStatus from, @NonNull ShiftStatus to) {
+        TRANSITIONS[from.ordinal()] |= 1 << to.ordinal();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Maps raw status strings from the PHP backend to enum constants without allocating. The
+ * backend is inconsistent about case, padding and separators ({@code "In Progress"},
+ * {@code " in_progress"}, {@code "IN-PROGRESS"}), so raw values are compared in a normalized
+ * form: surrounding whitespace dropped, letters lower-cased and each run of spaces, hyphens or
+ * underscores read as one underscore. Lookups hash that form on the fly into a small
+ * open-addressing table and confirm the hit character by character.
+ */
+final class StatusCodes<E extends Enum<E>> {
+
+    private final long[] hashes;
+    private final String[] aliases;
+    private final Object[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * @param maxAliases the most aliases that will be added; the table is sized for a low load
+     */
+    StatusCodes(int maxAliases) {
+        int capacity = Integer.highestOneBit(Math.max(4, maxAliases * 4) - 1) << 1;
+        hashes = new long[capacity];
+        aliases = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Registers {@code alias}, which must already be in normalized form.
+     */
+    @NonNull
+    StatusCodes<E> add(@NonNull String alias, @NonNull E value) {
+        if (size * 2 >= aliases.length) {
+            throw new IllegalStateException("Status table is full");
+        }
+        long hash = normalizedHash(alias);
+        int slot = (int) hash & mask;
+        while (aliases[slot] != null) {
+            if (aliases[slot].equals(alias)) {
+                throw new IllegalArgumentException("Duplicate status alias " + alias);
+            }
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        aliases[slot] = alias;
+        values[slot] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * Returns the constant {@code raw} names, or {@code null} when it matches no alias.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    E lookup(@Nullable String raw) {
+        if (raw == null) {
+            return null;
+        }
+        long hash = normalizedHash(raw);
+        int slot = (int) hash & mask;
+        while (aliases[slot] != null) {
+            if (hashes[slot] == hash && matchesNormalized(raw, aliases[slot])) {
+                return (E) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether {@code raw} has no characters other than whitespace.
+     */
+    static boolean isBlank(@Nullable String raw) {
+        if (raw == null) {
+            return true;
+        }
+        for (int i = 0; i < raw.length(); i++) {
+            if (!Character.isWhitespace(raw.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether {@code raw} equals {@code code} once trimmed and lower-cased, without
+     * treating separators as equivalent. This is the stricter match the finished, earnings and
+     * shift-start checks have always used.
+     */
+    static boolean equalsTrimmedIgnoreCase(@NonNull String raw, @NonNull String code) {
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && raw.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end - start == code.length() && raw.regionMatches(true, start, code, 0, code.length());
+    }
+
+    /**
+     * Case-insensitive substring test that does not build lower-cased copies.
+     */
+    static boolean containsIgnoreCase(@NonNull String raw, @NonNull String needle) {
+        int last = raw.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if (raw.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 64-bit FNV-1a over the normalized form of {@code raw}.
+     */
+    static long normalizedHash(@NonNull String raw) {
+        long hash = 0xcbf29ce484222325L;
+        boolean pendingSeparator = false;
+        boolean emitted = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (isSeparator(c)) {
+                pendingSeparator = emitted;
+                continue;
+            }
+            if (pendingSeparator) {
+                hash = (hash ^ '_') * 0x100000001b3L;
+                pendingSeparator = false;
+            }
+            hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+            emitted = true;
+        }
+        return hash;
+    }
+
+    /**
+     * Compares the normalized form of {@code raw} with {@code normalized}.
+     */
+    static boolean matchesNormalized(@NonNull String raw, @NonNull String normalized) {
+        int position = 0;
+        boolean pendingSeparator = false;
+        boolean emitted = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (isSeparator(c)) {
+                pendingSeparator = emitted;
+                continue;
+            }
+            if (pendingSeparator) {
+                if (position >= normalized.length() || normalized.charAt(position++) != '_') {
+                    return false;
+                }
+                pendingSeparator = false;
+            }
+            if (position >= normalized.length() || normalized.charAt(position++) != Character.toLowerCase(c)) {
+                return false;
+            }
+            emitted = true;
+        }
+        return position == normalized.length();
+    }
+
+    /**
+     * Turns a normalized code such as {@code out_for_delivery} into {@code Out For Delivery}.
+     */
+    @NonNull
+    static String toLabel(@NonNull String raw) {
+        StringBuilder builder = new StringBuilder(raw.length());
+        boolean startOfWord = true;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (isSeparator(c)) {
+                startOfWord = true;
+                continue;
+            }
+            if (startOfWord && builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(startOfWord ? Character.toUpperCase(c) : Character.toLowerCase(c));
+            startOfWord = false;
+        }
+        return builder.toString();
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '_' || c == '-' || Character.isWhitespace(c);
+    }
+}
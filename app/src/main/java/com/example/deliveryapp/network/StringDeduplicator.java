@@ -0,0 +1,118 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Collapses equal strings met while parsing one response onto a single instance, so the hundreds
+ * of parsed orders or shifts that share a status, fulfillment type, branch or repeat customer's
+ * address keep one copy alive instead of one each.
+ *
+ * <p>A deduplicator is meant to live for a single parse and then be dropped; it never pins
+ * strings beyond that. It is bounded twice over: strings longer than
+ * {@link #DEFAULT_MAX_LENGTH} pass through untouched, since long values are rarely repeated, and
+ * once {@link #DEFAULT_CAPACITY} distinct values are held, new ones pass through too. Unlike
+ * {@link String#intern()} it does not touch the VM-wide string table.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public final class StringDeduplicator {
+
+    public static final int DEFAULT_CAPACITY = 512;
+    public static final int DEFAULT_MAX_LENGTH = 160;
+
+    private final String[] table;
+    private final int mask;
+    private final int capacity;
+    private final int maxLength;
+    private int size;
+    private int hits;
+    private int misses;
+    private long savedChars;
+
+    public StringDeduplicator() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity  most distinct strings held
+     * @param maxLength longest string considered
+     */
+    public StringDeduplicator(int capacity, int maxLength) {
+        this.capacity = Math.max(1, capacity);
+        this.maxLength = maxLength;
+        // At most half full, so probe sequences stay short.
+        int slots = Integer.highestOneBit(this.capacity * 2 - 1) << 1;
+        this.table = new String[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Returns the instance already seen that equals {@code value}, or records and returns
+     * {@code value} itself.
+     */
+    @Nullable
+    public String dedupe(@Nullable String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        int slot = spread(value.hashCode()) & mask;
+        String existing;
+        while ((existing = table[slot]) != null) {
+            if (existing.equals(value)) {
+                if (existing != value) {
+                    hits++;
+                    savedChars += value.length();
+                }
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        misses++;
+        if (size < capacity) {
+            table[slot] = value;
+            size++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns how many strings were replaced by an earlier equal instance.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many strings were new, including those not held because the table was full.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the characters in duplicates that are no longer retained.
+     */
+    public long getSavedChars() {
+        return savedChars;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "StringDeduplicator{held=%d, hits=%d, misses=%d, savedChars=%d}",
+                size,
+                hits,
+                misses,
+                savedChars
+        );
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.deliveryapp.network;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The last step of the {@link HttpPipeline}: sends the request over {@link HttpURLConnection}
+ * and reads the whole response, leaving the socket in the keep-alive pool when it can.
+ */
+final class UrlConnectionTransport implements HttpPipeline.Transport {
+
+    static final String CANCELLED_MESSAGE = "Request cancelled.";
+
+    @NonNull
+    @Override
+    public HttpResponse execute(@NonNull HttpRequest request, @Nullable RequestHandle handle) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) request.getUrl().openConnection();
+        boolean bodyConsumed = false;
+        try {
+            if (handle != null && !handle.attach(connection)) {
+                throw new InterruptedIOException(CANCELLED_MESSAGE);
+            }
+            connection.setConnectTimeout(request.getConnectTimeoutMs());
+            connection.setReadTimeout(request.getReadTimeoutMs());
+            connection.setRequestMethod(request.getMethod());
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            byte[] body = request.getBody();
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body);
+                    outputStream.flush();
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+            long receivedAt = SystemClock.elapsedRealtime();
+            HttpResponse response = readResponse(connection, statusCode, receivedAt);
+            bodyConsumed = true;
+            return response;
+        } finally {
+            ServerConnectionManager.releaseConnection(connection, bodyConsumed);
+        }
+    }
+
+    /**
+     * Reads successful CBOR bodies as bytes and everything else, including error pages, as text.
+     */
+    @NonNull
+    private static HttpResponse readResponse(@NonNull HttpURLConnection connection, int statusCode, long receivedAt)
+            throws IOException {
+        Map<String, List<String>> headers = connection.getHeaderFields();
+        InputStream stream = HttpCompression.openResponseStream(connection, statusCode);
+        if (stream == null) {
+            return new HttpResponse(statusCode, headers, "", receivedAt);
+        }
+        String encoding = connection.getContentEncoding();
+        boolean compressed = encoding != null && !encoding.trim().isEmpty() && !"identity".equalsIgnoreCase(encoding.trim());
+        long contentLength = connection.getContentLengthLong();
+        ResponseBodyReader reader = ResponseBodyReader.getInstance();
+        if (statusCode >= 200 && statusCode < 300 && CborPayloads.isCbor(connection.getContentType())) {
+            return new HttpResponse(statusCode, headers, reader.readBytes(stream, contentLength, compressed), receivedAt);
+        }
+        return new HttpResponse(statusCode, headers, reader.read(stream, contentLength, compressed), receivedAt);
+    }
+}
@@ -8,17 +8,14 @@ import androidx.annotation.Nullable;
 
 import com.example.deliveryapp.AppConfig;
 
-import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Resolves delivery user metadata from the Cindy's Bakeshop PHP APIs.
@@ -39,70 +36,128 @@ public class UserService {
         mainHandler = connectionManager.getMainThreadHandler();
     }
 
-    public void fetchUserIdByEmail(@NonNull String email, @NonNull UserIdCallback callback) {
+    /**
+     * Looks up the driver's user ID. The callback is not invoked if the returned handle is
+     * cancelled first.
+     */
+    @NonNull
+    public RequestHandle fetchUserIdByEmail(@NonNull String email, @NonNull UserIdCallback callback) {
+        return fetchUserIdByEmail(email, callback, mainHandler::post);
+    }
+
+    /**
+     * Like {@link #fetchUserIdByEmail(String, UserIdCallback)}, completing on the network thread.
+     * Cancelling the future cancels the request.
+     */
+    @NonNull
+    public NetworkFuture<Integer> fetchUserIdByEmailAsync(@NonNull String email) {
+        NetworkFuture<Integer> future = new NetworkFuture<>();
+        RequestHandle handle = fetchUserIdByEmail(email, new UserIdCallback() {
+            @Override
+            public void onSuccess(int userId) {
+                future.complete(userId);
+            }
+
+            @Override
+            public void onError(@NonNull String errorMessage) {
+                future.fail(errorMessage);
+            }
+        }, NetworkFuture.DIRECT);
+        future.onCancel(handle::cancel);
+        return future;
+    }
+
+    @NonNull
+    private RequestHandle fetchUserIdByEmail(
+            @NonNull String email,
+            @NonNull UserIdCallback callback,
+            @NonNull Executor delivery
+    ) {
+        RequestHandle handle = new RequestHandle(mainHandler, delivery);
         URL endpoint = connectionManager.buildUrl(AppConfig.USER_PROFILE_PATH);
         if (endpoint == null) {
-            postError(callback, "User profile endpoint URL could not be resolved.");
-            return;
+            postError(handle, callback, "User profile endpoint URL could not be resolved.");
+            return handle;
         }
 
         URL requestUrl = buildProfileUrl(endpoint, email);
         if (requestUrl == null) {
-            postError(callback, "Failed to build user profile request URL.");
-            return;
+            postError(handle, callback, "Failed to build user profile request URL.");
+            return handle;
         }
 
         connectionManager.getNetworkExecutor().execute(() -> {
-            HttpURLConnection connection = null;
             try {
-                connection = (HttpURLConnection) requestUrl.openConnection();
-                connection.setConnectTimeout(10_000);
-                connection.setReadTimeout(10_000);
-                connection.setRequestMethod("GET");
-                connection.connect();
-
-                int statusCode = connection.getResponseCode();
-                String bodyString = readResponseBody(connection, statusCode);
-                if (statusCode < 200 || statusCode >= 300) {
-                    String message = extractErrorMessage(bodyString);
-                    if (message == null) {
-                        message = "HTTP " + statusCode;
-                    }
-                    postError(callback, message);
+                HttpResponse response = connectionManager.execute(new HttpRequest.Builder(requestUrl).build(), handle);
+                if (handle.isCancelled()) {
                     return;
                 }
-
-                JSONObject body = parseJson(bodyString);
-                if (body == null) {
-                    postError(callback, "Server returned an unexpected response.");
+                UserIdResult result = interpretProfileResponse(response.getErrorMessage(), response.getBody());
+                if (result.errorMessage != null) {
+                    postError(handle, callback, result.errorMessage);
                     return;
                 }
 
-                int userId = extractUserId(body);
-                if (userId > 0) {
-                    postSuccess(callback, userId);
-                    return;
-                }
-
-                String message = extractErrorFromBody(body);
-                postError(callback, message != null ? message : "User profile did not include an ID.");
+                postSuccess(handle, callback, result.userId);
             } catch (IOException e) {
-                postError(callback, e.getMessage() != null ? e.getMessage() : "Unable to reach user service.");
-            } finally {
-                if (connection != null) {
-                    connection.disconnect();
+                if (handle.isCancelled()) {
+                    return;
                 }
+                postError(handle, callback, e.getMessage() != null ? e.getMessage() : "Unable to reach user service.");
             }
         });
+        return handle;
+    }
+
+    /**
+     * Extracts the driver's user ID from a raw profile response. Shared by the direct request path
+     * and {@link BatchService}.
+     */
+    @NonNull
+    UserIdResult interpretProfileResponse(int statusCode, @NonNull String bodyString) {
+        return interpretProfileResponse(ErrorNormalizationInterceptor.describe(statusCode, bodyString, null), bodyString);
+    }
+
+    @NonNull
+    private UserIdResult interpretProfileResponse(@Nullable String httpError, @NonNull String bodyString) {
+        UserIdResult result = new UserIdResult();
+        if (httpError != null) {
+            result.errorMessage = httpError;
+            return result;
+        }
+
+        JSONObject body = parseJson(bodyString);
+        if (body == null) {
+            result.errorMessage = ErrorNormalizationInterceptor.UNEXPECTED_RESPONSE_MESSAGE;
+            return result;
+        }
+
+        int userId = extractUserId(body);
+        if (userId > 0) {
+            result.userId = userId;
+            return result;
+        }
+
+        String message = extractErrorFromBody(body);
+        result.errorMessage = message != null ? message : "User profile did not include an ID.";
+        return result;
+    }
+
+    @NonNull
+    static Map<String, String> buildProfileParams(@NonNull String email) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("action", AppConfig.USER_PROFILE_ACTION);
+        params.put("email", email);
+        return params;
     }
 
     @Nullable
     private URL buildProfileUrl(@NonNull URL endpoint, @NonNull String email) {
-        Uri uri = Uri.parse(endpoint.toString())
-                .buildUpon()
-                .appendQueryParameter("action", AppConfig.USER_PROFILE_ACTION)
-                .appendQueryParameter("email", email)
-                .build();
+        Uri.Builder builder = Uri.parse(endpoint.toString()).buildUpon();
+        for (Map.Entry<String, String> entry : buildProfileParams(email).entrySet()) {
+            builder.appendQueryParameter(entry.getKey(), entry.getValue());
+        }
+        Uri uri = builder.build();
         try {
             return new URL(uri.toString());
         } catch (MalformedURLException e) {
@@ -110,12 +165,12 @@ public class UserService {
         }
     }
 
-    private void postSuccess(@NonNull UserIdCallback callback, int userId) {
-        mainHandler.post(() -> callback.onSuccess(userId));
+    private void postSuccess(@NonNull RequestHandle handle, @NonNull UserIdCallback callback, int userId) {
+        handle.post(() -> callback.onSuccess(userId));
     }
 
-    private void postError(@NonNull UserIdCallback callback, @NonNull String message) {
-        mainHandler.post(() -> callback.onError(message));
+    private void postError(@NonNull RequestHandle handle, @NonNull UserIdCallback callback, @NonNull String message) {
+        handle.post(() -> callback.onError(message));
     }
 
     @Nullable
@@ -123,11 +178,8 @@ public class UserService {
         if (value.trim().isEmpty()) {
             return new JSONObject();
         }
-        try {
-            return new JSONObject(value);
-        } catch (JSONException e) {
-            return null;
-        }
+        Object parsed = JsonBodies.parse(value);
+        return parsed instanceof JSONObject ? (JSONObject) parsed : null;
     }
 
     private int extractUserId(@NonNull JSONObject body) {
@@ -150,43 +202,12 @@ public class UserService {
 
     @Nullable
     private String extractErrorFromBody(@NonNull JSONObject body) {
-        if (body.has("error")) {
-            String value = body.optString("error", "").trim();
-            if (!value.isEmpty()) {
-                return value;
-            }
-        }
-        if (body.has("message")) {
-            String value = body.optString("message", "").trim();
-            if (!value.isEmpty()) {
-                return value;
-            }
-        }
-        return null;
+        return JsonBodies.firstString(body, "error", "message");
     }
 
-    @Nullable
-    private String extractErrorMessage(@NonNull String rawBody) {
-        JSONObject json = parseJson(rawBody);
-        if (json != null) {
-            return extractErrorFromBody(json);
-        }
-        return rawBody.isEmpty() ? null : rawBody;
-    }
-
-    @NonNull
-    private String readResponseBody(@NonNull HttpURLConnection connection, int statusCode) throws IOException {
-        InputStream stream = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
-        if (stream == null) {
-            return "";
-        }
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-            StringBuilder builder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
-            }
-            return builder.toString();
-        }
+    static class UserIdResult {
+        int userId = -1;
+        @Nullable
+        String errorMessage;
     }
 }
@@ -0,0 +1,53 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Decides which results of a {@link WarmUpPipeline} run may still be handed to a screen. Each
+ * node is handed out at most once per run, so a screen that is recreated later loads fresh data
+ * instead of rendering what was fetched at sign-in. Results also stop being handed out once they
+ * are older than the maximum age or the rider changed server state.
+ */
+final class WarmUpClaims {
+
+    private final long maxAgeMs;
+    private final Set<WarmUpPipeline.Node> claimed = EnumSet.noneOf(WarmUpPipeline.Node.class);
+    private boolean hasRun;
+    private long startedAtMs;
+    private boolean invalidated;
+
+    WarmUpClaims(long maxAgeMs) {
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * Starts tracking a new run whose results are all unclaimed.
+     */
+    void reset(long nowMs) {
+        hasRun = true;
+        startedAtMs = nowMs;
+        invalidated = false;
+        claimed.clear();
+    }
+
+    boolean isRecent(long nowMs) {
+        return hasRun && !invalidated && nowMs - startedAtMs <= maxAgeMs;
+    }
+
+    /**
+     * Returns {@code true} the first time {@code node} is claimed in a recent, valid run.
+     */
+    boolean claim(@NonNull WarmUpPipeline.Node node, long nowMs) {
+        return isRecent(nowMs) && claimed.add(node);
+    }
+
+    /**
+     * Stops handing out the current run's results.
+     */
+    void invalidate() {
+        invalidated = true;
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.deliveryapp.network;
+
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.deliveryapp.AppConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Prefetches the data the first screens need as soon as a signed-in rider is known. The fetches
+ * are modelled as a small dependency graph ({@code HEALTH} runs alongside {@code USER_ID}, which
+ * unlocks {@code SHIFTS} and {@code ORDERS}) and every node is launched as soon as its
+ * dependencies succeed, so independent branches run in parallel. A screen {@link #claim(Node)}s
+ * the node it renders, then subscribes with a {@link Listener} and receives each node's result as
+ * it completes. Every node can be claimed once per run, and {@link #invalidate()} stops handing
+ * out results after the rider changed server state, so recreated screens never render data that
+ * was fetched before a change.
+ *
+ * <p>All methods must be called on the main thread; the services deliver their callbacks there,
+ * which keeps the graph bookkeeping free of locks.</p>
+ */
+public final class WarmUpPipeline {
+
+    public enum Node {
+        HEALTH,
+        USER_ID,
+        SHIFTS(USER_ID),
+        ORDERS(USER_ID);
+
+        @NonNull
+        private final Node[] dependencies;
+
+        Node(@NonNull Node... dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        @NonNull
+        public Node[] getDependencies() {
+            return dependencies.clone();
+        }
+    }
+
+    public interface Listener {
+        void onNodeCompleted(@NonNull Node node, @NonNull NodeResult result);
+    }
+
+    /** Results older than this are treated as absent by {@link #hasRecentRun()} and {@link #claim(Node)}. */
+    public static final long RESULT_MAX_AGE_MS = 2 * 60 * 1000L;
+
+    private static volatile WarmUpPipeline instance;
+
+    private final ServerConnectionManager connectionManager;
+    private final UserService userService;
+    private final ShiftService shiftService;
+    private final OrderService orderService;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Node, NodeResult> results = new EnumMap<>(Node.class);
+    private final Map<Node, Boolean> running = new EnumMap<>(Node.class);
+    private final WarmUpClaims claims = new WarmUpClaims(RESULT_MAX_AGE_MS);
+
+    private int generation;
+    @Nullable
+    private String email;
+    @Nullable
+    private String healthPath;
+    private int cachedUserId = -1;
+
+    private WarmUpPipeline() {
+        connectionManager = ServerConnectionManager.getInstance();
+        userService = new UserService();
+        shiftService = new ShiftService();
+        orderService = new OrderService();
+    }
+
+    @NonNull
+    public static WarmUpPipeline getInstance() {
+        if (instance == null) {
+            synchronized (WarmUpPipeline.class) {
+                if (instance == null) {
+                    instance = new WarmUpPipeline();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts a fresh run for {@code riderEmail}. Results from a previous run are discarded and
+     * late callbacks belonging to it are ignored.
+     */
+    @MainThread
+    public void start(@Nullable String riderEmail, @Nullable String serverHealthPath) {
+        start(riderEmail, serverHealthPath, -1);
+    }
+
+    /**
+     * Like {@link #start(String, String)}, but trusts {@code knownUserId} (typically restored from
+     * the session snapshot) when positive, so shifts and orders do not wait on the profile lookup.
+     */
+    @MainThread
+    public void start(@Nullable String riderEmail, @Nullable String serverHealthPath, int knownUserId) {
+        generation++;
+        results.clear();
+        running.clear();
+        claims.reset(SystemClock.elapsedRealtime());
+        email = riderEmail != null ? riderEmail.trim() : null;
+        healthPath = serverHealthPath;
+        cachedUserId = knownUserId;
+        scheduleReadyNodes();
+    }
+
+    /**
+     * Returns {@code true} when a run was started recently enough, and not invalidated since, that
+     * starting another one would repeat its requests.
+     */
+    @MainThread
+    public boolean hasRecentRun() {
+        return claims.isRecent(SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Returns {@code true} when the caller may render the current run's result for {@code node},
+     * which is the case at most once per run. Callers that get {@code false} load their own data.
+     */
+    @MainThread
+    public boolean claim(@NonNull Node node) {
+        return claims.claim(node, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Stops handing out the current run's results, for when the rider changed server state (for
+     * example started a shift) or the server announced a change. Screens that already claimed a
+     * node still receive its result.
+     */
+    @MainThread
+    public void invalidate() {
+        claims.invalidate();
+    }
+
+    @MainThread
+    @Nullable
+    public NodeResult getResult(@NonNull Node node) {
+        return results.get(node);
+    }
+
+    @MainThread
+    public boolean isRunning(@NonNull Node node) {
+        return Boolean.TRUE.equals(running.get(node));
+    }
+
+    /**
+     * Registers {@code listener} and immediately replays every node that already completed in the
+     * current run, so late subscribers do not miss results.
+     */
+    @MainThread
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+        List<Node> completed = new ArrayList<>(results.keySet());
+        Collections.sort(completed);
+        for (Node node : completed) {
+            NodeResult result = results.get(node);
+            if (result != null) {
+                listener.onNodeCompleted(node, result);
+            }
+        }
+    }
+
+    @MainThread
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void scheduleReadyNodes() {
+        for (Node node : Node.values()) {
+            if (results.containsKey(node) || isRunning(node)) {
+                continue;
+            }
+
+            NodeResult failedDependency = null;
+            boolean ready = true;
+            for (Node dependency : node.dependencies) {
+                NodeResult dependencyResult = results.get(dependency);
+                if (dependencyResult == null) {
+                    ready = false;
+                } else if (!dependencyResult.isSuccessful()) {
+                    failedDependency = dependencyResult;
+                }
+            }
+
+            if (failedDependency != null) {
+                complete(generation, node, NodeResult.skipped(failedDependency.getErrorMessage()));
+            } else if (ready) {
+                launch(node);
+            }
+        }
+    }
+
+    private void launch(@NonNull Node node) {
+        running.put(node, true);
+        final int runGeneration = generation;
+        switch (node) {
+            case HEALTH:
+                connectionManager.checkConnection(healthPath, (isConnected, errorMessage) -> complete(
+                        runGeneration,
+                        node,
+                        isConnected
+                                ? NodeResult.success(Boolean.TRUE, null)
+                                : NodeResult.failure(errorMessage != null ? errorMessage : "Server unreachable.")
+                ));
+                break;
+            case USER_ID:
+                resolveUserId(runGeneration);
+                break;
+            case SHIFTS:
+                shiftService.fetchShifts(requireUserId(), new ShiftService.ShiftFetchCallback() {
+                    @Override
+                    public void onSuccess(@NonNull List<ShiftInfo> shifts, @Nullable String serverMessage) {
+                        complete(runGeneration, node, NodeResult.success(shifts, serverMessage));
+                    }
+
+                    @Override
+                    public void onError(@NonNull String errorMessage) {
+                        complete(runGeneration, node, NodeResult.failure(errorMessage));
+                    }
+                });
+                break;
+            case ORDERS:
+                orderService.fetchUnfinishedOrders(requireUserId(), new OrderService.OrderFetchCallback() {
+                    @Override
+                    public void onSuccess(@NonNull List<OrderInfo> orders, @Nullable String serverMessage) {
+                        complete(runGeneration, node, NodeResult.success(orders, serverMessage));
+                    }
+
+                    @Override
+                    public void onError(@NonNull String errorMessage) {
+                        complete(runGeneration, node, NodeResult.failure(errorMessage));
+                    }
+                });
+                break;
+        }
+    }
+
+    private void resolveUserId(int runGeneration) {
+        if (AppConfig.DEFAULT_STAFF_USER_ID > 0) {
+            complete(runGeneration, Node.USER_ID, NodeResult.success(AppConfig.DEFAULT_STAFF_USER_ID, null));
+            return;
+        }
+        if (cachedUserId > 0) {
+            complete(runGeneration, Node.USER_ID, NodeResult.success(cachedUserId, null));
+            return;
+        }
+        if (email == null || email.isEmpty()) {
+            complete(runGeneration, Node.USER_ID, NodeResult.failure("No signed-in rider."));
+            return;
+        }
+        userService.fetchUserIdByEmail(email, new UserService.UserIdCallback() {
+            @Override
+            public void onSuccess(int userId) {
+                complete(runGeneration, Node.USER_ID, NodeResult.success(userId, null));
+            }
+
+            @Override
+            public void onError(@NonNull String errorMessage) {
+                complete(runGeneration, Node.USER_ID, NodeResult.failure(errorMessage));
+            }
+        });
+    }
+
+    private int requireUserId() {
+        NodeResult userIdResult = results.get(Node.USER_ID);
+        return userIdResult != null ? userIdResult.getUserId() : -1;
+    }
+
+    private void complete(int runGeneration, @NonNull Node node, @NonNull NodeResult result) {
+        if (runGeneration != generation) {
+            return;
+        }
+        running.remove(node);
+        results.put(node, result);
+        for (Listener listener : listeners) {
+            listener.onNodeCompleted(node, result);
+        }
+        scheduleReadyNodes();
+    }
+
+    /**
+     * Outcome of a single node. Typed accessors return neutral defaults when the node produced a
+     * different kind of value or failed.
+     */
+    public static final class NodeResult {
+
+        private final boolean successful;
+        private final boolean skipped;
+        @Nullable
+        private final Object value;
+        @Nullable
+        private final String serverMessage;
+        @Nullable
+        private final String errorMessage;
+
+        private NodeResult(
+                boolean successful,
+                boolean skipped,
+                @Nullable Object value,
+                @Nullable String serverMessage,
+                @Nullable String errorMessage
+        ) {
+            this.successful = successful;
+            this.skipped = skipped;
+            this.value = value;
+            this.serverMessage = serverMessage;
+            this.errorMessage = errorMessage;
+        }
+
+        @NonNull
+        static NodeResult success(@NonNull Object value, @Nullable String serverMessage) {
+            return new NodeResult(true, false, value, serverMessage, null);
+        }
+
+        @NonNull
+        static NodeResult failure(@NonNull String errorMessage) {
+            return new NodeResult(false, false, null, null, errorMessage);
+        }
+
+        @NonNull
+        static NodeResult skipped(@Nullable String dependencyError) {
+            return new NodeResult(false, true, null, null, dependencyError);
+        }
+
+        public boolean isSuccessful() {
+            return successful;
+        }
+
+        /**
+         * Returns {@code true} when the node never ran because one of its dependencies failed. The
+         * dependency's own result already describes the problem.
+         */
+        public boolean isSkipped() {
+            return skipped;
+        }
+
+        @Nullable
+        public String getServerMessage() {
+            return serverMessage;
+        }
+
+        @Nullable
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        public int getUserId() {
+            return value instanceof Integer ? (Integer) value : -1;
+        }
+
+        @NonNull
+        @SuppressWarnings("unchecked")
+        public List<ShiftInfo> getShifts() {
+            return value instanceof List ? (List<ShiftInfo>) value : Collections.<ShiftInfo>emptyList();
+        }
+
+        @NonNull
+        @SuppressWarnings("unchecked")
+        public List<OrderInfo> getOrders() {
+            return value instanceof List ? (List<OrderInfo>) value : Collections.<OrderInfo>emptyList();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.deliveryapp.route;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * An immutable latitude/longitude pair in degrees.
+ */
+public final class GeoPoint {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Returns the great-circle distance to {@code other} in meters. Straight-line distance is a
+     * good enough proxy for ranking stops within a single city.
+     */
+    public double distanceTo(@NonNull GeoPoint other) {
+        return distanceMeters(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaPhi = phi2 - phi1;
+        double deltaLambda = Math.toRadians(lng2 - lng1);
+        double sinPhi = Math.sin(deltaPhi / 2);
+        double sinLambda = Math.sin(deltaLambda / 2);
+        double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "GeoPoint{%.6f, %.6f}", latitude, longitude);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.deliveryapp.route;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A visiting order for a set of stops, starting at the rider's position when it was known.
+ * Plans are immutable; {@link RouteSequencer} derives updated plans from existing ones.
+ */
+public final class RoutePlan {
+
+    @Nullable
+    private final GeoPoint origin;
+    @NonNull
+    private final List<RouteStop> stops;
+    private final double totalMeters;
+
+    RoutePlan(@Nullable GeoPoint origin, @NonNull List<RouteStop> stops, double totalMeters) {
+        this.origin = origin;
+        this.stops = Collections.unmodifiableList(stops);
+        this.totalMeters = totalMeters;
+    }
+
+    @Nullable
+    public GeoPoint getOrigin() {
+        return origin;
+    }
+
+    @NonNull
+    public List<RouteStop> getStops() {
+        return stops;
+    }
+
+    public int size() {
+        return stops.size();
+    }
+
+    /**
+     * Returns the length of the path in meters, measured from the origin when there is one.
+     */
+    public double getTotalMeters() {
+        return totalMeters;
+    }
+
+    /**
+     * Returns the zero-based position of {@code orderId} in the visiting order, or {@code -1}.
+     */
+    public int indexOf(int orderId) {
+        for (int i = 0; i < stops.size(); i++) {
+            if (stops.get(i).getOrderId() == orderId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "RoutePlan{stops=" + stops.size() + ", totalMeters=" + Math.round(totalMeters) + '}';
+    }
+}
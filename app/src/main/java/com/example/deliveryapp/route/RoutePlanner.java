@@ -0,0 +1,182 @@
+package com.example.deliveryapp.route;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.example.deliveryapp.geocode.AddressGeocoder;
+import com.example.deliveryapp.geocode.GeocodeResult;
+import com.example.deliveryapp.network.OrderInfo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a {@link RoutePlan} in sync with the rider's active orders. Updates run on a dedicated
+ * worker thread: when only a couple of orders were added or completed since the last plan, the
+ * plan is patched with {@link RouteSequencer#insert} and {@link RouteSequencer#remove};
+ * otherwise (first plan, rider moved far, larger changes) it is recomputed. Results are delivered
+ * on the main thread, and results superseded by a newer update are dropped.
+ *
+ * <p>When given an {@link AddressGeocoder}, orders that arrive without coordinates are placed by
+ * geocoding their delivery address on the worker thread first.</p>
+ */
+public final class RoutePlanner {
+
+    public interface Callback {
+        void onRoutePlanned(@NonNull RoutePlan plan);
+    }
+
+    private static final String TAG = "RoutePlanner";
+    private static final int MAX_INCREMENTAL_CHANGES = 2;
+    private static final double REPLAN_DISTANCE_METERS = 500;
+    /** City-level matches would send the rider to the town hall; need at least the barangay. */
+    private static final float MIN_GEOCODE_CONFIDENCE = 0.5f;
+
+    private final RouteSequencer sequencer;
+    @Nullable
+    private final AddressGeocoder geocoder;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "route-planner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Worker-thread only.
+    @Nullable
+    private RoutePlan currentPlan;
+
+    // Main-thread only.
+    private int generation;
+
+    public RoutePlanner() {
+        this(new RouteSequencer(), null);
+    }
+
+    public RoutePlanner(@NonNull RouteSequencer sequencer, @Nullable AddressGeocoder geocoder) {
+        this.sequencer = sequencer;
+        this.geocoder = geocoder;
+    }
+
+    /**
+     * Plans a route through every order in {@code orders} that has coordinates or, with a
+     * geocoder, an address it can place. Orders without a position are left out of the plan.
+     *
+     * @param riderPosition where the rider is now, or {@code null} to let the route start at
+     *                      whichever stop is cheapest
+     */
+    @MainThread
+    public void update(@Nullable GeoPoint riderPosition, @NonNull List<OrderInfo> orders, @NonNull Callback callback) {
+        List<RouteStop> stops = new ArrayList<>(orders.size());
+        List<OrderInfo> unplaced = new ArrayList<>();
+        for (OrderInfo order : orders) {
+            if (order.hasCoordinates()) {
+                stops.add(new RouteStop(order.getOrderId(), new GeoPoint(order.getLatitude(), order.getLongitude())));
+            } else if (geocoder != null && order.getDeliveryAddress() != null) {
+                unplaced.add(order);
+            }
+        }
+
+        final int requestGeneration = ++generation;
+        executor.execute(() -> {
+            if (!unplaced.isEmpty()) {
+                geocodeInto(stops, unplaced);
+            }
+            RoutePlan plan = computePlan(riderPosition, stops);
+            currentPlan = plan;
+            mainHandler.post(() -> {
+                if (requestGeneration == generation) {
+                    callback.onRoutePlanned(plan);
+                }
+            });
+        });
+    }
+
+    /**
+     * Drops pending results and forgets the current plan, for when no orders are left.
+     */
+    @MainThread
+    public void clear() {
+        generation++;
+        executor.execute(() -> currentPlan = null);
+    }
+
+    /**
+     * Drops pending results and stops the worker thread.
+     */
+    @MainThread
+    public void shutdown() {
+        generation++;
+        executor.shutdownNow();
+    }
+
+    @WorkerThread
+    private void geocodeInto(@NonNull List<RouteStop> stops, @NonNull List<OrderInfo> orders) {
+        AddressGeocoder addressGeocoder = geocoder;
+        if (addressGeocoder == null) {
+            return;
+        }
+        for (OrderInfo order : orders) {
+            GeocodeResult result = addressGeocoder.geocode(order.getDeliveryAddress());
+            if (result != null && result.getConfidence() >= MIN_GEOCODE_CONFIDENCE) {
+                stops.add(new RouteStop(order.getOrderId(), result.toGeoPoint()));
+            }
+        }
+        try {
+            addressGeocoder.flush();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to persist geocode cache", e);
+        }
+    }
+
+    @NonNull
+    private RoutePlan computePlan(@Nullable GeoPoint riderPosition, @NonNull List<RouteStop> stops) {
+        RoutePlan previous = currentPlan;
+        if (previous == null || !sameOrigin(previous.getOrigin(), riderPosition)) {
+            return sequencer.plan(riderPosition, stops);
+        }
+
+        Map<Integer, RouteStop> wanted = new HashMap<>();
+        for (RouteStop stop : stops) {
+            wanted.put(stop.getOrderId(), stop);
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (RouteStop stop : previous.getStops()) {
+            if (wanted.remove(stop.getOrderId()) == null) {
+                removed.add(stop.getOrderId());
+            }
+        }
+        // Whatever is left in "wanted" was not in the previous plan.
+        if (removed.size() + wanted.size() > MAX_INCREMENTAL_CHANGES) {
+            return sequencer.plan(riderPosition, stops);
+        }
+
+        RoutePlan plan = previous;
+        for (int orderId : removed) {
+            plan = sequencer.remove(plan, orderId);
+        }
+        for (RouteStop added : wanted.values()) {
+            plan = sequencer.insert(plan, added);
+        }
+        Log.d(TAG, "Patched route: " + removed.size() + " removed, " + wanted.size() + " added");
+        return plan;
+    }
+
+    private static boolean sameOrigin(@Nullable GeoPoint previous, @Nullable GeoPoint current) {
+        if (previous == null || current == null) {
+            return previous == current;
+        }
+        return previous.distanceTo(current) < REPLAN_DISTANCE_METERS;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.deliveryapp.route;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes a short visiting order for a rider's drops. The path is open: it starts at the rider's
+ * position (or at whichever stop suits best when the position is unknown) and ends at the last
+ * drop, since riders do not return to the bakeshop between batches.
+ *
+ * <p>A nearest-neighbour tour is built first and then improved with 2-opt segment reversals and
+ * single-stop relocations until no move helps or the time budget runs out. With a budget left over
+ * the search restarts from every other first stop and keeps the best result. For the 6–10 drops a
+ * rider typically carries this finds the optimum or lands within a few percent of it in well under
+ * the default budget.</p>
+ *
+ * <p>{@link #insert(RoutePlan, RouteStop)} and {@link #remove(RoutePlan, int)} update an existing
+ * plan incrementally: the new stop goes to its cheapest position (or the completed one is spliced
+ * out) and only local improvement runs, so the rider's order does not reshuffle needlessly.</p>
+ *
+ * <p>Instances are stateless apart from the budget and may be shared, but every call does real
+ * work and belongs on a worker thread.</p>
+ */
+public final class RouteSequencer {
+
+    public static final long DEFAULT_TIME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final double EPSILON_METERS = 1e-6;
+
+    private final long timeBudgetNanos;
+
+    public RouteSequencer() {
+        this(DEFAULT_TIME_BUDGET_NANOS);
+    }
+
+    public RouteSequencer(long timeBudgetNanos) {
+        this.timeBudgetNanos = Math.max(0L, timeBudgetNanos);
+    }
+
+    /**
+     * Plans a route through {@code stops} from scratch.
+     */
+    @WorkerThread
+    @NonNull
+    public RoutePlan plan(@Nullable GeoPoint origin, @NonNull List<RouteStop> stops) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int n = stops.size();
+        if (n == 0) {
+            return new RoutePlan(origin, new ArrayList<>(), 0);
+        }
+
+        double[][] distances = buildDistanceMatrix(origin, stops);
+        int[] best = nearestNeighbour(distances, -1);
+        improve(best, distances, deadline);
+        double bestCost = pathCost(best, distances);
+
+        for (int firstStop = 1; firstStop <= n && System.nanoTime() < deadline; firstStop++) {
+            if (firstStop == best[1]) {
+                continue;
+            }
+            int[] candidate = nearestNeighbour(distances, firstStop);
+            improve(candidate, distances, deadline);
+            double cost = pathCost(candidate, distances);
+            if (cost < bestCost - EPSILON_METERS) {
+                best = candidate;
+                bestCost = cost;
+            }
+        }
+        return toPlan(origin, stops, best, distances);
+    }
+
+    /**
+     * Adds {@code stop} to {@code plan} at its cheapest position and polishes the result.
+     */
+    @WorkerThread
+    @NonNull
+    public RoutePlan insert(@NonNull RoutePlan plan, @NonNull RouteStop stop) {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        List<RouteStop> stops = new ArrayList<>(plan.getStops());
+        stops.add(stop);
+        double[][] distances = buildDistanceMatrix(plan.getOrigin(), stops);
+
+        int n = stops.size();
+        int newNode = n;
+        int bestPosition = 1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        // Positions 1..n: insert before the current occupant, or at the end when position == n.
+        for (int position = 1; position <= n; position++) {
+            int previous = position - 1;
+            int next = position < n ? position : -1;
+            double cost = distances[previous][newNode]
+                    + (next >= 0 ? distances[newNode][next] - distances[previous][next] : 0);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestPosition = position;
+            }
+        }
+
+        int[] sequence = new int[n + 1];
+        for (int i = 0, node = 0; i <= n; i++) {
+            sequence[i] = i == bestPosition ? newNode : node++;
+        }
+        improve(sequence, distances, deadline);
+        return toPlan(plan.getOrigin(), stops, sequence, distances);
+    }
+
+    /**
+     * Drops the stop for {@code orderId}, typically because it was delivered, and polishes the
+     * remaining order. Returns {@code plan} unchanged when it does not contain the stop.
+     */
+    @WorkerThread
+    @NonNull
+    public RoutePlan remove(@NonNull RoutePlan plan, int orderId) {
+        int index = plan.indexOf(orderId);
+        if (index < 0) {
+            return plan;
+        }
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        List<RouteStop> stops = new ArrayList<>(plan.getStops());
+        stops.remove(index);
+        double[][] distances = buildDistanceMatrix(plan.getOrigin(), stops);
+
+        int[] sequence = new int[stops.size() + 1];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = i;
+        }
+        improve(sequence, distances, deadline);
+        return toPlan(plan.getOrigin(), stops, sequence, distances);
+    }
+
+    /**
+     * Builds the matrix of distances between the origin (node 0) and the stops (nodes 1..n).
+     * Without an origin node 0 is a virtual start that is zero meters from every stop, which lets
+     * the path begin wherever is cheapest.
+     */
+    @NonNull
+    private static double[][] buildDistanceMatrix(@Nullable GeoPoint origin, @NonNull List<RouteStop> stops) {
+        int size = stops.size() + 1;
+        double[][] distances = new double[size][size];
+        for (int i = 1; i < size; i++) {
+            GeoPoint from = stops.get(i - 1).getLocation();
+            if (origin != null) {
+                double fromOrigin = origin.distanceTo(from);
+                distances[0][i] = fromOrigin;
+                distances[i][0] = fromOrigin;
+            }
+            for (int j = i + 1; j < size; j++) {
+                double distance = from.distanceTo(stops.get(j - 1).getLocation());
+                distances[i][j] = distance;
+                distances[j][i] = distance;
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Returns a sequence starting at node 0 that repeatedly moves to the closest unvisited stop.
+     * When {@code firstStop} is positive the path is forced through it first.
+     */
+    @NonNull
+    private static int[] nearestNeighbour(@NonNull double[][] distances, int firstStop) {
+        int size = distances.length;
+        int[] sequence = new int[size];
+        boolean[] visited = new boolean[size];
+        visited[0] = true;
+        int position = 1;
+        if (firstStop > 0) {
+            sequence[position++] = firstStop;
+            visited[firstStop] = true;
+        }
+        while (position < size) {
+            int current = sequence[position - 1];
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int candidate = 1; candidate < size; candidate++) {
+                if (!visited[candidate] && distances[current][candidate] < nearestDistance) {
+                    nearest = candidate;
+                    nearestDistance = distances[current][candidate];
+                }
+            }
+            sequence[position++] = nearest;
+            visited[nearest] = true;
+        }
+        return sequence;
+    }
+
+    /**
+     * Applies improving 2-opt and relocation moves to {@code sequence} in place until none is left
+     * or {@code deadline} (a {@link System#nanoTime()} value) passes. Position 0 never moves.
+     */
+    static void improve(@NonNull int[] sequence, @NonNull double[][] distances, long deadline) {
+        int last = sequence.length - 1;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+
+            for (int i = 1; i < last; i++) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                for (int j = i + 1; j <= last; j++) {
+                    int a = sequence[i - 1];
+                    int b = sequence[i];
+                    int c = sequence[j];
+                    double delta = distances[a][c] - distances[a][b];
+                    if (j < last) {
+                        int d = sequence[j + 1];
+                        delta += distances[b][d] - distances[c][d];
+                    }
+                    if (delta < -EPSILON_METERS) {
+                        reverse(sequence, i, j);
+                        improved = true;
+                    }
+                }
+            }
+
+            for (int i = 1; i <= last; i++) {
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                int node = sequence[i];
+                int previous = sequence[i - 1];
+                int next = i < last ? sequence[i + 1] : -1;
+                double removalGain = distances[previous][node]
+                        + (next >= 0 ? distances[node][next] - distances[previous][next] : 0);
+
+                for (int k = 0; k <= last; k++) {
+                    if (k == i || k == i - 1) {
+                        continue;
+                    }
+                    int before = sequence[k];
+                    int after = k < last ? sequence[k + 1] : -1;
+                    if (after == node) {
+                        continue;
+                    }
+                    double insertionCost = distances[before][node]
+                            + (after >= 0 ? distances[node][after] - distances[before][after] : 0);
+                    if (insertionCost - removalGain < -EPSILON_METERS) {
+                        relocate(sequence, i, k);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    static double pathCost(@NonNull int[] sequence, @NonNull double[][] distances) {
+        double total = 0;
+        for (int i = 1; i < sequence.length; i++) {
+            total += distances[sequence[i - 1]][sequence[i]];
+        }
+        return total;
+    }
+
+    private static void reverse(@NonNull int[] sequence, int from, int to) {
+        while (from < to) {
+            int swap = sequence[from];
+            sequence[from] = sequence[to];
+            sequence[to] = swap;
+            from++;
+            to--;
+        }
+    }
+
+    /**
+     * Moves the node at {@code from} so that it directly follows the node currently at
+     * {@code after}.
+     */
+    private static void relocate(@NonNull int[] sequence, int from, int after) {
+        int node = sequence[from];
+        if (after > from) {
+            System.arraycopy(sequence, from + 1, sequence, from, after - from);
+            sequence[after] = node;
+        } else {
+            System.arraycopy(sequence, after + 1, sequence, after + 2, from - after - 1);
+            sequence[after + 1] = node;
+        }
+    }
+
+    @NonNull
+    private static RoutePlan toPlan(
+            @Nullable GeoPoint origin,
+            @NonNull List<RouteStop> stops,
+            @NonNull int[] sequence,
+            @NonNull double[][] distances
+    ) {
+        List<RouteStop> ordered = new ArrayList<>(stops.size());
+        for (int i = 1; i < sequence.length; i++) {
+            ordered.add(stops.get(sequence[i] - 1));
+        }
+        return new RoutePlan(origin, ordered, pathCost(sequence, distances));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.deliveryapp.route;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A drop-off the rider has to visit, identified by its order ID.
+ */
+public final class RouteStop {
+
+    private final int orderId;
+    @NonNull
+    private final GeoPoint location;
+
+    public RouteStop(int orderId, @NonNull GeoPoint location) {
+        this.orderId = orderId;
+        this.location = location;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    @NonNull
+    public GeoPoint getLocation() {
+        return location;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "RouteStop{orderId=" + orderId + ", location=" + location + '}';
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.deliveryapp.startup;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the app's cold-start initializers as a dependency graph. Each step declares the steps it
+ * needs and where it runs:
+ * <ul>
+ *     <li>{@link Mode#MAIN} steps run on the main thread as soon as their dependencies finish.</li>
+ *     <li>{@link Mode#BACKGROUND} steps run on a small worker pool so they never delay the first
+ *     frame.</li>
+ *     <li>{@link Mode#DEFERRED} steps run on the main thread once it is idle, which in practice is
+ *     after the first activity has drawn.</li>
+ * </ul>
+ * Every step is wrapped in an {@code android.os.Trace} section named {@code Startup:<step>} and
+ * its duration is logged. A failing step is logged and the steps that depend on it are skipped.
+ *
+ * <p>Screens that need startup work done before they can decide what to show hand it to
+ * {@link #execute(Runnable)}, which runs it on the same workers.</p>
+ */
+public final class StartupOrchestrator {
+
+    private static final String TAG = "StartupOrchestrator";
+    private static final int BACKGROUND_THREADS = 2;
+    /** Workers exit after this long without work, so the pool costs nothing once startup is over. */
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 10;
+
+    private static volatile ExecutorService workers;
+
+    public enum Mode {
+        MAIN,
+        BACKGROUND,
+        DEFERRED
+    }
+
+    public interface Initializer {
+        void initialize(@NonNull Context context) throws Exception;
+    }
+
+    private final Context appContext;
+    private final List<Step> steps;
+    private final Map<String, List<Step>> dependents = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private StartupOrchestrator(@NonNull Context context, @NonNull List<Step> steps) {
+        this.appContext = context.getApplicationContext();
+        this.steps = steps;
+        for (Step step : steps) {
+            for (String dependency : step.dependencies) {
+                List<Step> list = dependents.get(dependency);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    dependents.put(dependency, list);
+                }
+                list.add(step);
+            }
+        }
+    }
+
+    @NonNull
+    public static Builder builder(@NonNull Context context) {
+        return new Builder(context);
+    }
+
+    /**
+     * Runs {@code task} on a startup worker. Callers post their results back to the main thread
+     * themselves.
+     */
+    public static void execute(@NonNull Runnable task) {
+        workers().execute(task);
+    }
+
+    @NonNull
+    private static ExecutorService workers() {
+        if (workers == null) {
+            synchronized (StartupOrchestrator.class) {
+                if (workers == null) {
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                            BACKGROUND_THREADS,
+                            BACKGROUND_THREADS,
+                            WORKER_KEEP_ALIVE_SECONDS,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(),
+                            runnable -> {
+                                Thread thread = new Thread(runnable, "startup-worker");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                    executor.allowCoreThreadTimeOut(true);
+                    workers = executor;
+                }
+            }
+        }
+        return workers;
+    }
+
+    /**
+     * Dispatches every step without dependencies. Main-thread steps that are ready run before
+     * this method returns.
+     */
+    @MainThread
+    public void start() {
+        for (Step step : steps) {
+            if (step.dependencies.length == 0) {
+                dispatch(step);
+            }
+        }
+    }
+
+    private void dispatch(@NonNull Step step) {
+        switch (step.mode) {
+            case MAIN:
+                if (Looper.myLooper() == Looper.getMainLooper()) {
+                    run(step);
+                } else {
+                    mainHandler.post(() -> run(step));
+                }
+                break;
+            case BACKGROUND:
+                execute(() -> run(step));
+                break;
+            case DEFERRED:
+                mainHandler.post(() -> Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        run(step);
+                        return false;
+                    }
+                }));
+                break;
+        }
+    }
+
+    private void run(@NonNull Step step) {
+        long startedAt = SystemClock.elapsedRealtime();
+        boolean succeeded = false;
+        Trace.beginSection("Startup:" + step.name);
+        try {
+            step.initializer.initialize(appContext);
+            succeeded = true;
+        } catch (Exception e) {
+            Log.e(TAG, "Startup step " + step.name + " failed", e);
+        } finally {
+            Trace.endSection();
+        }
+        Log.d(TAG, "Startup step " + step.name + " (" + step.mode + ") took "
+                + (SystemClock.elapsedRealtime() - startedAt) + " ms on "
+                + Thread.currentThread().getName());
+        onStepFinished(step, succeeded);
+    }
+
+    private void onStepFinished(@NonNull Step step, boolean succeeded) {
+        List<Step> waiting = dependents.get(step.name);
+        if (waiting != null) {
+            for (Step dependent : waiting) {
+                if (!succeeded) {
+                    skip(dependent, step.name);
+                } else if (dependent.onDependencyFinished()) {
+                    dispatch(dependent);
+                }
+            }
+        }
+    }
+
+    private void skip(@NonNull Step step, @NonNull String failedDependency) {
+        if (!step.markSkipped()) {
+            return;
+        }
+        Log.w(TAG, "Skipping startup step " + step.name + " because " + failedDependency + " failed");
+        onStepFinished(step, false);
+    }
+
+    private static final class Step {
+        @NonNull
+        final String name;
+        @NonNull
+        final Mode mode;
+        @NonNull
+        final String[] dependencies;
+        @NonNull
+        final Initializer initializer;
+        private int pendingDependencies;
+        private boolean skipped;
+
+        Step(@NonNull String name, @NonNull Mode mode, @NonNull String[] dependencies, @NonNull Initializer initializer) {
+            this.name = name;
+            this.mode = mode;
+            this.dependencies = dependencies;
+            this.initializer = initializer;
+            this.pendingDependencies = dependencies.length;
+        }
+
+        /** Returns {@code true} when the last outstanding dependency finished and the step may run. */
+        synchronized boolean onDependencyFinished() {
+            pendingDependencies--;
+            return pendingDependencies == 0 && !skipped;
+        }
+
+        /** Returns {@code true} the first time the step is skipped. */
+        synchronized boolean markSkipped() {
+            if (skipped) {
+                return false;
+            }
+            skipped = true;
+            return true;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Context context;
+        private final Map<String, Step> steps = new LinkedHashMap<>();
+
+        private Builder(@NonNull Context context) {
+            this.context = context;
+        }
+
+        /**
+         * Declares a step. Dependencies must already have been added, which also rules out cycles.
+         */
+        @NonNull
+        public Builder add(
+                @NonNull String name,
+                @NonNull Mode mode,
+                @NonNull Initializer initializer,
+                @NonNull String... dependsOn
+        ) {
+            if (steps.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate startup step: " + name);
+            }
+            for (String dependency : dependsOn) {
+                if (!steps.containsKey(dependency)) {
+                    throw new IllegalArgumentException(
+                            "Startup step " + name + " depends on unknown step " + dependency);
+                }
+            }
+            String[] dependencies = new LinkedHashSet<>(Arrays.asList(dependsOn)).toArray(new String[0]);
+            steps.put(name, new Step(name, mode, dependencies, initializer));
+            return this;
+        }
+
+        @NonNull
+        public StartupOrchestrator build() {
+            return new StartupOrchestrator(context, Collections.unmodifiableList(new ArrayList<>(steps.values())));
+        }
+    }
+}
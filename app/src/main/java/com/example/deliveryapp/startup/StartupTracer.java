@@ -0,0 +1,119 @@
+package com.example.deliveryapp.startup;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * Records the two cold-start milestones we track per release: time to first frame (the first
+ * activity drew something) and time to usable data (the rider's shifts or deliveries are on
+ * screen). Both are measured from process start, logged under the {@code StartupTracer} tag and
+ * emitted as async trace sections ({@code Startup:first-frame} and {@code Startup:usable-data})
+ * so they line up with the per-step sections in a system trace. Only the first occurrence of each
+ * milestone per process is recorded.
+ */
+public final class StartupTracer {
+
+    private static final String TAG = "StartupTracer";
+    private static final String FIRST_FRAME_SECTION = "Startup:first-frame";
+    private static final String USABLE_DATA_SECTION = "Startup:usable-data";
+    private static final int FIRST_FRAME_COOKIE = 1;
+    private static final int USABLE_DATA_COOKIE = 2;
+
+    private static boolean started;
+    private static long processStartUptimeMs;
+    private static long firstFrameMs = -1;
+    private static long usableDataMs = -1;
+
+    private StartupTracer() {
+        // Utility class
+    }
+
+    /**
+     * Opens both milestone sections. Called once from {@code Application.onCreate}.
+     */
+    @MainThread
+    public static void onProcessStart() {
+        if (started) {
+            return;
+        }
+        started = true;
+        processStartUptimeMs = Process.getStartUptimeMillis();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(FIRST_FRAME_SECTION, FIRST_FRAME_COOKIE);
+            Trace.beginAsyncSection(USABLE_DATA_SECTION, USABLE_DATA_COOKIE);
+        }
+    }
+
+    /**
+     * Records the first frame drawn by {@code activity}, if no earlier activity already did.
+     * Call from {@code onCreate} after {@code setContentView}.
+     */
+    @MainThread
+    public static void observeFirstFrame(@NonNull Activity activity) {
+        if (!started || firstFrameMs >= 0) {
+            return;
+        }
+        View decorView = activity.getWindow().getDecorView();
+        Handler handler = new Handler(Looper.getMainLooper());
+        ViewTreeObserver.OnDrawListener listener = new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                ViewTreeObserver.OnDrawListener self = this;
+                // Listeners cannot be removed from inside onDraw.
+                handler.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(self));
+                // The frame is submitted right after the draw pass, so mark at the front of the queue.
+                handler.postAtFrontOfQueue(StartupTracer::markFirstFrame);
+            }
+        };
+        decorView.getViewTreeObserver().addOnDrawListener(listener);
+    }
+
+    /**
+     * Records that the rider can act on real data. Also reports the activity as fully drawn so the
+     * platform's own startup metrics line up with ours.
+     */
+    @MainThread
+    public static void markUsableData(@NonNull Activity activity) {
+        if (!started || usableDataMs >= 0) {
+            return;
+        }
+        usableDataMs = SystemClock.uptimeMillis() - processStartUptimeMs;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(USABLE_DATA_SECTION, USABLE_DATA_COOKIE);
+        }
+        activity.reportFullyDrawn();
+        Log.i(TAG, "Time to usable data: " + usableDataMs + " ms (" + activity.getClass().getSimpleName() + ")");
+    }
+
+    /** Returns the time to first frame in milliseconds, or {@code -1} if not reached yet. */
+    public static long getFirstFrameMs() {
+        return firstFrameMs;
+    }
+
+    /** Returns the time to usable data in milliseconds, or {@code -1} if not reached yet. */
+    public static long getUsableDataMs() {
+        return usableDataMs;
+    }
+
+    private static void markFirstFrame() {
+        if (firstFrameMs >= 0) {
+            return;
+        }
+        firstFrameMs = SystemClock.uptimeMillis() - processStartUptimeMs;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(FIRST_FRAME_SECTION, FIRST_FRAME_COOKIE);
+        }
+        Log.i(TAG, "Time to first frame: " + firstFrameMs + " ms");
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.deliveryapp.wallet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Running totals of a rider's collected orders per day, per week and per shift, kept up to date
+ * one order at a time. Each order's current contribution (day, shift and amount in centavos) is
+ * remembered, so when the server reports the order again with a new total or as cancelled only
+ * the difference is applied. Reading any total is a single map lookup no matter how many orders
+ * went into it.
+ *
+ * <p>Contributions older than the day passed to {@link #forgetOrdersBefore(long)} are dropped
+ * once they can no longer change; the totals they fed are kept, and orders dated before that day
+ * are ignored from then on so they cannot be counted twice. Days are epoch days in the branch's
+ * time zone and weeks start on Monday.</p>
+ *
+ * <p>The ledger is written to disk by {@link #save()} through a temporary file, like the other
+ * caches in the app. All methods are thread-safe.</p>
+ */
+public final class EarningsLedger {
+
+    /** Shift id for orders completed while no shift was known to be in progress. */
+    public static final int NO_SHIFT = 0;
+
+    private static final int FILE_MAGIC = 0x45524e4c; // "ERNL"
+    private static final int FILE_VERSION = 1;
+
+    /**
+     * Number of orders and their summed amount.
+     */
+    public static final class Totals {
+
+        public static final Totals ZERO = new Totals(0, 0L);
+
+        private final int orderCount;
+        private final long amountMinorUnits;
+
+        Totals(int orderCount, long amountMinorUnits) {
+            this.orderCount = orderCount;
+            this.amountMinorUnits = amountMinorUnits;
+        }
+
+        public int getOrderCount() {
+            return orderCount;
+        }
+
+        public long getAmountMinorUnits() {
+            return amountMinorUnits;
+        }
+
+        @NonNull
+        Totals plus(int orders, long amountMinorUnits) {
+            return new Totals(orderCount + orders, Math.addExact(this.amountMinorUnits, amountMinorUnits));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Totals)) {
+                return false;
+            }
+            Totals that = (Totals) other;
+            return orderCount == that.orderCount && amountMinorUnits == that.amountMinorUnits;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * orderCount + Long.hashCode(amountMinorUnits);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return orderCount + " orders / " + amountMinorUnits + " minor units";
+        }
+    }
+
+    private static final class Contribution {
+
+        final long epochDay;
+        final int shiftId;
+        final long amountMinorUnits;
+
+        Contribution(long epochDay, int shiftId, long amountMinorUnits) {
+            this.epochDay = epochDay;
+            this.shiftId = shiftId;
+            this.amountMinorUnits = amountMinorUnits;
+        }
+    }
+
+    @Nullable
+    private final File file;
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private final Map<Long, Totals> byDay = new HashMap<>();
+    private final Map<Long, Totals> byWeek = new HashMap<>();
+    private final Map<Integer, Totals> byShift = new HashMap<>();
+    private Totals lifetime = Totals.ZERO;
+    private int ownerUserId;
+    private long forgottenBeforeDay = Long.MIN_VALUE;
+    private boolean dirty;
+
+    public EarningsLedger(@Nullable File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the epoch day {@code millis} falls on in {@code zone}.
+     */
+    public static long epochDay(long millis, @NonNull TimeZone zone) {
+        return Math.floorDiv(millis + zone.getOffset(millis), TimeUnit.DAYS.toMillis(1));
+    }
+
+    /**
+     * Returns the Monday starting the week that contains {@code epochDay}.
+     */
+    public static long weekStart(long epochDay) {
+        // Epoch day 0, 1 January 1970, was a Thursday.
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    public synchronized int getOwnerUserId() {
+        return ownerUserId;
+    }
+
+    /**
+     * Starts over when the ledger belongs to a different rider than {@code userId}.
+     */
+    public synchronized void claim(int userId) {
+        if (ownerUserId == userId) {
+            return;
+        }
+        contributions.clear();
+        byDay.clear();
+        byWeek.clear();
+        byShift.clear();
+        lifetime = Totals.ZERO;
+        ownerUserId = userId;
+        forgottenBeforeDay = Long.MIN_VALUE;
+        dirty = true;
+    }
+
+    /**
+     * Records that order {@code orderId} now contributes {@code amountMinorUnits} to
+     * {@code epochDay} and {@code shiftId}, replacing what it contributed before.
+     *
+     * @return whether any total changed
+     */
+    public synchronized boolean record(int orderId, long epochDay, int shiftId, long amountMinorUnits) {
+        Contribution previous = contributions.get(orderId);
+        if (previous == null && epochDay < forgottenBeforeDay) {
+            return false;
+        }
+        if (previous != null
+                && previous.epochDay == epochDay
+                && previous.shiftId == shiftId
+                && previous.amountMinorUnits == amountMinorUnits) {
+            return false;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        Contribution current = new Contribution(epochDay, shiftId, amountMinorUnits);
+        contributions.put(orderId, current);
+        apply(current, 1);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Withdraws whatever order {@code orderId} contributed, e.g. after it was cancelled.
+     *
+     * @return whether any total changed
+     */
+    public synchronized boolean remove(int orderId) {
+        Contribution previous = contributions.remove(orderId);
+        if (previous == null) {
+            return false;
+        }
+        apply(previous, -1);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Returns the shift order {@code orderId} was credited to, or {@link #NO_SHIFT}.
+     */
+    public synchronized int getShiftOf(int orderId) {
+        Contribution contribution = contributions.get(orderId);
+        return contribution != null ? contribution.shiftId : NO_SHIFT;
+    }
+
+    public synchronized boolean contains(int orderId) {
+        return contributions.containsKey(orderId);
+    }
+
+    @NonNull
+    public synchronized Totals getDay(long epochDay) {
+        return orZero(byDay.get(epochDay));
+    }
+
+    @NonNull
+    public synchronized Totals getWeek(long epochDay) {
+        return orZero(byWeek.get(weekStart(epochDay)));
+    }
+
+    @NonNull
+    public synchronized Totals getShift(int shiftId) {
+        return orZero(byShift.get(shiftId));
+    }
+
+    @NonNull
+    public synchronized Totals getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * Returns how many day, week and shift totals are kept; reads look up exactly one of them.
+     */
+    synchronized int getBucketCount() {
+        return byDay.size() + byWeek.size() + byShift.size();
+    }
+
+    /**
+     * Drops the per-order records of orders dated before {@code epochDay}, which the server no
+     * longer reports. Their amounts stay in the totals.
+     */
+    public synchronized void forgetOrdersBefore(long epochDay) {
+        if (epochDay <= forgottenBeforeDay) {
+            return;
+        }
+        forgottenBeforeDay = epochDay;
+        dirty = true;
+        Iterator<Contribution> iterator = contributions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().epochDay < epochDay) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void apply(@NonNull Contribution contribution, int sign) {
+        long amount = sign * contribution.amountMinorUnits;
+        adjust(byDay, contribution.epochDay, sign, amount);
+        adjust(byWeek, weekStart(contribution.epochDay), sign, amount);
+        if (contribution.shiftId != NO_SHIFT) {
+            adjust(byShift, contribution.shiftId, sign, amount);
+        }
+        lifetime = lifetime.plus(sign, amount);
+    }
+
+    private static <K> void adjust(@NonNull Map<K, Totals> totals, @NonNull K key, int orders, long amountMinorUnits) {
+        Totals updated = orZero(totals.get(key)).plus(orders, amountMinorUnits);
+        if (updated.equals(Totals.ZERO)) {
+            // Buckets emptied by cancellations would otherwise pile up.
+            totals.remove(key);
+        } else {
+            totals.put(key, updated);
+        }
+    }
+
+    @NonNull
+    private static Totals orZero(@Nullable Totals totals) {
+        return totals != null ? totals : Totals.ZERO;
+    }
+
+    /**
+     * Replaces the ledger with the one stored on disk. A missing file leaves it empty; a corrupt
+     * one is deleted.
+     */
+    @WorkerThread
+    public synchronized void load() {
+        contributions.clear();
+        byDay.clear();
+        byWeek.clear();
+        byShift.clear();
+        lifetime = Totals.ZERO;
+        ownerUserId = 0;
+        forgottenBeforeDay = Long.MIN_VALUE;
+        dirty = false;
+        if (file == null) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) {
+                throw new IOException("Unrecognized earnings ledger format");
+            }
+            ownerUserId = input.readInt();
+            forgottenBeforeDay = input.readLong();
+            int contributionCount = input.readInt();
+            for (int i = 0; i < contributionCount; i++) {
+                int orderId = input.readInt();
+                contributions.put(orderId, new Contribution(input.readLong(), input.readInt(), input.readLong()));
+            }
+            lifetime = readTotals(input);
+            int dayCount = input.readInt();
+            for (int i = 0; i < dayCount; i++) {
+                byDay.put(input.readLong(), readTotals(input));
+            }
+            int weekCount = input.readInt();
+            for (int i = 0; i < weekCount; i++) {
+                byWeek.put(input.readLong(), readTotals(input));
+            }
+            int shiftCount = input.readInt();
+            for (int i = 0; i < shiftCount; i++) {
+                byShift.put(input.readInt(), readTotals(input));
+            }
+        } catch (FileNotFoundException e) {
+            // Nothing recorded yet.
+        } catch (IOException e) {
+            contributions.clear();
+            byDay.clear();
+            byWeek.clear();
+            byShift.clear();
+            lifetime = Totals.ZERO;
+            ownerUserId = 0;
+            forgottenBeforeDay = Long.MIN_VALUE;
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    /**
+     * Writes the ledger to disk if it changed since the last {@link #load()} or {@link #save()}.
+     */
+    @WorkerThread
+    public synchronized void save() throws IOException {
+        if (!dirty || file == null) {
+            return;
+        }
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(FILE_VERSION);
+            output.writeInt(ownerUserId);
+            output.writeLong(forgottenBeforeDay);
+            output.writeInt(contributions.size());
+            for (Map.Entry<Integer, Contribution> entry : contributions.entrySet()) {
+                Contribution contribution = entry.getValue();
+                output.writeInt(entry.getKey());
+                output.writeLong(contribution.epochDay);
+                output.writeInt(contribution.shiftId);
+                output.writeLong(contribution.amountMinorUnits);
+            }
+            writeTotals(output, lifetime);
+            output.writeInt(byDay.size());
+            for (Map.Entry<Long, Totals> entry : byDay.entrySet()) {
+                output.writeLong(entry.getKey());
+                writeTotals(output, entry.getValue());
+            }
+            output.writeInt(byWeek.size());
+            for (Map.Entry<Long, Totals> entry : byWeek.entrySet()) {
+                output.writeLong(entry.getKey());
+                writeTotals(output, entry.getValue());
+            }
+            output.writeInt(byShift.size());
+            for (Map.Entry<Integer, Totals> entry : byShift.entrySet()) {
+                output.writeInt(entry.getKey());
+                writeTotals(output, entry.getValue());
+            }
+        }
+        if (!temp.renameTo(file)) {
+            //noinspection ResultOfMethodCallIgnored
+            temp.delete();
+            throw new IOException("Unable to replace " + file);
+        }
+        dirty = false;
+    }
+
+    @NonNull
+    private static Totals readTotals(@NonNull DataInputStream input) throws IOException {
+        return new Totals(input.readInt(), input.readLong());
+    }
+
+    private static void writeTotals(@NonNull DataOutputStream output, @NonNull Totals totals) throws IOException {
+        output.writeInt(totals.getOrderCount());
+        output.writeLong(totals.getAmountMinorUnits());
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                Locale.US,
+                "EarningsLedger{owner=%d, orders=%d, days=%d, weeks=%d, shifts=%d, lifetime=%s}",
+                ownerUserId,
+                contributions.size(),
+                byDay.size(),
+                byWeek.size(),
+                byShift.size(),
+                lifetime
+        );
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.deliveryapp.wallet;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.example.deliveryapp.history.HistoryStore;
+import com.example.deliveryapp.history.OrderDates;
+import com.example.deliveryapp.network.OrderInfo;
+import com.example.deliveryapp.network.OrderService;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Feeds finished orders into the rider's {@link EarningsLedger} as order lists arrive and serves
+ * the wallet screen's totals from it. Delivered orders count towards the day they were placed on
+ * and the shift that was in progress when they were first seen finished; cancelled and refunded
+ * ones are taken back out.
+ */
+public final class EarningsTracker implements OrderService.FinishedOrderSink {
+
+    public interface Callback {
+        @MainThread
+        void onSummary(@NonNull Summary summary);
+    }
+
+    /**
+     * Totals shown on the wallet screen.
+     */
+    public static final class Summary {
+
+        private final EarningsLedger.Totals today;
+        private final EarningsLedger.Totals week;
+        private final EarningsLedger.Totals shift;
+        private final EarningsLedger.Totals lifetime;
+        private final boolean shiftActive;
+
+        Summary(
+                @NonNull EarningsLedger.Totals today,
+                @NonNull EarningsLedger.Totals week,
+                @NonNull EarningsLedger.Totals shift,
+                @NonNull EarningsLedger.Totals lifetime,
+                boolean shiftActive
+        ) {
+            this.today = today;
+            this.week = week;
+            this.shift = shift;
+            this.lifetime = lifetime;
+            this.shiftActive = shiftActive;
+        }
+
+        @NonNull
+        public EarningsLedger.Totals getToday() {
+            return today;
+        }
+
+        @NonNull
+        public EarningsLedger.Totals getWeek() {
+            return week;
+        }
+
+        @NonNull
+        public EarningsLedger.Totals getShift() {
+            return shift;
+        }
+
+        @NonNull
+        public EarningsLedger.Totals getLifetime() {
+            return lifetime;
+        }
+
+        public boolean isShiftActive() {
+            return shiftActive;
+        }
+    }
+
+    private static final String TAG = "EarningsTracker";
+    private static final String LEDGER_FILE_NAME = "earnings_ledger.bin";
+
+    private static volatile EarningsTracker instance;
+
+    private final EarningsLedger ledger;
+    private final TimeZone branchZone = TimeZone.getDefault();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "earnings");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile int activeShiftId = EarningsLedger.NO_SHIFT;
+    // Executor thread only.
+    private boolean loaded;
+
+    private EarningsTracker(@NonNull Context context) {
+        ledger = new EarningsLedger(new File(context.getApplicationContext().getFilesDir(), LEDGER_FILE_NAME));
+    }
+
+    @NonNull
+    public static EarningsTracker getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (EarningsTracker.class) {
+                if (instance == null) {
+                    instance = new EarningsTracker(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the shift newly finished orders are credited to, or {@link EarningsLedger#NO_SHIFT}
+     * between shifts.
+     */
+    public void setActiveShift(int shiftId) {
+        activeShiftId = shiftId;
+    }
+
+    @Override
+    public void onFinishedOrders(int userId, @NonNull List<OrderInfo> orders) {
+        List<OrderInfo> snapshot = new ArrayList<>(orders);
+        executor.execute(() -> record(userId, snapshot));
+    }
+
+    /**
+     * Reads the current totals; each is a single lookup in the ledger.
+     */
+    public void loadSummary(@NonNull Callback callback) {
+        executor.execute(() -> {
+            ensureLoaded();
+            long today = EarningsLedger.epochDay(System.currentTimeMillis(), branchZone);
+            int shiftId = activeShiftId;
+            Summary summary = new Summary(
+                    ledger.getDay(today),
+                    ledger.getWeek(today),
+                    ledger.getShift(shiftId),
+                    ledger.getLifetime(),
+                    shiftId != EarningsLedger.NO_SHIFT
+            );
+            mainHandler.post(() -> callback.onSummary(summary));
+        });
+    }
+
+    @WorkerThread
+    private void record(int userId, @NonNull List<OrderInfo> orders) {
+        ensureLoaded();
+        ledger.claim(userId);
+        long now = System.currentTimeMillis();
+        int changed = 0;
+        for (OrderInfo order : orders) {
+            int orderId = order.getOrderId();
+            if (!order.getOrderStatus().isCollected()) {
+                if (ledger.remove(orderId)) {
+                    changed++;
+                }
+                continue;
+            }
+            long placedAt = OrderDates.parse(order.getOrderDate(), branchZone);
+            long day = EarningsLedger.epochDay(placedAt != OrderDates.UNKNOWN ? placedAt : now, branchZone);
+            // Keep the shift an order was first credited to; later polls may come after the shift.
+            int shiftId = ledger.contains(orderId) ? ledger.getShiftOf(orderId) : activeShiftId;
+            if (ledger.record(orderId, day, shiftId, Math.max(order.getTotalMinorUnits(), 0L))) {
+                changed++;
+            }
+        }
+        if (changed == 0) {
+            return;
+        }
+        // Beyond the history retention the server's lists no longer matter for corrections.
+        ledger.forgetOrdersBefore(EarningsLedger.epochDay(now - HistoryStore.RETENTION_MS, branchZone));
+        try {
+            ledger.save();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to save the earnings ledger", e);
+        }
+        Log.d(TAG, String.format(Locale.US, "Applied %d order changes: %s", changed, ledger));
+    }
+
+    @WorkerThread
+    private void ensureLoaded() {
+        if (!loaded) {
+            ledger.load();
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.deliveryapp.wallet;
+
+import androidx.annotation.NonNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+
+/**
+ * Converts peso amounts to and from whole centavos. Amounts are added up as {@code long} minor
+ * units so totals over thousands of orders stay exact; binary {@code double}s only appear at the
+ * API boundary, where the two-decimal values the server sends convert without loss.
+ */
+public final class Money {
+
+    public static final int MINOR_DIGITS = 2;
+
+    private Money() {
+        // Utility class
+    }
+
+    /**
+     * Returns {@code amount} in centavos, rounding half-up past the second decimal. Non-finite
+     * amounts count as zero.
+     */
+    public static long toMinorUnits(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            return 0L;
+        }
+        // valueOf uses the shortest decimal that round-trips, so 0.1 + 0.2 style noise never shows.
+        return BigDecimal.valueOf(amount)
+                .setScale(MINOR_DIGITS, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValue();
+    }
+
+    public static double toMajorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_DIGITS).doubleValue();
+    }
+
+    /**
+     * Formats {@code minorUnits} with {@code currencyFormat} without going through a
+     * {@code double}.
+     */
+    @NonNull
+    public static String format(long minorUnits, @NonNull NumberFormat currencyFormat) {
+        return currencyFormat.format(BigDecimal.valueOf(minorUnits, MINOR_DIGITS));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.deliveryapp;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assume;
+
+import java.util.Locale;
+
+/**
+ * Shared timing for the {@code *Benchmark} classes next to the unit tests. Benchmarks are skipped
+ * unless the build runs with {@code -PRUN_BENCHMARKS=true}; they report what they measured and
+ * assert nothing about it, because timings depend on the machine.
+ */
+public final class Benchmarks {
+
+    public interface Operation {
+        /**
+         * Does the measured work once and returns something derived from its result, so the work
+         * cannot be optimised away.
+         */
+        long run() throws Exception;
+    }
+
+    private static final int ROUNDS = 5;
+
+    // Keeps the results of measured runs reachable.
+    private static volatile long sink;
+
+    private Benchmarks() {
+        // Utility class
+    }
+
+    /**
+     * Skips the calling benchmark unless benchmarks were asked for.
+     */
+    public static void assumeEnabled() {
+        Assume.assumeTrue("Run with -PRUN_BENCHMARKS=true", Boolean.getBoolean("benchmarks"));
+    }
+
+    /**
+     * Runs {@code operation} {@code iterations} times to warm up, then times {@link #ROUNDS}
+     * rounds of {@code iterations} runs each.
+     *
+     * @return the mean nanoseconds per run of the fastest round
+     */
+    public static double nanosPerRun(int iterations, @NonNull Operation operation) throws Exception {
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            total += operation.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                total += operation.run();
+            }
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        sink = total;
+        return (double) best / iterations;
+    }
+
+    public static void report(@NonNull String format, @NonNull Object... args) {
+        System.out.println(String.format(Locale.US, format, args));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.deliveryapp.geocode;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class AddressGeocoderTest {
+
+    private static final String RIZAL_STREET = "7 Rizal St., Brgy. Sto. Nino, Marikina City";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final StubResolver resolver = new StubResolver();
+
+    @Test
+    public void geocode_resolvesEachNormalizedAddressOnce() throws IOException {
+        resolver.places.put("7 rizal street barangay santo nino marikina city", new GeocodeResult(14.63, 121.09, 0.9f));
+        AddressGeocoder geocoder = newGeocoder(folder.newFile());
+
+        GeocodeResult first = geocoder.geocode(RIZAL_STREET);
+        GeocodeResult second = geocoder.geocode("7 rizal street, barangay santo nino, marikina city, philippines");
+
+        assertNotNull(first);
+        assertEquals(14.63, first.getLatitude(), 0.0);
+        assertEquals(first.getLatitude(), second.getLatitude(), 0.0);
+        assertEquals(1, resolver.requests.size());
+    }
+
+    @Test
+    public void geocode_cachesMissesForShorterTime() throws IOException {
+        AddressGeocoder geocoder = newGeocoder(folder.newFile());
+
+        assertNull(geocoder.geocode("Nowhere Lane"));
+        assertNull(geocoder.geocode("Nowhere Lane"));
+        assertEquals(1, resolver.requests.size());
+
+        now.addAndGet(AddressGeocoder.NOT_FOUND_TTL_MS);
+        geocoder.geocode("Nowhere Lane");
+        assertEquals(2, resolver.requests.size());
+    }
+
+    @Test
+    public void geocode_refreshesExpiredMatch() throws IOException {
+        resolver.places.put("1 mabini street", new GeocodeResult(14.0, 121.0, 0.9f));
+        AddressGeocoder geocoder = newGeocoder(folder.newFile());
+        geocoder.geocode("1 Mabini St");
+
+        now.addAndGet(AddressGeocoder.FOUND_TTL_MS - 1);
+        geocoder.geocode("1 Mabini St");
+        assertEquals(1, resolver.requests.size());
+
+        now.addAndGet(1);
+        geocoder.geocode("1 Mabini St");
+        assertEquals(2, resolver.requests.size());
+    }
+
+    @Test
+    public void geocode_servesStaleEntryAndSkipsCachingWhenBackendFails() throws IOException {
+        resolver.places.put("1 mabini street", new GeocodeResult(14.0, 121.0, 0.9f));
+        AddressGeocoder geocoder = newGeocoder(folder.newFile());
+        geocoder.geocode("1 Mabini St");
+        now.addAndGet(AddressGeocoder.FOUND_TTL_MS + TimeUnit.DAYS.toMillis(1));
+        resolver.failing = true;
+
+        GeocodeResult stale = geocoder.geocode("1 Mabini St");
+        GeocodeResult unknown = geocoder.geocode("2 Mabini St");
+
+        assertNotNull(stale);
+        assertEquals(14.0, stale.getLatitude(), 0.0);
+        assertNull(unknown);
+
+        resolver.failing = false;
+        geocoder.geocode("2 Mabini St");
+        assertEquals(4, resolver.requests.size());
+    }
+
+    @Test
+    public void flush_letsNextProcessReuseResults() throws IOException {
+        File file = new File(folder.getRoot(), "geocode_cache.bin");
+        resolver.places.put("1 mabini street", new GeocodeResult(14.0, 121.0, 0.9f));
+        AddressGeocoder geocoder = newGeocoder(file);
+        geocoder.geocode("1 Mabini St");
+        geocoder.flush();
+
+        AddressGeocoder restarted = newGeocoder(file);
+        assertNotNull(restarted.geocode("1 mabini street"));
+
+        assertEquals(1, resolver.requests.size());
+        assertEquals(0, restarted.getResolverCallCount());
+    }
+
+    @Test
+    public void geocode_ignoresBlankAddress() throws IOException {
+        AddressGeocoder geocoder = newGeocoder(folder.newFile());
+
+        assertNull(geocoder.geocode(" , "));
+        assertEquals(0, resolver.requests.size());
+    }
+
+    private AddressGeocoder newGeocoder(File file) {
+        return new AddressGeocoder(new GeocodeCache(file, GeocodeCache.DEFAULT_MAX_ENTRIES, now::get), resolver);
+    }
+
+    private static final class StubResolver implements GeocodeResolver {
+
+        final Map<String, GeocodeResult> places = new HashMap<>();
+        final List<String> requests = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public GeocodeResult resolve(String normalizedAddress) throws IOException {
+            requests.add(normalizedAddress);
+            if (failing) {
+                throw new IOException("backend unavailable");
+            }
+            return places.get(normalizedAddress);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.deliveryapp.geocode;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AddressNormalizerTest {
+
+    @Test
+    public void normalize_mapsAbbreviatedAndSpelledOutFormsToSameKey() {
+        String abbreviated = AddressNormalizer.normalize("Blk 5 Lot 2 Rizal St., Brgy. San Roque, Marikina City, PH");
+        String spelledOut = AddressNormalizer.normalize("block 5 lot 2 rizal street barangay san roque marikina city");
+
+        assertEquals("block 5 lot 2 rizal street barangay san roque marikina city", abbreviated);
+        assertEquals(abbreviated, spelledOut);
+    }
+
+    @Test
+    public void normalize_stripsAccentsAndPunctuation() {
+        assertEquals("12 quirino avenue paranaque", AddressNormalizer.normalize("  12 Quirino Ave.,  Parañaque!! "));
+    }
+
+    @Test
+    public void normalize_dropsRepeatedComponents() {
+        assertEquals("7 jp rizal street marikina", AddressNormalizer.normalize("7 JP Rizal St, Marikina, marikina"));
+    }
+
+    @Test
+    public void normalize_dropsNumberMarkers() {
+        String expected = "12 mabini street";
+        assertEquals(expected, AddressNormalizer.normalize("#12 Mabini St"));
+        assertEquals(expected, AddressNormalizer.normalize("No. 12 Mabini St"));
+        assertEquals(expected, AddressNormalizer.normalize("Number 12 Mabini Street"));
+    }
+
+    @Test
+    public void normalize_stripsTrailingCountryButKeepsPhase() {
+        assertEquals("phase 2 block 3 cainta rizal", AddressNormalizer.normalize("Ph 2, Blk 3, Cainta, Rizal, Philippines"));
+        assertEquals("cainta rizal", AddressNormalizer.normalize("Cainta, Rizal PH"));
+    }
+
+    @Test
+    public void normalize_keepsHyphenatedLotCodes() {
+        assertEquals("lot 12-b sampaguita street", AddressNormalizer.normalize("Lot 12-B Sampaguita St."));
+    }
+
+    @Test
+    public void normalize_returnsNullWhenNothingMeaningfulRemains() {
+        assertNull(AddressNormalizer.normalize(null));
+        assertNull(AddressNormalizer.normalize("  , ; "));
+        assertNull(AddressNormalizer.normalize("Philippines"));
+    }
+}
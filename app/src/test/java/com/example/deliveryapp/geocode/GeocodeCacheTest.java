@@ -0,0 +1,103 @@
+package com.example.deliveryapp.geocode;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class GeocodeCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    public void put_evictsLeastRecentlyUsedEntry() throws IOException {
+        GeocodeCache cache = new GeocodeCache(folder.newFile(), 2, now::get);
+        cache.put("a", point(1));
+        cache.put("b", point(2));
+        cache.get("a");
+
+        cache.put("c", point(3));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void save_roundTripsEntriesAndRecencyOrder() throws IOException {
+        File file = new File(folder.getRoot(), "cache/geocode.bin");
+        GeocodeCache cache = new GeocodeCache(file, 2, now::get);
+        cache.put("a", point(1));
+        now.addAndGet(500);
+        cache.put("b", GeocodeResult.NOT_FOUND);
+        cache.get("a");
+        cache.save();
+
+        GeocodeCache reloaded = new GeocodeCache(file, 2, now::get);
+        reloaded.load();
+        reloaded.put("c", point(3));
+
+        GeocodeCache.Entry a = reloaded.get("a");
+        assertNotNull(a);
+        assertEquals(1.0, a.getResult().getLatitude(), 0.0);
+        assertEquals(0.9f, a.getResult().getConfidence(), 0.0f);
+        assertEquals(1_000_000L, a.getResolvedAtMillis());
+        // "b" was least recently used when saved, so it goes first.
+        assertNull(reloaded.get("b"));
+    }
+
+    @Test
+    public void save_persistsNegativeEntries() throws IOException {
+        File file = folder.newFile();
+        GeocodeCache cache = new GeocodeCache(file, 10, now::get);
+        cache.put("nowhere", GeocodeResult.NOT_FOUND);
+        cache.save();
+
+        GeocodeCache reloaded = new GeocodeCache(file, 10, now::get);
+        reloaded.load();
+
+        GeocodeCache.Entry entry = reloaded.get("nowhere");
+        assertNotNull(entry);
+        assertFalse(entry.getResult().isFound());
+    }
+
+    @Test
+    public void load_discardsCorruptFile() throws IOException {
+        File file = folder.newFile();
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[]{1, 2, 3, 4, 5});
+        }
+        GeocodeCache cache = new GeocodeCache(file, 10, now::get);
+
+        cache.load();
+
+        assertEquals(0, cache.size());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void ageOf_measuresFromResolutionTime() throws IOException {
+        GeocodeCache cache = new GeocodeCache(folder.newFile(), 10, now::get);
+        cache.put("a", point(1));
+        now.addAndGet(42_000);
+
+        assertEquals(42_000, cache.ageOf(cache.get("a")));
+    }
+
+    private static GeocodeResult point(double latitude) {
+        return new GeocodeResult(latitude, 121.0, 0.9f);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.deliveryapp.history;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class HistoryTokenizerTest {
+
+    @Test
+    public void tokens_foldCaseAndAccentsAndSplitOnPunctuation() {
+        assertEquals(
+                Arrays.asList("12", "b", "p", "noval", "st", "sampaloc", "manila"),
+                HistoryTokenizer.tokens("12-B P. Noval St., SAMPALOC, Manila")
+        );
+        assertEquals(Collections.singletonList("panaderia"), HistoryTokenizer.tokens("Pañadería"));
+    }
+
+    @Test
+    public void indexText_combinesAddressAndItemsWithoutDuplicates() {
+        assertEquals(
+                "santa ana manila 2x ensaymada ube",
+                HistoryTokenizer.indexText("Santa Ana, Manila", "2x Ensaymada, Ube Ensaymada")
+        );
+        assertEquals("", HistoryTokenizer.indexText(null, null));
+    }
+
+    @Test
+    public void matchExpression_prefixesEveryWord() {
+        assertEquals("ens* sampa*", HistoryTokenizer.matchExpression("  Ens  SAMPA "));
+        // Single characters would match nearly every row as prefixes.
+        assertEquals("b ube*", HistoryTokenizer.matchExpression("b ube"));
+    }
+
+    @Test
+    public void matchExpression_neutralizesQuerySyntax() {
+        assertEquals("ube* or* pandesal*", HistoryTokenizer.matchExpression("\"ube\" OR -pandesal*"));
+        assertNull(HistoryTokenizer.matchExpression(" ,.- "));
+        assertNull(HistoryTokenizer.matchExpression(null));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.deliveryapp.history;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrderDatesTest {
+
+    private static final TimeZone MANILA = TimeZone.getTimeZone("Asia/Manila");
+    /** 2025-09-01T10:00:00+08:00. */
+    private static final long SEPT_1_10AM = 1_756_692_000_000L;
+
+    @Test
+    public void parse_readsServerFormatsInBranchTime() {
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-09-01 10:00:00", MANILA));
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-09-01T10:00:00", MANILA));
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-09-01 10:00", MANILA));
+        assertEquals(SEPT_1_10AM, OrderDates.parse(" 2025-09-01 10:00:00.000000 ", MANILA));
+        assertEquals(SEPT_1_10AM - 10 * 3_600_000L, OrderDates.parse("2025-09-01", MANILA));
+    }
+
+    @Test
+    public void parse_honoursExplicitOffset() {
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-09-01T02:00:00Z", MANILA));
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-09-01T10:00:00.000+08:00", MANILA));
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-09-01T12:00:00+1000", MANILA));
+        assertEquals(SEPT_1_10AM, OrderDates.parse("2025-08-31T22:00:00-04", MANILA));
+    }
+
+    @Test
+    public void parse_keepsMillisecondsOfFractionalSeconds() {
+        assertEquals(SEPT_1_10AM + 250, OrderDates.parse("2025-09-01 10:00:00.25", MANILA));
+        assertEquals(SEPT_1_10AM + 123, OrderDates.parse("2025-09-01 10:00:00.123456", MANILA));
+    }
+
+    @Test
+    public void parse_matchesCalendarAcrossLeapDaysAndDaylightSaving() {
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        for (String value : new String[]{"2024-02-29 23:59:59", "1969-12-31 12:00:00", "2025-03-09 03:30:00", "2025-11-02 01:30:00"}) {
+            assertEquals(value, calendarMillis(value, newYork), OrderDates.parse(value, newYork));
+        }
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("2025-02-29", MANILA));
+    }
+
+    @Test
+    public void parse_rejectsUnknownOrInvalidValues() {
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse(null, MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("", MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("Sept 1, 2025", MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("2025-13-01", MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("2025-09-01 garbage", MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("2025-09-01 24:00:00", MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("2025-09-01 10:00:00.", MANILA));
+        assertEquals(OrderDates.UNKNOWN, OrderDates.parse("2025-09-01 10:00+08:00", MANILA));
+    }
+
+    private static long calendarMillis(String value, TimeZone zone) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        format.setTimeZone(zone);
+        try {
+            return format.parse(value).getTime();
+        } catch (ParseException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.deliveryapp.location;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FixBufferTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void peek_returnsAppendedFixesInOrder() throws IOException {
+        FixBuffer buffer = new FixBuffer(null);
+        List<LocationFix> fixes = ride(50);
+        for (LocationFix fix : fixes) {
+            buffer.append(fix);
+        }
+
+        assertEquals(50, buffer.size());
+        assertEquals(fixes, buffer.peek(100));
+        assertEquals(fixes.subList(0, 10), buffer.peek(10));
+        assertEquals(fixes.get(0), buffer.getOldest());
+    }
+
+    @Test
+    public void append_storesConsecutiveFixesCompactly() throws IOException {
+        FixBuffer buffer = new FixBuffer(null);
+        for (LocationFix fix : ride(1000)) {
+            buffer.append(fix);
+        }
+
+        double bytesPerFix = buffer.byteSize() / 1000.0;
+        assertTrue("bytes per fix: " + bytesPerFix, bytesPerFix < 10);
+    }
+
+    @Test
+    public void load_restoresFixesFromFile() throws IOException {
+        File file = new File(folder.getRoot(), "location_fixes_1.bin");
+        FixBuffer buffer = new FixBuffer(file);
+        List<LocationFix> fixes = ride(20);
+        for (LocationFix fix : fixes) {
+            buffer.append(fix);
+        }
+
+        FixBuffer restored = new FixBuffer(file);
+        restored.load();
+
+        assertEquals(fixes, restored.peek(100));
+    }
+
+    @Test
+    public void load_dropsTornFinalRecord() throws IOException {
+        File file = new File(folder.getRoot(), "location_fixes_1.bin");
+        FixBuffer buffer = new FixBuffer(file);
+        List<LocationFix> fixes = ride(5);
+        for (LocationFix fix : fixes) {
+            buffer.append(fix);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 2);
+        }
+
+        FixBuffer restored = new FixBuffer(file);
+        restored.load();
+
+        assertEquals(fixes.subList(0, 4), restored.peek(100));
+        restored.append(fixes.get(4));
+        FixBuffer reloaded = new FixBuffer(file);
+        reloaded.load();
+        assertEquals(fixes, reloaded.peek(100));
+    }
+
+    @Test
+    public void discardOldest_keepsRemainingFixesOnDisk() throws IOException {
+        File file = new File(folder.getRoot(), "location_fixes_1.bin");
+        FixBuffer buffer = new FixBuffer(file);
+        List<LocationFix> fixes = ride(10);
+        for (LocationFix fix : fixes) {
+            buffer.append(fix);
+        }
+
+        buffer.discardOldest(4);
+
+        assertEquals(fixes.subList(4, 10), buffer.peek(100));
+        FixBuffer restored = new FixBuffer(file);
+        restored.load();
+        assertEquals(fixes.subList(4, 10), restored.peek(100));
+
+        buffer.discardOldest(6);
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.getOldest());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void append_dropsOldestBeyondCap() throws IOException {
+        FixBuffer buffer = new FixBuffer(null, 3);
+        List<LocationFix> fixes = ride(5);
+        for (LocationFix fix : fixes) {
+            buffer.append(fix);
+        }
+
+        assertEquals(fixes.subList(2, 5), buffer.peek(100));
+    }
+
+    @Test
+    public void append_trimsToCapInBatches() throws IOException {
+        File file = new File(folder.getRoot(), "location_fixes_1.bin");
+        FixBuffer buffer = new FixBuffer(file, 20);
+        List<LocationFix> fixes = ride(25);
+        for (LocationFix fix : fixes.subList(0, 21)) {
+            buffer.append(fix);
+        }
+        // A tenth of the cap may build up before anything is dropped.
+        assertEquals(21, buffer.size());
+        long untrimmedLength = file.length();
+
+        buffer.append(fixes.get(21));
+
+        assertEquals(fixes.subList(2, 22), buffer.peek(100));
+        assertTrue(file.length() < untrimmedLength);
+        FixBuffer restored = new FixBuffer(file, 20);
+        restored.load();
+        assertEquals(fixes.subList(2, 22), restored.peek(100));
+    }
+
+    /**
+     * Fixes five seconds apart along a street in Manila at about 8 m/s.
+     */
+    static List<LocationFix> ride(int count) {
+        List<LocationFix> fixes = new ArrayList<>();
+        long time = 1_718_000_000_000L;
+        double latitude = 14.5995;
+        double longitude = 120.9842;
+        for (int i = 0; i < count; i++) {
+            fixes.add(LocationFix.of(time, latitude, longitude, 5 + i % 4, 7.5f + (i % 3) * 0.5f));
+            time += 5_000 + (i % 2) * 13;
+            latitude += 0.00031;
+            longitude += 0.00012 * ((i % 5) - 1);
+        }
+        return fixes;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.deliveryapp.location;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the pipeline against a local HTTP server standing in for the location endpoint.
+ */
+public class LocationPipelineTest {
+
+    private HttpServer server;
+    private URL endpoint;
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> encodings = new CopyOnWriteArrayList<>();
+    private volatile int responseCode = 200;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/locations", exchange -> {
+            encodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Content-Encoding")));
+            try (InputStream input = new GZIPInputStream(exchange.getRequestBody())) {
+                bodies.add(new String(readAll(input), StandardCharsets.UTF_8));
+            }
+            byte[] response = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(responseCode, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+        endpoint = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/locations");
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void onFix_holdsFixesUntilBatchIsOld() throws IOException {
+        LocationPipeline pipeline = newPipeline();
+        List<LocationFix> fixes = FixBufferTest.ride(12);
+        for (LocationFix fix : fixes) {
+            pipeline.onFix(fix, fix.getTimeMillis());
+        }
+        assertTrue(bodies.isEmpty());
+
+        LocationFix last = fixes.get(fixes.size() - 1);
+        LocationFix late = LocationFix.of(
+                fixes.get(0).getTimeMillis() + LocationPipeline.MAX_BATCH_AGE_MS,
+                last.toGeoPoint().getLatitude() + 0.001,
+                last.toGeoPoint().getLongitude(),
+                5,
+                8f
+        );
+        pipeline.onFix(late, late.getTimeMillis());
+
+        assertEquals(1, bodies.size());
+        assertEquals("gzip", encodings.get(0));
+        assertEquals(0, pipeline.getPendingCount());
+        assertEquals(13, pipeline.getUploadedFixes());
+        String body = bodies.get(0);
+        assertTrue(body, body.startsWith("{\"user_id\":7,\"shift_id\":42,\"encoding\":\"delta\","));
+        LocationFix first = fixes.get(0);
+        assertTrue(body, body.contains("\"fixes\":[[" + first.getTimeMillis() + "," + first.getLatitudeE6() + ","));
+    }
+
+    @Test
+    public void onFix_uploadsFullBatchImmediately() throws IOException {
+        LocationPipeline pipeline = newPipeline();
+        List<LocationFix> fixes = FixBufferTest.ride(LocationPipeline.FULL_BATCH_FIXES);
+        long now = fixes.get(0).getTimeMillis();
+        for (LocationFix fix : fixes) {
+            pipeline.onFix(fix, now);
+        }
+
+        assertEquals(1, bodies.size());
+        assertEquals(LocationPipeline.FULL_BATCH_FIXES, pipeline.getUploadedFixes());
+    }
+
+    @Test
+    public void onNetworkActivity_piggybacksOnlyOnceFixesHaveAged() throws IOException {
+        LocationPipeline pipeline = newPipeline();
+        List<LocationFix> fixes = FixBufferTest.ride(3);
+        for (LocationFix fix : fixes) {
+            pipeline.onFix(fix, fix.getTimeMillis());
+        }
+        long start = fixes.get(0).getTimeMillis();
+
+        pipeline.onNetworkActivity(start + LocationPipeline.PIGGYBACK_MIN_AGE_MS - 1);
+        assertTrue(bodies.isEmpty());
+
+        pipeline.onNetworkActivity(start + LocationPipeline.PIGGYBACK_MIN_AGE_MS);
+        assertEquals(1, bodies.size());
+        assertEquals(1, pipeline.getPiggybackedUploads());
+        assertEquals(0, pipeline.getPendingCount());
+    }
+
+    @Test
+    public void failedUpload_keepsFixesAndBacksOff() throws IOException {
+        responseCode = 503;
+        LocationPipeline pipeline = newPipeline();
+        List<LocationFix> fixes = FixBufferTest.ride(3);
+        for (LocationFix fix : fixes) {
+            pipeline.onFix(fix, fix.getTimeMillis());
+        }
+        long now = fixes.get(0).getTimeMillis() + LocationPipeline.MAX_BATCH_AGE_MS;
+
+        assertFalse(pipeline.flush(now));
+        assertEquals(1, pipeline.getFailedUploads());
+        assertEquals(3, pipeline.getPendingCount());
+        assertFalse(pipeline.isUploadDue(now + 1_000, true));
+
+        responseCode = 200;
+        assertTrue(pipeline.flush(now + 1_000));
+        assertEquals(3, pipeline.getUploadedFixes());
+        assertEquals(2, bodies.size());
+    }
+
+    @Test
+    public void rejectedUpload_dropsBatch() throws IOException {
+        responseCode = 400;
+        LocationPipeline pipeline = newPipeline();
+        for (LocationFix fix : FixBufferTest.ride(3)) {
+            pipeline.onFix(fix, fix.getTimeMillis());
+        }
+
+        assertTrue(pipeline.flush(System.currentTimeMillis()));
+        assertEquals(0, pipeline.getUploadedFixes());
+        assertEquals(0, pipeline.getFailedUploads());
+    }
+
+    @Test
+    public void flush_sendsYoungFixes() throws IOException {
+        LocationPipeline pipeline = newPipeline();
+        long now = 0L;
+        // Never due on its own: every call reports a time before the first fix.
+        for (LocationFix fix : FixBufferTest.ride(LocationPipeline.FULL_BATCH_FIXES - 1)) {
+            pipeline.onFix(fix, now);
+        }
+        assertTrue(bodies.isEmpty());
+
+        assertTrue(pipeline.flush(now));
+        assertEquals(1, bodies.size());
+        assertEquals(LocationPipeline.FULL_BATCH_FIXES - 1, pipeline.getUploadedFixes());
+    }
+
+    private LocationPipeline newPipeline() {
+        return new LocationPipeline(new FixBuffer(null), new SamplingPolicy(), new LocationBatchUploader(), endpoint, 7, 42);
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
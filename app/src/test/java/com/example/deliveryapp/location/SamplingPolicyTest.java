@@ -0,0 +1,73 @@
+package com.example.deliveryapp.location;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingPolicyTest {
+
+    private static final long START = 1_718_000_000_000L;
+    private static final double LATITUDE = 14.5995;
+    private static final double LONGITUDE = 120.9842;
+    /** Roughly one meter of latitude. */
+    private static final double METER = 1.0 / 111_195;
+
+    @Test
+    public void tierFor_picksBandBySpeed() {
+        assertEquals(SamplingPolicy.Tier.STATIONARY, SamplingPolicy.tierFor(0.3f));
+        assertEquals(SamplingPolicy.Tier.SLOW, SamplingPolicy.tierFor(2f));
+        assertEquals(SamplingPolicy.Tier.MOVING, SamplingPolicy.tierFor(8f));
+        assertEquals(SamplingPolicy.Tier.FAST, SamplingPolicy.tierFor(20f));
+    }
+
+    @Test
+    public void offer_dropsJitterWhileParked() {
+        SamplingPolicy policy = new SamplingPolicy();
+        assertTrue(policy.offer(LocationFix.of(START, LATITUDE, LONGITUDE, 10, 0f)));
+
+        int kept = 0;
+        for (int i = 1; i <= 20; i++) {
+            double jitter = (i % 2 == 0 ? 6 : -6) * METER;
+            if (policy.offer(LocationFix.of(START + i * 5_000L, LATITUDE + jitter, LONGITUDE, 10, 0f))) {
+                kept++;
+            }
+        }
+
+        assertEquals(0, kept);
+        assertEquals(SamplingPolicy.Tier.STATIONARY, policy.getTier());
+    }
+
+    @Test
+    public void offer_keepsHeartbeatForParkedRider() {
+        SamplingPolicy policy = new SamplingPolicy();
+        policy.offer(LocationFix.of(START, LATITUDE, LONGITUDE, 10, 0f));
+
+        assertFalse(policy.offer(LocationFix.of(START + 60_000L, LATITUDE, LONGITUDE, 10, 0f)));
+        assertTrue(policy.offer(LocationFix.of(START + SamplingPolicy.HEARTBEAT_MS, LATITUDE, LONGITUDE, 10, 0f)));
+    }
+
+    @Test
+    public void offer_speedsUpAndKeepsFixesWhileRiding() {
+        SamplingPolicy policy = new SamplingPolicy();
+        int kept = 0;
+        for (int i = 0; i < 10; i++) {
+            // 50 m every 5 s: 10 m/s.
+            if (policy.offer(LocationFix.of(START + i * 5_000L, LATITUDE + i * 50 * METER, LONGITUDE, 5, 10f))) {
+                kept++;
+            }
+        }
+
+        assertEquals(SamplingPolicy.Tier.MOVING, policy.getTier());
+        assertEquals(10, kept);
+    }
+
+    @Test
+    public void offer_ignoresInaccurateFixUntilHeartbeat() {
+        SamplingPolicy policy = new SamplingPolicy();
+        policy.offer(LocationFix.of(START, LATITUDE, LONGITUDE, 5, 0f));
+
+        assertFalse(policy.offer(LocationFix.of(START + 5_000L, LATITUDE + 300 * METER, LONGITUDE, 400, -1f)));
+    }
+}
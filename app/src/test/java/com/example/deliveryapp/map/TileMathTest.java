@@ -0,0 +1,70 @@
+package com.example.deliveryapp.map;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TileMathTest {
+
+    @Test
+    public void tileCoordinates_matchSlippyMapScheme() {
+        assertEquals(27396, (int) TileMath.tileX(120.9842, 15));
+        assertEquals(15040, (int) TileMath.tileY(14.5995, 15));
+        assertEquals(0.0, TileMath.tileX(-180, 3), 1e-9);
+        assertEquals(4.0, TileMath.tileY(0, 3), 1e-9);
+    }
+
+    @Test
+    public void inverse_returnsOriginalPosition() {
+        double x = TileMath.tileX(120.9842, 16);
+        double y = TileMath.tileY(14.5995, 16);
+
+        assertEquals(120.9842, TileMath.longitude(x, 16), 1e-9);
+        assertEquals(14.5995, TileMath.latitude(y, 16), 1e-9);
+    }
+
+    @Test
+    public void key_roundTripsAndSortsByZoomThenX() {
+        long key = TileMath.key(20, (1 << 20) - 1, 12345);
+
+        assertEquals(20, TileMath.zoomOf(key));
+        assertEquals((1 << 20) - 1, TileMath.xOf(key));
+        assertEquals(12345, TileMath.yOf(key));
+        assertTrue(TileMath.key(12, 4000, 0) < TileMath.key(13, 0, 0));
+        assertTrue(TileMath.key(13, 1, 9999) < TileMath.key(13, 2, 0));
+    }
+
+    @Test
+    public void covering_includesEveryTileOnceAcrossZooms() {
+        TileArea area = TileArea.parse("14.55,120.95,14.65,121.05");
+        assertNotNull(area);
+
+        List<Long> keys = area.tiles(12, 16);
+
+        assertEquals(keys.size(), new HashSet<>(keys).size());
+        int tilesAtMaxZoom = 0;
+        for (long key : keys) {
+            if (TileMath.zoomOf(key) == 16) {
+                tilesAtMaxZoom++;
+            }
+        }
+        // 0.1 degrees is about 18 tiles wide at zoom 16.
+        assertTrue(tilesAtMaxZoom >= 18 * 18 && tilesAtMaxZoom <= 20 * 20);
+        assertTrue(keys.size() < TilePrefetcher.MAX_TILES);
+        assertTrue(keys.contains(TileMath.key(15, 27396, 15040)));
+    }
+
+    @Test
+    public void parse_rejectsMalformedBounds() {
+        assertNull(TileArea.parse(null));
+        assertNull(TileArea.parse("14.55,120.95,14.65"));
+        assertNull(TileArea.parse("north,west,south,east"));
+        assertNull(TileArea.parse("14.65,120.95,14.55,121.05"));
+    }
+}
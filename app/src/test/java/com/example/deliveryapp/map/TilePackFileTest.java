@@ -0,0 +1,136 @@
+package com.example.deliveryapp.map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TilePackFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void read_returnsTilesAddedInAnyOrder() throws IOException {
+        File file = new File(folder.getRoot(), "tiles/map_tiles.pack");
+        try (TilePackWriter writer = new TilePackWriter(file, "area|12-16|source", 1234L)) {
+            writer.add(TileMath.key(16, 5, 5), tile("c"));
+            writer.add(TileMath.key(12, 1, 1), tile("a"));
+            writer.add(TileMath.key(14, 3, 2), tile("b"));
+            writer.commit();
+        }
+
+        TilePackFile pack = TilePackFile.open(file);
+
+        assertEquals(3, pack.getTileCount());
+        assertEquals(1234L, pack.getCreatedAtMillis());
+        assertEquals("area|12-16|source", pack.getCoverage());
+        assertArrayEquals(tile("a"), pack.read(TileMath.key(12, 1, 1)));
+        assertArrayEquals(tile("b"), pack.read(TileMath.key(14, 3, 2)));
+        assertArrayEquals(tile("c"), pack.read(TileMath.key(16, 5, 5)));
+        assertNull(pack.read(TileMath.key(16, 5, 6)));
+        assertFalse(pack.contains(TileMath.key(11, 0, 0)));
+    }
+
+    @Test
+    public void read_findsEveryTileOfLargePack() throws IOException {
+        File file = folder.newFile();
+        TileArea area = TileArea.parse("14.55,120.95,14.65,121.05");
+        try (TilePackWriter writer = new TilePackWriter(file, "large", 0L)) {
+            for (long key : area.tiles(12, 16)) {
+                writer.add(key, tile(Long.toString(key)));
+            }
+            writer.commit();
+        }
+
+        TilePackFile pack = TilePackFile.open(file);
+
+        for (long key : area.tiles(12, 16)) {
+            assertArrayEquals(tile(Long.toString(key)), pack.read(key));
+        }
+    }
+
+    @Test
+    public void commit_keepsOpenPackReadableWhileReplacingFile() throws IOException {
+        File file = folder.newFile();
+        long key = TileMath.key(15, 10, 10);
+        try (TilePackWriter writer = new TilePackWriter(file, "old", 1L)) {
+            writer.add(key, tile("old"));
+            writer.commit();
+        }
+        TilePackFile oldPack = TilePackFile.open(file);
+
+        try (TilePackWriter writer = new TilePackWriter(file, "new", 2L)) {
+            writer.add(key, tile("new"));
+            writer.commit();
+        }
+
+        assertArrayEquals(tile("old"), oldPack.read(key));
+        assertArrayEquals(tile("new"), TilePackFile.open(file).read(key));
+    }
+
+    @Test
+    public void close_withoutCommitLeavesPreviousPack() throws IOException {
+        File file = new File(folder.getRoot(), "map_tiles.pack");
+        try (TilePackWriter writer = new TilePackWriter(file, "kept", 1L)) {
+            writer.add(TileMath.key(12, 0, 0), tile("kept"));
+            writer.commit();
+        }
+
+        try (TilePackWriter writer = new TilePackWriter(file, "abandoned", 2L)) {
+            writer.add(TileMath.key(12, 0, 0), tile("abandoned"));
+        }
+
+        assertEquals("kept", TilePackFile.open(file).getCoverage());
+        String[] leftovers = folder.getRoot().list((directory, name) -> name.endsWith(".tmp") || name.endsWith(".data"));
+        assertEquals(0, leftovers.length);
+    }
+
+    @Test
+    public void open_rejectsForeignAndTruncatedFiles() throws IOException {
+        File foreign = folder.newFile();
+        try (FileOutputStream output = new FileOutputStream(foreign)) {
+            output.write("<html>not tiles</html>".getBytes(StandardCharsets.UTF_8));
+        }
+        assertOpenFails(foreign);
+
+        File truncated = folder.newFile();
+        File complete = new File(folder.getRoot(), "complete.pack");
+        try (TilePackWriter writer = new TilePackWriter(complete, "area", 1L)) {
+            for (int i = 0; i < 100; i++) {
+                writer.add(TileMath.key(16, i, i), tile("tile " + i));
+            }
+            writer.commit();
+        }
+        byte[] bytes = Files.readAllBytes(complete.toPath());
+        try (FileOutputStream output = new FileOutputStream(truncated)) {
+            output.write(bytes, 0, 200);
+        }
+        assertOpenFails(truncated);
+    }
+
+    private static void assertOpenFails(File file) {
+        try {
+            TilePackFile.open(file);
+            fail("Expected " + file + " to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().length() > 0);
+        }
+    }
+
+    private static byte[] tile(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BatchServiceTest {
+
+    private static final BatchRequest ALL = new BatchRequest.Builder()
+            .health("health.php")
+            .profile("rider@example.com")
+            .shifts(7)
+            .unfinishedOrders(7)
+            .build();
+
+    /** Records the parts it is handed and echoes their bodies back as server messages. */
+    private static final class RecordingInterpreter implements BatchService.PartInterpreter {
+        final List<String> calls = new ArrayList<>();
+
+        @NonNull
+        @Override
+        public UserService.UserIdResult profile(int statusCode, @NonNull String body) {
+            calls.add("profile " + statusCode + " " + body);
+            UserService.UserIdResult result = new UserService.UserIdResult();
+            if (statusCode == 200) {
+                result.userId = 7;
+            } else {
+                result.errorMessage = "profile failed";
+            }
+            return result;
+        }
+
+        @NonNull
+        @Override
+        public ShiftService.ShiftFetchResult shifts(int statusCode, @NonNull String body) {
+            calls.add("shifts " + statusCode + " " + body);
+            ShiftService.ShiftFetchResult result = new ShiftService.ShiftFetchResult();
+            if (statusCode == 200) {
+                result.shifts = Collections.singletonList(new ShiftInfo(3, 7, "Sam", "2024-05-01",
+                        "09:00", "17:00", null, null, "scheduled", null, "Downtown"));
+                result.serverMessage = body;
+            } else {
+                result.errorMessage = "shifts failed";
+            }
+            return result;
+        }
+
+        @NonNull
+        @Override
+        public OrderService.ResponseBundle orders(int userId, int statusCode, @NonNull String body) {
+            calls.add("orders " + userId + " " + statusCode + " " + body);
+            OrderService.ResponseBundle result = new OrderService.ResponseBundle();
+            if (statusCode == 200) {
+                result.serverMessage = body;
+            } else {
+                result.errorMessage = "orders failed";
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void splitsTheResponsesObjectById() {
+        Map<String, BatchService.SubResponse> parts = BatchService.parseBatchResponse(
+                "{\"responses\":["
+                        + "{\"id\":\"health\",\"status\":204},"
+                        + "{\"id\":\"profile\",\"body\":{\"user_id\":7}},"
+                        + "{\"id\":\" shifts \",\"status\":200,\"body\":[]},"
+                        + "{\"id\":\"orders\",\"status\":200,\"body\":\"none\"}"
+                        + "]}");
+
+        assertNotNull(parts);
+        assertEquals(4, parts.size());
+        assertEquals(204, parts.get("health").statusCode);
+        assertEquals("", parts.get("health").body);
+        assertEquals(200, parts.get("profile").statusCode);
+        assertEquals("{\"user_id\":7}", parts.get("profile").body);
+        assertEquals("[]", parts.get("shifts").body);
+        assertEquals("none", parts.get("orders").body);
+    }
+
+    @Test
+    public void splitsABareArrayAndSkipsItemsWithoutAnId() {
+        Map<String, BatchService.SubResponse> parts = BatchService.parseBatchResponse(
+                " [{\"id\":\"orders\",\"status\":500,\"body\":null}, {\"status\":200}, 3, {\"id\":\"\"}] ");
+
+        assertNotNull(parts);
+        assertEquals(1, parts.size());
+        assertEquals(500, parts.get("orders").statusCode);
+        assertEquals("", parts.get("orders").body);
+    }
+
+    @Test
+    public void bodiesThatAreNotBatchResponsesAreRejected() {
+        assertNull(BatchService.parseBatchResponse("{\"success\":true}"));
+        assertNull(BatchService.parseBatchResponse("<html>Bad gateway</html>"));
+        assertNull(BatchService.parseBatchResponse("[{\"id\":"));
+        assertNull(BatchService.parseBatchResponse(""));
+    }
+
+    @Test
+    public void eachPartIsHandedToItsOwnInterpreter() {
+        RecordingInterpreter interpreter = new RecordingInterpreter();
+        BatchResult result = BatchService.interpret(ALL, BatchService.parseBatchResponse("["
+                + "{\"id\":\"health\",\"status\":200},"
+                + "{\"id\":\"profile\",\"body\":{\"user_id\":7}},"
+                + "{\"id\":\"shifts\",\"body\":\"Schedule loaded\"},"
+                + "{\"id\":\"orders\",\"body\":\"Orders loaded\"}"
+                + "]"), interpreter);
+
+        assertEquals(3, interpreter.calls.size());
+        assertEquals("profile 200 {\"user_id\":7}", interpreter.calls.get(0));
+        assertEquals("shifts 200 Schedule loaded", interpreter.calls.get(1));
+        assertEquals("orders 7 200 Orders loaded", interpreter.calls.get(2));
+
+        assertTrue(result.wasBatched());
+        assertTrue(result.isServerReachable());
+        assertEquals(7, result.getUserId());
+        assertNull(result.getProfileError());
+        assertEquals(1, result.getShifts().size());
+        assertEquals("Schedule loaded", result.getShiftsMessage());
+        assertNull(result.getShiftsError());
+        assertEquals("Orders loaded", result.getOrdersMessage());
+        assertNull(result.getOrdersError());
+    }
+
+    @Test
+    public void aFailedPartFailsOnlyItsOwnCall() {
+        BatchResult result = BatchService.interpret(ALL, BatchService.parseBatchResponse("["
+                + "{\"id\":\"health\",\"status\":503},"
+                + "{\"id\":\"profile\",\"body\":{}},"
+                + "{\"id\":\"shifts\",\"status\":500,\"body\":\"boom\"},"
+                + "{\"id\":\"orders\",\"body\":\"Orders loaded\"}"
+                + "]"), new RecordingInterpreter());
+
+        assertTrue(result.hasHealth());
+        assertFalse(result.isServerReachable());
+        assertEquals("HTTP 503", result.getHealthError());
+        assertEquals(7, result.getUserId());
+        assertTrue(result.getShifts().isEmpty());
+        assertEquals("shifts failed", result.getShiftsError());
+        assertNull(result.getOrdersError());
+        assertEquals("Orders loaded", result.getOrdersMessage());
+    }
+
+    @Test
+    public void aMissingPartFailsOnlyItsOwnCall() {
+        RecordingInterpreter interpreter = new RecordingInterpreter();
+        BatchResult result = BatchService.interpret(ALL, BatchService.parseBatchResponse("["
+                + "{\"id\":\"health\",\"status\":200},"
+                + "{\"id\":\"profile\",\"body\":{}},"
+                + "{\"id\":\"shifts\",\"body\":\"Schedule loaded\"}"
+                + "]"), interpreter);
+
+        assertEquals(2, interpreter.calls.size());
+        assertTrue(result.isServerReachable());
+        assertNull(result.getShiftsError());
+        assertTrue(result.hasOrders());
+        assertTrue(result.getOrders().isEmpty());
+        assertEquals("Batch response did not include the orders result.", result.getOrdersError());
+    }
+
+    @Test
+    public void partsThatWereNotRequestedAreIgnored() {
+        BatchRequest shiftsOnly = new BatchRequest.Builder().shifts(7).build();
+        RecordingInterpreter interpreter = new RecordingInterpreter();
+        BatchResult result = BatchService.interpret(shiftsOnly, BatchService.parseBatchResponse("["
+                + "{\"id\":\"profile\",\"body\":{}},"
+                + "{\"id\":\"shifts\",\"body\":\"Schedule loaded\"},"
+                + "{\"id\":\"orders\",\"body\":\"Orders loaded\"}"
+                + "]"), interpreter);
+
+        assertEquals(Collections.singletonList("shifts 200 Schedule loaded"), interpreter.calls);
+        assertFalse(result.hasHealth());
+        assertFalse(result.hasProfile());
+        assertTrue(result.hasShifts());
+        assertFalse(result.hasOrders());
+    }
+
+    @Test
+    public void failAllFailsEveryRequestedPart() {
+        BatchResult result = BatchService.failAll(ALL, "No connection");
+
+        assertTrue(result.wasBatched());
+        assertFalse(result.isServerReachable());
+        assertEquals("No connection", result.getHealthError());
+        assertEquals(-1, result.getUserId());
+        assertEquals("No connection", result.getProfileError());
+        assertEquals("No connection", result.getShiftsError());
+        assertEquals("No connection", result.getOrdersError());
+    }
+}
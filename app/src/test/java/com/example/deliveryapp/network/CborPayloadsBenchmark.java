@@ -0,0 +1,38 @@
+package com.example.deliveryapp.network;
+
+import com.example.deliveryapp.Benchmarks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.TimeZone;
+
+public class CborPayloadsBenchmark {
+
+    private static final TimeZone MANILA = TimeZone.getTimeZone("Asia/Manila");
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void decodeTimeAndSizeAgainstJson() throws Exception {
+        for (int orders : new int[]{50, 500, 5_000}) {
+            try (CborPayloadsTest.StandInServer server = new CborPayloadsTest.StandInServer(orders)) {
+                byte[] json = server.json;
+                byte[] cbor = server.cbor;
+                double jsonNanos = Benchmarks.nanosPerRun(200, () ->
+                        CborPayloadsTest.parseJsonOrders(new String(json, StandardCharsets.UTF_8)).size());
+                double cborNanos = Benchmarks.nanosPerRun(200, () ->
+                        CborPayloads.decodeOrders(cbor, MANILA).value.size());
+                Benchmarks.report("CborPayloads, %d orders: decode JSON %.2f ms, CBOR %.2f ms; "
+                                + "bytes JSON %d (%d gzipped), CBOR %d (%d gzipped)",
+                        orders, jsonNanos / 1e6, cborNanos / 1e6,
+                        json.length, CborPayloadsTest.gzip(json).length,
+                        cbor.length, CborPayloadsTest.gzip(cbor).length);
+            }
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CborPayloadsTest {
+
+    private static final TimeZone MANILA = TimeZone.getTimeZone("Asia/Manila");
+
+    /** Writes the subset of CBOR the stand-in server needs. */
+    private static final class CborWriter {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CborWriter map(int size) {
+            return head(CborReader.MAP, size);
+        }
+
+        CborWriter array(int size) {
+            return head(CborReader.ARRAY, size);
+        }
+
+        CborWriter startIndefinite(int majorType) {
+            out.write(majorType << 5 | 31);
+            return this;
+        }
+
+        CborWriter end() {
+            out.write(0xFF);
+            return this;
+        }
+
+        CborWriter tag(int tag) {
+            return head(6, tag);
+        }
+
+        CborWriter text(@Nullable String value) {
+            if (value == null) {
+                return nullValue();
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            head(CborReader.TEXT, bytes.length);
+            out.write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        CborWriter integer(long value) {
+            return value >= 0 ? head(CborReader.UNSIGNED, value) : head(CborReader.NEGATIVE, -1 - value);
+        }
+
+        /** Writes whole numbers as integers and the rest as the shortest exact float. */
+        CborWriter number(double value) {
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return integer((long) value);
+            }
+            if ((float) value == value) {
+                out.write(CborReader.SIMPLE << 5 | 26);
+                return raw(Float.floatToIntBits((float) value), 4);
+            }
+            out.write(CborReader.SIMPLE << 5 | 27);
+            return raw(Double.doubleToLongBits(value), 8);
+        }
+
+        CborWriter halfFloat(int bits) {
+            out.write(CborReader.SIMPLE << 5 | 25);
+            return raw(bits, 2);
+        }
+
+        CborWriter bool(boolean value) {
+            out.write(CborReader.SIMPLE << 5 | (value ? 21 : 20));
+            return this;
+        }
+
+        CborWriter nullValue() {
+            out.write(CborReader.SIMPLE << 5 | 22);
+            return this;
+        }
+
+        byte[] bytes() {
+            return out.toByteArray();
+        }
+
+        private CborWriter head(int majorType, long argument) {
+            int type = majorType << 5;
+            if (argument < 24) {
+                out.write(type | (int) argument);
+            } else if (argument < 0x100) {
+                out.write(type | 24);
+                raw(argument, 1);
+            } else if (argument < 0x10000) {
+                out.write(type | 25);
+                raw(argument, 2);
+            } else if (argument < 0x100000000L) {
+                out.write(type | 26);
+                raw(argument, 4);
+            } else {
+                out.write(type | 27);
+                raw(argument, 8);
+            }
+            return this;
+        }
+
+        private CborWriter raw(long value, int bytes) {
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write((int) (value >>> (8 * i)) & 0xFF);
+            }
+            return this;
+        }
+    }
+
+    /** One order as the API sends it. */
+    private static final class Order {
+        final int id;
+        final String status;
+        final String date;
+        final String source;
+        final int items;
+        final double total;
+        final String address;
+        final double lat;
+        final double lng;
+
+        Order(int i) {
+            id = 1000 + i;
+            status = i % 5 == 0 ? "Delivered" : i % 3 == 0 ? "Out for Delivery" : "Preparing";
+            date = String.format(Locale.US, "2026-10-%02d %02d:%02d:00", 1 + i % 28, 8 + i % 12, i % 60);
+            source = i % 2 == 0 ? "App" : "Walk-in";
+            items = 1 + i % 7;
+            total = 85.5 + (i % 40) * 12.25;
+            address = "Blk " + (i % 30) + " Lot " + (i % 12) + ", Brgy. San Isidro, Quezon City";
+            lat = 14.6 + (i % 100) * 0.00123;
+            lng = 121.0 + (i % 100) * 0.00071;
+        }
+
+        void writeCbor(@NonNull CborWriter cbor) {
+            cbor.map(10)
+                    .text("order_id").integer(id)
+                    .text("user_id").integer(7)
+                    .text("status").text(status)
+                    .text("order_date").text(date)
+                    .text("source").text(source)
+                    .text("item_count").integer(items)
+                    .text("total_amount").number(total)
+                    .text("delivery_address").text(address)
+                    .text("delivery_latitude").number(lat)
+                    .text("delivery_longitude").number(lng);
+        }
+
+        @NonNull
+        JSONObject toJson() throws Exception {
+            return new JSONObject()
+                    .put("order_id", id)
+                    .put("user_id", 7)
+                    .put("status", status)
+                    .put("order_date", date)
+                    .put("source", source)
+                    .put("item_count", items)
+                    .put("total_amount", total)
+                    .put("delivery_address", address)
+                    .put("delivery_latitude", lat)
+                    .put("delivery_longitude", lng);
+        }
+    }
+
+    /**
+     * Stands in for the order API: answers in CBOR when the {@code Accept} header ranks it above
+     * JSON and CBOR is enabled, else in JSON, and gzips like the production web server does.
+     */
+    static final class StandInServer implements AutoCloseable {
+        final HttpServer server;
+        final byte[] json;
+        final byte[] cbor;
+        volatile boolean cborEnabled = true;
+
+        StandInServer(int orders) throws Exception {
+            JSONArray array = new JSONArray();
+            CborWriter writer = new CborWriter().array(orders);
+            for (int i = 0; i < orders; i++) {
+                Order order = new Order(i);
+                array.put(order.toJson());
+                order.writeCbor(writer);
+            }
+            json = array.toString().getBytes(StandardCharsets.UTF_8);
+            cbor = writer.bytes();
+
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/orders.php", exchange -> {
+                boolean useCbor = cborEnabled && prefersCbor(exchange.getRequestHeaders().getFirst("Accept"));
+                byte[] body = useCbor ? cbor : json;
+                exchange.getResponseHeaders().set("Content-Type", useCbor ? CborPayloads.MEDIA_TYPE : "application/json; charset=utf-8");
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    body = gzip(body);
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+
+        @NonNull
+        URL url() throws IOException {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/orders.php?user_id=7");
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+
+        /**
+         * Weighs the media ranges of an {@code Accept} header by their {@code q} values, as RFC 9110
+         * asks; on a tie the server keeps JSON.
+         */
+        private static boolean prefersCbor(@Nullable String accept) {
+            if (accept == null) {
+                return false;
+            }
+            double cborQuality = 0;
+            double jsonQuality = 0;
+            for (String range : accept.split(",")) {
+                String[] parts = range.split(";");
+                String mediaType = parts[0].trim().toLowerCase(Locale.US);
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    }
+                }
+                if (mediaType.equals(CborPayloads.MEDIA_TYPE)) {
+                    cborQuality = quality;
+                } else if (mediaType.equals("application/json") || mediaType.equals("*/*")) {
+                    jsonQuality = Math.max(jsonQuality, quality);
+                }
+            }
+            return cborQuality > jsonQuality;
+        }
+    }
+
+    /** What one request to the stand-in server returned, as the transport would see it. */
+    static final class Fetched {
+        String contentType;
+        int wireBytes;
+        byte[] body;
+    }
+
+    @Test
+    public void decodesOrdersStraightIntoTheTable() {
+        CborWriter cbor = new CborWriter().map(3)
+                .text("message").text("2 orders")
+                .text("extra").map(1).text("nested").array(2).integer(1).text("x")
+                .text("orders").array(3);
+        new Order(0).writeCbor(cbor);
+        // Lenient like the JSON path: numeric strings, floats for integers, unknown keys.
+        cbor.map(5)
+                .text("id").text("77")
+                .text("status").text("  Preparing ")
+                .text("item_count").number(3.0)
+                .text("total_amount").text("120.50")
+                .text("rider_note").nullValue();
+        cbor.map(1).text("order_id").integer(0);
+
+        CborPayloads.Payload<OrderTable> payload = CborPayloads.decodeOrders(cbor.bytes(), MANILA);
+
+        assertNull(payload.errorMessage);
+        assertEquals("2 orders", payload.serverMessage);
+        OrderTable table = payload.value;
+        assertEquals(2, table.size());
+        OrderInfo first = table.getOrder(0);
+        Order expected = new Order(0);
+        assertEquals(expected.id, first.getOrderId());
+        assertEquals(expected.status, first.getStatus());
+        assertEquals(expected.address, first.getDeliveryAddress());
+        assertEquals(expected.total, first.getTotalAmount(), 0.001);
+        assertEquals(expected.lat, first.getLatitude(), 1e-9);
+        OrderInfo second = table.getOrder(1);
+        assertEquals(77, second.getOrderId());
+        assertEquals("Preparing", second.getStatus());
+        assertEquals(3, second.getItemCount());
+        assertEquals(12_050L, second.getTotalMinorUnits());
+        assertTrue(Double.isNaN(second.getLatitude()));
+    }
+
+    @Test
+    public void orderErrorsAndMalformedBodiesAreReported() {
+        byte[] refused = new CborWriter().map(2)
+                .text("success").bool(false)
+                .text("message").text("Rider is not on shift.")
+                .bytes();
+        assertEquals("Rider is not on shift.", CborPayloads.decodeOrders(refused, MANILA).errorMessage);
+
+        byte[] truncated = new CborWriter().array(2).map(1).text("order_id").bytes();
+        CborPayloads.Payload<OrderTable> payload = CborPayloads.decodeOrders(truncated, MANILA);
+        assertNull(payload.value);
+        assertEquals(ErrorNormalizationInterceptor.UNEXPECTED_RESPONSE_MESSAGE, payload.errorMessage);
+
+        assertEquals(0, CborPayloads.decodeOrders(new byte[0], MANILA).value.size());
+    }
+
+    @Test
+    public void decodesShiftSchedules() {
+        CborWriter cbor = new CborWriter().map(3)
+                .text("success").bool(true)
+                .text("message").text("Schedule loaded")
+                .text("shifts").startIndefinite(CborReader.ARRAY);
+        for (int id : new int[]{11, 12, 11}) {
+            cbor.map(5)
+                    .text("shift_id").integer(id)
+                    .text("shift_date").text("2026-10-19")
+                    .text("scheduled_start").text("08:00")
+                    .text("status").text("scheduled")
+                    .text("notes").text("Cubao branch");
+        }
+        cbor.end();
+
+        CborPayloads.Payload<List<ShiftInfo>> payload = CborPayloads.decodeShifts(cbor.bytes());
+
+        assertNull(payload.errorMessage);
+        assertEquals("Schedule loaded", payload.serverMessage);
+        assertEquals(2, payload.value.size());
+        ShiftInfo shift = payload.value.get(1);
+        assertEquals(12, shift.getId());
+        assertEquals("08:00", shift.getScheduledStart());
+        assertEquals("Cubao branch", shift.getLocation());
+        assertTrue(shift.canStart());
+
+        byte[] failed = new CborWriter().map(2).text("success").text("0").text("error").text("Unknown rider").bytes();
+        assertEquals("Unknown rider", CborPayloads.decodeShifts(failed).errorMessage);
+    }
+
+    @Test
+    public void readerHandlesIndefiniteLengthsTagsAndHalfFloats() throws IOException {
+        CborWriter cbor = new CborWriter().startIndefinite(CborReader.MAP)
+                .text("when").tag(0).text("2026-10-19T08:00:00Z")
+                .startIndefinite(CborReader.TEXT).text("na").text("me").end().text("Café")
+                .text("half").halfFloat(0x3E00)
+                .text("tiny").halfFloat(0x8001)
+                .text("big").integer(-5_000_000_000L)
+                .text("skipped").startIndefinite(CborReader.ARRAY).map(1).text("k").bool(true).end()
+                .end();
+        CborReader reader = new CborReader(cbor.bytes());
+
+        int size = reader.readMapStart();
+        assertEquals(-1, size);
+        StringBuilder seen = new StringBuilder();
+        for (int i = 0; reader.hasNextElement(size, i); i++) {
+            String key = reader.readKey();
+            switch (key) {
+                case "half":
+                    assertEquals(1.5, reader.readDouble(0), 0.0);
+                    break;
+                case "tiny":
+                    assertEquals(-Math.pow(2, -24), reader.readDouble(0), 0.0);
+                    break;
+                case "big":
+                    assertEquals(-5_000_000_000L, reader.readLong(0));
+                    break;
+                case "skipped":
+                    reader.skip();
+                    break;
+                default:
+                    seen.append(key).append('=').append(reader.readString()).append(';');
+            }
+        }
+        assertEquals("when=2026-10-19T08:00:00Z;name=Café;", seen.toString());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void negotiatesCborAndFallsBackToJson() throws Exception {
+        try (StandInServer server = new StandInServer(20)) {
+            Fetched cbor = fetch(server.url(), CborPayloads.ACCEPT_HEADER, false);
+            assertTrue(CborPayloads.isCbor(cbor.contentType));
+            assertEquals(20, CborPayloads.decodeOrders(cbor.body, MANILA).value.size());
+
+            // A server that honours q values keeps JSON for a client ranking it first.
+            Fetched ranked = fetch(server.url(), "application/json, " + CborPayloads.MEDIA_TYPE + ";q=0.9", false);
+            assertFalse(CborPayloads.isCbor(ranked.contentType));
+
+            server.cborEnabled = false;
+            Fetched json = fetch(server.url(), CborPayloads.ACCEPT_HEADER, false);
+            assertFalse(CborPayloads.isCbor(json.contentType));
+            assertEquals(20, parseJsonOrders(new String(json.body, StandardCharsets.UTF_8)).size());
+        }
+        assertTrue(CborPayloads.isCbor("Application/CBOR; charset=binary"));
+        assertFalse(CborPayloads.isCbor("application/cbor-seq"));
+    }
+
+    @Test
+    public void gzippedCborAnswersDecodeToTheSameOrdersAsJson() throws Exception {
+        int orders = 500;
+        try (StandInServer server = new StandInServer(orders)) {
+            Fetched json = fetch(server.url(), "application/json", true);
+            Fetched cbor = fetch(server.url(), CborPayloads.ACCEPT_HEADER, true);
+
+            // What the transport hands the services: a CBOR content type and, once gunzipped,
+            // a body that opens with the head of a 500-element array (major type 4, two-byte
+            // length).
+            assertEquals(CborPayloads.MEDIA_TYPE, cbor.contentType);
+            assertEquals(CborReader.ARRAY << 5 | 25, cbor.body[0] & 0xFF);
+            assertEquals(orders, (cbor.body[1] & 0xFF) << 8 | cbor.body[2] & 0xFF);
+            assertEquals('[', json.body[0]);
+
+            OrderTable fromJson = parseJsonOrders(new String(json.body, StandardCharsets.UTF_8));
+            OrderTable fromCbor = CborPayloads.decodeOrders(cbor.body, MANILA).value;
+            assertEquals(orders, fromCbor.size());
+            for (int row = 0; row < orders; row += 97) {
+                assertEquals(fromJson.getOrder(row).toString(), fromCbor.getOrder(row).toString());
+            }
+        }
+    }
+
+    @NonNull
+    static Fetched fetch(@NonNull URL url, @NonNull String accept, boolean gzip) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestProperty("Accept", accept);
+            connection.setRequestProperty("Accept-Encoding", gzip ? "gzip" : "identity");
+            assertEquals(200, connection.getResponseCode());
+            Fetched fetched = new Fetched();
+            fetched.contentType = connection.getContentType();
+            fetched.wireBytes = (int) connection.getContentLengthLong();
+            try (InputStream stream = HttpCompression.openResponseStream(connection, 200)) {
+                fetched.body = ResponseBodyReader.getInstance().readBytes(stream, fetched.wireBytes, gzip);
+            }
+            return fetched;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @NonNull
+    static byte[] gzip(@NonNull byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    /** The JSON order path of {@link OrderService}, with its key aliases, on a single thread. */
+    @NonNull
+    static OrderTable parseJsonOrders(@NonNull String body) {
+        JSONArray array = (JSONArray) JsonBodies.parse(body);
+        OrderTable.Builder table = new OrderTable.Builder(MANILA);
+        StringDeduplicator strings = new StringDeduplicator();
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject object = array.optJSONObject(i);
+            int orderId = (int) optNumber(object, -1, "Order_ID", "order_id", "id");
+            if (orderId <= 0) {
+                continue;
+            }
+            table.add(
+                    orderId,
+                    (int) optNumber(object, 0, "User_ID", "user_id"),
+                    strings.dedupe(optString(object, "Status", "status")),
+                    optString(object, "Order_Date", "order_date", "date"),
+                    strings.dedupe(optString(object, "Fulfillment_Type", "fulfillment_type")),
+                    strings.dedupe(optString(object, "Source", "source")),
+                    (int) optNumber(object, 0, "Item_Count", "item_count", "items"),
+                    optNumber(object, 0.0, "Total_Amount", "total_amount", "Total"),
+                    optString(object, "Item_Summary", "item_summary"),
+                    strings.dedupe(optString(object, "Image_Url", "image_url", "Image_Path", "image")),
+                    strings.dedupe(optString(object, "Delivery_Address", "delivery_address", "Address", "address",
+                            "DeliveryAddress", "deliveryAddress")),
+                    optNumber(object, Double.NaN, "Delivery_Latitude", "delivery_latitude", "Latitude", "latitude", "lat"),
+                    optNumber(object, Double.NaN, "Delivery_Longitude", "delivery_longitude", "Longitude", "longitude", "lng", "lon")
+            );
+        }
+        return table.build();
+    }
+
+    private static double optNumber(@NonNull JSONObject object, double fallback, @NonNull String... keys) {
+        for (String key : keys) {
+            if (object.has(key) && !object.isNull(key)) {
+                Object value = object.opt(key);
+                if (value instanceof Number) {
+                    return ((Number) value).doubleValue();
+                }
+            }
+        }
+        return fallback;
+    }
+
+    @Nullable
+    private static String optString(@NonNull JSONObject object, @NonNull String... keys) {
+        for (String key : keys) {
+            if (object.has(key) && !object.isNull(key)) {
+                String value = object.optString(key, "");
+                if (!value.isEmpty()) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+}
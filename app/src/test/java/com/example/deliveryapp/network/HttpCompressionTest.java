@@ -0,0 +1,156 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class HttpCompressionTest {
+
+    private static final byte[] BODY = repeat("{\"order_id\":1,\"status\":\"Preparing\"},", 200)
+            .getBytes(StandardCharsets.UTF_8);
+
+    /** Serves a canned body with the given encoding. */
+    private static final class CannedConnection extends HttpURLConnection {
+        @Nullable
+        private final String encoding;
+        @Nullable
+        private final byte[] body;
+        @Nullable
+        private final byte[] errorBody;
+
+        CannedConnection(@Nullable String encoding, @Nullable byte[] body, @Nullable byte[] errorBody) throws IOException {
+            super(new URL("https://api.example.com/orders.php"));
+            this.encoding = encoding;
+            this.body = body;
+            this.errorBody = errorBody;
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            if (body == null) {
+                throw new IOException("No body");
+            }
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return errorBody != null ? new ByteArrayInputStream(errorBody) : null;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public void connect() {
+        }
+    }
+
+    @Test
+    public void decodesGzipBodies() throws IOException {
+        byte[] gzipped = HttpCompression.gzip(BODY);
+        assertArrayEquals(BODY, readAll(new CannedConnection("gzip", gzipped, null), 200));
+        assertArrayEquals(BODY, readAll(new CannedConnection(" X-GZIP ", gzipped, null), 200));
+    }
+
+    @Test
+    public void decodesZlibWrappedAndRawDeflateBodies() throws IOException {
+        assertArrayEquals(BODY, readAll(new CannedConnection("deflate", deflate(BODY, false), null), 200));
+        assertArrayEquals(BODY, readAll(new CannedConnection("deflate", deflate(BODY, true), null), 200));
+    }
+
+    @Test
+    public void passesUnencodedBodiesThrough() throws IOException {
+        assertArrayEquals(BODY, readAll(new CannedConnection(null, BODY, null), 200));
+        assertArrayEquals(BODY, readAll(new CannedConnection("identity", BODY, null), 200));
+    }
+
+    @Test
+    public void readsErrorBodiesFromTheErrorStream() throws IOException {
+        byte[] error = "{\"error\":\"Not found\"}".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(error, readAll(new CannedConnection("gzip", null, HttpCompression.gzip(error)), 404));
+        assertNull(HttpCompression.openResponseStream(new CannedConnection(null, null, null), 500));
+    }
+
+    @Test
+    public void recordsWireAndDecodedBytesOnClose() throws IOException {
+        NetworkMetrics metrics = NetworkMetrics.getInstance();
+        long wireBefore = metrics.getResponseWireBytes();
+        long decodedBefore = metrics.getResponseDecodedBytes();
+        long compressedBefore = metrics.getCompressedResponseCount();
+        byte[] gzipped = HttpCompression.gzip(BODY);
+
+        readAll(new CannedConnection("gzip", gzipped, null), 200);
+
+        assertEquals(gzipped.length, metrics.getResponseWireBytes() - wireBefore);
+        assertEquals(BODY.length, metrics.getResponseDecodedBytes() - decodedBefore);
+        assertEquals(1, metrics.getCompressedResponseCount() - compressedBefore);
+    }
+
+    @Test
+    public void smallOrUncompressedRequestBodiesAreSentAsIs() {
+        byte[] small = new byte[HttpCompression.MIN_COMPRESSIBLE_BODY_BYTES - 1];
+        assertSame(small, HttpCompression.encodeRequestBody(small));
+    }
+
+    @NonNull
+    private static byte[] readAll(@NonNull HttpURLConnection connection, int statusCode) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream stream = HttpCompression.openResponseStream(connection, statusCode)) {
+            byte[] buffer = new byte[512];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @NonNull
+    private static byte[] deflate(@NonNull byte[] body, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(body);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    @NonNull
+    private static String repeat(@NonNull String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpPipelineTest {
+
+    private static final String ORDERS_URL = "https://api.example.com/orders.php?user_id=7";
+
+    /** Answers from a script and records every request it was sent. */
+    private static final class FakeTransport implements HttpPipeline.Transport {
+        final List<HttpRequest> sent = new ArrayList<>();
+        final List<Object> script = new ArrayList<>();
+
+        FakeTransport then(@NonNull Object responseOrException) {
+            script.add(responseOrException);
+            return this;
+        }
+
+        @NonNull
+        @Override
+        public HttpResponse execute(@NonNull HttpRequest request, RequestHandle handle) throws IOException {
+            sent.add(request);
+            Object next = script.size() > 1 ? script.remove(0) : script.get(0);
+            if (next instanceof IOException) {
+                throw (IOException) next;
+            }
+            return (HttpResponse) next;
+        }
+    }
+
+    @NonNull
+    private static HttpResponse response(int status, @NonNull String body, @NonNull String... headers) {
+        Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            map.put(headers[i], Collections.singletonList(headers[i + 1]));
+        }
+        return new HttpResponse(status, map, body, 0L);
+    }
+
+    @NonNull
+    private static HttpRequest get(@NonNull String url) throws IOException {
+        return new HttpRequest.Builder(new URL(url)).build();
+    }
+
+    @Test
+    public void interceptorsRunInOrderAndSeeEachOthersChanges() throws IOException {
+        List<String> calls = new ArrayList<>();
+        Interceptor outer = chain -> {
+            calls.add("outer request");
+            HttpResponse response = chain.proceed(chain.request().newBuilder().header("X-Step", "outer").build());
+            calls.add("outer response");
+            return response.withErrorMessage("seen by outer");
+        };
+        Interceptor inner = chain -> {
+            calls.add("inner request " + chain.request().getHeader("x-step"));
+            HttpResponse response = chain.proceed(chain.request());
+            calls.add("inner response");
+            return response;
+        };
+        FakeTransport transport = new FakeTransport().then(response(200, "[]"));
+        HttpPipeline pipeline = new HttpPipeline(Arrays.asList(outer, inner), transport);
+
+        HttpResponse response = pipeline.execute(get(ORDERS_URL), null);
+
+        assertEquals(Arrays.asList("outer request", "inner request outer", "inner response", "outer response"), calls);
+        assertEquals("outer", transport.sent.get(0).getHeader("X-STEP"));
+        assertEquals("seen by outer", response.getErrorMessage());
+    }
+
+    @Test
+    public void idempotentRequestsAreRetriedOnceAfterAConnectionFailure() throws IOException {
+        FakeTransport transport = new FakeTransport()
+                .then(new IOException("Connection reset"))
+                .then(response(200, "[]"));
+        HttpPipeline pipeline = new HttpPipeline(Collections.singletonList(new RetryInterceptor(1, 0)), transport);
+
+        assertEquals(200, pipeline.execute(get(ORDERS_URL), null).getStatusCode());
+        assertEquals(2, transport.sent.size());
+    }
+
+    @Test
+    public void actionsAndTimeoutsAreNotRetried() throws IOException {
+        HttpRequest startShift = new HttpRequest.Builder(new URL("https://api.example.com/shift_action.php"))
+                .post("shift_id=3".getBytes(), "application/x-www-form-urlencoded")
+                .build();
+        assertFalse(startShift.isIdempotent());
+        assertFailsAfterOneAttempt(startShift, new IOException("Connection reset"));
+        assertFailsAfterOneAttempt(get(ORDERS_URL), new SocketTimeoutException("timeout"));
+    }
+
+    private static void assertFailsAfterOneAttempt(@NonNull HttpRequest request, @NonNull IOException failure) {
+        FakeTransport transport = new FakeTransport().then(failure);
+        HttpPipeline pipeline = new HttpPipeline(Collections.singletonList(new RetryInterceptor(3, 0)), transport);
+        try {
+            pipeline.execute(request, null);
+            fail("Expected " + failure);
+        } catch (IOException e) {
+            assertEquals(failure, e);
+        }
+        assertEquals(1, transport.sent.size());
+    }
+
+    @Test
+    public void notModifiedResponsesReplayTheCachedBody() throws IOException {
+        CachingInterceptor cache = new CachingInterceptor(CachingInterceptor.DEFAULT_MAX_ENTRIES);
+        FakeTransport transport = new FakeTransport()
+                .then(response(200, "[{\"order_id\":1}]", "ETag", "\"v1\""))
+                .then(response(304, ""));
+        HttpPipeline pipeline = new HttpPipeline(Collections.singletonList(cache), transport);
+
+        HttpResponse first = pipeline.execute(get(ORDERS_URL), null);
+        assertNull(transport.sent.get(0).getHeader("If-None-Match"));
+        assertFalse(first.isFromCache());
+
+        HttpResponse second = pipeline.execute(get(ORDERS_URL), null);
+        assertEquals("\"v1\"", transport.sent.get(1).getHeader("If-None-Match"));
+        assertTrue(second.isFromCache());
+        assertEquals(200, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals(ResponseFingerprints.fingerprint(ResponseFingerprints.serverHash(first), first.getBody()),
+                ResponseFingerprints.fingerprint(ResponseFingerprints.serverHash(second), second.getBody()));
+    }
+
+    @Test
+    public void onlyGetResponsesWithValidatorsAreCached() throws IOException {
+        CachingInterceptor cache = new CachingInterceptor(2);
+        FakeTransport transport = new FakeTransport().then(response(200, "{}", "Last-Modified", "Mon, 19 Oct 2026 08:00:00 GMT"));
+        HttpPipeline pipeline = new HttpPipeline(Collections.singletonList(cache), transport);
+
+        pipeline.execute(new HttpRequest.Builder(new URL(ORDERS_URL)).post(new byte[0], "text/plain").build(), null);
+        assertEquals(0, cache.size());
+        for (int i = 0; i < 3; i++) {
+            pipeline.execute(get(ORDERS_URL + "&page=" + i), null);
+        }
+        assertEquals(2, cache.size());
+
+        transport.script.set(0, response(200, "{}"));
+        pipeline.execute(get(ORDERS_URL + "&page=2"), null);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void htmlBodiesAreRecognised() {
+        assertTrue(response(502, "  \n<!DOCTYPE html><html></html>").isHtml());
+        assertFalse(response(200, "{\"note\":\"<html> in a string\"}").isHtml());
+        assertFalse(response(200, "").isHtml());
+    }
+}
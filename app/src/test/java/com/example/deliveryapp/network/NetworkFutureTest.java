@@ -0,0 +1,252 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkFutureTest {
+
+    /** Records the outcome a listener saw, or {@code null} while none arrived. */
+    private static final class Outcome<T> implements NetworkFuture.Listener<T> {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile String result;
+
+        @Override
+        public void onSuccess(@Nullable T value) {
+            result = "ok:" + value;
+            done.countDown();
+        }
+
+        @Override
+        public void onError(@NonNull String errorMessage) {
+            result = "error:" + errorMessage;
+            done.countDown();
+        }
+    }
+
+    @NonNull
+    private static <T> Outcome<T> observe(@NonNull NetworkFuture<T> future) {
+        Outcome<T> outcome = new Outcome<>();
+        future.addListener(NetworkFuture.DIRECT, outcome);
+        return outcome;
+    }
+
+    @Test
+    public void listenersSeeTheOutcomeWhetherAddedBeforeOrAfter() {
+        NetworkFuture<String> future = new NetworkFuture<>();
+        Outcome<String> early = observe(future);
+        assertNull(early.result);
+
+        assertTrue(future.complete("shifts"));
+        assertFalse(future.fail("late"));
+        assertFalse(future.cancel());
+
+        assertEquals("ok:shifts", early.result);
+        assertEquals("ok:shifts", observe(future).result);
+        assertEquals("error:HTTP 500", observe(NetworkFuture.failed("HTTP 500")).result);
+    }
+
+    @Test
+    public void cancellingDropsListenersAndRunsCancelActions() {
+        NetworkFuture<String> future = new NetworkFuture<>();
+        Outcome<String> outcome = observe(future);
+        List<String> aborted = new ArrayList<>();
+        future.onCancel(() -> aborted.add("request"));
+
+        assertTrue(future.cancel());
+        assertFalse(future.complete("too late"));
+        future.onCancel(() -> aborted.add("late hook"));
+
+        assertNull(outcome.result);
+        assertNull(observe(future).result);
+        assertEquals(Arrays.asList("request", "late hook"), aborted);
+    }
+
+    @Test
+    public void mapAndThenChainOnSuccessAndSkipOnFailure() {
+        NetworkFuture<Integer> userId = new NetworkFuture<>();
+        List<Integer> requested = new ArrayList<>();
+        NetworkFuture<String> shifts = userId
+                .map(id -> id * 10)
+                .then(id -> {
+                    requested.add(id);
+                    return NetworkFuture.succeeded("shifts for " + id);
+                });
+        Outcome<String> outcome = observe(shifts);
+
+        userId.complete(7);
+        assertEquals("ok:shifts for 70", outcome.result);
+        assertEquals(Arrays.asList(70), requested);
+
+        NetworkFuture<Integer> failing = NetworkFuture.failed("No signed-in rider.");
+        Outcome<String> skipped = observe(failing.then(id -> {
+            requested.add(id);
+            return NetworkFuture.succeeded("unreachable");
+        }));
+        assertEquals("error:No signed-in rider.", skipped.result);
+        assertEquals(1, requested.size());
+    }
+
+    @Test
+    public void exceptionsInTransformsFailTheDerivedFuture() {
+        Outcome<Object> outcome = observe(NetworkFuture.succeeded("x").map(value -> {
+            throw new IllegalStateException("bad payload");
+        }));
+        assertEquals("error:bad payload", outcome.result);
+    }
+
+    @Test
+    public void recoverTurnsFailuresIntoValues() {
+        NetworkFuture<List<String>> cached = NetworkFuture.<List<String>>failed("offline")
+                .recover(message -> Arrays.asList("snapshot"));
+        assertEquals("ok:[snapshot]", observe(cached).result);
+    }
+
+    @Test
+    public void cancellingADerivedFutureCancelsTheRequestsBehindIt() {
+        NetworkFuture<Integer> userId = new NetworkFuture<>();
+        NetworkFuture<String> shifts = new NetworkFuture<>();
+        NetworkFuture<String> chained = userId.then(id -> shifts);
+
+        userId.complete(7);
+        assertFalse(shifts.isDone());
+        chained.cancel();
+        assertTrue(shifts.isCancelled());
+
+        NetworkFuture<String> source = new NetworkFuture<>();
+        NetworkFuture<Integer> mapped = source.map(String::length);
+        source.cancel();
+        assertTrue(mapped.isCancelled());
+    }
+
+    @Test
+    public void cancellingOneChainLeavesItsSiblingsRunning() {
+        NetworkFuture<String> source = new NetworkFuture<>();
+        NetworkFuture<Integer> lengths = source.map(String::length);
+        Outcome<String> upper = observe(source.map(value -> value.toUpperCase(Locale.US)));
+        lengths.cancel();
+        assertFalse(source.isDone());
+        source.complete("orders");
+        assertEquals("ok:ORDERS", upper.result);
+
+        // The source is cancelled once its last dependent lets go.
+        NetworkFuture<String> shared = new NetworkFuture<>();
+        NetworkFuture<Integer> first = shared.map(String::length);
+        NetworkFuture<String> second = shared.then(value -> NetworkFuture.succeeded(value));
+        first.cancel();
+        assertFalse(shared.isCancelled());
+        second.cancel();
+        assertTrue(shared.isCancelled());
+
+        // all() that fails releases, rather than cancels, an input another chain still uses.
+        NetworkFuture<String> slow = new NetworkFuture<>();
+        NetworkFuture<String> broken = new NetworkFuture<>();
+        Outcome<Integer> stillWanted = observe(slow.map(String::length));
+        NetworkFuture.all(Arrays.asList(slow, broken));
+        broken.fail("HTTP 503");
+        assertFalse(slow.isDone());
+        slow.complete("shifts");
+        assertEquals("ok:6", stillWanted.result);
+    }
+
+    @Test
+    public void allKeepsInputOrderAndFailsFast() {
+        NetworkFuture<String> first = new NetworkFuture<>();
+        NetworkFuture<String> second = new NetworkFuture<>();
+        Outcome<List<String>> outcome = observe(NetworkFuture.all(Arrays.asList(first, second)));
+
+        second.complete("orders");
+        assertNull(outcome.result);
+        first.complete("shifts");
+        assertEquals("ok:[shifts, orders]", outcome.result);
+
+        NetworkFuture<String> slow = new NetworkFuture<>();
+        NetworkFuture<String> broken = new NetworkFuture<>();
+        Outcome<List<String>> failed = observe(NetworkFuture.all(Arrays.asList(slow, broken)));
+        broken.fail("HTTP 503");
+        assertEquals("error:HTTP 503", failed.result);
+        assertTrue(slow.isCancelled());
+
+        assertEquals("ok:[]", observe(NetworkFuture.<String>all(new ArrayList<>())).result);
+    }
+
+    @Test
+    public void raceTakesTheFirstOutcomeAndCancelsTheRest() {
+        NetworkFuture<String> primary = new NetworkFuture<>();
+        NetworkFuture<String> mirror = new NetworkFuture<>();
+        Outcome<String> outcome = observe(NetworkFuture.race(Arrays.asList(primary, mirror)));
+
+        mirror.complete("mirror");
+        assertEquals("ok:mirror", outcome.result);
+        assertTrue(primary.isCancelled());
+    }
+
+    @Test
+    public void timeoutFailsAndCancelsASlowRequest() throws Exception {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        try {
+            NetworkFuture<String> slow = new NetworkFuture<>();
+            Outcome<String> outcome = observe(slow.timeout(20, scheduler));
+            assertTrue(outcome.done.await(2, TimeUnit.SECONDS));
+            assertEquals("error:" + NetworkFuture.TIMEOUT_MESSAGE, outcome.result);
+            // The request is cancelled before the timeout is reported.
+            assertTrue(slow.isCancelled());
+
+            NetworkFuture<String> shared = new NetworkFuture<>();
+            Outcome<Integer> sibling = observe(shared.map(String::length));
+            Outcome<String> impatient = observe(shared.timeout(20, scheduler));
+            assertTrue(impatient.done.await(2, TimeUnit.SECONDS));
+            assertFalse(shared.isDone());
+            shared.complete("orders");
+            assertEquals("ok:6", sibling.result);
+
+            NetworkFuture<String> fast = new NetworkFuture<>();
+            Outcome<String> inTime = observe(fast.timeout(10_000, scheduler));
+            fast.complete("orders");
+            assertEquals("ok:orders", inTime.result);
+            assertEquals(0, countLiveTimers(scheduler));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void deliverOnRunsTheRestOfTheChainOnTheGivenExecutor() {
+        List<Runnable> queued = new ArrayList<>();
+        Executor queue = queued::add;
+        NetworkFuture<String> source = new NetworkFuture<>();
+        Outcome<Integer> outcome = observe(source.deliverOn(queue).map(String::length));
+
+        source.complete("shifts");
+        assertNull(outcome.result);
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        assertEquals("ok:6", outcome.result);
+    }
+
+    private static int countLiveTimers(@NonNull ScheduledThreadPoolExecutor scheduler) {
+        int live = 0;
+        for (Runnable task : scheduler.getQueue()) {
+            if (!((Future<?>) task).isCancelled()) {
+                live++;
+            }
+        }
+        return live;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class OrderStatusTest {
+
+    @Test
+    public void classifiesSpellingVariantsTheSame() {
+        assertSame(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.classify("out_for_delivery"));
+        assertSame(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.classify("  Out for Delivery "));
+        assertSame(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.classify("OUT-FOR--DELIVERY"));
+        assertSame(OrderStatus.CANCELLED, OrderStatus.classify("Canceled"));
+        assertSame(OrderStatus.COMPLETED, OrderStatus.classify("complete"));
+        assertSame(OrderStatus.PENDING, OrderStatus.classify("PENDING"));
+    }
+
+    @Test
+    public void fallsBackOnPhrasesAndUnknownValues() {
+        assertSame(OrderStatus.DELIVERED, OrderStatus.classify("Delivered to neighbour"));
+        assertSame(OrderStatus.COMPLETED, OrderStatus.classify("order-completed"));
+        assertSame(OrderStatus.REFUNDED, OrderStatus.classify("delivered, refunded"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("cancelled_by_customer"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("Partially refunded"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("done"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("rejected"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("on hold"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("out for deliveryx"));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify("   "));
+        assertSame(OrderStatus.UNKNOWN, OrderStatus.classify(null));
+    }
+
+    @Test
+    public void flagsMatchTheFormerStringChecks() {
+        assertTrue(OrderStatus.DELIVERED.isFinished());
+        assertTrue(OrderStatus.DELIVERED.isCollected());
+        assertTrue(OrderStatus.CANCELLED.isFinished());
+        assertFalse(OrderStatus.CANCELLED.isCollected());
+        assertFalse(OrderStatus.REFUNDED.isCollected());
+        assertFalse(OrderStatus.OUT_FOR_DELIVERY.isFinished());
+        assertFalse(OrderStatus.UNKNOWN.isFinished());
+        assertEquals("Out For Delivery", OrderStatus.OUT_FOR_DELIVERY.getLabel());
+    }
+
+    @Test
+    public void finishedAndCollectedMatchTheOriginalStringChecks() {
+        String[] raw = {
+                null, "", "  ", "delivered", " Delivered ", "COMPLETED", "complete", "cancelled", "Canceled",
+                "refunded", "done", "rejected", "cancelled_by_customer", "Partially refunded", "refund pending",
+                "Delivered to neighbour", "not delivered", "delivered - cancelled", "completed; refunded",
+                "order-completed", "Out for delivery", "in_progress", "pending", "can celled", "on hold"
+        };
+        for (String status : raw) {
+            OrderStatus classified = OrderStatus.classify(status);
+            boolean finished = formerIsFinished(status);
+            assertEquals(String.valueOf(status), finished, classified.isFinished());
+            assertEquals(String.valueOf(status), finished && formerIsCollected(status), classified.isCollected());
+        }
+    }
+
+    @Test
+    public void transitionsOnlyMoveForward() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.PREPARING));
+        assertTrue(OrderStatus.READY.canTransitionTo(OrderStatus.DELIVERED));
+        assertTrue(OrderStatus.READY.canTransitionTo(OrderStatus.READY));
+        assertTrue(OrderStatus.OUT_FOR_DELIVERY.canTransitionTo(OrderStatus.CANCELLED));
+        assertTrue(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.REFUNDED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.PREPARING));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.REFUNDED));
+        assertTrue(OrderStatus.UNKNOWN.canTransitionTo(OrderStatus.COMPLETED));
+        assertTrue(OrderStatus.COMPLETED.canTransitionTo(OrderStatus.UNKNOWN));
+    }
+
+    @Test
+    public void orderInfoClassifiesOnce() {
+        OrderInfo order = new OrderInfo(7, 1, " Delivered ", null, null, null, 1, 120.0, null, null, null);
+        assertSame(OrderStatus.DELIVERED, order.getOrderStatus());
+        assertEquals(" Delivered ", order.getStatus());
+    }
+
+    /** OrderService.isFinished before statuses were classified. */
+    private static boolean formerIsFinished(String status) {
+        if (status == null) {
+            return false;
+        }
+        String normalized = status.trim().toLowerCase(Locale.US);
+        if (normalized.isEmpty()) {
+            return false;
+        }
+        if (Arrays.asList("delivered", "completed", "complete", "cancelled", "canceled", "refunded").contains(normalized)) {
+            return true;
+        }
+        return normalized.contains("delivered") || normalized.contains("completed");
+    }
+
+    /** EarningsTracker.isCollected before statuses were classified. */
+    private static boolean formerIsCollected(String status) {
+        if (status == null) {
+            return false;
+        }
+        String normalized = status.trim().toLowerCase(Locale.US);
+        return !normalized.contains("cancel") && !normalized.contains("refund");
+    }
+
+    @Test
+    public void classificationDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        String[] raw = {"Out for delivery", " COMPLETED", "cancelled_by_customer", "on hold", "ready-for-pickup"};
+        int checksum = 0;
+        for (int i = 0; i < 20_000; i++) {
+            checksum += OrderStatus.classify(raw[i % raw.length]).ordinal();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            checksum += OrderStatus.classify(raw[i % raw.length]).ordinal();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(checksum > 0);
+        // Leave room for the measurement itself; one string per call would be megabytes.
+        assertTrue("allocated " + allocated + " bytes", allocated < 64 * 1024);
+    }
+}
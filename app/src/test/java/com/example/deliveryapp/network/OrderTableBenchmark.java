@@ -0,0 +1,59 @@
+package com.example.deliveryapp.network;
+
+import com.example.deliveryapp.Benchmarks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class OrderTableBenchmark {
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void collectedTotalOverObjectsAndColumns() throws Exception {
+        int orders = 50_000;
+        String[] statuses = {"pending", "out_for_delivery", "delivered", "cancelled"};
+        Random random = new Random(11);
+        OrderTable.Builder builder = new OrderTable.Builder(TimeZone.getTimeZone("Asia/Manila"));
+        List<OrderInfo> objects = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            String status = statuses[random.nextInt(statuses.length)];
+            double total = random.nextInt(200_000) / 100.0;
+            String date = String.format(Locale.US, "2026-10-%02d %02d:%02d:00",
+                    1 + random.nextInt(28), 8 + random.nextInt(12), random.nextInt(60));
+            builder.add(i + 1, 7, status, date, "Delivery", "App", 1, total, null, null, "Pasig", Double.NaN, Double.NaN);
+            objects.add(new OrderInfo(i + 1, 7, status, date, "Delivery", "App", 1, total, null, null, "Pasig"));
+        }
+        OrderTable table = builder.build();
+        EnumSet<OrderStatus> collected = EnumSet.of(OrderStatus.DELIVERED);
+
+        double objectNanos = Benchmarks.nanosPerRun(20, () -> {
+            long sum = 0L;
+            for (OrderInfo order : objects) {
+                if (order.getOrderStatus().isCollected()) {
+                    sum += order.getTotalMinorUnits();
+                }
+            }
+            return sum;
+        });
+        double columnNanos = Benchmarks.nanosPerRun(20,
+                () -> table.sumTotalMinorUnits(table.filterByStatus(table.allRows(), collected)));
+        long sortStarted = System.nanoTime();
+        table.sort(table.allRows(), OrderTable.Column.PLACED_AT, true);
+        long sortNanos = System.nanoTime() - sortStarted;
+
+        Benchmarks.report("OrderTable, %d orders: collected total over objects %.2f ms, over columns %.2f ms; "
+                        + "first date sort incl. parsing %.0f ms",
+                orders, objectNanos / 1e6, columnNanos / 1e6, sortNanos / 1e6);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.deliveryapp.network;
+
+import com.example.deliveryapp.history.OrderDates;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class OrderTableTest {
+
+    private static final TimeZone MANILA = TimeZone.getTimeZone("Asia/Manila");
+
+    @Test
+    public void filtersByTheStatusColumnInSelectionOrder() {
+        OrderTable table = sampleTable();
+        int[] all = table.allRows();
+
+        assertArrayEquals(new int[]{0, 2, 4}, table.filterByStatus(all, EnumSet.of(OrderStatus.DELIVERED, OrderStatus.UNKNOWN)));
+        assertArrayEquals(new int[]{1}, table.filterByStatus(all, EnumSet.of(OrderStatus.PREPARING)));
+        assertArrayEquals(new int[]{3, 1}, table.filterByStatus(new int[]{3, 2, 1}, EnumSet.of(OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY)));
+        assertSame(OrderStatus.UNKNOWN, table.getOrderStatus(4));
+        assertEquals(0, table.getMaterializedCount());
+    }
+
+    @Test
+    public void filtersByPlacedAtWithoutCreatingOrders() {
+        OrderTable table = sampleTable();
+        long from = OrderDates.parse("2026-10-18", MANILA);
+        long to = OrderDates.parse("2026-10-19", MANILA);
+
+        assertArrayEquals(new int[]{1, 2}, table.filterByPlacedAt(table.allRows(), from, to));
+        // Undated row 4 never matches, even an unbounded range.
+        assertArrayEquals(new int[]{0, 1, 2, 3}, table.filterByPlacedAt(table.allRows(), Long.MIN_VALUE + 1, Long.MAX_VALUE));
+        assertEquals(OrderDates.parse("2026-10-19 09:30:00", MANILA), table.getPlacedAtMs(0));
+        assertEquals(0, table.getMaterializedCount());
+    }
+
+    @Test
+    public void sortsByColumnWithoutCreatingOrders() {
+        OrderTable table = sampleTable();
+        int[] all = table.allRows();
+
+        // Undated row 4 counts as the oldest; equal totals keep their selection order.
+        assertArrayEquals(new int[]{4, 3, 1, 2, 0}, table.sort(all, OrderTable.Column.PLACED_AT, false));
+        assertArrayEquals(new int[]{0, 2, 1, 3, 4}, table.sort(all, OrderTable.Column.PLACED_AT, true));
+        assertArrayEquals(new int[]{2, 4, 0, 3, 1}, table.sort(all, OrderTable.Column.TOTAL, false));
+        assertArrayEquals(new int[]{1, 0, 3, 2, 4}, table.sort(all, OrderTable.Column.TOTAL, true));
+        assertArrayEquals(new int[]{2, 0}, table.sort(new int[]{0, 2}, OrderTable.Column.ITEM_COUNT, true));
+        assertEquals(0, table.getMaterializedCount());
+    }
+
+    @Test
+    public void sumsColumnsInMinorUnitsWithoutCreatingOrders() {
+        OrderTable table = sampleTable();
+        int[] delivered = table.filterByStatus(table.allRows(), EnumSet.of(OrderStatus.DELIVERED));
+
+        assertEquals(12_050L + 9_999L, table.sumTotalMinorUnits(delivered));
+        assertEquals(5L, table.sumItemCount(delivered));
+        assertEquals(0L, table.sumTotalMinorUnits(new int[0]));
+        assertEquals(0, table.getMaterializedCount());
+    }
+
+    @Test
+    public void materializesOnlyRowsThatAreRead() {
+        OrderTable table = sampleTable();
+        List<OrderInfo> view = table.view(new int[]{3, 1});
+        assertEquals(2, view.size());
+        assertEquals(0, table.getMaterializedCount());
+
+        OrderInfo order = view.get(1);
+        assertEquals(102, order.getOrderId());
+        assertEquals("preparing", order.getStatus());
+        assertEquals(250.75, order.getTotalAmount(), 0.0);
+        assertEquals(250.75 * 100, order.getTotalMinorUnits(), 0.0);
+        assertEquals("Makati", order.getDeliveryAddress());
+        assertSame(order, table.getOrder(1));
+        assertEquals(1, table.getMaterializedCount());
+        assertNull(table.getOrder(4).getSource());
+    }
+
+    @Test
+    public void splitsAndSumsALargeTableWithoutCreatingOrders() {
+        int orders = 50_000;
+        String[] statuses = {"pending", "out_for_delivery", "delivered", "cancelled"};
+        Random random = new Random(11);
+        OrderTable.Builder builder = new OrderTable.Builder(MANILA);
+        int expectedFinished = 0;
+        for (int i = 0; i < orders; i++) {
+            String status = statuses[random.nextInt(statuses.length)];
+            if (OrderStatus.classify(status).isFinished()) {
+                expectedFinished++;
+            }
+            builder.add(i + 1, 7, status, "2026-10-01 08:00:00", "Delivery", "App", 1, 100.0, null, null, "Pasig", Double.NaN, Double.NaN);
+        }
+        OrderTable table = builder.build();
+        EnumSet<OrderStatus> finished = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+        assertEquals(expectedFinished, table.filterByStatus(table.allRows(), finished).length);
+        assertEquals(orders - expectedFinished, table.filterByStatus(table.allRows(), EnumSet.complementOf(finished)).length);
+        assertEquals(10_000L * orders, table.sumTotalMinorUnits(table.allRows()));
+        assertEquals(0, table.getMaterializedCount());
+    }
+
+    private static OrderTable sampleTable() {
+        return new OrderTable.Builder(MANILA)
+                .add(101, 7, "Delivered", "2026-10-19 09:30:00", "Delivery", "App", 2, 120.50, null, null, "Pasig", Double.NaN, Double.NaN)
+                .add(102, 7, "preparing", "2026-10-18 18:00:00", "Delivery", "Web", 1, 250.75, null, null, "Makati", Double.NaN, Double.NaN)
+                .add(103, 7, "Delivered", "2026-10-18 20:15:00", "Pickup", "Web", 3, 99.99, null, null, null, Double.NaN, Double.NaN)
+                .add(104, 7, "Out for delivery", "2026-10-17", "Delivery", "App", 1, 120.50, null, null, "Taguig", 14.55, 121.05)
+                .add(105, 7, null, null, "Delivery", null, 1, 99.99, null, null, null, Double.NaN, Double.NaN)
+                .build();
+    }
+}
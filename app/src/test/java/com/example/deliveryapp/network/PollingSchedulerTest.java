@@ -0,0 +1,151 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PollingSchedulerTest {
+
+    private static final long MIN = TimeUnit.SECONDS.toMillis(15);
+    private static final long MAX = TimeUnit.MINUTES.toMillis(5);
+    private static final long NOW = 1_756_692_000_000L;
+
+    @Test
+    public void unchangedResponsesBackOffExponentially() {
+        PollingScheduler scheduler = newScheduler(0.0);
+        assertEquals(MIN, scheduler.nextDelayMs(NOW));
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", null, null, NOW);
+        assertEquals(MIN, scheduler.nextDelayMs(NOW));
+
+        long[] expected = {30_000L, 60_000L, 120_000L, 240_000L, MAX, MAX};
+        for (long interval : expected) {
+            scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", null, null, NOW);
+            assertEquals(interval, scheduler.nextDelayMs(NOW));
+        }
+    }
+
+    @Test
+    public void aChangeOnAnyEndpointKeepsTheRoundAtTheMinimum() {
+        PollingScheduler scheduler = newScheduler(0.0);
+        round(scheduler, "[{\"order_id\":1}]", "{\"shifts\":[]}");
+        round(scheduler, "[{\"order_id\":1}]", "{\"shifts\":[]}");
+        round(scheduler, "[{\"order_id\":1}]", "{\"shifts\":[]}");
+        assertEquals(60_000L, scheduler.getIntervalMs());
+
+        // Unchanged shifts in the same round do not undo the orders change.
+        round(scheduler, "[{\"order_id\":1},{\"order_id\":2}]", "{\"shifts\":[]}");
+        assertEquals(MIN, scheduler.getIntervalMs());
+        round(scheduler, "[{\"order_id\":1},{\"order_id\":2}]", "{\"shifts\":[]}");
+        assertEquals(30_000L, scheduler.getIntervalMs());
+    }
+
+    @Test
+    public void firstResponseOfAnEndpointIsNeutral() {
+        PollingScheduler scheduler = newScheduler(0.0);
+        scheduler.recordFailure(PollingScheduler.Endpoint.ORDERS);
+        scheduler.nextDelayMs(NOW);
+        scheduler.recordFailure(PollingScheduler.Endpoint.ORDERS);
+        assertEquals(60_000L, scheduler.nextDelayMs(NOW));
+
+        scheduler.recordResponse(PollingScheduler.Endpoint.SHIFTS, 200, "{\"shifts\":[]}", null, null, NOW);
+        assertEquals(60_000L, scheduler.nextDelayMs(NOW));
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", null, null, NOW);
+        assertEquals(60_000L, scheduler.nextDelayMs(NOW));
+    }
+
+    @Test
+    public void failuresBackOffWithoutForgettingTheLastBody() {
+        PollingScheduler scheduler = newScheduler(0.0);
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", null, null, NOW);
+        assertEquals(MIN, scheduler.nextDelayMs(NOW));
+        scheduler.recordFailure(PollingScheduler.Endpoint.ORDERS);
+        assertEquals(30_000L, scheduler.nextDelayMs(NOW));
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 500, "oops", null, null, NOW);
+        assertEquals(60_000L, scheduler.nextDelayMs(NOW));
+
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", null, null, NOW);
+        assertEquals(120_000L, scheduler.nextDelayMs(NOW));
+    }
+
+    @Test
+    public void serverHintsSetFloorAndRetryAfterDefersNextPoll() {
+        PollingScheduler scheduler = newScheduler(0.0);
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", "60", null, NOW);
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[1]", null, null, NOW);
+        assertEquals(60_000L, scheduler.nextDelayMs(NOW));
+        assertEquals(MIN, scheduler.getIntervalMs());
+
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 503, "", null, "600", NOW);
+        assertEquals(600_000L, scheduler.nextDelayMs(NOW));
+        assertEquals(60_000L, scheduler.nextDelayMs(NOW + 600_000L));
+    }
+
+    @Test
+    public void resetReturnsToMinimum() {
+        PollingScheduler scheduler = newScheduler(0.0);
+        scheduler.recordFailure(PollingScheduler.Endpoint.SHIFTS);
+        scheduler.nextDelayMs(NOW);
+        scheduler.recordFailure(PollingScheduler.Endpoint.SHIFTS);
+        scheduler.reset();
+        assertEquals(MIN, scheduler.nextDelayMs(NOW));
+    }
+
+    @Test
+    public void jitterSpreadsDevicesThatStartTogether() {
+        int devices = 1_000;
+        long[] firstPolls = new long[devices];
+        long earliest = Long.MAX_VALUE;
+        long latest = Long.MIN_VALUE;
+        // Each device seeds its own generator, as new Random() does.
+        Random seeds = new Random(42L);
+        for (int i = 0; i < devices; i++) {
+            PollingScheduler scheduler = new PollingScheduler(MIN, MAX, 0.2, new Random(seeds.nextLong()));
+            firstPolls[i] = scheduler.nextDelayMs(NOW);
+            earliest = Math.min(earliest, firstPolls[i]);
+            latest = Math.max(latest, firstPolls[i]);
+        }
+        assertTrue(earliest >= Math.round(MIN * 0.8));
+        assertTrue(latest <= Math.round(MIN * 1.2));
+        // Spread over most of the ±20% window rather than bunched together.
+        assertTrue("spread " + (latest - earliest) + " ms", latest - earliest > MIN * 0.35);
+
+        int inBusiestSecond = 0;
+        for (long delay : firstPolls) {
+            if (Math.abs(delay - MIN) < 500L) {
+                inBusiestSecond++;
+            }
+        }
+        assertTrue("busiest second held " + inBusiestSecond, inBusiestSecond < devices / 4);
+    }
+
+    @Test
+    public void parseSeconds_readsWholeSeconds() {
+        assertEquals(30_000L, PollingScheduler.parseSeconds(" 30 "));
+        assertEquals(0L, PollingScheduler.parseSeconds("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertEquals(0L, PollingScheduler.parseSeconds("-5"));
+        assertEquals(0L, PollingScheduler.parseSeconds(null));
+        assertEquals(TimeUnit.HOURS.toMillis(1), PollingScheduler.parseSeconds("999999"));
+    }
+
+    @Test
+    public void fingerprint_distinguishesBodies() {
+        assertEquals(PollingScheduler.fingerprint("[]"), PollingScheduler.fingerprint("[]"));
+        assertNotEquals(PollingScheduler.fingerprint("[1,2]"), PollingScheduler.fingerprint("[2,1]"));
+    }
+
+    /** One poll round: both lists answer, then the next delay is asked for. */
+    private static void round(PollingScheduler scheduler, String orders, String shifts) {
+        scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, orders, null, null, NOW);
+        scheduler.recordResponse(PollingScheduler.Endpoint.SHIFTS, 200, shifts, null, null, NOW);
+        scheduler.nextDelayMs(NOW);
+    }
+
+    private static PollingScheduler newScheduler(double jitter) {
+        return new PollingScheduler(MIN, MAX, jitter, new Random(7L));
+    }
+}
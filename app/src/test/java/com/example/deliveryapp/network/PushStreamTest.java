@@ -0,0 +1,292 @@
+package com.example.deliveryapp.network;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the push stream against a local HTTP server standing in for the event endpoint.
+ */
+public class PushStreamTest {
+
+    /**
+     * A short heartbeat timeout, which is a real socket timeout; every other wait goes through
+     * {@link FakeClock} and passes at once.
+     */
+    private static final PushStream.Timing TIMING = new PushStream.Timing(
+            1_000L, 300L, 20L, 100L, 2, 600L);
+
+    private interface Responder {
+        void respond(HttpExchange exchange, int connection) throws IOException, InterruptedException;
+    }
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private URL endpoint;
+    private volatile Responder responder;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+    private final FakeClock clock = new FakeClock();
+    private final PollingScheduler scheduler = new PollingScheduler(40L, 160L, 0.0, new Random(1L));
+    private final RecordingListener listener = new RecordingListener(scheduler, clock);
+    private PushStream stream;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/events", exchange -> {
+            int connection = connections.incrementAndGet();
+            lastEventIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+            try {
+                responder.respond(exchange, connection);
+            } catch (InterruptedException | IOException ignored) {
+                // The client went away.
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        endpoint = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/events");
+    }
+
+    @After
+    public void stopServer() {
+        if (stream != null) {
+            stream.stop();
+        }
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void deliversEventsAndResumesFromLastEventId() throws Exception {
+        responder = (exchange, connection) -> {
+            OutputStream body = openStream(exchange);
+            if (connection == 1) {
+                write(body, "retry: 30\n\nid: 1\nevent: order_created\ndata: {\"order_id\":7}\n\n"
+                        + "id: 2\nevent: shift_updated\ndata: {}\n\n");
+                return;
+            }
+            write(body, "id: 3\nevent: order_status\ndata: {\"order_id\":7}\n\n");
+            holdOpenWithHeartbeats(body);
+        };
+
+        start(endpoint, "0");
+
+        assertEquals("1", listener.nextEvent().getId());
+        assertEquals("2", listener.nextEvent().getId());
+        PushEvent resumed = listener.nextEvent();
+        assertEquals("3", resumed.getId());
+        assertTrue(resumed.affectsOrders());
+        assertEquals("0", lastEventIds.get(0));
+        assertEquals("2", lastEventIds.get(1));
+        assertEquals("3", stream.getLastEventId());
+        assertEquals(PushStream.Mode.STREAMING, stream.getMode());
+        assertEquals(Arrays.asList("CONNECTING", "STREAMING", "event 1", "event 2",
+                "CONNECTING", "STREAMING", "event 3"), listener.log);
+        // The server's retry hint replaces the default reconnect delay.
+        assertEquals(Collections.singletonList(30L), clock.waits);
+    }
+
+    @Test
+    public void missedHeartbeatReconnectsPromptly() throws Exception {
+        responder = (exchange, connection) -> {
+            OutputStream body = openStream(exchange);
+            write(body, ": hello\n\n");
+            if (connection == 1) {
+                // Dead connection: nothing more arrives, so the read timeout must fire.
+                Thread.sleep(5_000L);
+                return;
+            }
+            write(body, "id: 10\nevent: order_created\ndata: {}\n\n");
+            holdOpenWithHeartbeats(body);
+        };
+
+        start(endpoint, null);
+
+        assertEquals("10", listener.nextEvent().getId());
+        assertEquals(2, connections.get());
+        // A stream that said something before going quiet is replaced after the initial delay,
+        // without counting towards the fallback to polling.
+        assertEquals(Arrays.asList("CONNECTING", "STREAMING", "CONNECTING", "STREAMING", "event 10"), listener.log);
+        assertEquals(Collections.singletonList(20L), clock.waits);
+    }
+
+    @Test
+    public void fallsBackToPollingAndReturnsToTheStream() throws Exception {
+        responder = (exchange, connection) -> {
+            if (connection == 1) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            OutputStream body = openStream(exchange);
+            write(body, "id: 5\nevent: shift_updated\ndata: {}\n\n");
+            holdOpenWithHeartbeats(body);
+        };
+
+        start(endpoint, null);
+
+        assertEquals("5", listener.nextEvent().getId());
+        // Polling starts at the minimum; the first poll has nothing to compare with, then each
+        // unchanged one doubles the interval. The stream is probed again after 600 ms.
+        assertEquals(Arrays.asList("CONNECTING", "POLLING", "poll", "poll", "poll", "poll", "poll",
+                "CONNECTING", "STREAMING", "event 5"), listener.log);
+        assertEquals(Arrays.asList(40L, 40L, 80L, 160L, 160L, 120L), clock.waits);
+    }
+
+    @Test
+    public void bufferedStreamCountsAsFailure() throws Exception {
+        responder = (exchange, connection) -> {
+            // A proxy holding back the body looks like a stream that never says anything.
+            openStream(exchange);
+            Thread.sleep(5_000L);
+        };
+
+        start(endpoint, null);
+
+        assertTrue(listener.awaitMode(PushStream.Mode.POLLING, 3_000L));
+        List<String> beforePolling = listener.log.subList(0, listener.log.indexOf("POLLING"));
+        assertEquals(Arrays.asList("CONNECTING", "STREAMING", "CONNECTING", "STREAMING"), beforePolling);
+        assertEquals(TIMING.getFailuresBeforePolling(), Collections.frequency(beforePolling, "CONNECTING"));
+        assertEquals(Long.valueOf(20L), clock.waits.get(0));
+    }
+
+    @Test
+    public void pollsWithoutUrl() throws Exception {
+        listener.stopAfterPolls = 4;
+        start(null, null);
+
+        assertTrue(listener.awaitMode(PushStream.Mode.STOPPED, 1_000L));
+        assertEquals(Arrays.asList("POLLING", "poll", "poll", "poll", "poll", "STOPPED"), listener.log);
+        assertEquals(Arrays.asList(40L, 40L, 80L, 160L), clock.waits);
+        assertEquals(0, connections.get());
+    }
+
+    private void start(URL url, String lastEventId) {
+        stream = new PushStream(url, TIMING, scheduler, listener, lastEventId, clock);
+        listener.stream = stream;
+        stream.start();
+    }
+
+    private static OutputStream openStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        return exchange.getResponseBody();
+    }
+
+    private static void write(OutputStream body, String text) throws IOException {
+        body.write(text.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static void holdOpenWithHeartbeats(OutputStream body) throws IOException, InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            Thread.sleep(100L);
+            write(body, ": heartbeat\n");
+        }
+    }
+
+    /**
+     * Lets every wait pass at once and records its length.
+     */
+    private static final class FakeClock implements PushStream.Clock {
+
+        final List<Long> waits = new CopyOnWriteArrayList<>();
+        private final AtomicLong now = new AtomicLong(1_000_000L);
+
+        @Override
+        public long currentTimeMillis() {
+            return now.get();
+        }
+
+        @Override
+        public void await(Object lock, long delayMs) {
+            waits.add(delayMs);
+            now.addAndGet(delayMs);
+        }
+    }
+
+    /**
+     * Records what the stream reports, in order, and answers each poll the way a screen
+     * reloading an unchanged list would.
+     */
+    private static final class RecordingListener implements PushStream.Listener {
+
+        final PollingScheduler scheduler;
+        final FakeClock clock;
+        final BlockingQueue<PushEvent> events = new LinkedBlockingQueue<>();
+        final List<String> log = new CopyOnWriteArrayList<>();
+        final AtomicInteger polls = new AtomicInteger();
+        volatile int stopAfterPolls = Integer.MAX_VALUE;
+        volatile PushStream stream;
+
+        RecordingListener(PollingScheduler scheduler, FakeClock clock) {
+            this.scheduler = scheduler;
+            this.clock = clock;
+        }
+
+        @Override
+        public void onEvent(PushEvent event) {
+            log.add("event " + event.getId());
+            events.add(event);
+        }
+
+        @Override
+        public void onModeChanged(PushStream.Mode mode) {
+            log.add(mode.name());
+        }
+
+        @Override
+        public void onPollDue() {
+            log.add("poll");
+            scheduler.recordResponse(PollingScheduler.Endpoint.ORDERS, 200, "[]", null, null, clock.currentTimeMillis());
+            if (polls.incrementAndGet() >= stopAfterPolls) {
+                stream.stop();
+            }
+        }
+
+        PushEvent nextEvent() throws InterruptedException {
+            PushEvent event = events.poll(3, TimeUnit.SECONDS);
+            assertNotNull("no event arrived", event);
+            return event;
+        }
+
+        boolean awaitMode(PushStream.Mode mode, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (System.currentTimeMillis() < deadline) {
+                if (log.contains(mode.name())) {
+                    return true;
+                }
+                Thread.sleep(10L);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.deliveryapp.network;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResponseBodyReaderTest {
+
+    /** Hands out at most {@code chunk} bytes per read, like a slow socket. */
+    private static final class Trickle extends FilterInputStream {
+        private final int chunk;
+        boolean closed;
+
+        Trickle(@NonNull byte[] bytes, int chunk) {
+            super(new ByteArrayInputStream(bytes));
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    @Test
+    public void keepsLineBreaksAndDropsAByteOrderMark() throws IOException {
+        ResponseBodyReader reader = new ResponseBodyReader(1024);
+        byte[] body = "\uFEFF{\"note\":\"ring twice\nthen wait\"}\r\n".getBytes(StandardCharsets.UTF_8);
+        Trickle stream = new Trickle(body, 5);
+
+        assertEquals("{\"note\":\"ring twice\nthen wait\"}\r\n", reader.read(stream, body.length, false));
+        assertTrue(stream.closed);
+    }
+
+    @Test
+    public void decodesMultiByteCharactersSplitAcrossReads() throws IOException {
+        String text = "Straße 5, café 🚲 — 東京";
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        for (int chunk = 1; chunk <= 4; chunk++) {
+            // An unknown or understated length makes the buffer grow mid-character as well.
+            assertEquals(text, new ResponseBodyReader(1024).read(new Trickle(body, chunk), -1, false));
+            assertEquals(text, new ResponseBodyReader(1024).read(new Trickle(body, chunk), 3, true));
+        }
+    }
+
+    @Test
+    public void bodiesLongerThanTheMaximumFail() throws IOException {
+        ResponseBodyReader reader = new ResponseBodyReader(64);
+        assertEquals(64, reader.read(new Trickle(new byte[64], 7), -1, false).length());
+
+        assertTooLarge(reader, new Trickle(new byte[10], 10), 65, false);
+        assertTooLarge(reader, new Trickle(new byte[65], 7), -1, false);
+        assertTooLarge(reader, new Trickle(new byte[500], 100), 20, true);
+    }
+
+    private static void assertTooLarge(@NonNull ResponseBodyReader reader, @NonNull Trickle stream,
+                                       long contentLength, boolean compressed) throws IOException {
+        try {
+            reader.read(stream, contentLength, compressed);
+            fail("Expected the body to be rejected");
+        } catch (ResponseBodyReader.BodyTooLargeException e) {
+            assertEquals("Response body exceeds 64 bytes.", e.getMessage());
+        }
+        assertTrue(stream.closed);
+    }
+
+    @Test
+    public void buffersAreReusedAcrossReads() {
+        ResponseBodyReader reader = new ResponseBodyReader(ResponseBodyReader.DEFAULT_MAX_BODY_BYTES);
+        byte[] small = reader.acquire(100);
+        byte[] large = reader.acquire(4096);
+        reader.release(small);
+        reader.release(large);
+
+        assertSame(small, reader.acquire(50));
+        assertSame(large, reader.acquire(1000));
+        reader.release(new byte[ResponseBodyReader.MAX_POOLED_BUFFER_BYTES + 1]);
+        assertEquals(10, reader.acquire(10).length);
+    }
+
+    @Test
+    public void allocatesLessThanReadingLineByLine() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1500; i++) {
+            json.append(i == 0 ? "" : ",\n").append("{\"order_id\":").append(i)
+                    .append(",\"address\":\"Hauptstraße ").append(i).append("\",\"status\":\"pending\"}");
+        }
+        byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        ResponseBodyReader reader = new ResponseBodyReader(ResponseBodyReader.DEFAULT_MAX_BODY_BYTES);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long pooled = bytesPerRead(threads, () -> reader.read(new ByteArrayInputStream(body), body.length, false));
+        long lineByLine = bytesPerRead(threads, () -> readLineByLine(new ByteArrayInputStream(body)));
+
+        assertTrue(pooled < lineByLine);
+    }
+
+    private interface Read {
+        @NonNull
+        String run() throws IOException;
+    }
+
+    private static long bytesPerRead(@NonNull com.sun.management.ThreadMXBean threads, @NonNull Read read) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        int iterations = 50;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += read.run().length();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            sink += read.run().length();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue(sink > 0);
+        return allocated / iterations;
+    }
+
+    /** How service responses were read before the shared reader. */
+    @NonNull
+    private static String readLineByLine(@NonNull InputStream stream) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            StringBuilder builder = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.append(line);
+            }
+            return builder.toString();
+        }
+    }
+}
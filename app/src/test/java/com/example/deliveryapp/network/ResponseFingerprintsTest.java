@@ -0,0 +1,65 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ResponseFingerprintsTest {
+
+    private static final String BODY = "{\"shifts\":[{\"shift_id\":3,\"status\":\"scheduled\"}]}";
+
+    @Test
+    public void identicalBodiesReturnTheStoredResult() {
+        ResponseFingerprints fingerprints = new ResponseFingerprints();
+        List<String> parsed = Arrays.asList("shift 3");
+        long fingerprint = ResponseFingerprints.fingerprint(null, BODY);
+
+        assertNull(fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "7", fingerprint, List.class));
+        fingerprints.store(PollingScheduler.Endpoint.SHIFTS, "7", fingerprint, parsed);
+
+        long again = ResponseFingerprints.fingerprint(null, new String(BODY.toCharArray()));
+        assertSame(parsed, fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "7", again, List.class));
+        assertSame(parsed, fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "7", again, List.class));
+        assertEquals(2, fingerprints.getHits(PollingScheduler.Endpoint.SHIFTS));
+        assertEquals(1, fingerprints.getMisses(PollingScheduler.Endpoint.SHIFTS));
+        assertEquals(2.0 / 3.0, fingerprints.getHitRate(PollingScheduler.Endpoint.SHIFTS), 1e-9);
+        assertEquals("ResponseFingerprints{orders=0/0, shifts=2/3}", fingerprints.toString());
+    }
+
+    @Test
+    public void otherRidersEndpointsAndBodiesMiss() {
+        ResponseFingerprints fingerprints = new ResponseFingerprints();
+        long fingerprint = ResponseFingerprints.fingerprint(null, BODY);
+        fingerprints.store(PollingScheduler.Endpoint.SHIFTS, "7", fingerprint, "parsed");
+
+        assertNull(fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "8", fingerprint, String.class));
+        assertNull(fingerprints.match(PollingScheduler.Endpoint.ORDERS, "7", fingerprint, String.class));
+        assertNull(fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "7",
+                ResponseFingerprints.fingerprint(null, BODY.replace("scheduled", "in_progress")), String.class));
+        assertNull(fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "7", fingerprint, Integer.class));
+        assertEquals("parsed", fingerprints.match(PollingScheduler.Endpoint.SHIFTS, "7", fingerprint, String.class));
+    }
+
+    @Test
+    public void failuresForceTheNextResponseToBeParsed() {
+        ResponseFingerprints fingerprints = new ResponseFingerprints();
+        long fingerprint = ResponseFingerprints.fingerprint(null, BODY);
+        fingerprints.store(PollingScheduler.Endpoint.ORDERS, "7", fingerprint, "parsed");
+        fingerprints.invalidate(PollingScheduler.Endpoint.ORDERS);
+        assertNull(fingerprints.match(PollingScheduler.Endpoint.ORDERS, "7", fingerprint, String.class));
+    }
+
+    @Test
+    public void serverHashesTakePrecedenceOverTheBody() {
+        assertEquals(ResponseFingerprints.fingerprint("\"abc\"", BODY), ResponseFingerprints.fingerprint(" \"abc\" ", "other body"));
+        assertNotEquals(ResponseFingerprints.fingerprint("\"abc\"", BODY), ResponseFingerprints.fingerprint("\"abd\"", BODY));
+        assertEquals(ResponseFingerprints.fingerprint(null, BODY), ResponseFingerprints.fingerprint("  ", BODY));
+        assertNotEquals(ResponseFingerprints.fingerprint(BODY, "x"), ResponseFingerprints.fingerprint(null, BODY));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ServerSentEventReaderTest {
+
+    @Test
+    public void next_joinsDataLinesAndCarriesIdsForward() throws IOException {
+        ServerSentEventReader reader = reader(
+                "\uFEFF: connected\n"
+                        + "id: 41\n"
+                        + "event: order_created\n"
+                        + "data: {\"order_id\": 7,\n"
+                        + "data:  \"status\": \"pending\"}\n"
+                        + "\n"
+                        + ": heartbeat\n"
+                        + "data: second\r\n"
+                        + "\r\n",
+                "40");
+
+        PushEvent first = reader.next();
+        assertEquals("41", first.getId());
+        assertEquals("order_created", first.getType());
+        assertEquals("{\"order_id\": 7,\n \"status\": \"pending\"}", first.getData());
+
+        PushEvent second = reader.next();
+        assertEquals("41", second.getId());
+        assertEquals(PushEvent.DEFAULT_TYPE, second.getType());
+        assertEquals("second", second.getData());
+
+        assertNull(reader.next());
+        assertEquals("41", reader.getLastEventId());
+        assertEquals(9, reader.getLineCount());
+    }
+
+    @Test
+    public void next_handlesRetryEmptyEventsAndTruncation() throws IOException {
+        ServerSentEventReader reader = reader(
+                "retry: 2500\n"
+                        + "retry: soon\n"
+                        + "event: ignored\n"
+                        + "\n"
+                        + "id\n"
+                        + "data\n"
+                        + "\n"
+                        + "id: 9\n"
+                        + "data: cut off",
+                "3");
+
+        PushEvent event = reader.next();
+        assertNull(event.getId());
+        assertEquals(PushEvent.DEFAULT_TYPE, event.getType());
+        assertEquals("", event.getData());
+        assertNull(reader.next());
+        assertEquals(2500L, reader.getRetryMs());
+        // The id line was read even though its event never completed.
+        assertEquals("9", reader.getLastEventId());
+    }
+
+    @Test
+    public void pushEvent_classifiesChanges() {
+        PushEvent order = new PushEvent("1", "Order_Status", "");
+        PushEvent shift = new PushEvent("2", "shift_updated", "");
+        PushEvent resync = new PushEvent("3", PushEvent.TYPE_RESYNC, "");
+        PushEvent other = new PushEvent("4", "announcement", "");
+
+        assertEquals(true, order.affectsOrders());
+        assertEquals(false, order.affectsShifts());
+        assertEquals(false, shift.affectsOrders());
+        assertEquals(true, shift.affectsShifts());
+        assertEquals(true, resync.affectsOrders() && resync.affectsShifts());
+        assertEquals(false, other.affectsOrders() || other.affectsShifts());
+    }
+
+    private static ServerSentEventReader reader(String body, String lastEventId) {
+        return new ServerSentEventReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), lastEventId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ShiftStatusTest {
+
+    @Test
+    public void classifiesOnlyTheFormerSpellingsAsBlockingStates() {
+        assertSame(ShiftStatus.IN_PROGRESS, ShiftStatus.classify(" In_Progress"));
+        assertSame(ShiftStatus.COMPLETED, ShiftStatus.classify("FINISHED"));
+        assertSame(ShiftStatus.MISSED, ShiftStatus.classify("missed"));
+        assertSame(ShiftStatus.SCHEDULED, ShiftStatus.classify(" UPCOMING "));
+        assertSame(ShiftStatus.UNKNOWN, ShiftStatus.classify(" In Progress"));
+        assertSame(ShiftStatus.UNKNOWN, ShiftStatus.classify("no-show"));
+        assertSame(ShiftStatus.UNKNOWN, ShiftStatus.classify("canceled"));
+        assertSame(ShiftStatus.UNKNOWN, ShiftStatus.classify("on break"));
+        assertSame(ShiftStatus.UNKNOWN, ShiftStatus.classify(null));
+    }
+
+    @Test
+    public void terminalStatesDoNotRestart() {
+        assertTrue(ShiftStatus.SCHEDULED.canTransitionTo(ShiftStatus.IN_PROGRESS));
+        assertTrue(ShiftStatus.IN_PROGRESS.canTransitionTo(ShiftStatus.COMPLETED));
+        assertTrue(ShiftStatus.UNKNOWN.canTransitionTo(ShiftStatus.IN_PROGRESS));
+        assertFalse(ShiftStatus.IN_PROGRESS.canTransitionTo(ShiftStatus.SCHEDULED));
+        assertFalse(ShiftStatus.COMPLETED.canTransitionTo(ShiftStatus.IN_PROGRESS));
+        assertFalse(ShiftStatus.MISSED.canTransitionTo(ShiftStatus.COMPLETED));
+        assertTrue(ShiftStatus.CANCELLED.isTerminal());
+        assertFalse(ShiftStatus.SCHEDULED.isTerminal());
+    }
+
+    @Test
+    public void shiftInfoChecksUseTheClassifiedStatus() {
+        assertTrue(shift("scheduled", null, null).canStart());
+        assertTrue(shift(null, null, null).canStart());
+        assertTrue(shift("awaiting rider", null, null).canStart());
+        assertFalse(shift("in_progress", null, null).canStart());
+        assertFalse(shift("Cancelled", null, null).canStart());
+        assertFalse(shift("scheduled", "08:00", null).canStart());
+        assertFalse(shift("scheduled", "  ", null).hasStarted());
+
+        assertTrue(shift("Finished", null, null).isCompleted());
+        assertTrue(shift("in_progress", "08:00", "16:00").isCompleted());
+        assertFalse(shift("in_progress", "08:00", null).isCompleted());
+    }
+
+    @Test
+    public void canStartAndIsCompletedMatchTheOriginalStringChecks() {
+        String[] raw = {
+                null, "", "scheduled", "in_progress", " IN_PROGRESS ", "In Progress", "started", "active",
+                "ongoing", "completed", "complete", "finished", "cancelled", "canceled", "missed", "no_show",
+                "pending", "awaiting rider"
+        };
+        for (String status : raw) {
+            String normalized = status != null ? status.trim().toLowerCase(Locale.US) : null;
+            boolean formerCanStart = normalized == null
+                    || !Arrays.asList("in_progress", "completed", "finished", "cancelled", "missed").contains(normalized);
+            boolean formerCompleted = normalized != null
+                    && (normalized.equals("completed") || normalized.equals("finished"));
+            assertEquals(String.valueOf(status), formerCanStart, shift(status, null, null).canStart());
+            assertEquals(String.valueOf(status), formerCompleted, shift(status, null, null).isCompleted());
+        }
+    }
+
+    @Test
+    public void labelsAreCanonicalForKnownStatuses() {
+        assertEquals("In Progress", shift("IN-PROGRESS", null, null).getStatusLabel());
+        assertEquals("Awaiting Rider", shift(" awaiting_RIDER ", null, null).getStatusLabel());
+        assertNull(shift(" ", null, null).getStatusLabel());
+        assertEquals("In Progress", shift("scheduled", null, null)
+                .withStatus("in_progress", "08:00", null)
+                .getStatusLabel());
+    }
+
+    private static ShiftInfo shift(String status, String actualStart, String actualEnd) {
+        return new ShiftInfo(3, 1, "Rider", "2026-10-19", "08:00", "16:00", actualStart, actualEnd, status, null, null);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StringDeduplicatorTest {
+
+    @Test
+    public void returnsTheFirstEqualInstance() {
+        StringDeduplicator strings = new StringDeduplicator();
+        String first = new String("delivered");
+        String second = new String("delivered");
+        assertSame(first, strings.dedupe(first));
+        assertSame(first, strings.dedupe(second));
+        assertSame(first, strings.dedupe(first));
+        assertNull(strings.dedupe(null));
+        assertEquals(1, strings.getHits());
+        assertEquals(1, strings.getMisses());
+        assertEquals("delivered".length(), strings.getSavedChars());
+    }
+
+    @Test
+    public void staysWithinItsBounds() {
+        StringDeduplicator strings = new StringDeduplicator(2, 8);
+        String longValue = new String("0123456789");
+        strings.dedupe(longValue);
+        String copy = new String("0123456789");
+        assertSame(copy, strings.dedupe(copy));
+        assertNotSame(longValue, copy);
+
+        strings.dedupe("a");
+        strings.dedupe("b");
+        String third = new String("c");
+        assertSame(third, strings.dedupe(third));
+        // The table is full, so a later copy of "c" is not matched.
+        String again = new String("c");
+        assertSame(again, strings.dedupe(again));
+        assertEquals(0, strings.getHits());
+    }
+
+    @Test
+    public void dedupeAtLeastHalvesRetainedStringsOnLargeOrderLists() {
+        String[] statuses = {"pending", "preparing", "out_for_delivery", "delivered"};
+        String[] fulfillment = {"Delivery", "Pickup"};
+        String[] sources = {"App", "Web", "Walk-in"};
+        String[] cities = {"Quezon City", "Makati", "Pasig", "Taguig", "Marikina"};
+        Random random = new Random(7);
+
+        for (int orders : new int[]{500, 5_000}) {
+            // Each field is a fresh copy, as the JSON parser produces them.
+            List<String> parsed = new ArrayList<>();
+            List<String> kept = new ArrayList<>();
+            StringDeduplicator strings = new StringDeduplicator();
+            int customers = orders / 4;
+            for (int i = 0; i < orders; i++) {
+                int customer = random.nextInt(customers);
+                String[] fields = {
+                        copy(statuses[random.nextInt(statuses.length)]),
+                        copy(fulfillment[random.nextInt(fulfillment.length)]),
+                        copy(sources[random.nextInt(sources.length)]),
+                        copy(String.format(Locale.US, "%d Mabini St., Brgy. %d, %s, Metro Manila",
+                                customer, customer % 40, cities[customer % cities.length]))
+                };
+                for (String field : fields) {
+                    parsed.add(field);
+                    kept.add(strings.dedupe(field));
+                }
+            }
+            long before = retainedBytes(parsed);
+            long after = retainedBytes(kept);
+            // Repeated statuses and repeat customers' addresses should at least halve it.
+            assertTrue(orders + " orders: " + before + " -> " + after + " bytes", after * 2 < before);
+            assertEquals(parsed, kept);
+        }
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    /**
+     * Rough retained size of the distinct instances: String object plus its Latin-1 byte array,
+     * both padded to 8 bytes, as on a 64-bit VM with compressed pointers.
+     */
+    private static long retainedBytes(List<String> values) {
+        Set<String> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(values);
+        long total = 0;
+        for (String value : distinct) {
+            total += 24 + align(16 + value.length());
+        }
+        return total;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.deliveryapp.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WarmUpClaimsTest {
+
+    private static final long MAX_AGE_MS = 120_000L;
+
+    @Test
+    public void nothingIsHandedOutBeforeTheFirstRun() {
+        WarmUpClaims claims = new WarmUpClaims(MAX_AGE_MS);
+
+        assertFalse(claims.isRecent(0L));
+        assertFalse(claims.claim(WarmUpPipeline.Node.SHIFTS, 0L));
+    }
+
+    @Test
+    public void eachNodeIsHandedOutOncePerRun() {
+        WarmUpClaims claims = new WarmUpClaims(MAX_AGE_MS);
+        claims.reset(1_000L);
+
+        assertTrue(claims.claim(WarmUpPipeline.Node.SHIFTS, 2_000L));
+        assertTrue(claims.claim(WarmUpPipeline.Node.ORDERS, 2_000L));
+        // A recreated status screen must load the schedule itself.
+        assertFalse(claims.claim(WarmUpPipeline.Node.SHIFTS, 3_000L));
+
+        claims.reset(4_000L);
+        assertTrue(claims.claim(WarmUpPipeline.Node.SHIFTS, 5_000L));
+    }
+
+    @Test
+    public void resultsAreStaleAfterAMutation() {
+        WarmUpClaims claims = new WarmUpClaims(MAX_AGE_MS);
+        claims.reset(1_000L);
+        assertTrue(claims.claim(WarmUpPipeline.Node.SHIFTS, 2_000L));
+
+        // The rider starts a shift before opening the deliveries screen.
+        claims.invalidate();
+
+        assertFalse(claims.isRecent(3_000L));
+        assertFalse(claims.claim(WarmUpPipeline.Node.ORDERS, 3_000L));
+        assertFalse(claims.claim(WarmUpPipeline.Node.SHIFTS, 3_000L));
+
+        claims.reset(4_000L);
+        assertTrue(claims.claim(WarmUpPipeline.Node.ORDERS, 5_000L));
+    }
+
+    @Test
+    public void resultsExpireAfterTheMaximumAge() {
+        WarmUpClaims claims = new WarmUpClaims(MAX_AGE_MS);
+        claims.reset(1_000L);
+
+        assertTrue(claims.isRecent(1_000L + MAX_AGE_MS));
+        assertFalse(claims.claim(WarmUpPipeline.Node.ORDERS, 1_001L + MAX_AGE_MS));
+    }
+}
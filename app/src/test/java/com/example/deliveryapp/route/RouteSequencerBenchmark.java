@@ -0,0 +1,49 @@
+package com.example.deliveryapp.route;
+
+import com.example.deliveryapp.Benchmarks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class RouteSequencerBenchmark {
+
+    private static final GeoPoint BAKESHOP = new GeoPoint(14.5995, 120.9842);
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void planTimeAgainstTheBudget() {
+        Random random = new Random(2024);
+        RouteSequencer sequencer = new RouteSequencer();
+        for (int warmUp = 0; warmUp < 200; warmUp++) {
+            sequencer.plan(BAKESHOP, RouteSequencerTest.randomStops(random, 10));
+        }
+
+        for (int stopCount : new int[]{6, 10, 15}) {
+            List<Long> elapsed = new ArrayList<>();
+            for (int run = 0; run < 200; run++) {
+                List<RouteStop> stops = RouteSequencerTest.randomStops(random, stopCount);
+                long started = System.nanoTime();
+                sequencer.plan(BAKESHOP, stops);
+                elapsed.add(System.nanoTime() - started);
+            }
+            long total = 0;
+            long slowest = 0;
+            for (long nanos : elapsed) {
+                total += nanos;
+                slowest = Math.max(slowest, nanos);
+            }
+            Benchmarks.report("RouteSequencer, %d stops: mean %.2f ms, slowest %.2f ms, budget %d ms",
+                    stopCount, total / 1e6 / elapsed.size(), slowest / 1e6,
+                    TimeUnit.NANOSECONDS.toMillis(RouteSequencer.DEFAULT_TIME_BUDGET_NANOS));
+        }
+    }
+}
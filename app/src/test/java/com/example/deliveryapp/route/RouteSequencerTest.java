@@ -0,0 +1,195 @@
+package com.example.deliveryapp.route;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RouteSequencerTest {
+
+    private static final GeoPoint BAKESHOP = new GeoPoint(14.5995, 120.9842);
+
+    @Test
+    public void plan_visitsEveryStopOnce() {
+        List<RouteStop> stops = randomStops(new Random(7), 9);
+
+        RoutePlan plan = new RouteSequencer().plan(BAKESHOP, stops);
+
+        assertEquals(stops.size(), plan.size());
+        Set<Integer> seen = new HashSet<>();
+        for (RouteStop stop : plan.getStops()) {
+            assertTrue("duplicate stop " + stop.getOrderId(), seen.add(stop.getOrderId()));
+        }
+    }
+
+    @Test
+    public void plan_ordersCollinearStopsByDistanceFromOrigin() {
+        List<RouteStop> stops = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            stops.add(new RouteStop(i, new GeoPoint(BAKESHOP.getLatitude() + i * 0.002, BAKESHOP.getLongitude())));
+        }
+        Collections.shuffle(stops, new Random(3));
+
+        RoutePlan plan = new RouteSequencer().plan(BAKESHOP, stops);
+
+        for (int i = 0; i < plan.size(); i++) {
+            assertEquals(i + 1, plan.getStops().get(i).getOrderId());
+        }
+    }
+
+    @Test
+    public void plan_withoutOriginStartsAtAnEnd() {
+        List<RouteStop> stops = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            stops.add(new RouteStop(i, new GeoPoint(BAKESHOP.getLatitude(), BAKESHOP.getLongitude() + i * 0.003)));
+        }
+        Collections.shuffle(stops, new Random(11));
+
+        RoutePlan plan = new RouteSequencer().plan(null, stops);
+
+        int first = plan.getStops().get(0).getOrderId();
+        assertTrue("path should start at an end of the line", first == 1 || first == 6);
+        GeoPoint westEnd = new GeoPoint(BAKESHOP.getLatitude(), BAKESHOP.getLongitude() + 0.003);
+        GeoPoint eastEnd = new GeoPoint(BAKESHOP.getLatitude(), BAKESHOP.getLongitude() + 0.018);
+        double span = westEnd.distanceTo(eastEnd);
+        assertEquals(span, plan.getTotalMeters(), 1.0);
+    }
+
+    @Test
+    public void plan_isNeverLongerThanNearestNeighbour() {
+        Random random = new Random(42);
+        RouteSequencer nearestNeighbourOnly = new RouteSequencer(0);
+        RouteSequencer improved = new RouteSequencer();
+        for (int run = 0; run < 50; run++) {
+            List<RouteStop> stops = randomStops(random, 10);
+            double baseline = nearestNeighbourOnly.plan(BAKESHOP, stops).getTotalMeters();
+            double optimized = improved.plan(BAKESHOP, stops).getTotalMeters();
+            assertTrue(optimized <= baseline + 1e-6);
+        }
+    }
+
+    @Test
+    public void plan_matchesBruteForceOptimumForSmallSets() {
+        Random random = new Random(5);
+        RouteSequencer sequencer = new RouteSequencer();
+        for (int run = 0; run < 20; run++) {
+            List<RouteStop> stops = randomStops(random, 7);
+            double optimum = bruteForce(BAKESHOP, stops);
+            double planned = sequencer.plan(BAKESHOP, stops).getTotalMeters();
+            assertTrue(String.format(Locale.US, "run %d: %.1f vs optimum %.1f", run, planned, optimum),
+                    planned <= optimum * 1.02 + 1e-6);
+        }
+    }
+
+    @Test
+    public void insert_keepsExistingStopsAndAddsNewOne() {
+        Random random = new Random(9);
+        RouteSequencer sequencer = new RouteSequencer();
+        RoutePlan plan = sequencer.plan(BAKESHOP, randomStops(random, 6));
+        RouteStop added = new RouteStop(99, randomPoint(random));
+
+        RoutePlan updated = sequencer.insert(plan, added);
+
+        assertEquals(plan.size() + 1, updated.size());
+        assertTrue(updated.indexOf(99) >= 0);
+        for (RouteStop stop : plan.getStops()) {
+            assertTrue(updated.indexOf(stop.getOrderId()) >= 0);
+        }
+    }
+
+    @Test
+    public void remove_dropsCompletedStopWithoutLengtheningRoute() {
+        Random random = new Random(13);
+        RouteSequencer sequencer = new RouteSequencer();
+        RoutePlan plan = sequencer.plan(BAKESHOP, randomStops(random, 8));
+        int completed = plan.getStops().get(2).getOrderId();
+
+        RoutePlan updated = sequencer.remove(plan, completed);
+
+        assertEquals(plan.size() - 1, updated.size());
+        assertEquals(-1, updated.indexOf(completed));
+        // Skipping a stop can only shorten the path (triangle inequality).
+        assertTrue(updated.getTotalMeters() <= plan.getTotalMeters() + 1e-6);
+    }
+
+    @Test
+    public void remove_unknownStopReturnsSamePlan() {
+        RouteSequencer sequencer = new RouteSequencer();
+        RoutePlan plan = sequencer.plan(BAKESHOP, randomStops(new Random(1), 4));
+
+        assertTrue(plan == sequencer.remove(plan, 12345));
+    }
+
+    @Test
+    public void plan_typicalRiderLoadsAreNeverLongerThanNearestNeighbour() {
+        Random random = new Random(2024);
+        RouteSequencer nearestNeighbourOnly = new RouteSequencer(0);
+        RouteSequencer sequencer = new RouteSequencer();
+        for (int stopCount : new int[]{6, 10, 15}) {
+            for (int run = 0; run < 50; run++) {
+                List<RouteStop> stops = randomStops(random, stopCount);
+                double baseline = nearestNeighbourOnly.plan(BAKESHOP, stops).getTotalMeters();
+                assertTrue(sequencer.plan(BAKESHOP, stops).getTotalMeters() <= baseline + 1e-6);
+            }
+        }
+    }
+
+    static List<RouteStop> randomStops(Random random, int count) {
+        List<RouteStop> stops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stops.add(new RouteStop(i + 1, randomPoint(random)));
+        }
+        return stops;
+    }
+
+    /** Returns a point within roughly 5 km of the bakeshop. */
+    private static GeoPoint randomPoint(Random random) {
+        return new GeoPoint(
+                BAKESHOP.getLatitude() + (random.nextDouble() - 0.5) * 0.09,
+                BAKESHOP.getLongitude() + (random.nextDouble() - 0.5) * 0.09
+        );
+    }
+
+    private static double bruteForce(GeoPoint origin, List<RouteStop> stops) {
+        int[] order = new int[stops.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        double[] best = {Double.POSITIVE_INFINITY};
+        permute(order, 0, origin, stops, best);
+        return best[0];
+    }
+
+    private static void permute(int[] order, int index, GeoPoint origin, List<RouteStop> stops, double[] best) {
+        if (index == order.length) {
+            double total = 0;
+            GeoPoint current = origin;
+            for (int i : order) {
+                GeoPoint next = stops.get(i).getLocation();
+                total += current.distanceTo(next);
+                current = next;
+            }
+            best[0] = Math.min(best[0], total);
+            return;
+        }
+        for (int i = index; i < order.length; i++) {
+            swap(order, index, i);
+            permute(order, index + 1, origin, stops, best);
+            swap(order, index, i);
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int swap = values[i];
+        values[i] = values[j];
+        values[j] = swap;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.deliveryapp.wallet;
+
+import com.example.deliveryapp.Benchmarks;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class EarningsLedgerBenchmark {
+
+    /** Monday, 1 September 2025. */
+    private static final long MONDAY = 20_332L;
+    private static final int SHIFT = 7;
+
+    @Before
+    public void setUp() {
+        Benchmarks.assumeEnabled();
+    }
+
+    @Test
+    public void readTimeAsOrdersAccumulate() throws Exception {
+        for (int orders : new int[]{500, 5_000, 50_000}) {
+            EarningsLedger ledger = new EarningsLedger(null);
+            for (int orderId = 1; orderId <= orders; orderId++) {
+                ledger.record(orderId, MONDAY + orderId % 28, SHIFT, 100L + orderId % 997);
+            }
+            double nanos = Benchmarks.nanosPerRun(100_000, () -> ledger.getLifetime().getOrderCount()
+                    + ledger.getWeek(MONDAY + 10).getOrderCount()
+                    + ledger.getShift(SHIFT).getOrderCount());
+            Benchmarks.report("EarningsLedger, %d orders: %.0f ns for a lifetime, week and shift read", orders, nanos);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.deliveryapp.wallet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EarningsLedgerTest {
+
+    /** Monday, 1 September 2025. */
+    private static final long MONDAY = 20_332L;
+    private static final int SHIFT = 7;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void epochDay_usesBranchZoneAndWeeksStartOnMonday() {
+        TimeZone manila = TimeZone.getTimeZone("Asia/Manila");
+        // 2025-09-01T00:30+08:00 is still 31 August in UTC.
+        long justAfterMidnight = 1_756_657_800_000L;
+        assertEquals(MONDAY, EarningsLedger.epochDay(justAfterMidnight, manila));
+        assertEquals(MONDAY - 1, EarningsLedger.epochDay(justAfterMidnight, TimeZone.getTimeZone("UTC")));
+        assertEquals(MONDAY, EarningsLedger.weekStart(MONDAY));
+        assertEquals(MONDAY, EarningsLedger.weekStart(MONDAY + 6));
+        assertEquals(MONDAY + 7, EarningsLedger.weekStart(MONDAY + 7));
+        assertEquals(MONDAY - 7, EarningsLedger.weekStart(MONDAY - 1));
+        assertEquals(-3L, EarningsLedger.weekStart(0L));
+    }
+
+    @Test
+    public void record_appliesOnlyTheDifference() {
+        EarningsLedger ledger = new EarningsLedger(null);
+        assertTrue(ledger.record(1, MONDAY, SHIFT, 100_00L));
+        assertTrue(ledger.record(2, MONDAY, SHIFT, 50_50L));
+        assertFalse(ledger.record(1, MONDAY, SHIFT, 100_00L));
+
+        assertTrue(ledger.record(1, MONDAY, SHIFT, 120_00L));
+        assertEquals(new EarningsLedger.Totals(2, 170_50L), ledger.getDay(MONDAY));
+        assertEquals(new EarningsLedger.Totals(2, 170_50L), ledger.getShift(SHIFT));
+        assertEquals(new EarningsLedger.Totals(2, 170_50L), ledger.getLifetime());
+
+        // A corrected date moves the order between days but not out of the week.
+        assertTrue(ledger.record(2, MONDAY + 2, SHIFT, 50_50L));
+        assertEquals(new EarningsLedger.Totals(1, 120_00L), ledger.getDay(MONDAY));
+        assertEquals(new EarningsLedger.Totals(1, 50_50L), ledger.getDay(MONDAY + 2));
+        assertEquals(new EarningsLedger.Totals(2, 170_50L), ledger.getWeek(MONDAY + 6));
+    }
+
+    @Test
+    public void remove_withdrawsCancelledOrders() {
+        EarningsLedger ledger = new EarningsLedger(null);
+        ledger.record(1, MONDAY, SHIFT, 100_00L);
+        ledger.record(2, MONDAY + 7, EarningsLedger.NO_SHIFT, 30_00L);
+
+        assertTrue(ledger.remove(1));
+        assertFalse(ledger.remove(1));
+        assertEquals(EarningsLedger.Totals.ZERO, ledger.getDay(MONDAY));
+        assertEquals(EarningsLedger.Totals.ZERO, ledger.getWeek(MONDAY));
+        assertEquals(EarningsLedger.Totals.ZERO, ledger.getShift(SHIFT));
+        assertEquals(new EarningsLedger.Totals(1, 30_00L), ledger.getWeek(MONDAY + 7));
+        assertEquals(new EarningsLedger.Totals(1, 30_00L), ledger.getLifetime());
+        assertEquals(EarningsLedger.Totals.ZERO, ledger.getShift(EarningsLedger.NO_SHIFT));
+    }
+
+    @Test
+    public void claim_startsOverForAnotherRider() {
+        EarningsLedger ledger = new EarningsLedger(null);
+        ledger.claim(5);
+        ledger.record(1, MONDAY, SHIFT, 100_00L);
+        ledger.claim(5);
+        assertEquals(new EarningsLedger.Totals(1, 100_00L), ledger.getLifetime());
+
+        ledger.claim(6);
+        assertEquals(EarningsLedger.Totals.ZERO, ledger.getLifetime());
+        assertFalse(ledger.contains(1));
+    }
+
+    @Test
+    public void forgetOrdersBefore_keepsTotalsAndIgnoresRepeats() {
+        EarningsLedger ledger = new EarningsLedger(null);
+        ledger.record(1, MONDAY, SHIFT, 100_00L);
+        ledger.record(2, MONDAY + 3, SHIFT, 40_00L);
+
+        ledger.forgetOrdersBefore(MONDAY + 1);
+        assertFalse(ledger.contains(1));
+        assertTrue(ledger.contains(2));
+        assertEquals(new EarningsLedger.Totals(2, 140_00L), ledger.getLifetime());
+
+        // Reported again after it was forgotten: already counted.
+        assertFalse(ledger.record(1, MONDAY, SHIFT, 100_00L));
+        assertEquals(new EarningsLedger.Totals(2, 140_00L), ledger.getLifetime());
+    }
+
+    @Test
+    public void saveAndLoad_roundTrip() throws IOException {
+        File file = new File(folder.getRoot(), "ledger.bin");
+        EarningsLedger ledger = new EarningsLedger(file);
+        ledger.claim(5);
+        ledger.record(1, MONDAY, SHIFT, 100_00L);
+        ledger.record(2, MONDAY + 8, EarningsLedger.NO_SHIFT, 25_75L);
+        ledger.forgetOrdersBefore(MONDAY - 30);
+        ledger.save();
+
+        EarningsLedger reloaded = new EarningsLedger(file);
+        reloaded.load();
+        assertEquals(5, reloaded.getOwnerUserId());
+        assertEquals(ledger.getLifetime(), reloaded.getLifetime());
+        assertEquals(ledger.getDay(MONDAY), reloaded.getDay(MONDAY));
+        assertEquals(ledger.getWeek(MONDAY + 8), reloaded.getWeek(MONDAY + 8));
+        assertEquals(ledger.getShift(SHIFT), reloaded.getShift(SHIFT));
+        assertEquals(SHIFT, reloaded.getShiftOf(1));
+        assertFalse(reloaded.record(1, MONDAY, SHIFT, 100_00L));
+        assertFalse(reloaded.record(9, MONDAY - 31, SHIFT, 1_00L));
+    }
+
+    @Test
+    public void load_discardsCorruptFile() throws IOException {
+        File file = new File(folder.getRoot(), "ledger.bin");
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[]{1, 2, 3});
+        }
+        EarningsLedger ledger = new EarningsLedger(file);
+        ledger.load();
+        assertEquals(EarningsLedger.Totals.ZERO, ledger.getLifetime());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void readsLookUpStoredTotalsAsOrdersAccumulate() {
+        EarningsLedger ledger = new EarningsLedger(null);
+        long expected = 0L;
+        for (int orderId = 1; orderId <= 50_000; orderId++) {
+            long amount = 100L + orderId % 997;
+            ledger.record(orderId, MONDAY + orderId % 28, SHIFT, amount);
+            expected += amount;
+        }
+        // 28 days over 4 weeks and one shift: the totals do not grow with the number of orders.
+        assertEquals(28 + 4 + 1, ledger.getBucketCount());
+        // Reads hand out the stored running sums instead of adding anything up.
+        assertSame(ledger.getLifetime(), ledger.getLifetime());
+        assertSame(ledger.getWeek(MONDAY), ledger.getWeek(MONDAY + 6));
+        assertSame(ledger.getShift(SHIFT), ledger.getShift(SHIFT));
+        assertEquals(new EarningsLedger.Totals(50_000, expected), ledger.getLifetime());
+        assertEquals(new EarningsLedger.Totals(50_000, expected), ledger.getShift(SHIFT));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.deliveryapp.wallet;
+
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class MoneyTest {
+
+    @Test
+    public void toMinorUnits_isExactForServerAmounts() {
+        assertEquals(30L, Money.toMinorUnits(0.1 + 0.2));
+        assertEquals(119_99L, Money.toMinorUnits(119.99));
+        assertEquals(1_000_000_01L, Money.toMinorUnits(1_000_000.01));
+        assertEquals(-250L, Money.toMinorUnits(-2.5));
+    }
+
+    @Test
+    public void toMinorUnits_roundsHalfUpAndTreatsNonFiniteAsZero() {
+        assertEquals(900_01L, Money.toMinorUnits(900.005));
+        assertEquals(900_00L, Money.toMinorUnits(900.004));
+        assertEquals(0L, Money.toMinorUnits(Double.NaN));
+        assertEquals(0L, Money.toMinorUnits(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void sumOfMinorUnitsStaysExact() {
+        long total = 0L;
+        double naive = 0.0;
+        for (int i = 0; i < 10_000; i++) {
+            total += Money.toMinorUnits(0.1);
+            naive += 0.1;
+        }
+        assertEquals(1_000_00L, total);
+        // The double sum drifts; the minor-unit sum does not.
+        assertEquals(false, naive == 1_000.0);
+        assertEquals(1_000.0, Money.toMajorUnits(total), 0.0);
+    }
+
+    @Test
+    public void format_usesCurrencyFormatWithoutDoubleRounding() {
+        NumberFormat format = NumberFormat.getNumberInstance(Locale.US);
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        assertEquals("1,234.05", Money.format(1_234_05L, format));
+        assertEquals("0.00", Money.format(0L, format));
+    }
+}